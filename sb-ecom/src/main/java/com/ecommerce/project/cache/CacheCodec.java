@@ -0,0 +1,37 @@
+package com.ecommerce.project.cache;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+
+// Hand-written binary layout for one cached type, used by CompactCacheSerializer.
+// Bump version() whenever the layout changes: entries written by another version then read as
+// cache misses and get rewritten, instead of failing like a changed Serializable class does.
+public interface CacheCodec<T> {
+	Class<T> type();
+	
+	int version();
+	
+	// For codecs of a generic type: whether this value's contents fit the layout; if not,
+	// the serializer falls back to JDK serialization for it
+	default boolean supports(T value) {
+		return true;
+	}
+	
+	void write(T value, CompactOutput out);
+	
+	T read(CompactInput in);
+	
+	// Called by each DTO codec on construction: a field added to the DTO but not to the codec
+	// fails at startup instead of silently dropping out of every cached value
+	static void requireFieldCount(Class<?> type, int written) {
+		long declared = Arrays.stream(type.getDeclaredFields())
+				.map(Field::getModifiers)
+				.filter(modifiers -> !Modifier.isStatic(modifiers))
+				.count();
+		if(declared != written) {
+			throw new IllegalStateException(type.getSimpleName() + " has " + declared
+					+ " fields but its cache codec writes " + written + ": update the codec and bump its version");
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.project.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Entry lifetime of one cache: the base TTL, varied by up to +/- jitter (a fraction) per write so
+// entries filled together don't all expire together.
+public record CachePolicy(Duration ttl, double jitter) {
+	public Duration nextTtl() {
+		if(jitter <= 0) {
+			return ttl;
+		}
+		double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+		return Duration.ofMillis(Math.max(1, Math.round(ttl.toMillis() * factor)));
+	}
+
+	// Upper bound of nextTtl()
+	public Duration maxTtl() {
+		return Duration.ofMillis(Math.round(ttl.toMillis() * (1 + Math.max(0, jitter))));
+	}
+}
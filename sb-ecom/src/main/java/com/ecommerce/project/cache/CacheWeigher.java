@@ -0,0 +1,59 @@
+package com.ecommerce.project.cache;
+
+import java.util.Collection;
+
+import org.springframework.data.domain.Page;
+
+import com.ecommerce.project.dto.CategoryResponseDTO;
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.dto.ProductStockDTO;
+
+// Rough size in bytes of a cached value, for the L1 weigher: strings by length plus a fixed cost per
+// object. Cheap enough for every L1 insert, unlike encoding the value; only the proportions matter.
+public final class CacheWeigher {
+	private static final int OTHER = 256;
+
+	private CacheWeigher() {
+	}
+
+	public static int weigh(Object value) {
+		if(value == null) {
+			return 0;
+		}
+		if(value instanceof StampedValue stamped) {
+			return 24 + weigh(stamped.value());
+		}
+		if(value instanceof ProductResponseDTO product) {
+			return 64 + length(product.getProductName()) + length(product.getDescription())
+					+ length(product.getImageUrl()) + length(product.getCategoryName());
+		}
+		if(value instanceof CategoryResponseDTO category) {
+			return 16 + length(category.getCategoryName()) + length(category.getDescription());
+		}
+		if(value instanceof ProductStockDTO) {
+			return 16;
+		}
+		if(value instanceof Page<?> page) {
+			return 32 + weighAll(page.getContent());
+		}
+		if(value instanceof Collection<?> values) {
+			return 8 + weighAll(values);
+		}
+		if(value instanceof CharSequence text) {
+			return text.length();
+		}
+		return OTHER;
+	}
+
+	private static int weighAll(Collection<?> values) {
+		int weight = 0;
+		for(Object value: values) {
+			weight += weigh(value);
+		}
+		return weight;
+	}
+
+	private static int length(String text) {
+		return text == null ? 0 : text.length();
+	}
+}
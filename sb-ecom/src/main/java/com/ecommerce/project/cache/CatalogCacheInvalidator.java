@@ -0,0 +1,134 @@
+package com.ecommerce.project.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ecommerce.project.dto.ProductStockDTO;
+import com.ecommerce.project.event.CategoryChangeEvent;
+import com.ecommerce.project.event.ProductChangeEvent;
+import com.ecommerce.project.repository.ProductRepository;
+
+// Applies committed catalog changes to the caches key by key, instead of the services clearing
+// whole caches: a product edit drops that product's entry and only the lists containing it
+// (its category before and after a move, and allProducts), and the cached pages by category tag.
+// Edits evict rather than write the event's product: listeners of two commits to one product can
+// run in either order, and the older write would win for the whole TTL.
+// Stock has its own entry per product, rewritten on every stock change, so orders leave the
+// product details cached.
+// Redis is shared and the other nodes' L1s are invalidated over pub/sub, so events relayed from
+// another node are ignored here. A failed cache call is logged and left to the entry TTL, since
+// the change itself is already committed.
+@Component
+public class CatalogCacheInvalidator {
+	private static final Logger log = LoggerFactory.getLogger(CatalogCacheInvalidator.class);
+
+	static final String PRODUCTS = "products";
+	static final String PRODUCT_STOCK = "productStock";
+	static final String PRODUCTS_BY_CATEGORY = "productsByCategory";
+	static final String ALL_PRODUCTS = "allProducts";
+	static final String ALL_CATEGORIES = "allCategories";
+	static final String PRODUCT_PAGES = "productPages";
+
+	private final CacheManager cacheManager;
+	private final ProductRepository productRepo;
+
+	public CatalogCacheInvalidator(CacheManager cacheManager, ProductRepository productRepo) {
+		this.cacheManager = cacheManager;
+		this.productRepo = productRepo;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChange(ProductChangeEvent event) {
+		if(event.remote()) {
+			return;
+		}
+		try {
+			switch(event.type()) {
+				case CREATED, UPDATED -> {
+					cache(PRODUCTS).evict(event.productId());
+					cache(PRODUCT_STOCK).evict(event.productId());
+					Long categoryId = event.product().getCategoryId();
+					cache(PRODUCTS_BY_CATEGORY).evict(categoryId);
+					// Moved: the old category's list still has it
+					if(event.previousCategoryId() != null && !event.previousCategoryId().equals(categoryId)) {
+						cache(PRODUCTS_BY_CATEGORY).evict(event.previousCategoryId());
+						evictPages(event.previousCategoryId());
+					}
+					cache(ALL_PRODUCTS).evict(SimpleKey.EMPTY);
+					evictPages(categoryId);
+				}
+				case DELETED -> {
+					cache(PRODUCTS).evict(event.productId());
+					cache(PRODUCT_STOCK).evict(event.productId());
+					cache(PRODUCTS_BY_CATEGORY).evict(event.previousCategoryId());
+					cache(ALL_PRODUCTS).evict(SimpleKey.EMPTY);
+					evictPages(event.previousCategoryId());
+				}
+				// Only the stock entry; lists keep their stock figures until the TTL
+				case STOCK_CHANGED -> putStock(event.productId(), event.stockQuantity());
+			}
+		} catch(RuntimeException ex) {
+			log.warn("Could not update caches for product {}: {}", event.productId(), ex.getMessage());
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChange(CategoryChangeEvent event) {
+		if(event.remote()) {
+			return;
+		}
+		try {
+			cache(ALL_CATEGORIES).evict(SimpleKey.EMPTY);
+			switch(event.type()) {
+				// No products yet
+				case CREATED -> { }
+				// Product entries carry the category name
+				case UPDATED -> {
+					for(Long productId: productRepo.findIdsByCategoryId(event.categoryId())) {
+						cache(PRODUCTS).evict(productId);
+					}
+					cache(PRODUCTS_BY_CATEGORY).evict(event.categoryId());
+					cache(ALL_PRODUCTS).evict(SimpleKey.EMPTY);
+					evictPages(event.categoryId());
+				}
+				// Its products were deleted with it; the event lists them
+				case DELETED -> {
+					for(Long productId: event.productIds()) {
+						cache(PRODUCTS).evict(productId);
+						cache(PRODUCT_STOCK).evict(productId);
+					}
+					cache(PRODUCTS_BY_CATEGORY).evict(event.categoryId());
+					cache(ALL_PRODUCTS).evict(SimpleKey.EMPTY);
+					evictPages(event.categoryId());
+				}
+			}
+		} catch(RuntimeException ex) {
+			log.warn("Could not update caches for category {}: {}", event.categoryId(), ex.getMessage());
+		}
+	}
+
+	// Two commits' events can arrive in either order; the short TTL of the stock cache bounds a stale put
+	private void putStock(Long productId, Integer stockQuantity) {
+		cache(PRODUCT_STOCK).put(productId, new ProductStockDTO(productId, stockQuantity));
+	}
+
+	// The category's pages and the whole-catalog pages, which list its products too
+	private void evictPages(Long categoryId) {
+		Cache pages = cache(PRODUCT_PAGES);
+		if(pages instanceof TaggableCache tagged) {
+			tagged.evictTag(ProductPageKey.categoryTag(categoryId));
+			tagged.evictTag(ProductPageKey.ALL);
+		} else {
+			pages.clear();
+		}
+	}
+
+	private Cache cache(String name) {
+		return cacheManager.getCache(name);
+	}
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.project.cache;
+
+import com.ecommerce.project.dto.CategoryResponseDTO;
+
+// Fields in declaration order
+public class CategoryCacheCodec implements CacheCodec<CategoryResponseDTO> {
+	private static final int FIELDS = 3;
+	
+	public CategoryCacheCodec() {
+		CacheCodec.requireFieldCount(CategoryResponseDTO.class, FIELDS);
+	}
+	
+	@Override
+	public Class<CategoryResponseDTO> type() {
+		return CategoryResponseDTO.class;
+	}
+	
+	// 2: the id is written with a null marker, like the other codecs' ids
+	@Override
+	public int version() {
+		return 2;
+	}
+	
+	@Override
+	public void write(CategoryResponseDTO category, CompactOutput out) {
+		out.writeLong(category.getCategoryId());
+		out.writeString(category.getCategoryName());
+		out.writeString(category.getDescription());
+	}
+	
+	@Override
+	public CategoryResponseDTO read(CompactInput in) {
+		return new CategoryResponseDTO(
+			in.readLong(),
+			in.readString(),
+			in.readString()
+		);
+	}
+}
@@ -0,0 +1,245 @@
+package com.ecommerce.project.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+// Redis cache value serializer. A value, or a list of values, of a registered type is written with
+// that type's CacheCodec; anything else falls back to JDK serialization inside the same envelope.
+// Bodies larger than deflateAbove bytes are deflated when that actually makes them smaller.
+//
+// Layout: MAGIC, flags, [inflated length if DEFLATED], body
+// Body:   JDK, serialized bytes
+//         VALUE, type id, codec version, value
+//         LIST, type id, codec version, count, values (type id 0 = empty list, nothing follows)
+//         STAMPED, expires at, compute millis, body of the wrapped value
+//
+// Entries that don't start with MAGIC (written by the JDK serializer before) or carry another codec
+// version deserialize to null, which the cache treats as a miss and overwrites.
+public class CompactCacheSerializer implements RedisSerializer<Object> {
+	// Never the first byte of a JDK serialization stream (0xAC)
+	private static final int MAGIC = 0xC5;
+	private static final int HEADER = 2;
+	private static final int DEFLATED = 1;
+	
+	private static final int JDK = 0;
+	private static final int VALUE = 1;
+	private static final int LIST = 2;
+	private static final int STAMPED = 3;
+	private static final int EMPTY_LIST = 0;
+	
+	private final int deflateAbove;
+	private final Map<Integer, CacheCodec<?>> codecsById = new HashMap<>();
+	private final Map<Class<?>, Integer> idsByType = new HashMap<>();
+	private final JdkSerializationRedisSerializer fallback = new JdkSerializationRedisSerializer();
+	
+	// A negative deflateAbove turns compression off
+	public CompactCacheSerializer(int deflateAbove) {
+		this.deflateAbove = deflateAbove;
+	}
+	
+	// Type ids are stored with the entries: never give an id to another type once it has been used
+	public CompactCacheSerializer register(int typeId, CacheCodec<?> codec) {
+		if(typeId < 1 || typeId > 255 || codecsById.containsKey(typeId)) {
+			throw new IllegalArgumentException("Invalid or duplicate cache codec type id " + typeId);
+		}
+		codecsById.put(typeId, codec);
+		idsByType.put(codec.type(), typeId);
+		return this;
+	}
+	
+	@Override
+	public byte[] serialize(Object value) {
+		if(value == null) {
+			return new byte[0];
+		}
+		CompactOutput out = new CompactOutput(256);
+		out.writeByte(MAGIC);
+		out.writeByte(0);
+		writeBody(value, out);
+		
+		if(deflateAbove >= 0 && out.size() - HEADER > deflateAbove) {
+			return deflate(out);
+		}
+		return out.toByteArray();
+	}
+	
+	@Override
+	public Object deserialize(byte[] bytes) {
+		if(bytes == null || bytes.length == 0) {
+			return null;
+		}
+		if((bytes[0] & 0xFF) != MAGIC) {
+			return null;
+		}
+		try {
+			CompactInput in = new CompactInput(bytes, 1, bytes.length);
+			if((in.readByte() & DEFLATED) != 0) {
+				in = inflate(bytes, in);
+			}
+			return readBody(in);
+		} catch(DataFormatException | RuntimeException e) {
+			throw new SerializationException("Corrupt cache entry", e);
+		}
+	}
+	
+	private void writeBody(Object value, CompactOutput out) {
+		if(value instanceof StampedValue stamped) {
+			out.writeByte(STAMPED);
+			out.writeVarLong(stamped.expiresAt());
+			out.writeVarLong(stamped.computeMillis());
+			writeBody(stamped.value(), out);
+			return;
+		}
+		if(value instanceof List<?> list) {
+			if(list.isEmpty()) {
+				out.writeByte(LIST);
+				out.writeByte(EMPTY_LIST);
+				return;
+			}
+			Integer typeId = elementTypeId(list);
+			if(typeId != null) {
+				CacheCodec<Object> codec = erased(codecsById.get(typeId));
+				out.writeByte(LIST);
+				out.writeByte(typeId);
+				out.writeVarLong(codec.version());
+				out.writeVarLong(list.size());
+				for(Object element: list) {
+					codec.write(element, out);
+				}
+				return;
+			}
+		} else {
+			Integer typeId = idsByType.get(value.getClass());
+			CacheCodec<Object> codec = typeId != null ? erased(codecsById.get(typeId)) : null;
+			if(codec != null && codec.supports(value)) {
+				out.writeByte(VALUE);
+				out.writeByte(typeId);
+				out.writeVarLong(codec.version());
+				codec.write(value, out);
+				return;
+			}
+		}
+		byte[] serialized = fallback.serialize(value);
+		out.writeByte(JDK);
+		out.writeBytes(serialized, 0, serialized.length);
+	}
+	
+	private Object readBody(CompactInput in) {
+		int kind = in.readByte();
+		if(kind == JDK) {
+			return fallback.deserialize(in.readRemaining());
+		}
+		if(kind == STAMPED) {
+			long expiresAt = in.readVarLong();
+			long computeMillis = in.readVarLong();
+			Object value = readBody(in);
+			return value != null ? new StampedValue(value, expiresAt, computeMillis) : null;
+		}
+		
+		int typeId = in.readByte();
+		if(kind == LIST && typeId == EMPTY_LIST) {
+			return new ArrayList<>();
+		}
+		CacheCodec<Object> codec = erased(codecsById.get(typeId));
+		if(codec == null || codec.version() != in.readVarLong()) {
+			// Written with a layout this node doesn't know
+			return null;
+		}
+		if(kind == VALUE) {
+			return codec.read(in);
+		}
+		
+		int count = Math.toIntExact(in.readVarLong());
+		List<Object> list = new ArrayList<>(count);
+		for(int i = 0; i < count; i++) {
+			list.add(codec.read(in));
+		}
+		return list;
+	}
+	
+	// The id when every element has the same registered type and its codec supports them all
+	private Integer elementTypeId(List<?> list) {
+		Object first = list.get(0);
+		if(first == null) {
+			return null;
+		}
+		Class<?> type = first.getClass();
+		for(Object element: list) {
+			if(element == null || element.getClass() != type) {
+				return null;
+			}
+		}
+		Integer typeId = idsByType.get(type);
+		if(typeId == null) {
+			return null;
+		}
+		CacheCodec<Object> codec = erased(codecsById.get(typeId));
+		for(Object element: list) {
+			if(!codec.supports(element)) {
+				return null;
+			}
+		}
+		return typeId;
+	}
+	
+	// Kept only when smaller than the plain body
+	private byte[] deflate(CompactOutput plain) {
+		int bodyLength = plain.size() - HEADER;
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(plain.buffer(), HEADER, bodyLength);
+			deflater.finish();
+			
+			CompactOutput out = new CompactOutput(bodyLength / 2 + 16);
+			out.writeByte(MAGIC);
+			out.writeByte(DEFLATED);
+			out.writeVarLong(bodyLength);
+			byte[] chunk = new byte[Math.min(bodyLength, 8192)];
+			while(!deflater.finished()) {
+				int n = deflater.deflate(chunk);
+				out.writeBytes(chunk, 0, n);
+				if(out.size() >= plain.size()) {
+					return plain.toByteArray();
+				}
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+	
+	private static CompactInput inflate(byte[] bytes, CompactInput header) throws DataFormatException {
+		int length = Math.toIntExact(header.readVarLong());
+		int offset = header.position();
+		byte[] body = new byte[length];
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(bytes, offset, bytes.length - offset);
+			int n = 0;
+			while(n < length && !inflater.finished()) {
+				int read = inflater.inflate(body, n, length - n);
+				if(read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new DataFormatException("Truncated deflated cache entry");
+				}
+				n += read;
+			}
+			return new CompactInput(body, 0, n);
+		} finally {
+			inflater.end();
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static CacheCodec<Object> erased(CacheCodec<?> codec) {
+		return (CacheCodec<Object>) codec;
+	}
+}
@@ -0,0 +1,110 @@
+package com.ecommerce.project.cache;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+// Reads what CompactOutput writes. Truncated input fails with an IndexOutOfBoundsException,
+// which CompactCacheSerializer reports as a corrupt entry.
+public final class CompactInput {
+	private final byte[] buf;
+	private final int limit;
+	private int pos;
+	
+	public CompactInput(byte[] buf, int offset, int limit) {
+		this.buf = buf;
+		this.pos = offset;
+		this.limit = limit;
+	}
+	
+	public int readByte() {
+		if(pos >= limit) {
+			throw new IndexOutOfBoundsException("Read past the end of the cache entry");
+		}
+		return buf[pos++] & 0xFF;
+	}
+	
+	public long readVarLong() {
+		long value = 0;
+		for(int shift = 0; shift < 64; shift += 7) {
+			int b = readByte();
+			value |= (long) (b & 0x7F) << shift;
+			if((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalStateException("Malformed varint");
+	}
+	
+	public long readSignedVarLong() {
+		long raw = readVarLong();
+		return (raw >>> 1) ^ -(raw & 1);
+	}
+	
+	public Long readLong() {
+		return readByte() == 0 ? null : readSignedVarLong();
+	}
+	
+	public Integer readInteger() {
+		Long value = readLong();
+		return value == null ? null : Math.toIntExact(value);
+	}
+	
+	public Boolean readBoolean() {
+		int value = readByte();
+		return value == 0 ? null : value == 2;
+	}
+	
+	public String readString() {
+		int length = Math.toIntExact(readVarLong()) - 1;
+		if(length < 0) {
+			return null;
+		}
+		return new String(buf, take(length), length, StandardCharsets.UTF_8);
+	}
+	
+	public BigDecimal readDecimal() {
+		int marker = readByte();
+		if(marker == 0) {
+			return null;
+		}
+		int scale = Math.toIntExact(readSignedVarLong());
+		if(marker == 1) {
+			return BigDecimal.valueOf(readSignedVarLong(), scale);
+		}
+		int length = Math.toIntExact(readVarLong());
+		int start = take(length);
+		return new BigDecimal(new BigInteger(Arrays.copyOfRange(buf, start, start + length)), scale);
+	}
+	
+	public LocalDateTime readDateTime() {
+		if(readByte() == 0) {
+			return null;
+		}
+		long seconds = readSignedVarLong();
+		int nanos = Math.toIntExact(readVarLong());
+		return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+	}
+	
+	public int position() {
+		return pos;
+	}
+	
+	public byte[] readRemaining() {
+		int start = take(limit - pos);
+		return Arrays.copyOfRange(buf, start, limit);
+	}
+	
+	// Advance past length bytes; returns where they start
+	private int take(int length) {
+		if(length > limit - pos) {
+			throw new IndexOutOfBoundsException("Read past the end of the cache entry");
+		}
+		int start = pos;
+		pos += length;
+		return start;
+	}
+}
@@ -0,0 +1,121 @@
+package com.ecommerce.project.cache;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+// Growable byte buffer with the primitive encodings the cache codecs use: unsigned LEB128 varints,
+// zig-zag for signed values, and a leading marker (or length + 1) where a value may be null.
+public final class CompactOutput {
+	private byte[] buf;
+	private int size;
+	
+	public CompactOutput(int capacity) {
+		buf = new byte[Math.max(capacity, 16)];
+	}
+	
+	public void writeByte(int value) {
+		ensure(1);
+		buf[size++] = (byte) value;
+	}
+	
+	public void writeBytes(byte[] bytes, int offset, int length) {
+		ensure(length);
+		System.arraycopy(bytes, offset, buf, size, length);
+		size += length;
+	}
+	
+	public void writeVarLong(long value) {
+		ensure(10);
+		while((value & ~0x7FL) != 0) {
+			buf[size++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buf[size++] = (byte) value;
+	}
+	
+	public void writeSignedVarLong(long value) {
+		writeVarLong((value << 1) ^ (value >> 63));
+	}
+	
+	public void writeLong(Long value) {
+		if(value == null) {
+			writeByte(0);
+		} else {
+			writeByte(1);
+			writeSignedVarLong(value);
+		}
+	}
+	
+	public void writeInteger(Integer value) {
+		writeLong(value == null ? null : value.longValue());
+	}
+	
+	// 0 null, 1 false, 2 true
+	public void writeBoolean(Boolean value) {
+		writeByte(value == null ? 0 : value ? 2 : 1);
+	}
+	
+	// UTF-8 bytes prefixed by length + 1; 0 means null
+	public void writeString(String value) {
+		if(value == null) {
+			writeVarLong(0);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(bytes.length + 1L);
+		writeBytes(bytes, 0, bytes.length);
+	}
+	
+	// Scale, then the unscaled value as a varint when it fits in a long (prices always do)
+	public void writeDecimal(BigDecimal value) {
+		if(value == null) {
+			writeByte(0);
+			return;
+		}
+		BigInteger unscaled = value.unscaledValue();
+		if(unscaled.bitLength() < 64) {
+			writeByte(1);
+			writeSignedVarLong(value.scale());
+			writeSignedVarLong(unscaled.longValue());
+		} else {
+			byte[] bytes = unscaled.toByteArray();
+			writeByte(2);
+			writeSignedVarLong(value.scale());
+			writeVarLong(bytes.length);
+			writeBytes(bytes, 0, bytes.length);
+		}
+	}
+	
+	// Epoch seconds (as UTC) and nanos
+	public void writeDateTime(LocalDateTime value) {
+		if(value == null) {
+			writeByte(0);
+			return;
+		}
+		writeByte(1);
+		writeSignedVarLong(value.toEpochSecond(ZoneOffset.UTC));
+		writeVarLong(value.getNano());
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	byte[] buffer() {
+		return buf;
+	}
+	
+	public byte[] toByteArray() {
+		return Arrays.copyOf(buf, size);
+	}
+	
+	private void ensure(int extra) {
+		if(size + extra > buf.length) {
+			buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+		}
+	}
+}
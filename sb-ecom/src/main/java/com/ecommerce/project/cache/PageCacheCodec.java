@@ -0,0 +1,74 @@
+package com.ecommerce.project.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.ecommerce.project.dto.ProductResponseDTO;
+
+// A page of products: page request (number, size, sort orders), total, then the products.
+// Registered for PageImpl as a whole, so pages of anything else are left to the fallback.
+public class PageCacheCodec implements CacheCodec<PageImpl<ProductResponseDTO>> {
+	private final ProductCacheCodec products = new ProductCacheCodec();
+
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public Class<PageImpl<ProductResponseDTO>> type() {
+		return (Class) PageImpl.class;
+	}
+
+	// Embeds ProductCacheCodec's layout: bump this too when that changes
+	@Override
+	public int version() {
+		return 1;
+	}
+
+	@Override
+	public boolean supports(PageImpl<ProductResponseDTO> page) {
+		for(Object element: page.getContent()) {
+			if(element == null || element.getClass() != ProductResponseDTO.class) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	@Override
+	public void write(PageImpl<ProductResponseDTO> page, CompactOutput out) {
+		out.writeVarLong(page.getNumber());
+		out.writeVarLong(page.getSize());
+		List<Sort.Order> orders = page.getSort().toList();
+		out.writeVarLong(orders.size());
+		for(Sort.Order order: orders) {
+			out.writeString(order.getProperty());
+			out.writeBoolean(order.isAscending());
+		}
+		out.writeVarLong(page.getTotalElements());
+		out.writeVarLong(page.getNumberOfElements());
+		for(ProductResponseDTO product: page.getContent()) {
+			products.write(product, out);
+		}
+	}
+
+	@Override
+	public PageImpl<ProductResponseDTO> read(CompactInput in) {
+		int number = Math.toIntExact(in.readVarLong());
+		int size = Math.toIntExact(in.readVarLong());
+		int orderCount = Math.toIntExact(in.readVarLong());
+		List<Sort.Order> orders = new ArrayList<>(orderCount);
+		for(int i = 0; i < orderCount; i++) {
+			String property = in.readString();
+			orders.add(in.readBoolean() ? Sort.Order.asc(property) : Sort.Order.desc(property));
+		}
+		long total = in.readVarLong();
+		int count = Math.toIntExact(in.readVarLong());
+		List<ProductResponseDTO> content = new ArrayList<>(count);
+		for(int i = 0; i < count; i++) {
+			content.add(products.read(in));
+		}
+		return new PageImpl<>(content, PageRequest.of(number, size, Sort.by(orders)), total);
+	}
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.project.cache;
+
+import com.ecommerce.project.dto.ProductResponseDTO;
+
+// Fields in declaration order
+public class ProductCacheCodec implements CacheCodec<ProductResponseDTO> {
+	private static final int FIELDS = 11;
+	
+	public ProductCacheCodec() {
+		CacheCodec.requireFieldCount(ProductResponseDTO.class, FIELDS);
+	}
+	
+	@Override
+	public Class<ProductResponseDTO> type() {
+		return ProductResponseDTO.class;
+	}
+	
+	@Override
+	public int version() {
+		return 1;
+	}
+	
+	@Override
+	public void write(ProductResponseDTO product, CompactOutput out) {
+		out.writeLong(product.getProductId());
+		out.writeString(product.getProductName());
+		out.writeString(product.getDescription());
+		out.writeDecimal(product.getPrice());
+		out.writeInteger(product.getStockQuantity());
+		out.writeString(product.getImageUrl());
+		out.writeBoolean(product.getActive());
+		out.writeLong(product.getCategoryId());
+		out.writeString(product.getCategoryName());
+		out.writeDateTime(product.getCreatedAt());
+		out.writeDateTime(product.getUpdatedAt());
+	}
+	
+	@Override
+	public ProductResponseDTO read(CompactInput in) {
+		return new ProductResponseDTO(
+			in.readLong(),
+			in.readString(),
+			in.readString(),
+			in.readDecimal(),
+			in.readInteger(),
+			in.readString(),
+			in.readBoolean(),
+			in.readLong(),
+			in.readString(),
+			in.readDateTime(),
+			in.readDateTime()
+		);
+	}
+}
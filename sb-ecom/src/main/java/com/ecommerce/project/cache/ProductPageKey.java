@@ -0,0 +1,21 @@
+package com.ecommerce.project.cache;
+
+// One cached catalog page: a category's pages (or the whole catalog's, categoryId null) share a tag.
+// sort is "<property>:<asc|desc>".
+public record ProductPageKey(Long categoryId, int page, int size, String sort) implements TaggedCacheKey {
+	public static final String ALL = "all";
+
+	public static String categoryTag(Long categoryId) {
+		return "category:" + categoryId;
+	}
+
+	@Override
+	public String tag() {
+		return categoryId == null ? ALL : categoryTag(categoryId);
+	}
+
+	@Override
+	public String toString() {
+		return tag() + "|" + page + "|" + size + "|" + sort;
+	}
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.project.cache;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.project.catalog.CatalogFilter;
+
+// Key and condition for the productPages cache (referenced as @productPageKeys from @Cacheable).
+// Only the storefront's common pages are cached: unfiltered, within the first pages, of a usual
+// size and with one of the configured sorts. Everything else goes to the catalog directly, so
+// crawlers paging deep or odd sort combinations can't fill the cache with entries nobody reuses.
+@Component("productPageKeys")
+public class ProductPageKeys {
+	private final int maxPage;
+	private final int maxSize;
+	private final Set<String> sorts;
+
+	public ProductPageKeys(
+			@Value("${cache.product-pages.max-page:4}") int maxPage,
+			@Value("${cache.product-pages.max-size:50}") int maxSize,
+			@Value("${cache.product-pages.sorts:productId:asc,productName:asc,price:asc,price:desc,createdAt:desc}") String sorts) {
+		this.maxPage = maxPage;
+		this.maxSize = maxSize;
+		this.sorts = Arrays.stream(sorts.split(","))
+				.map(String::trim)
+				.filter(sort -> !sort.isEmpty())
+				.collect(Collectors.toUnmodifiableSet());
+	}
+
+	public boolean cacheable(CatalogFilter filter, Pageable pageable) {
+		return filter.isEmpty()
+				&& pageable.isPaged()
+				&& pageable.getPageNumber() <= maxPage
+				&& pageable.getPageSize() <= maxSize
+				&& sorts.contains(sort(pageable.getSort()));
+	}
+
+	public ProductPageKey key(Long categoryId, Pageable pageable) {
+		return new ProductPageKey(categoryId, pageable.getPageNumber(), pageable.getPageSize(), sort(pageable.getSort()));
+	}
+
+	// Unsorted pages come out in productId order, the same entry as an explicit productId:asc;
+	// a multi-field sort matches nothing configured
+	private static String sort(Sort sort) {
+		if(sort.isUnsorted()) {
+			return "productId:asc";
+		}
+		return sort.stream()
+				.map(order -> order.getProperty() + ":" + order.getDirection().name().toLowerCase(Locale.ROOT))
+				.collect(Collectors.joining(","));
+	}
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.project.cache;
+
+import com.ecommerce.project.dto.ProductStockDTO;
+
+// Fields in declaration order
+public class ProductStockCacheCodec implements CacheCodec<ProductStockDTO> {
+	private static final int FIELDS = 2;
+	
+	public ProductStockCacheCodec() {
+		CacheCodec.requireFieldCount(ProductStockDTO.class, FIELDS);
+	}
+	
+	@Override
+	public Class<ProductStockDTO> type() {
+		return ProductStockDTO.class;
+	}
+	
+	@Override
+	public int version() {
+		return 1;
+	}
+	
+	@Override
+	public void write(ProductStockDTO stock, CompactOutput out) {
+		out.writeLong(stock.getProductId());
+		out.writeInteger(stock.getStockQuantity());
+	}
+	
+	@Override
+	public ProductStockDTO read(CompactInput in) {
+		return new ProductStockDTO(
+			in.readLong(),
+			in.readInteger()
+		);
+	}
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.project.cache;
+
+import java.io.Serializable;
+
+// What TwoLevelCache stores in both levels: the cached value plus when its Redis entry expires
+// (epoch ms, jittered per write) and how long the value took to compute. Every node reading the
+// entry can then decide on an early refresh (see TwoLevelCacheManager.shouldRefreshEarly).
+public record StampedValue(Object value, long expiresAt, long computeMillis) implements Serializable {
+	private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.project.cache;
+
+import org.springframework.cache.Cache;
+
+// A cache that remembers which keys were written under each tag (TaggedCacheKey.tag()),
+// so a write can drop one group of entries without clearing the whole cache
+public interface TaggableCache extends Cache {
+	void evictTag(String tag);
+}
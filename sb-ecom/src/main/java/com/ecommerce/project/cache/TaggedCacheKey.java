@@ -0,0 +1,7 @@
+package com.ecommerce.project.cache;
+
+// A cache key that belongs to a group of entries evicted together (see TaggableCache).
+// Its toString() is the key stored in Redis, so it must be stable across nodes.
+public interface TaggedCacheKey {
+	String tag();
+}
@@ -0,0 +1,399 @@
+package com.ecommerce.project.cache;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import com.ecommerce.project.cache.TwoLevelCacheManager.L1Key;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// One named cache: L1 lookup first, then Redis; L2 hits are copied into L1.
+// L1 hands out the cached instance itself, shared by every caller on the node: treat cached DTOs
+// as read-only and copy one before changing it.
+// Other nodes' L1s are told to drop a key on puts, evictions and background refreshes; a miss
+// loaded here doesn't replace anything they could hold, so it is not broadcast.
+// Hit ratios per level: cache.level.gets{cache=<name>,level=l1|l2,result=hit|miss}
+// (an L2 get only happens after an L1 miss).
+// Both levels hold StampedValues, so an entry carries its own expiry and compute time.
+// Synchronized lookups (@Cacheable(sync = true)) are protected against stampedes: one load per key
+// on this node, one across nodes while the Redis load lock is held, and hot entries are refreshed
+// in the background shortly before they expire. Loads: cache.loads{cache=<name>,trigger=miss|refresh}.
+// Entries with a TaggedCacheKey are also listed in a Redis set per tag, for evictTag.
+class TwoLevelCache implements TaggableCache {
+	private static final Logger log = LoggerFactory.getLogger(TwoLevelCache.class);
+
+	// How often a node without the load lock looks for the value the lock holder writes
+	private static final long LOCK_POLL_MILLIS = 50;
+
+	private final String name;
+	private final Cache l2;
+	private final com.github.benmanes.caffeine.cache.Cache<L1Key, StampedValue> l1;
+	private final boolean l1Enabled;
+	private final CachePolicy policy;
+	private final TwoLevelCacheManager manager;
+	// Loads in progress on this node; later callers for the same key wait for the same future
+	private final Map<L1Key, CompletableFuture<StampedValue>> loading = new ConcurrentHashMap<>();
+
+	private final Counter l1Hits;
+	private final Counter l1Misses;
+	private final Counter l2Hits;
+	private final Counter l2Misses;
+	private final Counter missLoads;
+	private final Counter refreshLoads;
+
+	TwoLevelCache(String name, Cache l2, com.github.benmanes.caffeine.cache.Cache<L1Key, StampedValue> l1,
+			boolean l1Enabled, CachePolicy policy, TwoLevelCacheManager manager, MeterRegistry meterRegistry) {
+		this.name = name;
+		this.l2 = l2;
+		this.l1 = l1;
+		this.l1Enabled = l1Enabled;
+		this.policy = policy;
+		this.manager = manager;
+		this.l1Hits = counter(meterRegistry, "l1", "hit");
+		this.l1Misses = counter(meterRegistry, "l1", "miss");
+		this.l2Hits = counter(meterRegistry, "l2", "hit");
+		this.l2Misses = counter(meterRegistry, "l2", "miss");
+		this.missLoads = loadCounter(meterRegistry, "miss");
+		this.refreshLoads = loadCounter(meterRegistry, "refresh");
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return l2.getNativeCache();
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		StampedValue entry = lookup(key, l1Key(key));
+		return entry != null ? new SimpleValueWrapper(entry.value()) : null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = wrapper != null ? wrapper.get() : null;
+		if(value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	// Synchronized lookups. A hit may also start a background refresh (XFetch);
+	// a miss loads once per key, see loadOnce.
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		L1Key l1Key = l1Key(key);
+		StampedValue entry = lookup(key, l1Key);
+		if(entry != null) {
+			if(manager.shouldRefreshEarly(entry)) {
+				refreshAsync(key, l1Key, valueLoader);
+			}
+			return (T) entry.value();
+		}
+		StampedValue loaded = loadOnce(key, l1Key, valueLoader);
+		return loaded != null ? (T) loaded.value() : null;
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		StampedValue entry = value != null ? stamp(value, 0) : null;
+		l2.put(storeKey(key), entry);
+		L1Key l1Key = l1Key(key);
+		if(entry != null) {
+			tag(key, l1Key);
+			putL1(l1Key, entry);
+		} else {
+			l1.invalidate(l1Key);
+		}
+		manager.publishInvalidation(name, l1Key.key());
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		StampedValue entry = value != null ? stamp(value, 0) : null;
+		ValueWrapper existing = l2.putIfAbsent(storeKey(key), entry);
+		StampedValue current = existing != null ? stamped(existing.get()) : entry;
+		L1Key l1Key = l1Key(key);
+		if(current != null) {
+			putL1(l1Key, current);
+		}
+		if(existing == null) {
+			// Nothing was there for other nodes to hold
+			return null;
+		}
+		return new SimpleValueWrapper(current != null ? current.value() : null);
+	}
+
+	@Override
+	public void evict(Object key) {
+		l2.evict(storeKey(key));
+		L1Key l1Key = l1Key(key);
+		l1.invalidate(l1Key);
+		manager.publishInvalidation(name, l1Key.key());
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean present = l2.evictIfPresent(storeKey(key));
+		L1Key l1Key = l1Key(key);
+		l1.invalidate(l1Key);
+		manager.publishInvalidation(name, l1Key.key());
+		return present;
+	}
+
+	// Evicts every key listed under the tag, by its stored string form
+	@Override
+	public void evictTag(String tag) {
+		Set<String> keys = manager.taggedKeys(name, tag);
+		for(String key: keys) {
+			evict(key);
+		}
+		manager.untag(name, tag, keys);
+	}
+
+	@Override
+	public void clear() {
+		l2.clear();
+		manager.clearL1(name);
+		manager.publishInvalidation(name, null);
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean invalidated = l2.invalidate();
+		manager.clearL1(name);
+		manager.publishInvalidation(name, null);
+		return invalidated;
+	}
+
+	// L1, then L2; entries past their stamped expiry count as misses
+	private StampedValue lookup(Object key, L1Key l1Key) {
+		StampedValue entry = l1.getIfPresent(l1Key);
+		if(entry != null && !expired(entry)) {
+			l1Hits.increment();
+			return entry;
+		}
+		l1Misses.increment();
+
+		entry = readL2(key);
+		if(entry != null) {
+			l2Hits.increment();
+			putL1(l1Key, entry);
+		} else {
+			l2Misses.increment();
+		}
+		return entry;
+	}
+
+	private StampedValue readL2(Object key) {
+		ValueWrapper wrapper = l2.get(storeKey(key));
+		StampedValue entry = wrapper != null ? stamped(wrapper.get()) : null;
+		return entry != null && !expired(entry) ? entry : null;
+	}
+
+	// The first caller for a key loads it; concurrent callers on this node share its result.
+	// If the shared load was a refresh that didn't run, the caller loads for itself.
+	private StampedValue loadOnce(Object key, L1Key l1Key, Callable<?> loader) {
+		CompletableFuture<StampedValue> mine = new CompletableFuture<>();
+		CompletableFuture<StampedValue> inFlight = loading.putIfAbsent(l1Key, mine);
+		if(inFlight != null) {
+			StampedValue shared = await(inFlight);
+			return shared != null ? shared : loadLocked(key, l1Key, loader);
+		}
+		try {
+			StampedValue loaded = loadLocked(key, l1Key, loader);
+			mine.complete(loaded);
+			return loaded;
+		} catch(RuntimeException | Error ex) {
+			mine.completeExceptionally(ex);
+			throw ex;
+		} finally {
+			loading.remove(l1Key, mine);
+		}
+	}
+
+	// Across nodes: only the holder of the Redis lock loads; the others wait for its value in
+	// Redis and load themselves once the lock is released without one (the holder's load failed
+	// or returned null) or it hasn't arrived when the lock would have expired
+	private StampedValue loadLocked(Object key, L1Key l1Key, Callable<?> loader) {
+		String token = manager.tryLock(name, l1Key.key());
+		if(token == null) {
+			StampedValue loaded = awaitL2(key, l1Key);
+			if(loaded != null) {
+				return loaded;
+			}
+			return load(key, l1Key, loader, missLoads, false);
+		}
+		try {
+			// Another node may have written it between our miss and taking the lock
+			StampedValue current = readL2(key);
+			if(current != null) {
+				putL1(l1Key, current);
+				return current;
+			}
+			return load(key, l1Key, loader, missLoads, false);
+		} finally {
+			manager.unlock(name, l1Key.key(), token);
+		}
+	}
+
+	private StampedValue awaitL2(Object key, L1Key l1Key) {
+		long deadline = System.currentTimeMillis() + manager.lockTimeout().toMillis();
+		try {
+			while(System.currentTimeMillis() < deadline) {
+				Thread.sleep(LOCK_POLL_MILLIS);
+				StampedValue entry = readL2(key);
+				if(entry == null && !manager.isLocked(name, l1Key.key())) {
+					// The holder writes before it unlocks; read once more in case that happened in between
+					entry = readL2(key);
+					if(entry == null) {
+						return null;
+					}
+				}
+				if(entry != null) {
+					putL1(l1Key, entry);
+					return entry;
+				}
+			}
+		} catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		return null;
+	}
+
+	// Recompute a still valid entry on the refresh pool, keeping the current value in service.
+	// Skipped if the key is already loading here, the pool is busy or another node holds the lock.
+	private void refreshAsync(Object key, L1Key l1Key, Callable<?> loader) {
+		CompletableFuture<StampedValue> mine = new CompletableFuture<>();
+		if(loading.putIfAbsent(l1Key, mine) != null) {
+			return;
+		}
+		boolean submitted = manager.submitRefresh(() -> {
+			StampedValue refreshed = null;
+			try {
+				String token = manager.tryLock(name, l1Key.key());
+				if(token != null) {
+					try {
+						refreshed = load(key, l1Key, loader, refreshLoads, true);
+					} finally {
+						manager.unlock(name, l1Key.key(), token);
+					}
+				}
+			} catch(RuntimeException ex) {
+				log.warn("Early refresh of {}::{} failed: {}", name, l1Key.key(), ex.getMessage());
+			} finally {
+				loading.remove(l1Key, mine);
+				mine.complete(refreshed);
+			}
+		});
+		if(!submitted) {
+			loading.remove(l1Key, mine);
+			mine.complete(null);
+		}
+	}
+
+	// broadcast: whether other nodes' L1s may hold a value this replaces (a refresh, not a miss)
+	private StampedValue load(Object key, L1Key l1Key, Callable<?> loader, Counter trigger, boolean broadcast) {
+		long start = System.nanoTime();
+		Object value;
+		try {
+			value = loader.call();
+		} catch(Exception ex) {
+			throw new ValueRetrievalException(key, loader, ex);
+		}
+		trigger.increment();
+		if(value == null) {
+			// Null values aren't cached
+			return null;
+		}
+		StampedValue entry = stamp(value, (System.nanoTime() - start) / 1_000_000);
+		l2.put(storeKey(key), entry);
+		tag(key, l1Key);
+		putL1(l1Key, entry);
+		if(broadcast) {
+			manager.publishInvalidation(name, l1Key.key());
+		}
+		return entry;
+	}
+
+	private StampedValue stamp(Object value, long computeMillis) {
+		return new StampedValue(value, System.currentTimeMillis() + policy.nextTtl().toMillis(), computeMillis);
+	}
+
+	// Entries written before values were stamped: valid for a base TTL, never refreshed early
+	private StampedValue stamped(Object value) {
+		if(value == null || value instanceof StampedValue) {
+			return (StampedValue) value;
+		}
+		return new StampedValue(value, System.currentTimeMillis() + policy.ttl().toMillis(), 0);
+	}
+
+	private void tag(Object key, L1Key l1Key) {
+		if(key instanceof TaggedCacheKey tagged) {
+			manager.tag(name, tagged.tag(), l1Key.key(), policy.maxTtl());
+		}
+	}
+
+	private void putL1(L1Key l1Key, StampedValue entry) {
+		if(l1Enabled) {
+			l1.put(l1Key, entry);
+		}
+	}
+
+	private static boolean expired(StampedValue entry) {
+		return entry.expiresAt() <= System.currentTimeMillis();
+	}
+
+	private static StampedValue await(CompletableFuture<StampedValue> future) {
+		try {
+			return future.join();
+		} catch(CompletionException ex) {
+			if(ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw ex;
+		}
+	}
+
+	// Tagged keys go to Redis by their string form, the one listed in the tag set
+	private static Object storeKey(Object key) {
+		return key instanceof TaggedCacheKey ? key.toString() : key;
+	}
+
+	// Keys are Longs and SimpleKeys here; their string form is stable across nodes
+	private L1Key l1Key(Object key) {
+		return new L1Key(name, String.valueOf(key));
+	}
+
+	private Counter counter(MeterRegistry meterRegistry, String level, String result) {
+		return Counter.builder("cache.level.gets")
+				.tag("cache", name)
+				.tag("level", level)
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+
+	private Counter loadCounter(MeterRegistry meterRegistry, String trigger) {
+		return Counter.builder("cache.loads")
+				.tag("cache", name)
+				.tag("trigger", trigger)
+				.register(meterRegistry);
+	}
+}
@@ -0,0 +1,256 @@
+package com.ecommerce.project.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+// Puts an in-process Caffeine cache (L1) in front of every Redis cache (L2), under the same names.
+// L1 is one W-TinyLFU cache shared by all names, bounded by the entries' encoded size in bytes,
+// so a few large lists can't crowd out the single products by count. Writes and evictions are
+// broadcast over Redis pub/sub and drop the key from the other nodes' L1; the L1 TTL bounds
+// staleness when a message is lost. With a max weight of 0 the caches go straight to Redis.
+// Also holds what the caches share for stampede protection: the Redis load locks, the early
+// refresh decision and the background refresh pool.
+public class TwoLevelCacheManager implements CacheManager, MessageListener, DisposableBean {
+	private static final Logger log = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+	public static final String INVALIDATION_CHANNEL = "springcart:cache-invalidations";
+	private static final String LOCK_PREFIX = "cache-lock:";
+	private static final String TAG_PREFIX = "cache-tag:";
+
+	// KEYS[1] lock, ARGV[1] owner token: delete only our own lock
+	private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>("""
+			if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end
+			return 0
+			""", Long.class);
+
+	// l1MaxWeightBytes 0 keeps nothing in L1; refreshBeta > 1 refreshes earlier, 0 never early
+	public record Settings(long l1MaxWeightBytes, Duration l1Ttl, Duration lockTimeout, double refreshBeta) {
+	}
+
+	private final String nodeId = UUID.randomUUID().toString();
+	private final RedisCacheManager redisCacheManager;
+	private final Settings settings;
+	private final Function<String, CachePolicy> policies;
+	private final com.github.benmanes.caffeine.cache.Cache<L1Key, StampedValue> l1;
+	private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+	private final ThreadPoolExecutor refreshExecutor;
+	private final StringRedisTemplate redisTemplate;
+	private final JsonMapper jsonMapper;
+	private final MeterRegistry meterRegistry;
+
+	// sizer returns the (estimated) size of a value in bytes, used as its L1 weight
+	public TwoLevelCacheManager(
+			RedisCacheManager redisCacheManager,
+			Settings settings,
+			Function<String, CachePolicy> policies,
+			ToIntFunction<Object> sizer,
+			StringRedisTemplate redisTemplate,
+			JsonMapper jsonMapper,
+			RedisMessageListenerContainer listenerContainer,
+			MeterRegistry meterRegistry) {
+		this.redisCacheManager = redisCacheManager;
+		this.settings = settings;
+		this.policies = policies;
+		this.l1 = Caffeine.newBuilder()
+				.maximumWeight(Math.max(0, settings.l1MaxWeightBytes()))
+				.weigher((L1Key key, StampedValue value) -> key.key().length() + sizer.applyAsInt(value))
+				.expireAfterWrite(settings.l1Ttl())
+				.build();
+		// A couple of threads are plenty: a refresh that can't be queued just waits for the next hit
+		this.refreshExecutor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(64), Thread.ofPlatform().name("cache-refresh-", 0).daemon().factory(),
+				new ThreadPoolExecutor.AbortPolicy());
+		this.redisTemplate = redisTemplate;
+		this.jsonMapper = jsonMapper;
+		this.meterRegistry = meterRegistry;
+
+		Gauge.builder("cache.l1.entries", l1, cache -> cache.estimatedSize()).register(meterRegistry);
+		Gauge.builder("cache.l1.weight", l1, cache -> cache.policy().eviction().orElseThrow().weightedSize().orElse(0))
+				.baseUnit("bytes")
+				.register(meterRegistry);
+		listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+	}
+
+	@Override
+	public Cache getCache(String name) {
+		TwoLevelCache cache = caches.get(name);
+		if(cache != null) {
+			return cache;
+		}
+		Cache redisCache = redisCacheManager.getCache(name);
+		if(redisCache == null) {
+			return null;
+		}
+		return caches.computeIfAbsent(name,
+				n -> new TwoLevelCache(n, redisCache, l1, settings.l1MaxWeightBytes() > 0, policies.apply(n), this,
+						meterRegistry));
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return redisCacheManager.getCacheNames();
+	}
+
+	// XFetch: refresh with a probability that rises as expiry nears, earlier for values that are
+	// slow to compute, so one request recomputes ahead of time instead of all of them after expiry
+	boolean shouldRefreshEarly(StampedValue entry) {
+		if(entry.computeMillis() <= 0 || settings.refreshBeta() <= 0) {
+			return false;
+		}
+		double head = -entry.computeMillis() * settings.refreshBeta() * Math.log(ThreadLocalRandom.current().nextDouble());
+		return System.currentTimeMillis() + head >= entry.expiresAt();
+	}
+
+	boolean submitRefresh(Runnable refresh) {
+		try {
+			refreshExecutor.execute(refresh);
+			return true;
+		} catch(RejectedExecutionException ex) {
+			return false;
+		}
+	}
+
+	Duration lockTimeout() {
+		return settings.lockTimeout();
+	}
+
+	// Token to unlock with, or null when another node holds the lock.
+	// Without Redis every node loads for itself, as before.
+	String tryLock(String cacheName, String key) {
+		String token = UUID.randomUUID().toString();
+		try {
+			Boolean acquired = redisTemplate.opsForValue()
+					.setIfAbsent(LOCK_PREFIX + cacheName + "::" + key, token, settings.lockTimeout());
+			return Boolean.FALSE.equals(acquired) ? null : token;
+		} catch(RuntimeException ex) {
+			log.warn("Could not take cache load lock for {}::{}: {}", cacheName, key, ex.getMessage());
+			return token;
+		}
+	}
+
+	void unlock(String cacheName, String key, String token) {
+		try {
+			redisTemplate.execute(UNLOCK, List.of(LOCK_PREFIX + cacheName + "::" + key), token);
+		} catch(RuntimeException ex) {
+			// Expires on its own
+			log.warn("Could not release cache load lock for {}::{}: {}", cacheName, key, ex.getMessage());
+		}
+	}
+
+	// Whether a load lock is still held; without Redis the waiter stops waiting and loads itself
+	boolean isLocked(String cacheName, String key) {
+		try {
+			return Boolean.TRUE.equals(redisTemplate.hasKey(LOCK_PREFIX + cacheName + "::" + key));
+		} catch(RuntimeException ex) {
+			return false;
+		}
+	}
+
+	// Tag sets live as long as the longest entry they may list; stale members are harmless
+	void tag(String cacheName, String tag, String key, Duration ttl) {
+		String tagKey = TAG_PREFIX + cacheName + "::" + tag;
+		try {
+			redisTemplate.opsForSet().add(tagKey, key);
+			redisTemplate.expire(tagKey, ttl);
+		} catch(RuntimeException ex) {
+			// The entry then only goes away with its TTL
+			log.warn("Could not tag cache entry {}::{}: {}", cacheName, key, ex.getMessage());
+		}
+	}
+
+	Set<String> taggedKeys(String cacheName, String tag) {
+		Set<String> keys = redisTemplate.opsForSet().members(TAG_PREFIX + cacheName + "::" + tag);
+		return keys != null ? keys : Set.of();
+	}
+
+	// Only the given keys: entries tagged meanwhile stay listed
+	void untag(String cacheName, String tag, Collection<String> keys) {
+		if(!keys.isEmpty()) {
+			redisTemplate.opsForSet().remove(TAG_PREFIX + cacheName + "::" + tag, keys.toArray());
+		}
+	}
+
+	// Tell the other nodes to drop a key (null: the whole cache) from their L1
+	void publishInvalidation(String cacheName, String key) {
+		try {
+			redisTemplate.convertAndSend(INVALIDATION_CHANNEL,
+					jsonMapper.writeValueAsString(new Invalidation(nodeId, cacheName, key)));
+		} catch(RuntimeException ex) {
+			// Other nodes fall back to the L1 TTL
+			log.warn("Could not publish cache invalidation for {}: {}", cacheName, ex.getMessage());
+		}
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		Invalidation invalidation;
+		try {
+			invalidation = jsonMapper.readValue(message.getBody(), Invalidation.class);
+		} catch(RuntimeException ex) {
+			// Skip it; the L1 TTL bounds what it would have dropped
+			log.warn("Ignoring malformed cache invalidation: {}", ex.getMessage());
+			return;
+		}
+		if(invalidation == null || invalidation.cache() == null) {
+			log.warn("Ignoring cache invalidation without a cache name");
+			return;
+		}
+		if(nodeId.equals(invalidation.node())) {
+			// Already applied locally
+			return;
+		}
+		if(invalidation.key() == null) {
+			clearL1(invalidation.cache());
+		} else {
+			l1.invalidate(new L1Key(invalidation.cache(), invalidation.key()));
+		}
+	}
+
+	void clearL1(String cacheName) {
+		l1.asMap().keySet().removeIf(key -> key.cache().equals(cacheName));
+	}
+
+	@Override
+	public void destroy() {
+		refreshExecutor.shutdownNow();
+	}
+
+	// Cache name plus the key in the string form Redis uses, so invalidations can name it
+	record L1Key(String cache, String key) {
+	}
+
+	record Invalidation(String node, String cache, String key) {
+	}
+}
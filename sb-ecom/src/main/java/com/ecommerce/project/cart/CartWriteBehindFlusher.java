@@ -0,0 +1,163 @@
+package com.ecommerce.project.cart;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.project.cart.RedisCartStore.CartLine;
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.CartItem;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.repository.CartRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.repository.UserRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Writes carts changed in Redis back to carts/cart_items, a batch of users per transaction.
+// Each flush writes the cart as it is in Redis at that moment, so several changes to one cart
+// between flushes cost one write. Users stay in Redis' in-flight set until their batch commits:
+// a failed batch is queued again, and one left in flight by a node that died is queued again
+// after cart.redis.flush-timeout-ms. The unique user_id on carts keeps a cart to one row if that
+// ever races with a flush still running.
+@Component
+@ConditionalOnProperty(name = "cart.store", havingValue = "redis")
+public class CartWriteBehindFlusher {
+	private static final Logger log = LoggerFactory.getLogger(CartWriteBehindFlusher.class);
+
+	private final RedisCartStore store;
+	private final CartRepository cartRepo;
+	private final UserRepository userRepo;
+	private final ProductRepository productRepo;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+	private final Duration flushTimeout;
+
+	public CartWriteBehindFlusher(
+			RedisCartStore store,
+			CartRepository cartRepo,
+			UserRepository userRepo,
+			ProductRepository productRepo,
+			TransactionTemplate transactionTemplate,
+			@Value("${cart.redis.flush-batch-size:100}") int batchSize,
+			@Value("${cart.redis.flush-timeout-ms:60000}") long flushTimeoutMillis) {
+		this.store = store;
+		this.cartRepo = cartRepo;
+		this.userRepo = userRepo;
+		this.productRepo = productRepo;
+		this.transactionTemplate = transactionTemplate;
+		this.batchSize = batchSize;
+		this.flushTimeout = Duration.ofMillis(flushTimeoutMillis);
+	}
+
+	// Drains the queue; returns the number of carts written
+	@Scheduled(fixedDelayString = "${cart.redis.flush-interval-ms:1000}")
+	public int flush() {
+		long requeued = store.requeueAbandoned(flushTimeout);
+		if(requeued > 0) {
+			log.warn("Queued {} carts again whose flush never finished", requeued);
+		}
+		int flushed = 0;
+		List<String> userIds;
+		do {
+			userIds = store.takeDirty(batchSize);
+			if(userIds.isEmpty()) {
+				break;
+			}
+			try {
+				Map<String, List<CartLine>> carts = store.snapshot(userIds);
+				flushed += transactionTemplate.execute(status -> write(carts));
+			} catch(RuntimeException ex) {
+				log.warn("Cart flush of {} users failed, retrying later: {}", userIds.size(), ex.getMessage());
+				store.finishFlush(userIds, true);
+				break;
+			}
+			store.finishFlush(userIds, false);
+		} while(userIds.size() == batchSize);
+		return flushed;
+	}
+
+	// Pending changes reach the DB before shutdown
+	@PreDestroy
+	public void drain() {
+		flush();
+	}
+
+	private int write(Map<String, List<CartLine>> carts) {
+		if(carts.isEmpty()) {
+			return 0;
+		}
+		Map<String, Cart> existing = cartRepo.findAllWithItemsByUserUserIdIn(carts.keySet()).stream()
+				.collect(Collectors.toMap(cart -> cart.getUser().getUserId(), Function.identity()));
+		Set<String> withoutRow = new HashSet<>(carts.keySet());
+		withoutRow.removeAll(existing.keySet());
+		if(!withoutRow.isEmpty()) {
+			for(User user: userRepo.findByUserIdIn(withoutRow)) {
+				Cart cart = new Cart();
+				cart.setUser(user);
+				existing.put(user.getUserId(), cart);
+			}
+		}
+
+		// Lines of products deleted since they were added are dropped
+		Set<Long> productIds = carts.values().stream()
+				.flatMap(List::stream)
+				.map(CartLine::productId)
+				.collect(Collectors.toSet());
+		Map<Long, Product> products = productRepo.findAllById(productIds).stream()
+				.collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+		List<Cart> changed = new ArrayList<>();
+		carts.forEach((userId, lines) -> {
+			Cart cart = existing.get(userId);
+			if(cart != null) {
+				apply(cart, lines, products);
+				changed.add(cart);
+			}
+		});
+		cartRepo.saveAll(changed);
+		return changed.size();
+	}
+
+	// Updates rows in place, so unchanged lines keep their ids
+	private static void apply(Cart cart, List<CartLine> lines, Map<Long, Product> products) {
+		Map<Long, CartLine> wanted = lines.stream()
+				.filter(line -> products.containsKey(line.productId()))
+				.collect(Collectors.toMap(CartLine::productId, Function.identity()));
+
+		Iterator<CartItem> items = cart.getCartItems().iterator();
+		while(items.hasNext()) {
+			CartItem item = items.next();
+			CartLine line = wanted.remove(item.getProduct().getProductId());
+			if(line == null) {
+				items.remove();
+			} else {
+				item.setQuantity(line.quantity());
+				item.setPrice(line.price());
+			}
+		}
+		wanted.values().forEach(line -> {
+			CartItem item = new CartItem();
+			item.setProduct(products.get(line.productId()));
+			item.setQuantity(line.quantity());
+			item.setPrice(line.price());
+			cart.addCartItem(item);
+		});
+		cart.calculateTotalAmount();
+	}
+}
@@ -0,0 +1,448 @@
+package com.ecommerce.project.cart;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.project.exception.BadRequestException;
+import com.ecommerce.project.exception.ResourceNotFoundException;
+import com.ecommerce.project.exception.ServiceUnavailableException;
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.CartItem;
+import com.ecommerce.project.repository.CartRepository;
+import com.ecommerce.project.repository.UserRepository;
+
+// Carts kept in Redis (cart.store=redis), one hash per user: "p:<productId>" -> "quantity|price|name",
+// plus a "_" field holding the id of the cart's DB row, which also marks the cart as loaded (an empty
+// cart is still a hash).
+// Every change is one Lua script that also refreshes the TTL and queues the user for the
+// write-behind flush (CartWriteBehindFlusher). A user being flushed moves from the queue to an
+// in-flight set until its write commits, so a crash mid-flush doesn't lose the change and no two
+// nodes flush one cart at once. A cart missing from Redis is read through from the DB.
+// While an order is placed from a cart, a checkout lock rejects changes to it, so the order is built
+// from exactly the lines that are then removed.
+@Component
+@ConditionalOnProperty(name = "cart.store", havingValue = "redis")
+public class RedisCartStore {
+	private static final String KEY_PREFIX = "cart:";
+	private static final String LOCK_PREFIX = "cart-checkout:";
+	private static final String DIRTY_KEY = "cart-dirty";
+	// Sorted set: user id -> time its flush started
+	private static final String FLUSHING_KEY = "cart-flushing";
+	private static final String LOADED = "_";
+	private static final String LINE_PREFIX = "p:";
+
+	private static final long OK = 0;
+	private static final long NOT_LOADED = -1;
+	private static final long CHECKOUT_LOCKED = -2;
+	private static final long INSUFFICIENT_STOCK = -3;
+	private static final long NO_LINE = -4;
+
+	// Every script: KEYS[1] cart, KEYS[2] dirty set, KEYS[3] checkout lock; ARGV[1] user id, ARGV[2] TTL (ms).
+	// Replies are {status, detail, field1, value1, ...} with the cart as it is afterwards.
+	private static final String LOADED_AND_UNLOCKED = """
+			if redis.call('EXISTS', KEYS[1]) == 0 then return {-1, 0} end
+			if redis.call('EXISTS', KEYS[3]) == 1 then return {-2, 0} end
+			""";
+
+	private static final String TOUCH_AND_REPLY = """
+			redis.call('PEXPIRE', KEYS[1], ARGV[2])
+			redis.call('SADD', KEYS[2], ARGV[1])
+			local reply = {0, 0}
+			for _, v in ipairs(redis.call('HGETALL', KEYS[1])) do reply[#reply + 1] = v end
+			return reply
+			""";
+
+	private static final String REPLY = """
+			local reply = {0, 0}
+			for _, v in ipairs(redis.call('HGETALL', KEYS[1])) do reply[#reply + 1] = v end
+			return reply
+			""";
+
+	private static final RedisScript<List> READ = script("""
+			if redis.call('EXISTS', KEYS[1]) == 0 then return {-1, 0} end
+			redis.call('PEXPIRE', KEYS[1], ARGV[2])
+			""" + REPLY);
+
+	// ARGV[3] field, ARGV[4] quantity, ARGV[5] stock, ARGV[6] "price|name"; an existing line keeps its price
+	private static final RedisScript<List> ADD = script(LOADED_AND_UNLOCKED + """
+			local quantity = tonumber(ARGV[4])
+			local rest = ARGV[6]
+			local line = redis.call('HGET', KEYS[1], ARGV[3])
+			if line then
+				local sep = string.find(line, '|', 1, true)
+				local have = tonumber(string.sub(line, 1, sep - 1))
+				if have + quantity > tonumber(ARGV[5]) then return {-3, have} end
+				quantity = have + quantity
+				rest = string.sub(line, sep + 1)
+			end
+			redis.call('HSET', KEYS[1], ARGV[3], quantity .. '|' .. rest)
+			""" + TOUCH_AND_REPLY);
+
+	// ARGV[3] field, ARGV[4] quantity
+	private static final RedisScript<List> SET_QUANTITY = script(LOADED_AND_UNLOCKED + """
+			local line = redis.call('HGET', KEYS[1], ARGV[3])
+			if not line then return {-4, 0} end
+			local sep = string.find(line, '|', 1, true)
+			redis.call('HSET', KEYS[1], ARGV[3], ARGV[4] .. string.sub(line, sep))
+			""" + TOUCH_AND_REPLY);
+
+	// ARGV[3] field
+	private static final RedisScript<List> REMOVE = script(LOADED_AND_UNLOCKED + """
+			if redis.call('HDEL', KEYS[1], ARGV[3]) == 0 then return {-4, 0} end
+			""" + TOUCH_AND_REPLY);
+
+	// Drops every line, keeping the cart id
+	private static final RedisScript<List> CLEAR = script(LOADED_AND_UNLOCKED + """
+			local id = redis.call('HGET', KEYS[1], '_')
+			redis.call('DEL', KEYS[1])
+			redis.call('HSET', KEYS[1], '_', id)
+			""" + TOUCH_AND_REPLY);
+
+	// ARGV[3..] field/value pairs read from the DB; a cart written meanwhile is newer and kept
+	private static final RedisScript<List> LOAD = script("""
+			if redis.call('EXISTS', KEYS[1]) == 0 then
+				redis.call('HSET', KEYS[1], unpack(ARGV, 3))
+				redis.call('PEXPIRE', KEYS[1], ARGV[2])
+			end
+			""" + REPLY);
+
+	// ARGV[3] lock token, ARGV[4] lock timeout (ms)
+	private static final RedisScript<List> BEGIN_CHECKOUT = script("""
+			if redis.call('EXISTS', KEYS[1]) == 0 then return {-1, 0} end
+			if not redis.call('SET', KEYS[3], ARGV[3], 'NX', 'PX', ARGV[4]) then return {-2, 0} end
+			""" + REPLY);
+
+	// ARGV[3] lock token, ARGV[4] cart id, ARGV[5..] ordered field/quantity pairs. Quantities are
+	// subtracted rather than the lines removed: if the lock expired before the order committed, items
+	// added since are kept.
+	private static final RedisScript<Long> COMPLETE_CHECKOUT = new DefaultRedisScript<>("""
+			if redis.call('GET', KEYS[3]) == ARGV[3] then redis.call('DEL', KEYS[3]) end
+			for i = 5, #ARGV, 2 do
+				local line = redis.call('HGET', KEYS[1], ARGV[i])
+				if line then
+					local sep = string.find(line, '|', 1, true)
+					local left = tonumber(string.sub(line, 1, sep - 1)) - tonumber(ARGV[i + 1])
+					if left > 0 then
+						redis.call('HSET', KEYS[1], ARGV[i], left .. string.sub(line, sep))
+					else
+						redis.call('HDEL', KEYS[1], ARGV[i])
+					end
+				end
+			end
+			if redis.call('EXISTS', KEYS[1]) == 0 then redis.call('HSET', KEYS[1], '_', ARGV[4]) end
+			redis.call('PEXPIRE', KEYS[1], ARGV[2])
+			redis.call('SADD', KEYS[2], ARGV[1])
+			return 1
+			""", Long.class);
+
+	// ARGV[3] lock token
+	private static final RedisScript<Long> ABORT_CHECKOUT = new DefaultRedisScript<>("""
+			if redis.call('GET', KEYS[3]) == ARGV[3] then return redis.call('DEL', KEYS[3]) end
+			return 0
+			""", Long.class);
+
+	// KEYS[1] dirty set, KEYS[2] in-flight set; ARGV[1] count, ARGV[2] now (ms).
+	// Users still in flight on some node stay queued for a later flush.
+	private static final RedisScript<List> TAKE_DIRTY = script("""
+			local taken = {}
+			for _, user in ipairs(redis.call('SRANDMEMBER', KEYS[1], ARGV[1])) do
+				if not redis.call('ZSCORE', KEYS[2], user) then
+					redis.call('SREM', KEYS[1], user)
+					redis.call('ZADD', KEYS[2], ARGV[2], user)
+					taken[#taken + 1] = user
+				end
+			end
+			return taken
+			""");
+
+	// KEYS[1] dirty set, KEYS[2] in-flight set; ARGV[1] 1 to queue the users again, ARGV[2..] user ids
+	private static final RedisScript<Long> FINISH_FLUSH = new DefaultRedisScript<>("""
+			for i = 2, #ARGV do
+				redis.call('ZREM', KEYS[2], ARGV[i])
+				if ARGV[1] == '1' then redis.call('SADD', KEYS[1], ARGV[i]) end
+			end
+			return 1
+			""", Long.class);
+
+	// KEYS[1] dirty set, KEYS[2] in-flight set; ARGV[1] flushes started before this (ms) are abandoned
+	private static final RedisScript<Long> REQUEUE_ABANDONED = new DefaultRedisScript<>("""
+			local users = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', '(' .. ARGV[1])
+			for _, user in ipairs(users) do
+				redis.call('SADD', KEYS[1], user)
+				redis.call('ZREM', KEYS[2], user)
+			end
+			return #users
+			""", Long.class);
+
+	private final StringRedisTemplate redisTemplate;
+	private final CartRepository cartRepo;
+	private final UserRepository userRepo;
+	// Times in-flight flushes; the system clock unless a Clock bean is defined
+	private final Clock clock;
+	private final String ttlMillis;
+	private final String checkoutLockMillis;
+
+	public RedisCartStore(
+			StringRedisTemplate redisTemplate,
+			CartRepository cartRepo,
+			UserRepository userRepo,
+			ObjectProvider<Clock> clock,
+			@Value("${cart.redis.ttl-hours:168}") long ttlHours,
+			@Value("${cart.redis.checkout-lock-ms:30000}") long checkoutLockMillis) {
+		this.redisTemplate = redisTemplate;
+		this.cartRepo = cartRepo;
+		this.userRepo = userRepo;
+		this.clock = clock.getIfAvailable(Clock::systemUTC);
+		this.ttlMillis = String.valueOf(ttlHours * 3_600_000);
+		this.checkoutLockMillis = String.valueOf(checkoutLockMillis);
+	}
+
+	// One line of a cart; the price is the one the product had when it was first added
+	public record CartLine(Long productId, int quantity, BigDecimal price, String productName) {
+
+		public BigDecimal getSubtotal() {
+			return price.multiply(BigDecimal.valueOf(quantity));
+		}
+	}
+
+	// A cart's lines and the id of its DB row, which stays the same for the life of the cart
+	public record StoredCart(Long cartId, List<CartLine> lines) {
+	}
+
+	// The cart an order is being placed from; changes to it are rejected until completed or aborted
+	public record Checkout(String userId, String token, Long cartId, List<CartLine> lines) {
+	}
+
+	public StoredCart getCart(String userId) {
+		return run(READ, userId);
+	}
+
+	public StoredCart add(String userId, Long productId, int quantity, BigDecimal price, String productName,
+			int stockQuantity) {
+		List<Object> reply = execute(ADD, userId, field(productId), String.valueOf(quantity),
+				String.valueOf(stockQuantity), price.toPlainString() + "|" + productName);
+		if(status(reply) == INSUFFICIENT_STOCK) {
+			throw new BadRequestException(
+				"Cannot add " + quantity + " more. Only " +
+				(stockQuantity - number(reply.get(1))) + " units available"
+			);
+		}
+		return cart(reply, productId);
+	}
+
+	public StoredCart setQuantity(String userId, Long productId, int quantity) {
+		return cart(execute(SET_QUANTITY, userId, field(productId), String.valueOf(quantity)), productId);
+	}
+
+	public StoredCart remove(String userId, Long productId) {
+		return cart(execute(REMOVE, userId, field(productId)), productId);
+	}
+
+	public void clear(String userId) {
+		cart(execute(CLEAR, userId), null);
+	}
+
+	public Checkout beginCheckout(String userId) {
+		String token = UUID.randomUUID().toString();
+		StoredCart cart = run(BEGIN_CHECKOUT, userId, token, checkoutLockMillis);
+		return new Checkout(userId, token, cart.cartId(), cart.lines());
+	}
+
+	// After the order committed: its quantities leave the cart, which is flushed to the DB as usual
+	public void completeCheckout(Checkout checkout) {
+		List<String> args = new ArrayList<>(List.of(checkout.userId(), ttlMillis, checkout.token(),
+				String.valueOf(checkout.cartId())));
+		checkout.lines().forEach(line -> {
+			args.add(field(line.productId()));
+			args.add(String.valueOf(line.quantity()));
+		});
+		redisTemplate.execute(COMPLETE_CHECKOUT, keys(checkout.userId()), args.toArray());
+	}
+
+	public void abortCheckout(Checkout checkout) {
+		redisTemplate.execute(ABORT_CHECKOUT, keys(checkout.userId()), checkout.userId(), ttlMillis, checkout.token());
+	}
+
+	// Users whose carts changed since the last flush, moved from the queue to the in-flight set.
+	// The caller ends each flush with finishFlush.
+	@SuppressWarnings("unchecked")
+	public List<String> takeDirty(int count) {
+		List<String> userIds = redisTemplate.execute(TAKE_DIRTY, List.of(DIRTY_KEY, FLUSHING_KEY),
+				String.valueOf(count), String.valueOf(clock.millis()));
+		return userIds == null ? List.of() : userIds;
+	}
+
+	// Out of the in-flight set once their carts are written, or back in the queue after a failed flush
+	public void finishFlush(Collection<String> userIds, boolean failed) {
+		if(!userIds.isEmpty()) {
+			List<String> args = new ArrayList<>(List.of(failed ? "1" : "0"));
+			args.addAll(userIds);
+			redisTemplate.execute(FINISH_FLUSH, List.of(DIRTY_KEY, FLUSHING_KEY), args.toArray());
+		}
+	}
+
+	// Flushes in flight for longer than the timeout were abandoned (their node died): queue them again
+	public long requeueAbandoned(Duration timeout) {
+		Long requeued = redisTemplate.execute(REQUEUE_ABANDONED, List.of(DIRTY_KEY, FLUSHING_KEY),
+				String.valueOf(clock.millis() - timeout.toMillis()));
+		return requeued == null ? 0 : requeued;
+	}
+
+	// The carts of the given users in one pipelined round trip; a cart no longer in Redis is left out
+	public Map<String, List<CartLine>> snapshot(List<String> userIds) {
+		List<Object> hashes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+			userIds.forEach(userId -> connection.hashCommands().hGetAll(
+					(KEY_PREFIX + userId).getBytes(StandardCharsets.UTF_8)));
+			return null;
+		});
+		Map<String, List<CartLine>> carts = new LinkedHashMap<>();
+		for(int i = 0; i < userIds.size(); i++) {
+			@SuppressWarnings("unchecked")
+			Map<String, String> hash = (Map<String, String>) hashes.get(i);
+			if(hash != null && hash.containsKey(LOADED)) {
+				List<Object> fields = new ArrayList<>();
+				hash.forEach((field, value) -> {
+					fields.add(field);
+					fields.add(value);
+				});
+				carts.put(userIds.get(i), parse(fields, 0).lines());
+			}
+		}
+		return carts;
+	}
+
+	// Runs a script that needs the cart in Redis, reading it through from the DB when it isn't
+	private StoredCart run(RedisScript<List> script, String userId, String... args) {
+		return cart(execute(script, userId, args), null);
+	}
+
+	private List<Object> execute(RedisScript<List> script, String userId, String... args) {
+		List<Object> reply = call(script, userId, args);
+		if(status(reply) == NOT_LOADED) {
+			load(userId);
+			reply = call(script, userId, args);
+		}
+		if(status(reply) == NOT_LOADED) {
+			throw new ServiceUnavailableException("Cart is temporarily unavailable", 1);
+		}
+		return reply;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Object> call(RedisScript<List> script, String userId, String... args) {
+		List<String> argv = new ArrayList<>(List.of(userId, ttlMillis));
+		argv.addAll(List.of(args));
+		try {
+			return redisTemplate.execute(script, keys(userId), argv.toArray());
+		} catch(DataAccessException ex) {
+			throw new ServiceUnavailableException("Cart is temporarily unavailable", 1);
+		}
+	}
+
+	// Read-through: the cart as last flushed to the DB. A user without one gets an empty row, as in
+	// the DB store, so the cart id is known from the first request on.
+	private void load(String userId) {
+		Cart cart = cartRepo.findWithItemsByUserUserId(userId).orElseGet(() -> createCart(userId));
+		Map<Long, CartLine> lines = new LinkedHashMap<>();
+		cart.getCartItems()
+				.forEach(item -> lines.merge(item.getProduct().getProductId(), line(item),
+						(a, b) -> new CartLine(a.productId(), a.quantity() + b.quantity(), a.price(), a.productName())));
+
+		List<String> args = new ArrayList<>(List.of(LOADED, String.valueOf(cart.getCartId())));
+		lines.values().forEach(line -> {
+			args.add(field(line.productId()));
+			args.add(line.quantity() + "|" + line.price().toPlainString() + "|" + line.productName());
+		});
+		call(LOAD, userId, args.toArray(String[]::new));
+	}
+
+	private Cart createCart(String userId) {
+		Cart cart = new Cart();
+		cart.setUser(userRepo.findByUserId(userId)
+				.orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId)));
+		try {
+			return cartRepo.save(cart);
+		} catch(DataIntegrityViolationException ex) {
+			// Created by another request meanwhile (user_id is unique)
+			return cartRepo.findWithItemsByUserUserId(userId).orElseThrow(() -> ex);
+		}
+	}
+
+	private static CartLine line(CartItem item) {
+		return new CartLine(item.getProduct().getProductId(), item.getQuantity(), item.getPrice(),
+				item.getProduct().getProductName());
+	}
+
+	// Turns a script's status into the matching error, otherwise the cart it returned
+	private static StoredCart cart(List<Object> reply, Long productId) {
+		long status = status(reply);
+		if(status == CHECKOUT_LOCKED) {
+			throw new BadRequestException("Cart is being checked out, try again shortly");
+		}
+		if(status == NO_LINE) {
+			throw new ResourceNotFoundException("Cart item with ID " + productId + " not found");
+		}
+		if(status != OK) {
+			throw new IllegalStateException("Unexpected cart script status " + status);
+		}
+		return parse(reply, 2);
+	}
+
+	private static StoredCart parse(List<Object> fields, int from) {
+		Long cartId = null;
+		List<CartLine> lines = new ArrayList<>();
+		for(int i = from; i + 1 < fields.size(); i += 2) {
+			String field = String.valueOf(fields.get(i));
+			if(field.equals(LOADED)) {
+				cartId = Long.valueOf(String.valueOf(fields.get(i + 1)));
+			} else if(field.startsWith(LINE_PREFIX)) {
+				String[] parts = String.valueOf(fields.get(i + 1)).split("\\|", 3);
+				lines.add(new CartLine(Long.valueOf(field.substring(LINE_PREFIX.length())),
+						Integer.parseInt(parts[0]), new BigDecimal(parts[1]), parts[2]));
+			}
+		}
+		lines.sort(Comparator.comparing(CartLine::productId));
+		return new StoredCart(cartId, lines);
+	}
+
+	private static long status(List<Object> reply) {
+		return number(reply.get(0));
+	}
+
+	private static long number(Object value) {
+		return Long.parseLong(String.valueOf(value));
+	}
+
+	private static String field(Long productId) {
+		return LINE_PREFIX + productId;
+	}
+
+	private static List<String> keys(String userId) {
+		return List.of(KEY_PREFIX + userId, DIRTY_KEY, LOCK_PREFIX + userId);
+	}
+
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private static RedisScript<List> script(String source) {
+		return new DefaultRedisScript<>(source, List.class);
+	}
+}
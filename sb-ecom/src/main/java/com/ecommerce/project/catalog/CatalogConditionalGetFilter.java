@@ -0,0 +1,130 @@
+package com.ecommerce.project.catalog;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+// Conditional GETs on the public catalog: a single product is tagged with its own version, every
+// other product and category response with the catalog version (see CatalogVersions).
+// A matching If-None-Match is answered with a bodyless 304 before the request reaches a controller,
+// cache or the DB. Other 200 responses carry the ETag plus Cache-Control: no-cache, so clients keep
+// the body and revalidate each time; errors (e.g. a product that never existed) get no ETag.
+// No Last-Modified: versions are milliseconds, and two changes within one second would share it.
+@Component
+public class CatalogConditionalGetFilter extends OncePerRequestFilter {
+	private static final Pattern PRODUCT_PATH = Pattern.compile("/api/public/products/(\\d+)");
+
+	private final CatalogVersions versions;
+	private final Counter notModified;
+	private final Counter modified;
+
+	public CatalogConditionalGetFilter(CatalogVersions versions, MeterRegistry meterRegistry) {
+		this.versions = versions;
+		this.notModified = Counter.builder("catalog.conditional.gets").tag("result", "not_modified").register(meterRegistry);
+		this.modified = Counter.builder("catalog.conditional.gets").tag("result", "full").register(meterRegistry);
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String method = request.getMethod();
+		if(!"GET".equals(method) && !"HEAD".equals(method)) {
+			return true;
+		}
+		String path = path(request);
+		return !path.startsWith("/api/public/products") && !path.startsWith("/api/public/categories");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		String etag;
+		Matcher product = PRODUCT_PATH.matcher(path(request));
+		if(product.matches()) {
+			Long productVersion;
+			try {
+				productVersion = versions.product(Long.parseLong(product.group(1)));
+			} catch(NumberFormatException ex) {
+				// Beyond a long: let the controller reject it
+				chain.doFilter(request, response);
+				return;
+			}
+			if(productVersion == null) {
+				// Deleted: let the controller answer 404
+				chain.doFilter(request, response);
+				return;
+			}
+			etag = "\"p" + product.group(1) + "-" + productVersion + "\"";
+		} else {
+			etag = "\"c" + versions.catalog() + "\"";
+		}
+
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+		if(new ServletWebRequest(request).checkNotModified(etag)) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			response.setHeader(HttpHeaders.ETAG, etag);
+			notModified.increment();
+			return;
+		}
+		modified.increment();
+		TaggedResponse tagged = new TaggedResponse(response, etag);
+		chain.doFilter(request, tagged);
+		tagged.tag();
+	}
+
+	private static String path(HttpServletRequest request) {
+		return request.getRequestURI().substring(request.getContextPath().length());
+	}
+
+	// Adds the ETag just before the body is written, once the controller has set the status
+	private static final class TaggedResponse extends HttpServletResponseWrapper {
+		private final String etag;
+		private boolean tagged;
+
+		TaggedResponse(HttpServletResponse response, String etag) {
+			super(response);
+			this.etag = etag;
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			tag();
+			return super.getOutputStream();
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			tag();
+			return super.getWriter();
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			tag();
+			super.flushBuffer();
+		}
+
+		void tag() {
+			if(!tagged && !isCommitted()) {
+				tagged = true;
+				if(getStatus() == HttpServletResponse.SC_OK) {
+					setHeader(HttpHeaders.ETAG, etag);
+				}
+			}
+		}
+	}
+}
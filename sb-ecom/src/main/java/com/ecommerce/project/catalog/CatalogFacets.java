@@ -0,0 +1,10 @@
+package com.ecommerce.project.catalog;
+
+import java.util.List;
+
+// Facet counts for a set of products: per category, and per price bucket (same order as the bucket bounds)
+public record CatalogFacets(List<CategoryCount> categories, long[] priceBuckets) {
+
+	public record CategoryCount(long categoryId, String categoryName, long products, long inStock) {
+	}
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.project.catalog;
+
+import java.math.BigDecimal;
+
+// Optional product list filters; null means "don't filter on this"
+public record CatalogFilter(
+		BigDecimal minPrice,
+		BigDecimal maxPrice,
+		Boolean inStock,
+		Boolean active) {
+
+	public static CatalogFilter none() {
+		return new CatalogFilter(null, null, null, null);
+	}
+
+	public boolean isEmpty() {
+		return minPrice == null && maxPrice == null && inStock == null && active == null;
+	}
+}
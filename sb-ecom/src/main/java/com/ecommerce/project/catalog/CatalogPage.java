@@ -0,0 +1,7 @@
+package com.ecommerce.project.catalog;
+
+import java.util.List;
+
+// One page of product ids in sort order, plus the number of matching products
+public record CatalogPage(List<Long> productIds, long totalElements) {
+}
@@ -0,0 +1,177 @@
+package com.ecommerce.project.catalog;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ecommerce.project.event.CategoryChangeEvent;
+import com.ecommerce.project.event.ProductChangeEvent;
+
+// Versions behind the catalog ETags: one for the whole catalog, bumped by every product and category
+// write, and one per product. A version is the epoch ms of the change (at least the previous one
+// + 1), so a Redis flush restarts it above every earlier value.
+// Versions are allocated in a Redis hash so all nodes hand out the same ETags, and read from
+// memory when answering conditional GETs.
+// A new version only becomes visible after publish-delay-ms, once every node has applied the
+// change to its in-memory views and caches: an ETag may briefly be older than the body it comes
+// with, never newer.
+@Component
+public class CatalogVersions implements DisposableBean {
+	private static final Logger log = LoggerFactory.getLogger(CatalogVersions.class);
+
+	static final String KEY = "catalog:versions";
+	private static final String BASE = "base";
+	private static final String CATALOG = "catalog";
+	// Category changes: a rename or delete changes (or removes) all of its products at once
+	private static final String CATEGORIES = "categories";
+	private static final String PRODUCT = "p:";
+
+	// KEYS[1] hash, ARGV[1] now, ARGV[2..] fields to set to the new version ("-field": store it
+	// negated, marking a deleted product). Returns the new catalog version.
+	private static final RedisScript<Long> ALLOCATE = new DefaultRedisScript<>("""
+			local v = math.max(tonumber(redis.call('HGET', KEYS[1], 'catalog') or '0') + 1, tonumber(ARGV[1]))
+			redis.call('HSET', KEYS[1], 'catalog', v)
+			for i = 2, #ARGV do
+				if string.sub(ARGV[i], 1, 1) == '-' then
+					redis.call('HSET', KEYS[1], string.sub(ARGV[i], 2), -v)
+				else
+					redis.call('HSET', KEYS[1], ARGV[i], v)
+				end
+			end
+			return v
+			""", Long.class);
+
+	private final StringRedisTemplate redisTemplate;
+	private final long publishDelayMillis;
+	private final ScheduledExecutorService publisher = Executors.newSingleThreadScheduledExecutor(
+			Thread.ofPlatform().name("catalog-versions").daemon().factory());
+
+	private volatile long base;
+	private volatile long catalog;
+	private volatile long categories;
+	// Products changed since base; a negative version marks a deleted product
+	private final Map<Long, Long> products = new ConcurrentHashMap<>();
+
+	public CatalogVersions(
+			StringRedisTemplate redisTemplate,
+			@Value("${catalog.versions.publish-delay-ms:500}") long publishDelayMillis) {
+		this.redisTemplate = redisTemplate;
+		this.publishDelayMillis = publishDelayMillis;
+		long now = System.currentTimeMillis();
+		this.base = now;
+		this.catalog = now;
+		this.categories = now;
+	}
+
+	// Shared versions from Redis; without Redis this node counts on its own from now
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		try {
+			String now = Long.toString(System.currentTimeMillis());
+			redisTemplate.opsForHash().putIfAbsent(KEY, BASE, now);
+			redisTemplate.opsForHash().putIfAbsent(KEY, CATALOG, now);
+			Map<Object, Object> stored = redisTemplate.opsForHash().entries(KEY);
+			base = parse(stored.get(BASE), base);
+			catalog = Math.max(catalog, parse(stored.get(CATALOG), base));
+			categories = parse(stored.get(CATEGORIES), base);
+			products.clear();
+			stored.forEach((field, value) -> {
+				if(field.toString().startsWith(PRODUCT)) {
+					products.put(Long.valueOf(field.toString().substring(PRODUCT.length())), Long.valueOf(value.toString()));
+				}
+			});
+			// A node started late already serves the current data
+			catalog = Math.max(catalog, System.currentTimeMillis());
+		} catch(RuntimeException ex) {
+			log.warn("Could not load catalog versions, using local ones: {}", ex.getMessage());
+		}
+	}
+
+	public long catalog() {
+		return catalog;
+	}
+
+	// Null for a deleted product (never answered with 304)
+	public Long product(long productId) {
+		Long version = products.get(productId);
+		if(version != null && version < 0) {
+			return null;
+		}
+		return Math.max(version != null ? version : base, categories);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChange(ProductChangeEvent event) {
+		changed(event.remote(), PRODUCT + event.productId(), event.type() == ProductChangeEvent.Type.DELETED);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChange(CategoryChangeEvent event) {
+		changed(event.remote(), CATEGORIES, false);
+	}
+
+	// The node that made the change allocates the version right away; every node reads it from
+	// Redis after the delay
+	private void changed(boolean remote, String field, boolean deleted) {
+		Long allocated = remote ? null : allocate(field, deleted);
+		publisher.schedule(() -> publish(field, deleted, allocated), publishDelayMillis, TimeUnit.MILLISECONDS);
+	}
+
+	private Long allocate(String field, boolean deleted) {
+		long now = System.currentTimeMillis();
+		try {
+			return redisTemplate.execute(ALLOCATE, List.of(KEY), Long.toString(now), deleted ? "-" + field : field);
+		} catch(RuntimeException ex) {
+			log.warn("Could not allocate catalog version: {}", ex.getMessage());
+			return Math.max(catalog + 1, now);
+		}
+	}
+
+	private void publish(String field, boolean deleted, Long allocated) {
+		long catalogVersion;
+		long fieldVersion;
+		try {
+			List<Object> values = redisTemplate.opsForHash().multiGet(KEY, List.of(CATALOG, field));
+			catalogVersion = parse(values.get(0), catalog);
+			fieldVersion = parse(values.get(1), base);
+		} catch(RuntimeException ex) {
+			if(allocated == null) {
+				log.warn("Could not read catalog versions: {}", ex.getMessage());
+				return;
+			}
+			// Redis is down: this node's own count
+			catalogVersion = allocated;
+			fieldVersion = deleted ? -allocated : allocated;
+		}
+		if(field.equals(CATEGORIES)) {
+			categories = Math.max(categories, fieldVersion);
+		} else {
+			products.put(Long.valueOf(field.substring(PRODUCT.length())), fieldVersion);
+		}
+		catalog = Math.max(catalog, catalogVersion);
+	}
+
+	@Override
+	public void destroy() {
+		publisher.shutdownNow();
+	}
+
+	private static long parse(Object value, long fallback) {
+		return value != null ? Long.parseLong(value.toString()) : fallback;
+	}
+}
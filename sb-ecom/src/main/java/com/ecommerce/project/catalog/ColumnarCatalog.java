@@ -0,0 +1,486 @@
+package com.ecommerce.project.catalog;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.event.CategoryChangeEvent;
+import com.ecommerce.project.event.ProductChangeEvent;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.ProductRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Read-side copy of the product list in primitive column arrays (one row per product),
+// used to filter, sort and page product lists without a query + count query per page.
+// Rows are kept dense: a delete moves the last row into the gap.
+// Built from the DB on startup and updated from product change events (including stock changes from orders);
+// rebuilt on an interval too, since a change relayed from another node is lost if its message is missed.
+// Facet counters (per category and price bucket) of the active products are maintained alongside the columns.
+@Component
+public class ColumnarCatalog {
+	private static final Logger log = LoggerFactory.getLogger(ColumnarCatalog.class);
+
+	// Sort properties that have a column; anything else goes to the DB
+	private static final Set<String> SORTABLE = Set.of("productId", "productName", "price", "stockQuantity", "createdAt");
+
+	// Pages ending within this many rows are selected with a bounded heap
+	private static final int HEAP_SELECT_MAX = 128;
+
+	// Match buffers kept for reuse; queries beyond this many at once allocate their own
+	private static final int POOLED_BUFFERS = 4;
+
+	private final ProductRepository productRepo;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// Columns (indexed by row)
+	private final Map<Long, Integer> rowByProduct = new HashMap<>();
+	private long[] productIds = new long[1024];
+	private long[] priceCents = new long[1024];
+	private int[] stock = new int[1024];
+	private long[] categoryIds = new long[1024];
+	private long[] createdAt = new long[1024]; // epoch micros
+	private String[] names = new String[1024];
+	private long[] activeBits = new long[1024 / 64];
+	private int size;
+
+	// Facets
+	private final long[] priceBucketBounds;
+	private final FacetCounts facetCounts;
+	private final Map<Long, String> categoryNames = new HashMap<>();
+
+	// Buffers of matching rows, shared by all request threads
+	private final BlockingQueue<int[]> matchBuffers = new ArrayBlockingQueue<>(POOLED_BUFFERS);
+
+	public ColumnarCatalog(
+			ProductRepository productRepo,
+			@Value("${catalog.facets.price-buckets:0,25,50,100,250,500,1000}") String priceBuckets,
+			MeterRegistry meterRegistry) {
+		this.productRepo = productRepo;
+		this.priceBucketBounds = Arrays.stream(priceBuckets.split(","))
+				.mapToLong(bound -> toCents(new BigDecimal(bound.trim()), RoundingMode.HALF_UP))
+				.sorted()
+				.toArray();
+		this.facetCounts = new FacetCounts(priceBucketBounds);
+		Gauge.builder("catalog.products", this, ColumnarCatalog::size).register(meterRegistry);
+	}
+
+	// Full rebuild from the DB on startup and on a fixed interval. Synchronized with the event updates,
+	// so a change committed while the products are read is either in the result or applied after it;
+	// queries only wait while the columns are refilled, not for the DB read.
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${catalog.columnar.resync-ms:300000}",
+			initialDelayString = "${catalog.columnar.resync-ms:300000}")
+	public synchronized void rebuild() {
+		List<Product> products = productRepo.findAllWithCategory();
+
+		lock.writeLock().lock();
+		try {
+			rowByProduct.clear();
+			size = 0;
+			facetCounts.clear();
+			categoryNames.clear();
+			for(Product product: products) {
+				int row = addRow(product.getProductId());
+				setRow(row, product.getProductName(), product.getPrice(),
+						product.getStockQuantity(), product.getCategory().getCategoryId(),
+						product.getActive(), product.getCreatedAt());
+				countFacets(row, 1);
+				categoryNames.put(product.getCategory().getCategoryId(), product.getCategory().getCategoryName());
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+		log.debug("Columnar catalog built: {} products", products.size());
+	}
+
+	// Ahead of the other listeners: CatalogCacheInvalidator drops cached pages built from these rows
+	@TransactionalEventListener(fallbackExecution = true)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public synchronized void onProductChange(ProductChangeEvent event) {
+		lock.writeLock().lock();
+		try {
+			switch(event.type()) {
+				case CREATED, UPDATED -> {
+					ProductResponseDTO product = event.product();
+					Integer existing = rowByProduct.get(product.getProductId());
+					if(existing != null) {
+						countFacets(existing, -1);
+					}
+					int row = existing != null ? existing : addRow(product.getProductId());
+					setRow(row, product.getProductName(), product.getPrice(), product.getStockQuantity(),
+							product.getCategoryId(), product.getActive(), product.getCreatedAt());
+					countFacets(row, 1);
+					categoryNames.put(product.getCategoryId(), product.getCategoryName());
+				}
+				case DELETED -> removeRow(event.productId());
+				case STOCK_CHANGED -> {
+					Integer row = rowByProduct.get(event.productId());
+					if(row != null) {
+						countFacets(row, -1);
+						stock[row] = event.stockQuantity();
+						countFacets(row, 1);
+					}
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// Keep facet category names current on rename
+	@TransactionalEventListener(fallbackExecution = true)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public synchronized void onCategoryChange(CategoryChangeEvent event) {
+		lock.writeLock().lock();
+		try {
+			if(event.type() == CategoryChangeEvent.Type.DELETED) {
+				categoryNames.remove(event.categoryId());
+			} else {
+				categoryNames.put(event.categoryId(), event.categoryName());
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// True when the sort can be answered from the columns (unsorted or a single sortable property)
+	public boolean canSort(Sort sort) {
+		if(sort.isUnsorted()) {
+			return true;
+		}
+		List<Sort.Order> orders = sort.toList();
+		return orders.size() == 1 && SORTABLE.contains(orders.get(0).getProperty());
+	}
+
+	// Product ids of one page; categoryId may be null for all categories
+	public CatalogPage query(Long categoryId, CatalogFilter filter, Sort sort, long offset, int limit) {
+		long minCents = filter.minPrice() == null ? Long.MIN_VALUE : toCents(filter.minPrice(), RoundingMode.CEILING);
+		long maxCents = filter.maxPrice() == null ? Long.MAX_VALUE : toCents(filter.maxPrice(), RoundingMode.FLOOR);
+		Boolean inStock = filter.inStock();
+		Boolean active = filter.active();
+		boolean byCategory = categoryId != null;
+		long category = byCategory ? categoryId : 0;
+
+		lock.readLock().lock();
+		int[] matches = borrowBuffer();
+		try {
+			// Filter: one pass over the columns
+			int count = 0;
+			for(int row = 0; row < size; row++) {
+				if(byCategory && categoryIds[row] != category) {
+					continue;
+				}
+				long price = priceCents[row];
+				if(price < minCents || price > maxCents) {
+					continue;
+				}
+				if(inStock != null && (stock[row] > 0) != inStock) {
+					continue;
+				}
+				if(active != null && isActive(row) != active) {
+					continue;
+				}
+				matches[count++] = row;
+			}
+
+			if(offset >= count) {
+				return new CatalogPage(List.of(), count);
+			}
+
+			// Only the rows up to the end of the page need to be ordered
+			int end = (int) Math.min(count, offset + limit);
+			selectTop(matches, count, end, rowOrder(sort));
+
+			List<Long> page = new ArrayList<>(end - (int) offset);
+			for(int i = (int) offset; i < end; i++) {
+				page.add(productIds[matches[i]]);
+			}
+			return new CatalogPage(page, count);
+		} finally {
+			returnBuffer(matches);
+			lock.readLock().unlock();
+		}
+	}
+
+	// Maintained facets of one category, or of all products when categoryId is null
+	public CatalogFacets facets(Long categoryId) {
+		lock.readLock().lock();
+		try {
+			return facetCounts.snapshot(categoryId, categoryNames::get);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Facets of an arbitrary product set (e.g. search matches), counted from the columns
+	public CatalogFacets facets(Long categoryId, Collection<Long> productIds) {
+		lock.readLock().lock();
+		try {
+			FacetCounts counts = new FacetCounts(priceBucketBounds);
+			for(Long productId: productIds) {
+				Integer row = rowByProduct.get(productId);
+				if(row != null && isActive(row) && (categoryId == null || categoryIds[row] == categoryId)) {
+					counts.add(categoryIds[row], priceCents[row], stock[row] > 0, 1);
+				}
+			}
+			return counts.snapshot(null, categoryNames::get);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Lower bound of each price bucket; the last bucket has no upper bound
+	public List<BigDecimal> priceBucketBounds() {
+		return Arrays.stream(priceBucketBounds)
+				.mapToObj(cents -> BigDecimal.valueOf(cents, 2))
+				.toList();
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return size;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Callers hold the read lock, so size is fixed while the buffer is used
+	private int[] borrowBuffer() {
+		int[] buffer = matchBuffers.poll();
+		return buffer != null && buffer.length >= size ? buffer : new int[productIds.length];
+	}
+
+	// Buffers sized for a catalog that has since grown are dropped rather than pooled
+	private void returnBuffer(int[] buffer) {
+		if(buffer.length == productIds.length) {
+			matchBuffers.offer(buffer);
+		}
+	}
+
+	// Callers hold the write lock
+	private int addRow(long productId) {
+		if(size == productIds.length) {
+			int capacity = size * 2;
+			productIds = Arrays.copyOf(productIds, capacity);
+			priceCents = Arrays.copyOf(priceCents, capacity);
+			stock = Arrays.copyOf(stock, capacity);
+			categoryIds = Arrays.copyOf(categoryIds, capacity);
+			createdAt = Arrays.copyOf(createdAt, capacity);
+			names = Arrays.copyOf(names, capacity);
+			activeBits = Arrays.copyOf(activeBits, capacity / 64);
+		}
+		int row = size++;
+		productIds[row] = productId;
+		rowByProduct.put(productId, row);
+		return row;
+	}
+
+	private void setRow(int row, String name, BigDecimal price, Integer stockQuantity, Long categoryId,
+			Boolean active, LocalDateTime created) {
+		names[row] = name;
+		priceCents[row] = toCents(price, RoundingMode.HALF_UP);
+		stock[row] = stockQuantity == null ? 0 : stockQuantity;
+		categoryIds[row] = categoryId;
+		createdAt[row] = created == null ? 0 : epochMicros(created);
+		setActive(row, !Boolean.FALSE.equals(active));
+	}
+
+	private void removeRow(long productId) {
+		Integer row = rowByProduct.remove(productId);
+		if(row == null) {
+			return;
+		}
+		countFacets(row, -1);
+		int last = --size;
+		if(row != last) {
+			productIds[row] = productIds[last];
+			priceCents[row] = priceCents[last];
+			stock[row] = stock[last];
+			categoryIds[row] = categoryIds[last];
+			createdAt[row] = createdAt[last];
+			names[row] = names[last];
+			setActive(row, isActive(last));
+			rowByProduct.put(productIds[row], row);
+		}
+		names[last] = null;
+	}
+
+	// Inactive products aren't sold, so they don't count; callers count a row out before changing it
+	private void countFacets(int row, int delta) {
+		if(!isActive(row)) {
+			return;
+		}
+		facetCounts.add(categoryIds[row], priceCents[row], stock[row] > 0, delta);
+	}
+
+	private boolean isActive(int row) {
+		return (activeBits[row >>> 6] & (1L << row)) != 0;
+	}
+
+	private void setActive(int row, boolean active) {
+		if(active) {
+			activeBits[row >>> 6] |= 1L << row;
+		} else {
+			activeBits[row >>> 6] &= ~(1L << row);
+		}
+	}
+
+	// Row comparator for the requested sort, ties broken by product id
+	private RowOrder rowOrder(Sort sort) {
+		Sort.Order order = sort.isUnsorted() ? Sort.Order.asc("productId") : sort.toList().get(0);
+		RowOrder byKey = switch(order.getProperty()) {
+			case "productName" -> (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(names[a], names[b]);
+			case "price" -> (a, b) -> Long.compare(priceCents[a], priceCents[b]);
+			case "stockQuantity" -> (a, b) -> Integer.compare(stock[a], stock[b]);
+			case "createdAt" -> (a, b) -> Long.compare(createdAt[a], createdAt[b]);
+			default -> (a, b) -> Long.compare(productIds[a], productIds[b]);
+		};
+		boolean descending = order.isDescending();
+		return (a, b) -> {
+			int cmp = descending ? byKey.compare(b, a) : byKey.compare(a, b);
+			return cmp != 0 ? cmp : Long.compare(productIds[a], productIds[b]);
+		};
+	}
+
+	// Reorders rows so the first n are the n best, in order.
+	// Shallow pages keep a bounded heap of the best n seen so far (one pass, most rows rejected at the top);
+	// deeper pages quickselect the boundary (linear on average) and heap-sort only that prefix.
+	static void selectTop(int[] rows, int count, int n, RowOrder order) {
+		if(n <= HEAP_SELECT_MAX && n < count) {
+			heapSelect(rows, count, n, order);
+		} else {
+			quickSelect(rows, count, n, order);
+		}
+		int size = Math.min(n, count);
+		for(int last = size - 1; last > 0; last--) {
+			swap(rows, 0, last);
+			siftDown(rows, 0, last, order);
+		}
+	}
+
+	// Leaves the best n rows as a max-heap in rows[0..n)
+	private static void heapSelect(int[] rows, int count, int n, RowOrder order) {
+		for(int i = 1; i < n; i++) {
+			siftUp(rows, i, order);
+		}
+		for(int i = n; i < count; i++) {
+			if(order.compare(rows[i], rows[0]) < 0) {
+				swap(rows, 0, i);
+				siftDown(rows, 0, n, order);
+			}
+		}
+	}
+
+	// Leaves the best n rows as a max-heap in rows[0..n)
+	private static void quickSelect(int[] rows, int count, int n, RowOrder order) {
+		int lo = 0;
+		int hi = count - 1;
+		while(n < count && lo < hi) {
+			// Median of three as pivot, so already-sorted columns don't degrade
+			int mid = (lo + hi) >>> 1;
+			if(order.compare(rows[mid], rows[lo]) < 0) swap(rows, mid, lo);
+			if(order.compare(rows[hi], rows[lo]) < 0) swap(rows, hi, lo);
+			if(order.compare(rows[hi], rows[mid]) < 0) swap(rows, hi, mid);
+			int pivot = rows[mid];
+
+			int i = lo;
+			int j = hi;
+			while(i <= j) {
+				while(order.compare(rows[i], pivot) < 0) i++;
+				while(order.compare(rows[j], pivot) > 0) j--;
+				if(i <= j) {
+					swap(rows, i++, j--);
+				}
+			}
+			// [lo..j] <= pivot <= [i..hi]; keep narrowing the side that contains the boundary
+			if(n <= j) {
+				hi = j;
+			} else if(n > i) {
+				lo = i;
+			} else {
+				break;
+			}
+		}
+
+		int size = Math.min(n, count);
+		for(int i = size / 2 - 1; i >= 0; i--) {
+			siftDown(rows, i, size, order);
+		}
+	}
+
+	private static void siftUp(int[] heap, int i, RowOrder order) {
+		while(i > 0) {
+			int parent = (i - 1) >>> 1;
+			if(order.compare(heap[i], heap[parent]) <= 0) {
+				return;
+			}
+			swap(heap, i, parent);
+			i = parent;
+		}
+	}
+
+	// Max-heap on the row order (worst row at the top)
+	private static void siftDown(int[] heap, int i, int heapSize, RowOrder order) {
+		while(true) {
+			int child = 2 * i + 1;
+			if(child >= heapSize) {
+				return;
+			}
+			if(child + 1 < heapSize && order.compare(heap[child + 1], heap[child]) > 0) {
+				child++;
+			}
+			if(order.compare(heap[child], heap[i]) <= 0) {
+				return;
+			}
+			swap(heap, i, child);
+			i = child;
+		}
+	}
+
+	private static void swap(int[] rows, int a, int b) {
+		int tmp = rows[a];
+		rows[a] = rows[b];
+		rows[b] = tmp;
+	}
+
+	// Microseconds, the precision of the DB column, so rows created in the same millisecond keep their order
+	private static long epochMicros(LocalDateTime time) {
+		return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+	}
+
+	private static long toCents(BigDecimal amount, RoundingMode rounding) {
+		return amount == null ? 0 : amount.movePointRight(2).setScale(0, rounding).longValue();
+	}
+
+	@FunctionalInterface
+	interface RowOrder {
+		int compare(int rowA, int rowB);
+	}
+}
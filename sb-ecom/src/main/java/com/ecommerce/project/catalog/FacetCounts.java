@@ -0,0 +1,67 @@
+package com.ecommerce.project.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+// Running product / in-stock / price-bucket counters per category.
+// Updated with +1/-1 as rows change, so reading them never scans products.
+// Not thread-safe; ColumnarCatalog updates and reads it under its lock.
+final class FacetCounts {
+	private static final int PRODUCTS = 0;
+	private static final int IN_STOCK = 1;
+	private static final int FIRST_BUCKET = 2;
+
+	// Lower bound (in cents) of each price bucket, ascending; the last bucket is open-ended
+	private final long[] bucketBounds;
+	private final Map<Long, long[]> byCategory = new HashMap<>();
+
+	FacetCounts(long[] bucketBounds) {
+		this.bucketBounds = bucketBounds;
+	}
+
+	void add(long categoryId, long priceCents, boolean inStock, int delta) {
+		long[] counts = byCategory.computeIfAbsent(categoryId, id -> new long[FIRST_BUCKET + bucketBounds.length]);
+		counts[PRODUCTS] += delta;
+		if(inStock) {
+			counts[IN_STOCK] += delta;
+		}
+		counts[FIRST_BUCKET + bucket(priceCents)] += delta;
+		if(counts[PRODUCTS] == 0) {
+			byCategory.remove(categoryId);
+		}
+	}
+
+	void clear() {
+		byCategory.clear();
+	}
+
+	// One category, or all of them when categoryId is null
+	CatalogFacets snapshot(Long categoryId, LongFunction<String> categoryNames) {
+		List<CatalogFacets.CategoryCount> categories = new ArrayList<>();
+		long[] buckets = new long[bucketBounds.length];
+		for(Map.Entry<Long, long[]> entry: byCategory.entrySet()) {
+			long id = entry.getKey();
+			if(categoryId != null && id != categoryId) {
+				continue;
+			}
+			long[] counts = entry.getValue();
+			categories.add(new CatalogFacets.CategoryCount(id, categoryNames.apply(id),
+					counts[PRODUCTS], counts[IN_STOCK]));
+			for(int b = 0; b < buckets.length; b++) {
+				buckets[b] += counts[FIRST_BUCKET + b];
+			}
+		}
+		categories.sort((a, b) -> Long.compare(a.categoryId(), b.categoryId()));
+		return new CatalogFacets(categories, buckets);
+	}
+
+	private int bucket(long priceCents) {
+		int i = Arrays.binarySearch(bucketBounds, priceCents);
+		// Exact bound starts its bucket; otherwise the bucket of the bound below
+		return i >= 0 ? i : Math.max(0, -i - 2);
+	}
+}
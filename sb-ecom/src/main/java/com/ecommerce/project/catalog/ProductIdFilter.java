@@ -0,0 +1,134 @@
+package com.ecommerce.project.catalog;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ecommerce.project.event.CategoryChangeEvent;
+import com.ecommerce.project.event.ProductChangeEvent;
+import com.ecommerce.project.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Which product ids exist, so lookups of ids that can't exist (crawlers walking the id space) are
+// rejected before Redis or the DB. Ids are dense auto-increment values, so an exact bitmap is smaller
+// than a Bloom filter and has no false positives.
+// Only the last full reload is trusted for gaps: an id above its highest id passes even when events
+// have brought in higher ids since, because the event for a lower one may have been lost. Such ids go
+// to the DB, unless it recently said they don't exist (a short-lived negative cache).
+// Loaded from the DB on startup, kept current from product events and re-read on an interval.
+@Component("productIdFilter")
+public class ProductIdFilter {
+	private static final Logger log = LoggerFactory.getLogger(ProductIdFilter.class);
+
+	private final ProductRepository productRepo;
+	private final Cache<Long, Boolean> missing;
+
+	// Replaced, never mutated, so lookups need no lock; null until the first load
+	private volatile Snapshot snapshot;
+
+	public ProductIdFilter(
+			ProductRepository productRepo,
+			@Value("${catalog.product-ids.negative-ttl-seconds:30}") long negativeTtlSeconds,
+			@Value("${catalog.product-ids.negative-max-entries:100000}") long negativeMaxEntries) {
+		this.productRepo = productRepo;
+		this.missing = Caffeine.newBuilder()
+				.expireAfterWrite(Duration.ofSeconds(negativeTtlSeconds))
+				.maximumSize(negativeMaxEntries)
+				.build();
+	}
+
+	// reloadedMaxId is the highest id of the last reload; bits above it only come from events
+	private record Snapshot(BitSet ids, long reloadedMaxId) {
+
+		boolean known(long productId) {
+			return productId <= reloadedMaxId;
+		}
+	}
+
+	// False when the product certainly doesn't exist
+	public boolean mayExist(Long productId) {
+		if(productId == null || productId <= 0) {
+			return false;
+		}
+		Snapshot current = snapshot;
+		if(current != null && current.known(productId) && !current.ids().get(productId.intValue())) {
+			return false;
+		}
+		return missing.getIfPresent(productId) == null;
+	}
+
+	// The DB had no such product; the bitmap may lag a delete on another node, or not cover the id yet
+	public void markMissing(Long productId) {
+		missing.put(productId, Boolean.TRUE);
+	}
+
+	// Full reload on startup and on a fixed interval; synchronized with the event updates, so a change
+	// committed while the ids are read is either in the result or applied after it
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${catalog.product-ids.resync-ms:300000}",
+			initialDelayString = "${catalog.product-ids.resync-ms:300000}")
+	public synchronized void reload() {
+		List<Long> productIds = productRepo.findAllIds();
+		BitSet ids = new BitSet();
+		long maxId = 0;
+		for(Long productId: productIds) {
+			if(productId <= Integer.MAX_VALUE) {
+				ids.set(productId.intValue());
+				maxId = Math.max(maxId, productId);
+			}
+		}
+		snapshot = new Snapshot(ids, maxId);
+		log.debug("Product id filter loaded: {} ids up to {}", productIds.size(), maxId);
+	}
+
+	// Ahead of the other listeners, so a created product is visible by the time caches are refreshed
+	@TransactionalEventListener(fallbackExecution = true)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public synchronized void onProductChange(ProductChangeEvent event) {
+		Snapshot current = snapshot;
+		Long productId = event.productId();
+		switch(event.type()) {
+			case CREATED -> {
+				missing.invalidate(productId);
+				if(current != null && productId <= Integer.MAX_VALUE) {
+					BitSet ids = (BitSet) current.ids().clone();
+					ids.set(productId.intValue());
+					snapshot = new Snapshot(ids, current.reloadedMaxId());
+				}
+			}
+			case DELETED -> {
+				if(current != null && current.known(productId)) {
+					BitSet ids = (BitSet) current.ids().clone();
+					ids.clear(productId.intValue());
+					snapshot = new Snapshot(ids, current.reloadedMaxId());
+				}
+			}
+			case UPDATED, STOCK_CHANGED -> { }
+		}
+	}
+
+	// A deleted category takes its products with it, without a product event each
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChange(CategoryChangeEvent event) {
+		if(event.type() == CategoryChangeEvent.Type.DELETED) {
+			reload();
+		}
+	}
+
+	public int size() {
+		Snapshot current = snapshot;
+		return current == null ? 0 : current.ids().cardinality();
+	}
+}
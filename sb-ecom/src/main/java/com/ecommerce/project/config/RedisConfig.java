@@ -1,23 +1,132 @@
 package com.ecommerce.project.config;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 
+import com.ecommerce.project.cache.CachePolicy;
+import com.ecommerce.project.cache.CacheWeigher;
+import com.ecommerce.project.cache.CategoryCacheCodec;
+import com.ecommerce.project.cache.CompactCacheSerializer;
+import com.ecommerce.project.cache.PageCacheCodec;
+import com.ecommerce.project.cache.ProductCacheCodec;
+import com.ecommerce.project.cache.ProductStockCacheCodec;
+import com.ecommerce.project.cache.StampedValue;
+import com.ecommerce.project.cache.TwoLevelCacheManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
 @Configuration
 public class RedisConfig {
+	// Caches whose value codec and TTL can be chosen with cache.codec.<name>, cache.ttl-seconds.<name>
+	// and cache.ttl-jitter.<name>
+	private static final List<String> CACHE_NAMES = List.of(
+			"allProducts", "products", "productStock", "productsByCategory", "allCategories", "productPages");
+	
+	// Redis (L2) behind an in-process L1 (none if cache.l1.max-weight-bytes is 0), with stampede
+	// protection for @Cacheable(sync = true) lookups
 	@Bean
-	public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-		RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-										// Cache entries expire after 10 minutes
-										.entryTtl(Duration.ofMinutes(10))
+	public CacheManager cacheManager(
+			RedisConnectionFactory connectionFactory,
+			Environment environment,
+			StringRedisTemplate redisTemplate,
+			JsonMapper jsonMapper,
+			RedisMessageListenerContainer listenerContainer,
+			MeterRegistry meterRegistry) {
+		Map<String, CachePolicy> policies = new HashMap<>();
+		for(String name: CACHE_NAMES) {
+			policies.put(name, cachePolicy(environment, name));
+		}
+		CachePolicy defaultPolicy = cachePolicy(environment, "default");
+		Function<String, CachePolicy> policyLookup = name -> policies.getOrDefault(name, defaultPolicy);
+		
+		RedisCacheManager redisCacheManager = redisCacheManager(connectionFactory, environment, policyLookup);
+		
+		TwoLevelCacheManager.Settings settings = new TwoLevelCacheManager.Settings(
+				environment.getProperty("cache.l1.max-weight-bytes", Long.class, 32L * 1024 * 1024),
+				Duration.ofSeconds(environment.getProperty("cache.l1.ttl-seconds", Long.class, 60L)),
+				Duration.ofMillis(environment.getProperty("cache.load-lock-ms", Long.class, 5000L)),
+				environment.getProperty("cache.refresh-ahead.beta", Double.class, 1.0));
+		// L1 weight is estimated from the value's strings and element counts, without encoding it
+		return new TwoLevelCacheManager(redisCacheManager, settings, policyLookup, CacheWeigher::weigh,
+				redisTemplate, jsonMapper, listenerContainer, meterRegistry);
+	}
+	
+	// cache.ttl-seconds.<name> and cache.ttl-jitter.<name>, falling back to the .default values
+	private static CachePolicy cachePolicy(Environment environment, String name) {
+		long ttlSeconds = environment.getProperty("cache.ttl-seconds." + name, Long.class,
+				environment.getProperty("cache.ttl-seconds.default", Long.class, 600L));
+		double jitter = environment.getProperty("cache.ttl-jitter." + name, Double.class,
+				environment.getProperty("cache.ttl-jitter.default", Double.class, 0.1));
+		return new CachePolicy(Duration.ofSeconds(ttlSeconds), jitter);
+	}
+	
+	private static RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory, Environment environment,
+			Function<String, CachePolicy> policies) {
+		int deflateAbove = environment.getProperty("cache.codec.deflate-above-bytes", Integer.class, 1024);
+		String defaultCodec = environment.getProperty("cache.codec.default", "compact");
+		
+		RedisCacheConfiguration config = cacheConfiguration(valueSerializer(defaultCodec, deflateAbove),
+				policies.apply("default"));
+		
+		Map<String, RedisCacheConfiguration> perCache = new HashMap<>();
+		for(String name: CACHE_NAMES) {
+			String codec = environment.getProperty("cache.codec." + name, defaultCodec);
+			perCache.put(name, cacheConfiguration(valueSerializer(codec, deflateAbove), policies.apply(name)));
+		}
+		
+		RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+				.cacheDefaults(config)
+				.withInitialCacheConfigurations(perCache)
+				.build();
+		redisCacheManager.afterPropertiesSet();
+		return redisCacheManager;
+	}
+	
+	// jdk: Java serialization (the old format); compact: per-DTO binary codecs;
+	// compact-deflate: the same, deflated above the size threshold
+	public static RedisSerializer<Object> valueSerializer(String codec, int deflateAbove) {
+		return switch(codec) {
+			case "jdk" -> new JdkSerializationRedisSerializer();
+			case "compact" -> compactSerializer(-1);
+			case "compact-deflate" -> compactSerializer(deflateAbove);
+			default -> throw new IllegalArgumentException("Unknown cache codec " + codec
+					+ ". Use jdk, compact or compact-deflate");
+		};
+	}
+	
+	// Type ids are part of the stored entries; append new codecs with new ids
+	public static CompactCacheSerializer compactSerializer(int deflateAbove) {
+		return new CompactCacheSerializer(deflateAbove)
+				.register(1, new ProductCacheCodec())
+				.register(2, new CategoryCacheCodec())
+				.register(3, new PageCacheCodec())
+				.register(4, new ProductStockCacheCodec());
+	}
+	
+	private static RedisCacheConfiguration cacheConfiguration(RedisSerializer<Object> valueSerializer, CachePolicy policy) {
+		return RedisCacheConfiguration.defaultCacheConfig()
+										// Redis expires an entry when its stamp says; unstamped ones get a jittered TTL
+										.entryTtl((key, value) -> value instanceof StampedValue stamped
+												? Duration.ofMillis(Math.max(1, stamped.expiresAt() - System.currentTimeMillis()))
+												: policy.nextTtl())
 										// Key Serializer
 										.serializeKeysWith(
 												RedisSerializationContext.SerializationPair.fromSerializer(
@@ -27,14 +136,18 @@ public class RedisConfig {
 										// Value Serializer
 										.serializeValuesWith(
 												RedisSerializationContext.SerializationPair.fromSerializer(
-														new JdkSerializationRedisSerializer()
+														valueSerializer
 												)
 										)
 										// Don't cache null values
 										.disableCachingNullValues();
-		
-		return RedisCacheManager.builder(connectionFactory)
-				.cacheDefaults(config)
-				.build();
+	}
+	
+	// Pub/sub listener container for cross-node invalidation messages
+	@Bean
+	public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+		RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+		container.setConnectionFactory(connectionFactory);
+		return container;
 	}
 }
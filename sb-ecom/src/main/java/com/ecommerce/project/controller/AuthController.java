@@ -4,9 +4,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -14,12 +16,16 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.ecommerce.project.dto.LoginRequestDTO;
 import com.ecommerce.project.dto.LoginResponseDTO;
+import com.ecommerce.project.dto.RefreshTokenRequestDTO;
 import com.ecommerce.project.dto.UserRequestDTO;
 import com.ecommerce.project.dto.UserResponseDTO;
 import com.ecommerce.project.exception.BadRequestException;
+import com.ecommerce.project.exception.ServiceUnavailableException;
 import com.ecommerce.project.model.User;
-import com.ecommerce.project.repository.UserRepository;
+import com.ecommerce.project.security.CustomUserDetails;
+import com.ecommerce.project.security.CustomUserDetailsService;
 import com.ecommerce.project.security.JwtTokenProvider;
+import com.ecommerce.project.security.RefreshTokenStore;
 import com.ecommerce.project.service.UserService;
 
 import jakarta.validation.Valid;
@@ -34,7 +40,10 @@ public class AuthController {
 	private JwtTokenProvider jwtTokenProv;
 	
 	@Autowired
-	private UserRepository userRepo;
+	private CustomUserDetailsService userDetailsService;
+	
+	@Autowired
+	private RefreshTokenStore refreshTokenStore;
 	
 	@Autowired
     private UserService userService;
@@ -50,30 +59,52 @@ public class AuthController {
 					)
 			);
 			
-			// Generate jwt token
-			String token = jwtTokenProv.generateToken(authentication);
-			
-			// Get user details
-			User user = userRepo.findByEmail(loginReq.getEmail())
-				.orElseThrow(() -> new BadRequestException("User not found"));
-			
-			// Create response
-			LoginResponseDTO response = new LoginResponseDTO(
-					token,
-					"Bearer",
-					user.getUserId(),
-					user.getEmail(),
-					user.getFirstName(),
-					user.getLastName(),
-					user.getRole().toString()
-			);
+			// Authenticated principal already holds the user - no second lookup
+			CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
 			
-			return ResponseEntity.ok(response);
+			return ResponseEntity.ok(createLoginResponse(authentication, userDetails.getUser()));
+		}catch(InternalAuthenticationServiceException e) {
+			// Password pool full while checking an unknown user - still a 503
+			if(e.getCause() instanceof ServiceUnavailableException busy) {
+				throw busy;
+			}
+			throw new BadRequestException("Invalid email or password");
 		}catch(AuthenticationException e) {
 			throw new BadRequestException("Invalid email or password");
 		}
 	}
 	
+	// Exchange a refresh token for a new access token (no password check)
+	@PostMapping("/refresh")
+	public ResponseEntity<LoginResponseDTO> refresh(@Valid @RequestBody RefreshTokenRequestDTO refreshReq){
+		// Refresh tokens are single use - rotated on every call
+		String email = refreshTokenStore.consume(refreshReq.getRefreshToken())
+				.orElseThrow(() -> new BadRequestException("Invalid or expired refresh token"));
+		
+		CustomUserDetails userDetails;
+		try {
+			userDetails = (CustomUserDetails) userDetailsService.loadUserByUsername(email);
+		}catch(UsernameNotFoundException e) {
+			throw new BadRequestException("User not found");
+		}
+		
+		if(!userDetails.isActive()) {
+			throw new BadRequestException("User account is inactive");
+		}
+		
+		Authentication authentication = new UsernamePasswordAuthenticationToken(
+				userDetails, null, userDetails.getAuthorities());
+		
+		return ResponseEntity.ok(createLoginResponse(authentication, userDetails.getUser()));
+	}
+	
+	// Revoke a refresh token
+	@PostMapping("/logout")
+	public ResponseEntity<String> logout(@Valid @RequestBody RefreshTokenRequestDTO refreshReq){
+		refreshTokenStore.revoke(refreshReq.getRefreshToken());
+		return ResponseEntity.ok("Logged out successfully");
+	}
+	
 	// Register new user
 	@PostMapping("/register")
     public ResponseEntity<UserResponseDTO> registerUser(
@@ -82,4 +113,23 @@ public class AuthController {
         UserResponseDTO registeredUser = userService.registerUser(userRequestDTO);
         return ResponseEntity.status(HttpStatus.CREATED).body(registeredUser);
     }
+	
+	// Issue access + refresh token pair
+	private LoginResponseDTO createLoginResponse(Authentication authentication, User user) {
+		// Generate jwt token
+		String token = jwtTokenProv.generateToken(authentication);
+		String refreshToken = refreshTokenStore.issue(user.getEmail());
+		
+		return new LoginResponseDTO(
+				token,
+				refreshToken,
+				"Bearer",
+				jwtTokenProv.getExpirationMillis() / 1000,
+				user.getUserId(),
+				user.getEmail(),
+				user.getFirstName(),
+				user.getLastName(),
+				user.getRole().toString()
+		);
+	}
 }
@@ -0,0 +1,30 @@
+package com.ecommerce.project.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ecommerce.project.dto.CatalogChangesDTO;
+import com.ecommerce.project.service.CatalogChangeService;
+
+@RestController
+@RequestMapping("/api")
+public class CatalogController {
+	private static final int MAX_CHANGES = 1000;
+	
+	@Autowired
+	private CatalogChangeService changeServ;
+	
+	// Products and categories created, updated or deleted after a version (0 = everything)
+	@GetMapping("/public/catalog/changes")
+	public ResponseEntity<CatalogChangesDTO> getChanges(
+		@RequestParam(defaultValue = "0") long since,
+		@RequestParam(defaultValue = "500") int limit){
+		
+		CatalogChangesDTO changes = changeServ.getChanges(Math.max(since, 0), Math.clamp(limit, 1, MAX_CHANGES));
+		return ResponseEntity.ok(changes);
+	}
+}
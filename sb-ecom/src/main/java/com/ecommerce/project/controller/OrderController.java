@@ -22,6 +22,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.ecommerce.project.dto.OrderResponseDTO;
 import com.ecommerce.project.dto.PlaceOrderRequestDTO;
+import com.ecommerce.project.dto.SliceResponseDTO;
 import com.ecommerce.project.dto.UpdateOrderStatusRequestDTO;
 import com.ecommerce.project.exception.BadRequestException;
 import com.ecommerce.project.exception.ResourceNotFoundException;
@@ -35,6 +36,7 @@ import jakarta.validation.Valid;
 @RestController
 @RequestMapping("/api")
 public class OrderController {
+    private static final int MAX_PAGE_SIZE = 100;
     
     @Autowired
     private OrderService orderService;
@@ -127,6 +129,22 @@ public class OrderController {
         return ResponseEntity.ok(orderPage);
     }
     
+    // Get all orders with cursor (keyset) paging: pass nextCursor back as cursor; deep pages stay fast
+    @GetMapping("/admin/orders/scroll")
+    public ResponseEntity<SliceResponseDTO<OrderResponseDTO>> scrollOrders(
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        
+        Sort.Direction direction = sortDir.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        SliceResponseDTO<OrderResponseDTO> slice = orderService.scrollOrders(
+            sortBy, direction, Math.clamp(size, 1, MAX_PAGE_SIZE), cursor, withTotal);
+        
+        return ResponseEntity.ok(slice);
+    }
+    
     // Update order status
     @PatchMapping("/admin/orders/{orderId}/status")
     public ResponseEntity<OrderResponseDTO> updateOrderStatus(
@@ -1,14 +1,18 @@
 package com.ecommerce.project.controller;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,19 +23,32 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.ecommerce.project.catalog.CatalogFilter;
+import com.ecommerce.project.dto.ProductFacetsDTO;
 import com.ecommerce.project.dto.ProductRequestDTO;
 import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.dto.ProductSuggestionDTO;
+import com.ecommerce.project.dto.SliceResponseDTO;
 import com.ecommerce.project.service.ProductService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api")
 public class ProductController {
+	private static final int MAX_SEARCH_PAGE_SIZE = 100;
+	
 	@Autowired
 	private ProductService proServ;
 	
+	// Async timeout of the export alone; other async requests keep the container default
+	@Value("${catalog.export.timeout:10m}")
+	private Duration exportTimeout;
+	
 	// Create product
 	@PostMapping("/admin/products")
 	public ResponseEntity<ProductResponseDTO> createProduct(@Valid @RequestBody ProductRequestDTO prReqdto){
@@ -74,41 +91,144 @@ public class ProductController {
 		return ResponseEntity.ok(products);
 	}
 	
-	// Search products by name
+	// Search products by name, description and category (best matches first)
 	@GetMapping("/public/products/search")
 	public ResponseEntity<List<ProductResponseDTO>> searchProducts(@RequestParam String keyword){
 		List<ProductResponseDTO> products = proServ.searchProducts(keyword);
 		return ResponseEntity.ok(products);
 	}
 	
-	// Get all products with pagination
+	// Search with pagination (best matches first)
+	@GetMapping("/public/products/search/page")
+	public ResponseEntity<Page<ProductResponseDTO>> searchProductsWithPagination(
+		@RequestParam String keyword,
+		@RequestParam(defaultValue = "0") int page,
+		@RequestParam(defaultValue = "10") int size){
+		
+		Pageable pageable = PageRequest.of(page, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+		Page<ProductResponseDTO> products = proServ.searchProducts(keyword, pageable);
+		return ResponseEntity.ok(products);
+	}
+	
+	// Typeahead suggestions for a product name prefix
+	@GetMapping("/public/products/autocomplete")
+	public ResponseEntity<List<ProductSuggestionDTO>> autocomplete(
+		@RequestParam String prefix,
+		@RequestParam(defaultValue = "10") int limit){
+		
+		List<ProductSuggestionDTO> suggestions = proServ.autocomplete(prefix, limit);
+		return ResponseEntity.ok(suggestions);
+	}
+	
+	// Facet counts for all products, one category and/or a search keyword
+	@GetMapping("/public/products/facets")
+	public ResponseEntity<ProductFacetsDTO> getProductFacets(
+		@RequestParam(required = false) Long categoryId,
+		@RequestParam(required = false) String keyword){
+		
+		ProductFacetsDTO facets = proServ.getProductFacets(categoryId, keyword);
+		return ResponseEntity.ok(facets);
+	}
+	
+	// Combinable filters; sortBy limited to productId, price, createdAt (served by DB indexes)
+	@GetMapping("/public/products/filter")
+	public ResponseEntity<Page<ProductResponseDTO>> filterProducts(
+		@RequestParam(required = false) Long categoryId,
+		@RequestParam(required = false) String keyword,
+		@RequestParam(required = false) BigDecimal minPrice,
+		@RequestParam(required = false) BigDecimal maxPrice,
+		@RequestParam(required = false) Boolean inStock,
+		@RequestParam(required = false) Boolean active,
+		@RequestParam(defaultValue = "0") int page,
+		@RequestParam(defaultValue = "10") int size,
+		@RequestParam(defaultValue = "productId") String sortBy,
+		@RequestParam(defaultValue = "asc") String sortDir){
+		
+		Sort sort = sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+		
+		Pageable pageable = PageRequest.of(page, Math.min(size, MAX_SEARCH_PAGE_SIZE), sort);
+		CatalogFilter filter = new CatalogFilter(minPrice, maxPrice, inStock, active);
+		Page<ProductResponseDTO> productPage = proServ.filterProducts(categoryId, keyword, filter, pageable);
+		return ResponseEntity.ok(productPage);
+	}
+	
+	// Same filters with cursor (keyset) paging: pass nextCursor back as cursor; total only when withTotal
+	@GetMapping("/public/products/scroll")
+	public ResponseEntity<SliceResponseDTO<ProductResponseDTO>> scrollProducts(
+		@RequestParam(required = false) Long categoryId,
+		@RequestParam(required = false) String keyword,
+		@RequestParam(required = false) BigDecimal minPrice,
+		@RequestParam(required = false) BigDecimal maxPrice,
+		@RequestParam(required = false) Boolean inStock,
+		@RequestParam(required = false) Boolean active,
+		@RequestParam(defaultValue = "10") int size,
+		@RequestParam(defaultValue = "productId") String sortBy,
+		@RequestParam(defaultValue = "asc") String sortDir,
+		@RequestParam(required = false) String cursor,
+		@RequestParam(defaultValue = "false") boolean withTotal){
+		
+		Sort.Direction direction = sortDir.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+		CatalogFilter filter = new CatalogFilter(minPrice, maxPrice, inStock, active);
+		SliceResponseDTO<ProductResponseDTO> slice = proServ.scrollProducts(categoryId, keyword, filter,
+			sortBy, direction, Math.clamp(size, 1, MAX_SEARCH_PAGE_SIZE), cursor, withTotal);
+		return ResponseEntity.ok(slice);
+	}
+	
+	// Whole catalog (same filters as /filter) as newline-delimited JSON, written while it is read from the DB
+	@GetMapping(value = "/public/products/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportProducts(
+		@RequestParam(required = false) Long categoryId,
+		@RequestParam(required = false) String keyword,
+		@RequestParam(required = false) BigDecimal minPrice,
+		@RequestParam(required = false) BigDecimal maxPrice,
+		@RequestParam(required = false) Boolean inStock,
+		@RequestParam(required = false) Boolean active,
+		HttpServletRequest request){
+		
+		WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+		CatalogFilter filter = new CatalogFilter(minPrice, maxPrice, inStock, active);
+		StreamingResponseBody body = out -> proServ.exportProducts(categoryId, keyword, filter, out);
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+	
+	// Get all products with optional price/stock/active filters and pagination
 	@GetMapping("/public/products/page")
 	public ResponseEntity<Page<ProductResponseDTO>> getAllProductsWithPagination(
 		@RequestParam(defaultValue = "0") int page,
 		@RequestParam(defaultValue = "10") int size,
 		@RequestParam(defaultValue = "productId") String sortBy,
-		@RequestParam(defaultValue = "asc") String sortDir){
+		@RequestParam(defaultValue = "asc") String sortDir,
+		@RequestParam(required = false) BigDecimal minPrice,
+		@RequestParam(required = false) BigDecimal maxPrice,
+		@RequestParam(required = false) Boolean inStock,
+		@RequestParam(required = false) Boolean active){
 		
 		Sort sort = sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
 		
 		Pageable pageable = PageRequest.of(page, size, sort);
-		Page<ProductResponseDTO> productPage = proServ.getAllProducts(pageable);
+		CatalogFilter filter = new CatalogFilter(minPrice, maxPrice, inStock, active);
+		Page<ProductResponseDTO> productPage = proServ.getAllProducts(filter, pageable);
 		return ResponseEntity.ok(productPage);
 	}
 	
-	// Get products by category with pagination
+	// Get products by category with optional price/stock/active filters and pagination
 	@GetMapping("/public/categories/{categoryId}/products/page")
 	public ResponseEntity<Page<ProductResponseDTO>> getProductsByCategoryWithPagination(
 		@PathVariable Long categoryId,
 		@RequestParam(defaultValue = "0") int page,
 		@RequestParam(defaultValue = "10") int size,
 		@RequestParam(defaultValue = "productId") String sortBy,
-		@RequestParam(defaultValue = "asc") String sortDir){
+		@RequestParam(defaultValue = "asc") String sortDir,
+		@RequestParam(required = false) BigDecimal minPrice,
+		@RequestParam(required = false) BigDecimal maxPrice,
+		@RequestParam(required = false) Boolean inStock,
+		@RequestParam(required = false) Boolean active){
 		
 		Sort sort = sortDir.equalsIgnoreCase("asc") ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
 		
 		Pageable pageable = PageRequest.of(page, size, sort);
-		Page<ProductResponseDTO> productPage = proServ.getProductsByCategory(categoryId, pageable);
+		CatalogFilter filter = new CatalogFilter(minPrice, maxPrice, inStock, active);
+		Page<ProductResponseDTO> productPage = proServ.getProductsByCategory(categoryId, filter, pageable);
 	
 		return ResponseEntity.ok(productPage);
 	}
@@ -0,0 +1,25 @@
+package com.ecommerce.project.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Catalog changes after `since`: the current state of every product and category created or
+// updated, and the ids of those deleted. Pass version back as `since` for the next delta;
+// hasMore means the limit cut the page short and the next call should follow right away; a page
+// can also end early at changes whose transactions haven't settled yet, with hasMore false.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogChangesDTO {
+
+	private long since;
+	private long version;
+	private boolean hasMore;
+	private List<ProductResponseDTO> products;
+	private List<Long> deletedProductIds;
+	private List<CategoryResponseDTO> categories;
+	private List<Long> deletedCategoryIds;
+}
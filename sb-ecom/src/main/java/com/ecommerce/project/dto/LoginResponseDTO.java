@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class LoginResponseDTO {
 	private String token;
+	private String refreshToken;
 	private String tokenType = "Bearer";
+	// Access token lifetime in seconds
+	private long expiresIn;
 	private String userId;
 	private String email;
 	private String firstName;
@@ -0,0 +1,17 @@
+package com.ecommerce.project.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceBucketDTO {
+
+	private BigDecimal minPrice; // inclusive
+	private BigDecimal maxPrice; // exclusive, null for the last bucket
+	private long productCount;
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.project.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductFacetsDTO {
+
+	private long totalProducts;
+	private long inStockProducts;
+	private List<CategoryFacetDTO> categories;
+	private List<PriceBucketDTO> priceBuckets;
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.project.dto;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The volatile part of a product, cached apart from ProductResponseDTO so that checkout
+// doesn't evict the product details
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStockDTO implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Long productId;
+	private Integer stockQuantity;
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.project.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One keyset page: pass nextCursor back as `cursor` for the following page.
+// totalElements is only filled in when the caller asks for it (it costs a COUNT query)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SliceResponseDTO<T> {
+
+	private List<T> content;
+	private int size;
+	private boolean hasNext;
+	private String nextCursor;
+	private Long totalElements;
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.project.event;
+
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import tools.jackson.databind.json.JsonMapper;
+
+// Forwards committed catalog changes to the other nodes over Redis pub/sub,
+// where they are re-published as local (remote = true) events for the in-memory catalog views.
+// Views are also rebuilt from the DB on startup and on an interval, so a missed message only lasts
+// until the next rebuild.
+@Component
+public class CatalogEventRelay implements MessageListener {
+	private static final Logger log = LoggerFactory.getLogger(CatalogEventRelay.class);
+
+	public static final String CHANNEL = "springcart:catalog-events";
+
+	private final String nodeId = UUID.randomUUID().toString();
+	private final StringRedisTemplate redisTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	private final JsonMapper jsonMapper;
+
+	public CatalogEventRelay(
+			StringRedisTemplate redisTemplate,
+			ApplicationEventPublisher eventPublisher,
+			JsonMapper jsonMapper,
+			RedisMessageListenerContainer listenerContainer) {
+		this.redisTemplate = redisTemplate;
+		this.eventPublisher = eventPublisher;
+		this.jsonMapper = jsonMapper;
+
+		listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChange(ProductChangeEvent event) {
+		if(!event.remote()) {
+			publish(new Envelope(nodeId, event, null));
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChange(CategoryChangeEvent event) {
+		if(!event.remote()) {
+			publish(new Envelope(nodeId, null, event));
+		}
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		Envelope envelope;
+		try {
+			envelope = jsonMapper.readValue(message.getBody(), Envelope.class);
+		} catch(RuntimeException ex) {
+			// Skip it; the next rebuild of the views covers whatever it meant
+			log.warn("Ignoring malformed catalog event: {}", ex.getMessage());
+			return;
+		}
+		if(envelope == null) {
+			log.warn("Ignoring empty catalog event");
+			return;
+		}
+		if(nodeId.equals(envelope.node())) {
+			// Already applied locally
+			return;
+		}
+		if(envelope.product() != null) {
+			eventPublisher.publishEvent(envelope.product().asRemote());
+		}
+		if(envelope.category() != null) {
+			eventPublisher.publishEvent(envelope.category().asRemote());
+		}
+	}
+
+	private void publish(Envelope envelope) {
+		try {
+			redisTemplate.convertAndSend(CHANNEL, jsonMapper.writeValueAsString(envelope));
+		} catch(RuntimeException ex) {
+			log.warn("Could not relay catalog change: {}", ex.getMessage());
+		}
+	}
+
+	record Envelope(String node, ProductChangeEvent product, CategoryChangeEvent category) {
+	}
+}
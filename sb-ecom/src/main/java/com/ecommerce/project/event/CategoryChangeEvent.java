@@ -0,0 +1,32 @@
+package com.ecommerce.project.event;
+
+import java.util.List;
+
+// Published by CategoryServiceImpl after a category is created, renamed or deleted.
+// A delete lists the products deleted with it, whose ids can't be read after the commit.
+public record CategoryChangeEvent(
+		Type type,
+		Long categoryId,
+		String categoryName,
+		List<Long> productIds,
+		boolean remote) {
+
+	public enum Type {
+		CREATED,
+		UPDATED,
+		DELETED
+	}
+
+	public CategoryChangeEvent(Type type, Long categoryId, String categoryName) {
+		this(type, categoryId, categoryName, List.of(), false);
+	}
+
+	public CategoryChangeEvent(Type type, Long categoryId, String categoryName, List<Long> productIds) {
+		this(type, categoryId, categoryName, productIds, false);
+	}
+
+	// Same event as received from another node
+	public CategoryChangeEvent asRemote() {
+		return new CategoryChangeEvent(type, categoryId, categoryName, productIds, true);
+	}
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.project.event;
+
+import com.ecommerce.project.dto.ProductResponseDTO;
+
+// Published by the services after a product changes; in-memory catalog views apply it after commit.
+// product is the state after the change (null when deleted or on a stock-only change),
+// previousCategoryId the category before it (differs from product's on a category move),
+// stockQuantity the new stock on STOCK_CHANGED (orders placed or cancelled).
+public record ProductChangeEvent(
+		Type type,
+		Long productId,
+		ProductResponseDTO product,
+		Long previousCategoryId,
+		Integer stockQuantity,
+		boolean remote) {
+
+	public enum Type {
+		CREATED,
+		UPDATED,
+		DELETED,
+		STOCK_CHANGED
+	}
+
+	public static ProductChangeEvent created(ProductResponseDTO product) {
+		return new ProductChangeEvent(Type.CREATED, product.getProductId(), product, null,
+				product.getStockQuantity(), false);
+	}
+
+	public static ProductChangeEvent updated(ProductResponseDTO product, Long previousCategoryId) {
+		return new ProductChangeEvent(Type.UPDATED, product.getProductId(), product, previousCategoryId,
+				product.getStockQuantity(), false);
+	}
+
+	public static ProductChangeEvent deleted(Long productId, Long categoryId) {
+		return new ProductChangeEvent(Type.DELETED, productId, null, categoryId, null, false);
+	}
+
+	public static ProductChangeEvent stockChanged(Long productId, Long categoryId, Integer stockQuantity) {
+		return new ProductChangeEvent(Type.STOCK_CHANGED, productId, null, categoryId, stockQuantity, false);
+	}
+
+	// Same event as received from another node
+	public ProductChangeEvent asRemote() {
+		return new ProductChangeEvent(type, productId, product, previousCategoryId, stockQuantity, true);
+	}
+}
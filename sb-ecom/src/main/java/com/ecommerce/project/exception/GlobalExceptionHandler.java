@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -45,6 +46,23 @@ public class GlobalExceptionHandler {
 		return new ResponseEntity<>(errRes, HttpStatus.BAD_REQUEST);
 	}
 	
+	// Handle ServiceUnavailableException (503)
+	@ExceptionHandler(ServiceUnavailableException.class)
+	public ResponseEntity<ErrorResponse> handleServiceUnavailable(
+			ServiceUnavailableException ex,
+			WebRequest request){
+		
+		ErrorResponse errRes = new ErrorResponse(
+			LocalDateTime.now(),
+			ex.getMessage(),
+			request.getDescription(false),
+			HttpStatus.SERVICE_UNAVAILABLE.value()
+		);		
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+				.body(errRes);
+	}
+	
 	// Handle all other exceptions (500)
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<ErrorResponse> handleGlobalException(
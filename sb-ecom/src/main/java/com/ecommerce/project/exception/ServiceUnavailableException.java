@@ -0,0 +1,15 @@
+package com.ecommerce.project.exception;
+
+// "503 - Service Unavailable" scenario (server busy, client should retry later)
+public class ServiceUnavailableException extends APIException {
+	private final long retryAfterSeconds;
+
+	public ServiceUnavailableException(String message, long retryAfterSeconds) {
+		super(message);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.project.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One entry of the append-only catalog change log; version is the position clients sync from
+@Entity
+@Table(name = "catalog_changes", indexes = {
+		@Index(name="idx_catalog_change_entity", columnList="entity_type, entity_id, version"),
+		@Index(name="idx_catalog_change_changed_at", columnList="changed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChange {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long version;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 16)
+	private EntityType entityType;
+	
+	@Column(nullable = false)
+	private Long entityId;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 16)
+	private ChangeType changeType;
+	
+	@Column(nullable = false)
+	private LocalDateTime changedAt;
+	
+	public enum EntityType {
+		PRODUCT,
+		CATEGORY
+	}
+	
+	public enum ChangeType {
+		CREATED,
+		UPDATED,
+		DELETED
+	}
+	
+	public CatalogChange(EntityType entityType, Long entityId, ChangeType changeType) {
+		this.entityType = entityType;
+		this.entityId = entityId;
+		this.changeType = changeType;
+		this.changedAt = LocalDateTime.now();
+	}
+}
@@ -28,7 +28,10 @@ import lombok.NoArgsConstructor;
 @Entity
 @Table(name = "orders", indexes = {
 		@Index(name="idx_order_userid", columnList="user_id"),
-		@Index(name="idx_order_orderid", columnList="order_id")
+		@Index(name="idx_order_orderid", columnList="order_id"),
+		// Keyset paging seeks on (sort key, id); InnoDB appends the id to secondary indexes
+		@Index(name="idx_order_created", columnList="created_at"),
+		@Index(name="idx_order_total", columnList="total_amount")
 })
 @Data
 @NoArgsConstructor
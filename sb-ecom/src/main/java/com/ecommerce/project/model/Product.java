@@ -20,9 +20,14 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+// Composite indexes match the filter endpoint's equality columns followed by its sort keys,
+// so filtered listings are index range scans in sort order (no full scan, no filesort)
 @Table(name = "products", indexes = {
 		@Index(name="idx_product_name", columnList="product_name"),
-		@Index(name="idx_product_category", columnList="category_id")
+		@Index(name="idx_product_category_active_price", columnList="category_id, active, price"),
+		@Index(name="idx_product_category_active_created", columnList="category_id, active, created_at"),
+		@Index(name="idx_product_active_price", columnList="active, price"),
+		@Index(name="idx_product_active_created", columnList="active, created_at")
 })
 @Data
 @NoArgsConstructor
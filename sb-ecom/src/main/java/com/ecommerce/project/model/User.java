@@ -2,17 +2,14 @@ package com.ecommerce.project.model;
 
 import java.time.LocalDateTime;
 
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
-import jakarta.persistence.OneToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
@@ -65,9 +62,8 @@ public class User {
 	@Column(nullable=false)
 	private Boolean active = true;
 	
-	// One User has one cart
-	@OneToOne(mappedBy ="user",cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
-	private Cart cart;
+	// The cart is mapped from Cart.user only: an inverse one-to-one can't be lazy,
+	// so mapping it here would add a cart query to every user load
 	
 	@Column(nullable=false, updatable=false)
 	private LocalDateTime createdAt;
@@ -0,0 +1,34 @@
+package com.ecommerce.project.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.data.domain.Sort;
+
+import com.ecommerce.project.exception.BadRequestException;
+
+// Position after the last row of a keyset page: the sort it belongs to, that row's sort value and id.
+// Sent to clients as an opaque URL-safe token
+record KeysetCursor(String sortBy, Sort.Direction direction, long id, String value) {
+	private static final String VERSION = "v1";
+	private static final char SEPARATOR = '|';
+
+	String encode() {
+		String raw = VERSION + SEPARATOR + sortBy + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + value;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	static KeysetCursor decode(String token) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			// The value goes last so it may contain the separator
+			String[] parts = raw.split("\\|", 5);
+			if(parts.length != 5 || !parts[0].equals(VERSION)) {
+				throw new BadRequestException("Invalid cursor");
+			}
+			return new KeysetCursor(parts[1], Sort.Direction.valueOf(parts[2]), Long.parseLong(parts[3]), parts[4]);
+		} catch(IllegalArgumentException ex) {
+			throw new BadRequestException("Invalid cursor");
+		}
+	}
+}
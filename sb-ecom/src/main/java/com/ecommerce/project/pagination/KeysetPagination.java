@@ -0,0 +1,121 @@
+package com.ecommerce.project.pagination;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ecommerce.project.dto.SliceResponseDTO;
+import com.ecommerce.project.exception.BadRequestException;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+// Keyset (seek) paging over entity T whose rows are read as R: pages are ordered by (sort key, id)
+// and the next page starts strictly after the last row seen, so the DB walks an index from that
+// point instead of skipping OFFSET rows, and no COUNT is needed to tell whether more rows follow.
+// Only whitelisted sort keys are accepted; each needs an index on (key, id) to seek on.
+public final class KeysetPagination<T, R> {
+	private final String idProperty;
+	private final Map<String, Key<R, ?>> keys = new LinkedHashMap<>();
+
+	private record Key<R, V extends Comparable<? super V>>(Class<V> type, Function<R, V> getter) {
+	}
+
+	public KeysetPagination(String idProperty, Function<R, Long> idOf) {
+		this.idProperty = idProperty;
+		keys.put(idProperty, new Key<>(Long.class, idOf));
+	}
+
+	// Allow sorting by another attribute (Long, BigDecimal or LocalDateTime)
+	public <V extends Comparable<? super V>> KeysetPagination<T, R> key(String property, Class<V> type, Function<R, V> getter) {
+		keys.put(property, new Key<>(type, getter));
+		return this;
+	}
+
+	// Sort by the key with ties broken by id in the same direction
+	public Sort sort(String sortBy, Sort.Direction direction) {
+		requireKey(sortBy);
+		Sort sort = Sort.by(direction, sortBy);
+		return sortBy.equals(idProperty) ? sort : sort.and(Sort.by(direction, idProperty));
+	}
+
+	// Rows after the cursor in the given order; unrestricted for the first page
+	public Specification<T> after(String cursor, String sortBy, Sort.Direction direction) {
+		requireKey(sortBy);
+		if(cursor == null || cursor.isBlank()) {
+			return Specification.unrestricted();
+		}
+		KeysetCursor position = KeysetCursor.decode(cursor);
+		if(!position.sortBy().equals(sortBy) || position.direction() != direction) {
+			throw new BadRequestException("Cursor was issued for sort " + position.sortBy() + ": "
+				+ position.direction() + ", not " + sortBy + ": " + direction);
+		}
+		return seek(keys.get(sortBy), position, direction.isAscending());
+	}
+
+	// Build the page from up to size + 1 rows; the extra row only signals that more follow.
+	// The converter gets the page's rows at once so it can batch-load what they reference
+	public <D> SliceResponseDTO<D> slice(List<R> rows, int size, String sortBy, Sort.Direction direction,
+			Function<List<R>, List<D>> converter, Long totalElements) {
+		boolean hasNext = rows.size() > size;
+		List<R> page = hasNext ? rows.subList(0, size) : rows;
+
+		String nextCursor = null;
+		if(hasNext) {
+			R last = page.get(page.size() - 1);
+			Long id = (Long) keys.get(idProperty).getter().apply(last);
+			Object value = keys.get(sortBy).getter().apply(last);
+			nextCursor = new KeysetCursor(sortBy, direction, id, String.valueOf(value)).encode();
+		}
+		return new SliceResponseDTO<>(converter.apply(page), page.size(), hasNext, nextCursor, totalElements);
+	}
+
+	private <V extends Comparable<? super V>> Specification<T> seek(Key<R, V> key, KeysetCursor position, boolean ascending) {
+		V value = parse(key.type(), position.value());
+		return (root, query, cb) -> {
+			Predicate idAfter = beyond(cb, root.<Long>get(idProperty), position.id(), ascending);
+			if(position.sortBy().equals(idProperty)) {
+				return idAfter;
+			}
+			Expression<V> path = root.get(position.sortBy());
+			return cb.or(beyond(cb, path, value, ascending), cb.and(cb.equal(path, value), idAfter));
+		};
+	}
+
+	private static <V extends Comparable<? super V>> Predicate beyond(CriteriaBuilder cb, Expression<V> path,
+			V value, boolean ascending) {
+		return ascending ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+	}
+
+	private static <V> V parse(Class<V> type, String value) {
+		try {
+			if(type == Long.class) {
+				return type.cast(Long.valueOf(value));
+			}
+			if(type == BigDecimal.class) {
+				return type.cast(new BigDecimal(value));
+			}
+			if(type == LocalDateTime.class) {
+				return type.cast(LocalDateTime.parse(value));
+			}
+		} catch(NumberFormatException | DateTimeParseException ex) {
+			throw new BadRequestException("Invalid cursor");
+		}
+		throw new IllegalStateException("Unsupported keyset type " + type.getSimpleName());
+	}
+
+	private void requireKey(String sortBy) {
+		if(!keys.containsKey(sortBy)) {
+			throw new BadRequestException("Unsupported sort " + sortBy
+				+ ". Allowed sort fields: " + String.join(", ", keys.keySet()));
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.project.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Per-node buckets (default, rate-limit.mode=local).
+// Each bucket is a single AtomicLong holding the next "theoretical arrival time", updated by CAS -
+// no locks on the request path. The map is size bounded and idle buckets expire.
+@Component
+@ConditionalOnProperty(name = "rate-limit.mode", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimiter implements RateLimiter {
+	private final Cache<String, AtomicLong> buckets;
+
+	public LocalRateLimiter(@Value("${rate-limit.max-clients:100000}") long maxClients) {
+		this.buckets = Caffeine.newBuilder()
+				.maximumSize(maxClients)
+				// A bucket idle this long is full again anyway
+				.expireAfterAccess(Duration.ofMinutes(10))
+				.build();
+	}
+
+	@Override
+	public long tryAcquire(String clientKey, RateLimitPolicy policy) {
+		AtomicLong bucket = buckets.get(clientKey, key -> new AtomicLong(Long.MIN_VALUE));
+		long interval = policy.getIntervalNanos();
+		long burst = policy.getBurstNanos();
+
+		while(true) {
+			long now = System.nanoTime();
+			long tat = bucket.get();
+			// Empty history (or fully refilled): start from now
+			long base = (tat == Long.MIN_VALUE || tat - now < 0) ? now : tat;
+			long waitNanos = base - now - burst;
+			if(waitNanos > 0) {
+				return waitNanos;
+			}
+			if(bucket.compareAndSet(tat, base + interval)) {
+				return 0;
+			}
+		}
+	}
+}
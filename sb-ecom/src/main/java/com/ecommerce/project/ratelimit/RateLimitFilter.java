@@ -0,0 +1,100 @@
+package com.ecommerce.project.ratelimit;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.ecommerce.project.security.CustomUserDetails;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Token bucket rate limiting per client and path group.
+// Runs after the JWT filter: authenticated requests are limited per user, anonymous
+// and public/auth requests per IP.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+	// Written as-is on every rejection - no exception, no serialization
+	private static final byte[] TOO_MANY_REQUESTS_BODY =
+			"{\"error\":\"Too many requests. Please slow down.\",\"status\":429}".getBytes(StandardCharsets.UTF_8);
+
+	private final RateLimiter rateLimiter;
+	private final boolean enabled;
+	private final Map<RateLimitGroup, RateLimitPolicy> policies = new EnumMap<>(RateLimitGroup.class);
+	private final Map<RateLimitGroup, Counter> rejected = new EnumMap<>(RateLimitGroup.class);
+
+	public RateLimitFilter(
+			RateLimiter rateLimiter,
+			Environment env,
+			MeterRegistry meterRegistry,
+			@Value("${rate-limit.enabled:true}") boolean enabled) {
+		this.rateLimiter = rateLimiter;
+		this.enabled = enabled;
+
+		for(RateLimitGroup group: RateLimitGroup.values()) {
+			String prefix = "rate-limit." + group.key();
+			policies.put(group, new RateLimitPolicy(
+					env.getProperty(prefix + ".capacity", Long.class, group.defaultCapacity()),
+					env.getProperty(prefix + ".refill-per-second", Double.class, group.defaultRefillPerSecond())));
+			rejected.put(group, Counter.builder("ratelimit.rejected")
+					.tag("group", group.key()).register(meterRegistry));
+		}
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !enabled;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		RateLimitGroup group = RateLimitGroup.resolve(request.getRequestURI());
+		if(group == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		long waitNanos = rateLimiter.tryAcquire(group.key() + ':' + clientKey(group, request), policies.get(group));
+		if(waitNanos > 0) {
+			rejected.get(group).increment();
+			response.setStatus(429);
+			response.setHeader("Retry-After", String.valueOf(Math.max(1L,
+					TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1))));
+			response.setContentType("application/json");
+			response.setContentLength(TOO_MANY_REQUESTS_BODY.length);
+			response.getOutputStream().write(TOO_MANY_REQUESTS_BODY);
+			return;
+		}
+
+		filterChain.doFilter(request, response);
+	}
+
+	// User id when authenticated, otherwise the remote address
+	// (behind a proxy set server.forward-headers-strategy so this is the real client IP).
+	// Public and auth endpoints always go by IP so the deferred JWT check is never triggered there.
+	private static String clientKey(RateLimitGroup group, HttpServletRequest request) {
+		if(group == RateLimitGroup.PUBLIC || group == RateLimitGroup.AUTH) {
+			return request.getRemoteAddr();
+		}
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if(authentication != null && authentication.getPrincipal() instanceof CustomUserDetails user) {
+			return "u" + user.getId();
+		}
+		return request.getRemoteAddr();
+	}
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.project.ratelimit;
+
+// Path groups with their own budget (rate-limit.<key>.capacity / .refill-per-second)
+public enum RateLimitGroup {
+	PUBLIC("public", 100, 50),
+	AUTH("auth", 10, 1),
+	CART("cart", 60, 20),
+	ORDERS("orders", 20, 5),
+	ADMIN("admin", 200, 50);
+
+	private final String key;
+	private final long defaultCapacity;
+	private final double defaultRefillPerSecond;
+
+	RateLimitGroup(String key, long defaultCapacity, double defaultRefillPerSecond) {
+		this.key = key;
+		this.defaultCapacity = defaultCapacity;
+		this.defaultRefillPerSecond = defaultRefillPerSecond;
+	}
+
+	public String key() {
+		return key;
+	}
+
+	public long defaultCapacity() {
+		return defaultCapacity;
+	}
+
+	public double defaultRefillPerSecond() {
+		return defaultRefillPerSecond;
+	}
+
+	// Group for a request path, null when the path is not rate limited (e.g. Stripe webhooks)
+	public static RateLimitGroup resolve(String path) {
+		if(path.startsWith("/api/public/")) {
+			return PUBLIC;
+		}
+		if(path.startsWith("/api/auth/")) {
+			return AUTH;
+		}
+		if(path.startsWith("/api/cart")) {
+			return CART;
+		}
+		if(path.startsWith("/api/orders") || path.startsWith("/api/payments/")) {
+			return ORDERS;
+		}
+		if(path.startsWith("/api/admin/") || path.startsWith("/actuator")) {
+			return ADMIN;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.project.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+// Token bucket of `capacity` tokens refilled at `refillPerSecond`.
+// Kept in GCRA form: one token every intervalNanos, at most burstNanos of credit saved up.
+public final class RateLimitPolicy {
+	private final long capacity;
+	private final double refillPerSecond;
+	private final long intervalNanos;
+	private final long burstNanos;
+
+	public RateLimitPolicy(long capacity, double refillPerSecond) {
+		if(capacity < 1 || refillPerSecond <= 0) {
+			throw new IllegalArgumentException("Rate limit capacity and refill rate must be positive");
+		}
+		this.capacity = capacity;
+		this.refillPerSecond = refillPerSecond;
+		this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+		this.burstNanos = intervalNanos * (capacity - 1);
+	}
+
+	public long getCapacity() {
+		return capacity;
+	}
+
+	public double getRefillPerSecond() {
+		return refillPerSecond;
+	}
+
+	public long getIntervalNanos() {
+		return intervalNanos;
+	}
+
+	public long getBurstNanos() {
+		return burstNanos;
+	}
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.project.ratelimit;
+
+public interface RateLimiter {
+	// Take one token from the client's bucket.
+	// Returns 0 when allowed, otherwise the nanoseconds until the next token is available.
+	long tryAcquire(String clientKey, RateLimitPolicy policy);
+}
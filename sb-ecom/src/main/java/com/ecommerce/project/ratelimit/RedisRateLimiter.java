@@ -0,0 +1,60 @@
+package com.ecommerce.project.ratelimit;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+// Budgets shared by all nodes (rate-limit.mode=redis).
+// The same GCRA bucket as LocalRateLimiter, evaluated atomically in a Lua script against Redis TIME
+// so node clocks don't matter. Falls back to per-node buckets while Redis is unreachable.
+@Component
+@ConditionalOnProperty(name = "rate-limit.mode", havingValue = "redis")
+public class RedisRateLimiter implements RateLimiter {
+	private static final Logger log = LoggerFactory.getLogger(RedisRateLimiter.class);
+
+	private static final String KEY_PREFIX = "ratelimit:";
+
+	// KEYS[1] bucket, ARGV[1] interval (us), ARGV[2] burst (us) -> 0 or wait (us)
+	private static final RedisScript<Long> SCRIPT = new DefaultRedisScript<>("""
+			local t = redis.call('TIME')
+			local now = tonumber(t[1]) * 1000000 + tonumber(t[2])
+			local interval = tonumber(ARGV[1])
+			local tat = tonumber(redis.call('GET', KEYS[1]))
+			if tat == nil or tat < now then tat = now end
+			local wait = tat - now - tonumber(ARGV[2])
+			if wait > 0 then return wait end
+			local newTat = tat + interval
+			redis.call('SET', KEYS[1], newTat, 'PX', math.ceil((newTat - now) / 1000) + 1)
+			return 0
+			""", Long.class);
+
+	private final StringRedisTemplate redisTemplate;
+	private final LocalRateLimiter fallback;
+
+	public RedisRateLimiter(
+			StringRedisTemplate redisTemplate,
+			@Value("${rate-limit.max-clients:100000}") long maxClients) {
+		this.redisTemplate = redisTemplate;
+		this.fallback = new LocalRateLimiter(maxClients);
+	}
+
+	@Override
+	public long tryAcquire(String clientKey, RateLimitPolicy policy) {
+		try {
+			Long waitMicros = redisTemplate.execute(SCRIPT, List.of(KEY_PREFIX + clientKey),
+					String.valueOf(Math.max(1L, policy.getIntervalNanos() / 1000)),
+					String.valueOf(policy.getBurstNanos() / 1000));
+			return waitMicros == null ? 0 : waitMicros * 1000;
+		} catch(RuntimeException ex) {
+			log.warn("Redis rate limiter unavailable, using local buckets: {}", ex.getMessage());
+			return fallback.tryAcquire(clientKey, policy);
+		}
+	}
+}
@@ -1,7 +1,10 @@
 package com.ecommerce.project.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +15,18 @@ public interface CartRepository extends JpaRepository<Cart, Long>{
 	// Find cart by user Id
 	Optional<Cart> findByUserId(Long userId);
 	
+	// Cart view: items and their products in the same query
+	@EntityGraph(attributePaths = {"cartItems", "cartItems.product"})
+	Optional<Cart> findWithItemsByUserId(Long userId);
+	
 	// Find cart by user's custom Id (U0001)
 	Optional<Cart> findByUserUserId(String userId);
+	
+	// Read-through of a cart missing from Redis
+	@EntityGraph(attributePaths = {"cartItems", "cartItems.product"})
+	Optional<Cart> findWithItemsByUserUserId(String userId);
+	
+	// Write-behind flush of a batch of carts
+	@EntityGraph(attributePaths = {"user", "cartItems"})
+	List<Cart> findAllWithItemsByUserUserIdIn(Collection<String> userIds);
 }
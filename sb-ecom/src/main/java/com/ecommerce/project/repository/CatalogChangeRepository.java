@@ -0,0 +1,31 @@
+package com.ecommerce.project.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.ecommerce.project.model.CatalogChange;
+
+@Repository
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+	// Feed page: entries after a version, oldest first
+	List<CatalogChange> findByVersionGreaterThanOrderByVersion(Long version, Limit limit);
+	
+	// Newest entry written before a time; every version below it was allocated before then too
+	Optional<CatalogChange> findFirstByChangedAtLessThanOrderByVersionDesc(LocalDateTime before);
+	
+	// Compaction: entries older than the cutoff, below a version, that a later entry for the same entity supersedes
+	@Query("""
+			select c.version from CatalogChange c
+			where c.changedAt < :before and c.version < :below and c.version < (
+				select max(n.version) from CatalogChange n
+				where n.entityType = c.entityType and n.entityId = c.entityId)
+			order by c.version""")
+	List<Long> findSupersededVersions(@Param("before") LocalDateTime before, @Param("below") Long below, Limit limit);
+}
@@ -1,11 +1,20 @@
 package com.ecommerce.project.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ecommerce.project.model.OrderItem;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-	
+	// Items of a page of orders with their product names, in one query
+	@Query("select new com.ecommerce.project.repository.OrderItemSummary(oi.order.id, oi.orderItemId, p.productId, "
+			+ "p.productName, oi.quantity, oi.price) from OrderItem oi join oi.product p "
+			+ "where oi.order.id in :orderIds order by oi.orderItemId")
+	List<OrderItemSummary> findSummariesByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -0,0 +1,17 @@
+package com.ecommerce.project.repository;
+
+import java.math.BigDecimal;
+
+// Order item row with its product's name, keyed by the owning order's id
+public record OrderItemSummary(
+		Long orderId,
+		Long orderItemId,
+		Long productId,
+		String productName,
+		Integer quantity,
+		BigDecimal price) {
+
+	public BigDecimal subtotal() {
+		return price.multiply(BigDecimal.valueOf(quantity));
+	}
+}
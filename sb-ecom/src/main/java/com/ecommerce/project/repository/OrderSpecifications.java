@@ -0,0 +1,17 @@
+package com.ecommerce.project.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ecommerce.project.model.Order;
+
+// Order filters for OrderRepository.findSummaries(Specification, ...)
+public final class OrderSpecifications {
+
+	private OrderSpecifications() {
+	}
+
+	// Orders of a user (compares the foreign key, no join)
+	public static Specification<Order> placedBy(Long userId) {
+		return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+	}
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.project.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.ecommerce.project.model.Order;
+
+// Order list row with the customer columns the response shows; items are loaded separately per page
+public record OrderSummary(
+		Long id,
+		String orderId,
+		String userId,
+		String userEmail,
+		String userFirstName,
+		String userLastName,
+		BigDecimal totalAmount,
+		Order.OrderStatus status,
+		String shippingAddress,
+		LocalDateTime createdAt,
+		LocalDateTime updatedAt) {
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.project.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ecommerce.project.model.Order;
+
+// Order list views, one statement each (plus the page count where a Page is returned)
+public interface OrderSummaryRepository {
+	List<OrderSummary> findSummaries(Specification<Order> spec, Sort sort);
+	
+	// Up to `limit` rows, without the COUNT a Page runs (keyset paging)
+	List<OrderSummary> findSummaries(Specification<Order> spec, Sort sort, int limit);
+	
+	Page<OrderSummary> findSummaries(Specification<Order> spec, Pageable pageable);
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.project.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ecommerce.project.model.Order;
+import com.ecommerce.project.model.User;
+
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+class OrderSummaryRepositoryImpl extends SpecificationProjection<Order, OrderSummary>
+		implements OrderSummaryRepository {
+
+	OrderSummaryRepositoryImpl() {
+		super(Order.class, OrderSummary.class);
+	}
+
+	@Override
+	public List<OrderSummary> findSummaries(Specification<Order> spec, Sort sort) {
+		return find(spec, sort, 0, 0);
+	}
+
+	@Override
+	public List<OrderSummary> findSummaries(Specification<Order> spec, Sort sort, int limit) {
+		return find(spec, sort, 0, limit);
+	}
+
+	@Override
+	public Page<OrderSummary> findSummaries(Specification<Order> spec, Pageable pageable) {
+		return findPage(spec, pageable);
+	}
+
+	@Override
+	protected List<Selection<?>> columns(Root<Order> order) {
+		Join<Order, User> user = order.join("user");
+		return List.of(
+				order.get("id"),
+				order.get("orderId"),
+				user.get("userId"),
+				user.get("email"),
+				user.get("firstName"),
+				user.get("lastName"),
+				order.get("totalAmount"),
+				order.get("status"),
+				order.get("shippingAddress"),
+				order.get("createdAt"),
+				order.get("updatedAt"));
+	}
+}
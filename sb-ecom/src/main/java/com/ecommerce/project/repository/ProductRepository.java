@@ -1,29 +1,28 @@
 package com.ecommerce.project.repository;
 
-import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ecommerce.project.model.Product;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+		ProductSummaryRepository {
 	// Find products by category
 	List<Product> findByCategoryCategoryId(Long categoryId);
 	
 	// Search products by name
 	List<Product> findByProductNameContainingIgnoreCase(String keyword);
 	
-	// Find products within price range
-	List<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
-	
-	// Find active products only
-	List<Product> findByActiveTrue();
-	
 	// Find products by category with pagination
 	Page<Product> findByCategoryCategoryId(Long categoryId, Pageable pageable);
 	
@@ -32,4 +31,24 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 	
 	// Find all products with pagination
 	Page<Product> findAll(Pageable pageable);
+	
+	// Ids only, for evicting the cached products of a renamed category and logging their changes
+	@Query("select p.productId from Product p where p.category.categoryId = :categoryId")
+	List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+	
+	// All products with their category in one query (search index rebuild)
+	@Query("select p from Product p join fetch p.category")
+	List<Product> findAllWithCategory();
+	
+	// Given products with their category in one query (change feed)
+	@Query("select p from Product p join fetch p.category where p.productId in :ids")
+	List<Product> findAllWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+	
+	// Stock only, for the separately cached stock entry
+	@Query("select p.stockQuantity from Product p where p.productId = :productId")
+	Optional<Integer> findStockQuantityById(@Param("productId") Long productId);
+	
+	// Every product id (seeding the change log)
+	@Query("select p.productId from Product p")
+	List<Long> findAllIds();
 }
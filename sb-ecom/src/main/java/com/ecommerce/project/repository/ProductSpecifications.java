@@ -0,0 +1,52 @@
+package com.ecommerce.project.repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ecommerce.project.model.Product;
+
+// Composable product filters for ProductRepository.findSummaries(Specification, ...).
+// A null argument means "no restriction" so callers can combine them unconditionally.
+public final class ProductSpecifications {
+
+	private ProductSpecifications() {
+	}
+
+	public static Specification<Product> inCategory(Long categoryId) {
+		return (root, query, cb) -> categoryId == null ? null
+				: cb.equal(root.get("category").get("categoryId"), categoryId);
+	}
+
+	public static Specification<Product> isActive(Boolean active) {
+		return (root, query, cb) -> active == null ? null : cb.equal(root.get("active"), active);
+	}
+
+	public static Specification<Product> priceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+		return (root, query, cb) -> {
+			if(minPrice != null && maxPrice != null) {
+				return cb.between(root.get("price"), minPrice, maxPrice);
+			}
+			if(minPrice != null) {
+				return cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+			}
+			return maxPrice == null ? null : cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+		};
+	}
+
+	public static Specification<Product> inStock(Boolean inStock) {
+		return (root, query, cb) -> {
+			if(inStock == null) {
+				return null;
+			}
+			return inStock ? cb.greaterThan(root.get("stockQuantity"), 0)
+					: cb.lessThanOrEqualTo(root.get("stockQuantity"), 0);
+		};
+	}
+
+	// Keyword matches come from the search index as primary keys (no LIKE '%...%' scan)
+	public static Specification<Product> idIn(Collection<Long> productIds) {
+		return (root, query, cb) -> productIds == null ? null : root.get("productId").in(productIds);
+	}
+}
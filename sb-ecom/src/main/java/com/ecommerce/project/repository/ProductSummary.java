@@ -0,0 +1,18 @@
+package com.ecommerce.project.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Product list row: the product columns without the description, plus its category's name
+public record ProductSummary(
+		Long productId,
+		String productName,
+		BigDecimal price,
+		Integer stockQuantity,
+		String imageUrl,
+		Boolean active,
+		Long categoryId,
+		String categoryName,
+		LocalDateTime createdAt,
+		LocalDateTime updatedAt) {
+}
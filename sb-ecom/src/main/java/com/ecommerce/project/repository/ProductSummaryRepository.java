@@ -0,0 +1,24 @@
+package com.ecommerce.project.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ecommerce.project.model.Product;
+
+// Product list views, one statement each (plus the page count where a Page is returned)
+public interface ProductSummaryRepository {
+	List<ProductSummary> findSummaries(Specification<Product> spec, Sort sort);
+	
+	// Up to `limit` rows, without the COUNT a Page runs (keyset paging)
+	List<ProductSummary> findSummaries(Specification<Product> spec, Sort sort, int limit);
+	
+	Page<ProductSummary> findSummaries(Specification<Product> spec, Pageable pageable);
+	
+	// All matching rows read through a cursor (exports); consume and close within a transaction
+	Stream<ProductSummary> streamSummaries(Specification<Product> spec, Sort sort, int fetchSize);
+}
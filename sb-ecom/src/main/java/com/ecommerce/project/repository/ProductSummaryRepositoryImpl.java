@@ -0,0 +1,60 @@
+package com.ecommerce.project.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+class ProductSummaryRepositoryImpl extends SpecificationProjection<Product, ProductSummary>
+		implements ProductSummaryRepository {
+
+	ProductSummaryRepositoryImpl() {
+		super(Product.class, ProductSummary.class);
+	}
+
+	@Override
+	public List<ProductSummary> findSummaries(Specification<Product> spec, Sort sort) {
+		return find(spec, sort, 0, 0);
+	}
+
+	@Override
+	public List<ProductSummary> findSummaries(Specification<Product> spec, Sort sort, int limit) {
+		return find(spec, sort, 0, limit);
+	}
+
+	@Override
+	public Page<ProductSummary> findSummaries(Specification<Product> spec, Pageable pageable) {
+		return findPage(spec, pageable);
+	}
+
+	@Override
+	public Stream<ProductSummary> streamSummaries(Specification<Product> spec, Sort sort, int fetchSize) {
+		return stream(spec, sort, fetchSize);
+	}
+
+	@Override
+	protected List<Selection<?>> columns(Root<Product> product) {
+		Join<Product, Category> category = product.join("category");
+		return List.of(
+				product.get("productId"),
+				product.get("productName"),
+				product.get("price"),
+				product.get("stockQuantity"),
+				product.get("imageUrl"),
+				product.get("active"),
+				category.get("categoryId"),
+				category.get("categoryName"),
+				product.get("createdAt"),
+				product.get("updatedAt"));
+	}
+}
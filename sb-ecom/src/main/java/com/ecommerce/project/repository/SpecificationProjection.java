@@ -0,0 +1,101 @@
+package com.ecommerce.project.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+// Runs a Specification with a constructor projection as the select list, so list views read only
+// the columns they show and take associations from joins in the same statement instead of
+// lazy-loading them per row.
+abstract class SpecificationProjection<T, R> {
+	private final Class<T> domainType;
+	private final Class<R> projectionType;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	protected SpecificationProjection(Class<T> domainType, Class<R> projectionType) {
+		this.domainType = domainType;
+		this.projectionType = projectionType;
+	}
+
+	// Constructor arguments of the projection, in order (join from the root as needed)
+	protected abstract List<Selection<?>> columns(Root<T> root);
+
+	// limit 0 means all rows
+	protected List<R> find(Specification<T> spec, Sort sort, long offset, int limit) {
+		TypedQuery<R> query = createQuery(spec, sort);
+		if(offset > 0) {
+			query.setFirstResult(Math.toIntExact(offset));
+		}
+		if(limit > 0) {
+			query.setMaxResults(limit);
+		}
+		return query.getResultList();
+	}
+
+	// Rows are pulled from the JDBC cursor fetchSize at a time. Projections are not managed entities,
+	// so the persistence context stays empty however many rows pass through. The caller must
+	// consume and close the stream inside a transaction.
+	protected Stream<R> stream(Specification<T> spec, Sort sort, int fetchSize) {
+		return createQuery(spec, sort)
+				.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+				.setHint(HibernateHints.HINT_READ_ONLY, true)
+				.getResultStream();
+	}
+
+	// The count only runs when the page is full or not the first one
+	protected Page<R> findPage(Specification<T> spec, Pageable pageable) {
+		if(pageable.isUnpaged()) {
+			return new PageImpl<>(find(spec, pageable.getSort(), 0, 0));
+		}
+		List<R> content = find(spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+		return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+	}
+
+	private TypedQuery<R> createQuery(Specification<T> spec, Sort sort) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<R> query = cb.createQuery(projectionType);
+		Root<T> root = query.from(domainType);
+		query.select(cb.construct(projectionType, columns(root).toArray(Selection<?>[]::new)));
+
+		Predicate predicate = spec.toPredicate(root, query, cb);
+		if(predicate != null) {
+			query.where(predicate);
+		}
+		if(sort.isSorted()) {
+			query.orderBy(QueryUtils.toOrders(sort, root, cb));
+		}
+		return entityManager.createQuery(query);
+	}
+
+	private long count(Specification<T> spec) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		Root<T> root = query.from(domainType);
+		query.select(cb.count(root));
+
+		Predicate predicate = spec.toPredicate(root, query, cb);
+		if(predicate != null) {
+			query.where(predicate);
+		}
+		return entityManager.createQuery(query).getSingleResult();
+	}
+}
@@ -1,8 +1,11 @@
 package com.ecommerce.project.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.ecommerce.project.model.User;
@@ -13,5 +16,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
 	
 	Optional<User> findByUserId(String userId);
 	
+	List<User> findByUserIdIn(Collection<String> userIds);
+	
 	boolean existsByEmail(String email);
+	
+	// Ids of deactivated users (token revocation list)
+	@Query("select u.id from User u where u.active = false")
+	List<Long> findInactiveUserIds();
 }
@@ -0,0 +1,112 @@
+package com.ecommerce.project.search;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.event.ProductChangeEvent;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.ProductRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Typeahead suggestions for product names, served from a SuggestionTrie.
+// Suggestions are ranked by stock so items that can actually be bought come first.
+// Built from the DB on startup and updated from product change events; rebuilt on an interval too,
+// since a change relayed from another node is lost if its message is missed.
+@Component
+public class ProductAutocomplete {
+	private static final Logger log = LoggerFactory.getLogger(ProductAutocomplete.class);
+
+	private final ProductRepository productRepo;
+	private final int topK;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private SuggestionTrie trie;
+
+	public ProductAutocomplete(
+			ProductRepository productRepo,
+			@Value("${search.autocomplete.top-k:10}") int topK,
+			MeterRegistry meterRegistry) {
+		this.productRepo = productRepo;
+		this.topK = topK;
+		this.trie = new SuggestionTrie(topK);
+		Gauge.builder("search.autocomplete.products", this, ProductAutocomplete::size).register(meterRegistry);
+	}
+
+	// Full rebuild from the DB on startup and on a fixed interval; the new trie is swapped in when
+	// complete. Synchronized with the event updates, so a change committed while the products are
+	// read is either in the result or applied after it.
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${search.autocomplete.resync-ms:300000}",
+			initialDelayString = "${search.autocomplete.resync-ms:300000}")
+	public synchronized void rebuild() {
+		SuggestionTrie rebuilt = new SuggestionTrie(topK);
+		for(Product product: productRepo.findAll()) {
+			if(!Boolean.FALSE.equals(product.getActive())) {
+				rebuilt.put(product.getProductId(), product.getProductName(), weight(product.getStockQuantity()));
+			}
+		}
+
+		lock.writeLock().lock();
+		try {
+			trie = rebuilt;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		log.debug("Product autocomplete built: {} products", rebuilt.size());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onProductChange(ProductChangeEvent event) {
+		lock.writeLock().lock();
+		try {
+			ProductResponseDTO product = event.product();
+			switch(event.type()) {
+				case CREATED, UPDATED -> {
+					if(Boolean.FALSE.equals(product.getActive())) {
+						trie.remove(product.getProductId());
+					} else {
+						trie.put(product.getProductId(), product.getProductName(), weight(product.getStockQuantity()));
+					}
+				}
+				case DELETED -> trie.remove(event.productId());
+				case STOCK_CHANGED -> trie.updateWeight(event.productId(), weight(event.stockQuantity()));
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// Up to `limit` suggestions (capped at top-k) for the typed prefix
+	public List<SuggestionTrie.Suggestion> suggest(String prefix, int limit) {
+		lock.readLock().lock();
+		try {
+			return trie.lookup(prefix, Math.max(0, Math.min(limit, topK)));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return trie.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private static int weight(Integer stockQuantity) {
+		return stockQuantity == null ? 0 : stockQuantity;
+	}
+}
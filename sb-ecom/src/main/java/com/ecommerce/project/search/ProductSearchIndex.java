@@ -0,0 +1,370 @@
+package com.ecommerce.project.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.event.CategoryChangeEvent;
+import com.ecommerce.project.event.ProductChangeEvent;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.ProductRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// In-memory inverted index over product name, description and category name, ranked with BM25.
+// Postings are primitive int arrays (doc id + weighted term frequency); doc ids are dense ints
+// mapped to product ids and reused after deletes.
+// Built from the DB on startup and updated from product/category change events; rebuilt on an
+// interval too, since a change relayed from another node is lost if its message is missed.
+@Component
+public class ProductSearchIndex {
+	private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+	// BM25 parameters
+	private static final float K1 = 1.2f;
+	private static final float B = 0.75f;
+
+	// A term in the name counts three times, in the category name twice
+	private static final int NAME_WEIGHT = 3;
+	private static final int CATEGORY_WEIGHT = 2;
+	private static final int DESCRIPTION_WEIGHT = 1;
+
+	// Score buffers kept for reuse; searches beyond this many at once allocate their own
+	private static final int POOLED_BUFFERS = 4;
+
+	private final ProductRepository productRepo;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// Replaced as a whole by a rebuild; changed in place by events, under the write lock
+	private Documents documents = new Documents();
+
+	// Score accumulators, shared by all request threads; every score is reset to 0 before one is returned
+	private final BlockingQueue<float[]> scoreBuffers = new ArrayBlockingQueue<>(POOLED_BUFFERS);
+
+	public ProductSearchIndex(ProductRepository productRepo, MeterRegistry meterRegistry) {
+		this.productRepo = productRepo;
+		Gauge.builder("search.index.documents", this, ProductSearchIndex::size).register(meterRegistry);
+		Gauge.builder("search.index.terms", this, ProductSearchIndex::termCount).register(meterRegistry);
+	}
+
+	// Full rebuild from the DB on startup and on a fixed interval; the new index is built off the lock
+	// and swapped in when complete. Synchronized with the event updates, so a change committed while
+	// the products are read is either in the result or applied after it.
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${search.index.resync-ms:300000}",
+			initialDelayString = "${search.index.resync-ms:300000}")
+	public synchronized void rebuild() {
+		List<Product> products = productRepo.findAllWithCategory();
+		Documents rebuilt = new Documents();
+		for(Product product: products) {
+			rebuilt.add(product.getProductId(), product.getProductName(), product.getDescription(),
+					product.getCategory().getCategoryName());
+		}
+
+		lock.writeLock().lock();
+		try {
+			documents = rebuilt;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		log.debug("Product search index built: {} products, {} terms", products.size(), rebuilt.termIds.size());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onProductChange(ProductChangeEvent event) {
+		switch(event.type()) {
+			case CREATED, UPDATED -> {
+				ProductResponseDTO product = event.product();
+				index(product.getProductId(), product.getProductName(), product.getDescription(),
+						product.getCategoryName());
+			}
+			case DELETED -> remove(event.productId());
+			// Stock doesn't affect the text
+			case STOCK_CHANGED -> { }
+		}
+	}
+
+	// A renamed category changes the indexed text of all its products
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void onCategoryChange(CategoryChangeEvent event) {
+		if(event.type() != CategoryChangeEvent.Type.UPDATED) {
+			return;
+		}
+		for(Product product: productRepo.findByCategoryCategoryId(event.categoryId())) {
+			index(product.getProductId(), product.getProductName(), product.getDescription(),
+					event.categoryName());
+		}
+	}
+
+	// Add or replace a product
+	public synchronized void index(Long productId, String name, String description, String categoryName) {
+		lock.writeLock().lock();
+		try {
+			documents.remove(productId);
+			documents.add(productId, name, description, categoryName);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public synchronized void remove(Long productId) {
+		lock.writeLock().lock();
+		try {
+			documents.remove(productId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// BM25-ranked product ids for the given page (any query term may match)
+	public SearchHits search(String query, int offset, int limit) {
+		List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.analyze(query)));
+		if(terms.isEmpty()) {
+			return new SearchHits(List.of(), 0);
+		}
+
+		lock.readLock().lock();
+		Documents docs = documents;
+		float[] scores = null;
+		try {
+			int liveDocs = docs.docByProduct.size();
+			if(liveDocs == 0) {
+				return new SearchHits(List.of(), 0);
+			}
+			float avgLength = (float) docs.totalLength / liveDocs;
+			scores = borrowBuffer();
+
+			// Term-at-a-time scoring; matched docs are collected once
+			int[] matched = new int[16];
+			int matchCount = 0;
+			for(String term: terms) {
+				Integer termId = docs.termIds.get(term);
+				if(termId == null) {
+					continue;
+				}
+				Postings list = docs.postings.get(termId);
+				if(list.size == 0) {
+					continue;
+				}
+				float idf = (float) Math.log(1 + (liveDocs - list.size + 0.5) / (list.size + 0.5));
+				for(int i = 0; i < list.size; i++) {
+					int doc = list.docs[i];
+					int tf = list.freqs[i];
+					float norm = K1 * (1 - B + B * docs.docLengths[doc] / avgLength);
+					if(scores[doc] == 0f) {
+						if(matchCount == matched.length) {
+							matched = Arrays.copyOf(matched, matchCount * 2);
+						}
+						matched[matchCount++] = doc;
+					}
+					scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+				}
+			}
+
+			// Sort by score desc, then doc id asc: positive float bits keep their order as ints
+			long[] ranked = new long[matchCount];
+			for(int i = 0; i < matchCount; i++) {
+				int doc = matched[i];
+				ranked[i] = ((long) Float.floatToIntBits(scores[doc]) << 32) | (Integer.MAX_VALUE - doc);
+				scores[doc] = 0f;
+			}
+			Arrays.sort(ranked);
+
+			List<Long> page = new ArrayList<>(Math.max(0, Math.min(limit, matchCount - offset)));
+			for(int i = offset; i < matchCount && page.size() < limit; i++) {
+				int doc = Integer.MAX_VALUE - (int) ranked[matchCount - 1 - i];
+				page.add(docs.productIds[doc]);
+			}
+			return new SearchHits(page, matchCount);
+		} finally {
+			if(scores != null) {
+				returnBuffer(scores);
+			}
+			lock.readLock().unlock();
+		}
+	}
+
+	// All products matching any query term, unranked (for aggregations over the whole result set)
+	public List<Long> matchingProductIds(String query) {
+		List<String> terms = TextAnalyzer.analyze(query);
+		if(terms.isEmpty()) {
+			return List.of();
+		}
+
+		lock.readLock().lock();
+		try {
+			Documents docs = documents;
+			BitSet matched = new BitSet(docs.maxDoc);
+			for(String term: terms) {
+				Integer termId = docs.termIds.get(term);
+				if(termId != null) {
+					Postings list = docs.postings.get(termId);
+					for(int i = 0; i < list.size; i++) {
+						matched.set(list.docs[i]);
+					}
+				}
+			}
+			List<Long> matches = new ArrayList<>(matched.cardinality());
+			for(int doc = matched.nextSetBit(0); doc >= 0; doc = matched.nextSetBit(doc + 1)) {
+				matches.add(docs.productIds[doc]);
+			}
+			return matches;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return documents.docByProduct.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private int termCount() {
+		lock.readLock().lock();
+		try {
+			return documents.termIds.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Callers hold the read lock, so maxDoc is fixed while the buffer is used
+	private float[] borrowBuffer() {
+		float[] buffer = scoreBuffers.poll();
+		return buffer != null && buffer.length >= documents.maxDoc ? buffer : new float[documents.docLengths.length];
+	}
+
+	// Buffers sized for an index that has since grown or been rebuilt are dropped rather than pooled
+	private void returnBuffer(float[] buffer) {
+		if(buffer.length == documents.docLengths.length) {
+			scoreBuffers.offer(buffer);
+		}
+	}
+
+	private static int addTerms(Map<String, Integer> freqs, String text, int weight) {
+		List<String> terms = TextAnalyzer.analyze(text);
+		for(String term: terms) {
+			freqs.merge(term, weight, Integer::sum);
+		}
+		return terms.size() * weight;
+	}
+
+	// Term dictionary, postings (indexed by term id) and documents (indexed by doc id)
+	private static final class Documents {
+		private final Map<String, Integer> termIds = new HashMap<>();
+		private final List<Postings> postings = new ArrayList<>();
+		private final Map<Long, Integer> docByProduct = new HashMap<>();
+		private long[] productIds = new long[1024];
+		private int[] docLengths = new int[1024];
+		private int[][] docTerms = new int[1024][];
+		private int[] freeDocs = new int[64];
+		private int freeCount;
+		private int maxDoc;
+		private long totalLength;
+
+		void add(Long productId, String name, String description, String categoryName) {
+			Map<String, Integer> freqs = new HashMap<>();
+			int length = addTerms(freqs, name, NAME_WEIGHT)
+					+ addTerms(freqs, categoryName, CATEGORY_WEIGHT)
+					+ addTerms(freqs, description, DESCRIPTION_WEIGHT);
+
+			int doc = allocateDoc();
+			int[] terms = new int[freqs.size()];
+			int t = 0;
+			for(Map.Entry<String, Integer> entry: freqs.entrySet()) {
+				int termId = termIds.computeIfAbsent(entry.getKey(), key -> {
+					postings.add(new Postings());
+					return postings.size() - 1;
+				});
+				postings.get(termId).add(doc, entry.getValue());
+				terms[t++] = termId;
+			}
+
+			productIds[doc] = productId;
+			docLengths[doc] = length;
+			docTerms[doc] = terms;
+			docByProduct.put(productId, doc);
+			totalLength += length;
+		}
+
+		void remove(Long productId) {
+			Integer doc = docByProduct.remove(productId);
+			if(doc == null) {
+				return;
+			}
+			for(int termId: docTerms[doc]) {
+				postings.get(termId).remove(doc);
+			}
+			totalLength -= docLengths[doc];
+			docTerms[doc] = null;
+			docLengths[doc] = 0;
+
+			if(freeCount == freeDocs.length) {
+				freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+			}
+			freeDocs[freeCount++] = doc;
+		}
+
+		private int allocateDoc() {
+			if(freeCount > 0) {
+				return freeDocs[--freeCount];
+			}
+			if(maxDoc == productIds.length) {
+				int capacity = maxDoc * 2;
+				productIds = Arrays.copyOf(productIds, capacity);
+				docLengths = Arrays.copyOf(docLengths, capacity);
+				docTerms = Arrays.copyOf(docTerms, capacity);
+			}
+			return maxDoc++;
+		}
+	}
+
+	// Unordered posting list; removal swaps the last entry into the gap
+	private static final class Postings {
+		private int[] docs = new int[4];
+		private int[] freqs = new int[4];
+		private int size;
+
+		void add(int doc, int freq) {
+			if(size == docs.length) {
+				docs = Arrays.copyOf(docs, size * 2);
+				freqs = Arrays.copyOf(freqs, size * 2);
+			}
+			docs[size] = doc;
+			freqs[size] = freq;
+			size++;
+		}
+
+		void remove(int doc) {
+			for(int i = 0; i < size; i++) {
+				if(docs[i] == doc) {
+					size--;
+					docs[i] = docs[size];
+					freqs[i] = freqs[size];
+					return;
+				}
+			}
+		}
+	}
+}
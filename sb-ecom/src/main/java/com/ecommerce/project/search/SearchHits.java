@@ -0,0 +1,7 @@
+package com.ecommerce.project.search;
+
+import java.util.List;
+
+// One page of ranked product ids plus the total number of matches
+public record SearchHits(List<Long> productIds, long totalHits) {
+}
@@ -0,0 +1,375 @@
+package com.ecommerce.project.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Radix trie over product names with the top-k suggestions precomputed on every node,
+// so a lookup is one walk down the prefix and a copy of that node's list.
+// Every word start of a name is a key ("macbook air m2", "air m2", "m2") so typing any word matches.
+// Not thread-safe; ProductAutocomplete guards it with a read/write lock.
+public class SuggestionTrie {
+	private static final int[] NONE = new int[0];
+
+	private final int topK;
+	private final Node root = new Node(new char[0]);
+
+	// Entry table, indexed by entry id (one entry per product)
+	private final Map<Long, Integer> entryByProduct = new HashMap<>();
+	private long[] productIds = new long[1024];
+	private String[] names = new String[1024];
+	private int[] weights = new int[1024];
+	private int[] freeEntries = new int[64];
+	private int freeCount;
+	private int entryCount;
+
+	public SuggestionTrie(int topK) {
+		this.topK = topK;
+	}
+
+	public record Suggestion(long productId, String name) {
+	}
+
+	// Add or replace a product; higher weight ranks first
+	public void put(long productId, String name, int weight) {
+		remove(productId);
+
+		int entry = allocateEntry();
+		productIds[entry] = productId;
+		names[entry] = name;
+		weights[entry] = weight;
+		entryByProduct.put(productId, entry);
+
+		for(String key: keys(name)) {
+			insert(key, entry);
+		}
+	}
+
+	public void remove(long productId) {
+		Integer entry = entryByProduct.remove(productId);
+		if(entry == null) {
+			return;
+		}
+		for(String key: keys(names[entry])) {
+			delete(key, entry);
+		}
+		names[entry] = null;
+
+		if(freeCount == freeEntries.length) {
+			freeEntries = Arrays.copyOf(freeEntries, freeCount * 2);
+		}
+		freeEntries[freeCount++] = entry;
+	}
+
+	// Change only the ranking weight (e.g. stock) of a product
+	public void updateWeight(long productId, int weight) {
+		Integer entry = entryByProduct.get(productId);
+		if(entry != null && weights[entry] != weight) {
+			put(productId, names[entry], weight);
+		}
+	}
+
+	public List<Suggestion> lookup(String prefix, int limit) {
+		String key = normalize(prefix);
+		if(key.isEmpty()) {
+			return List.of();
+		}
+
+		Node node = root;
+		int pos = 0;
+		while(pos < key.length()) {
+			Node child = node.child(key.charAt(pos));
+			if(child == null) {
+				return List.of();
+			}
+			// Prefix may end inside the edge label
+			int matched = commonPrefix(child.label, key, pos);
+			if(matched < child.label.length && pos + matched < key.length()) {
+				return List.of();
+			}
+			pos += matched;
+			node = child;
+		}
+
+		int count = Math.min(limit, node.top.length);
+		List<Suggestion> suggestions = new ArrayList<>(count);
+		for(int i = 0; i < count; i++) {
+			int entry = node.top[i];
+			suggestions.add(new Suggestion(productIds[entry], names[entry]));
+		}
+		return suggestions;
+	}
+
+	public int size() {
+		return entryByProduct.size();
+	}
+
+	// Nodes below the root; a trie holding the same names has the same count however it got there
+	int nodeCount() {
+		int count = 0;
+		List<Node> pending = new ArrayList<>(List.of(root.children));
+		while(!pending.isEmpty()) {
+			Node node = pending.remove(pending.size() - 1);
+			count++;
+			pending.addAll(List.of(node.children));
+		}
+		return count;
+	}
+
+		// Lower-case words separated by single spaces
+	static String normalize(String text) {
+		if(text == null) {
+			return "";
+		}
+		StringBuilder sb = new StringBuilder(text.length());
+		boolean pendingSpace = false;
+		for(int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if(Character.isLetterOrDigit(c)) {
+				if(pendingSpace && sb.length() > 0) {
+					sb.append(' ');
+				}
+				pendingSpace = false;
+				sb.append(Character.toLowerCase(c));
+			} else {
+				pendingSpace = true;
+			}
+		}
+		return sb.toString();
+	}
+
+	// The normalized name starting at each word
+	private static List<String> keys(String name) {
+		String normalized = normalize(name);
+		List<String> keys = new ArrayList<>();
+		if(normalized.isEmpty()) {
+			return keys;
+		}
+		keys.add(normalized);
+		for(int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+			keys.add(normalized.substring(i + 1));
+		}
+		return keys;
+	}
+
+	private void insert(String key, int entry) {
+		Node node = root;
+		offer(node, entry);
+		int pos = 0;
+		while(pos < key.length()) {
+			Node child = node.child(key.charAt(pos));
+			if(child == null) {
+				child = new Node(key.substring(pos).toCharArray());
+				node.addChild(child);
+			} else {
+				int matched = commonPrefix(child.label, key, pos);
+				if(matched < child.label.length) {
+					child = split(node, child, matched);
+				}
+			}
+			pos += child.label.length;
+			node = child;
+			offer(node, entry);
+		}
+		node.terminals = add(node.terminals, entry);
+	}
+
+	private void delete(String key, int entry) {
+		// Collect the path, then fix top lists bottom-up
+		List<Node> path = new ArrayList<>();
+		Node node = root;
+		path.add(node);
+		int pos = 0;
+		while(pos < key.length()) {
+			node = node.child(key.charAt(pos));
+			if(node == null) {
+				return;
+			}
+			pos += node.label.length;
+			path.add(node);
+		}
+		node.terminals = without(node.terminals, entry);
+
+		for(int i = path.size() - 1; i >= 0; i--) {
+			Node current = path.get(i);
+			if(i > 0 && current.terminals.length == 0 && current.children.length == 0) {
+				// Nothing left below this node
+				path.get(i - 1).removeChild(current);
+				continue;
+			}
+			if(i > 0 && current.terminals.length == 0 && current.children.length == 1) {
+				// Only a pass-through left: merge it into its child, undoing the split that made it
+				merge(path.get(i - 1), current);
+				continue;
+			}
+			if(contains(current.top, entry)) {
+				recompute(current);
+			}
+		}
+	}
+
+	// Split child's edge after `at` chars; returns the new intermediate node
+	private Node split(Node parent, Node child, int at) {
+		Node middle = new Node(Arrays.copyOfRange(child.label, 0, at));
+		parent.replaceChild(child, middle);
+		child.label = Arrays.copyOfRange(child.label, at, child.label.length);
+		middle.addChild(child);
+		middle.top = child.top.clone();
+		return middle;
+	}
+
+	// Replace node by its only child, whose label takes node's label in front; the child's top list
+	// already covers everything below node
+	private void merge(Node parent, Node node) {
+		Node child = node.children[0];
+		char[] label = Arrays.copyOf(node.label, node.label.length + child.label.length);
+		System.arraycopy(child.label, 0, label, node.label.length, child.label.length);
+		child.label = label;
+		parent.replaceChild(node, child);
+	}
+
+		// Insert entry into node's top list if it ranks high enough
+	private void offer(Node node, int entry) {
+		int[] top = node.top;
+		if(contains(top, entry)) {
+			return;
+		}
+		int pos = top.length;
+		while(pos > 0 && better(entry, top[pos - 1])) {
+			pos--;
+		}
+		if(pos >= topK) {
+			return;
+		}
+		int size = Math.min(top.length + 1, topK);
+		int[] updated = new int[size];
+		System.arraycopy(top, 0, updated, 0, pos);
+		updated[pos] = entry;
+		System.arraycopy(top, pos, updated, pos + 1, size - pos - 1);
+		node.top = updated;
+	}
+
+	// Rebuild a node's top list from its own terminals and its children's lists
+	private void recompute(Node node) {
+		node.top = NONE;
+		for(int entry: node.terminals) {
+			offer(node, entry);
+		}
+		for(Node child: node.children) {
+			for(int entry: child.top) {
+				offer(node, entry);
+			}
+		}
+	}
+
+	private boolean better(int a, int b) {
+		if(weights[a] != weights[b]) {
+			return weights[a] > weights[b];
+		}
+		return productIds[a] < productIds[b];
+	}
+
+	private int allocateEntry() {
+		if(freeCount > 0) {
+			return freeEntries[--freeCount];
+		}
+		if(entryCount == productIds.length) {
+			int capacity = entryCount * 2;
+			productIds = Arrays.copyOf(productIds, capacity);
+			names = Arrays.copyOf(names, capacity);
+			weights = Arrays.copyOf(weights, capacity);
+		}
+		return entryCount++;
+	}
+
+	private static int commonPrefix(char[] label, String key, int offset) {
+		int max = Math.min(label.length, key.length() - offset);
+		int i = 0;
+		while(i < max && label[i] == key.charAt(offset + i)) {
+			i++;
+		}
+		return i;
+	}
+
+	private static boolean contains(int[] values, int value) {
+		for(int v: values) {
+			if(v == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int[] add(int[] values, int value) {
+		int[] updated = Arrays.copyOf(values, values.length + 1);
+		updated[values.length] = value;
+		return updated;
+	}
+
+	private static int[] without(int[] values, int value) {
+		for(int i = 0; i < values.length; i++) {
+			if(values[i] == value) {
+				if(values.length == 1) {
+					return NONE;
+				}
+				int[] updated = new int[values.length - 1];
+				System.arraycopy(values, 0, updated, 0, i);
+				System.arraycopy(values, i + 1, updated, i, values.length - i - 1);
+				return updated;
+			}
+		}
+		return values;
+	}
+
+	// Children kept in arrays sorted by first label char (no per-node maps)
+	private static final class Node {
+		private static final Node[] NO_CHILDREN = new Node[0];
+
+		char[] label;
+		char[] firstChars = new char[0];
+		Node[] children = NO_CHILDREN;
+		int[] terminals = NONE;
+		int[] top = NONE;
+
+		Node(char[] label) {
+			this.label = label;
+		}
+
+		Node child(char c) {
+			int i = Arrays.binarySearch(firstChars, c);
+			return i >= 0 ? children[i] : null;
+		}
+
+		void addChild(Node child) {
+			int i = -(Arrays.binarySearch(firstChars, child.label[0]) + 1);
+			char[] chars = new char[firstChars.length + 1];
+			Node[] nodes = new Node[children.length + 1];
+			System.arraycopy(firstChars, 0, chars, 0, i);
+			System.arraycopy(children, 0, nodes, 0, i);
+			chars[i] = child.label[0];
+			nodes[i] = child;
+			System.arraycopy(firstChars, i, chars, i + 1, firstChars.length - i);
+			System.arraycopy(children, i, nodes, i + 1, children.length - i);
+			firstChars = chars;
+			children = nodes;
+		}
+
+		void replaceChild(Node existing, Node replacement) {
+			children[Arrays.binarySearch(firstChars, existing.label[0])] = replacement;
+		}
+
+		void removeChild(Node child) {
+			int i = Arrays.binarySearch(firstChars, child.label[0]);
+			char[] chars = new char[firstChars.length - 1];
+			Node[] nodes = new Node[children.length - 1];
+			System.arraycopy(firstChars, 0, chars, 0, i);
+			System.arraycopy(children, 0, nodes, 0, i);
+			System.arraycopy(firstChars, i + 1, chars, i, firstChars.length - i - 1);
+			System.arraycopy(children, i + 1, nodes, i, children.length - i - 1);
+			firstChars = chars;
+			children = nodes;
+		}
+	}
+}
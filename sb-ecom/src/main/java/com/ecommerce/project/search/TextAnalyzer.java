@@ -0,0 +1,89 @@
+package com.ecommerce.project.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Turns product text and search keywords into index terms:
+// lower-cased alphanumeric tokens, stop words dropped, English suffixes stemmed
+// (so "laptops", "laptop's" and "laptop" all become "laptop").
+public final class TextAnalyzer {
+	private static final Set<String> STOP_WORDS = Set.of(
+			"a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+			"of", "on", "or", "the", "to", "with");
+
+	private TextAnalyzer() {
+	}
+
+	public static List<String> analyze(String text) {
+		List<String> terms = new ArrayList<>();
+		if(text == null) {
+			return terms;
+		}
+
+		String lower = text.toLowerCase(Locale.ROOT);
+		int start = -1;
+		for(int i = 0; i <= lower.length(); i++) {
+			// An apostrophe continues a word ("laptop's") but doesn't start one
+			boolean tokenChar = i < lower.length() && (Character.isLetterOrDigit(lower.charAt(i))
+					|| (start >= 0 && lower.charAt(i) == '\''));
+			if(tokenChar && start < 0) {
+				start = i;
+			} else if(!tokenChar && start >= 0) {
+				addTerm(terms, lower.substring(start, i));
+				start = -1;
+			}
+		}
+		return terms;
+	}
+
+	private static void addTerm(List<String> terms, String token) {
+		if(token.endsWith("'s")) {
+			token = token.substring(0, token.length() - 2);
+		}
+		token = token.replace("'", "");
+		if(token.isEmpty() || STOP_WORDS.contains(token)) {
+			return;
+		}
+		terms.add(stem(token));
+	}
+
+	// Light suffix stripping - index and query go through the same rules, so only consistency matters
+	static String stem(String word) {
+		int len = word.length();
+		if(len <= 3 || !Character.isLetter(word.charAt(len - 1))) {
+			return word;
+		}
+
+		if(word.endsWith("ies") && len > 4) {
+			return word.substring(0, len - 3) + "y";
+		}
+		if(word.endsWith("sses") || word.endsWith("xes") || word.endsWith("ches") || word.endsWith("shes")) {
+			return word.substring(0, len - 2);
+		}
+		if(word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+			return word.substring(0, len - 1);
+		}
+		if(word.endsWith("ing") && len > 5) {
+			return undouble(word.substring(0, len - 3));
+		}
+		if(word.endsWith("ed") && len > 4) {
+			return undouble(word.substring(0, len - 2));
+		}
+		if(word.endsWith("ly") && len > 4) {
+			return word.substring(0, len - 2);
+		}
+		return word;
+	}
+
+	// "running" -> "runn" -> "run"
+	private static String undouble(String stem) {
+		int len = stem.length();
+		if(len > 2 && stem.charAt(len - 1) == stem.charAt(len - 2)
+				&& "lsz".indexOf(stem.charAt(len - 1)) < 0) {
+			return stem.substring(0, len - 1);
+		}
+		return stem;
+	}
+}
@@ -0,0 +1,119 @@
+package com.ecommerce.project.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.ecommerce.project.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// BCrypt on a dedicated, bounded thread pool so hashing can't take over the request threads.
+// When the queue is full the caller fails fast with a 503 instead of waiting.
+public class BoundedPasswordEncoder implements PasswordEncoder {
+	private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+	private final BCryptPasswordEncoder delegate;
+	private final int strength;
+	private final long retryAfterSeconds;
+	private final ThreadPoolExecutor executor;
+
+	private final Timer encodeTimer;
+	private final Timer matchesTimer;
+	private final Counter rejected;
+
+	public BoundedPasswordEncoder(int strength, int threads, int queueCapacity,
+			long retryAfterSeconds, MeterRegistry meterRegistry) {
+		this.delegate = new BCryptPasswordEncoder(strength);
+		this.strength = strength;
+		this.retryAfterSeconds = retryAfterSeconds;
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+				new ThreadPoolExecutor.AbortPolicy());
+
+		// Hash latency (queue wait excluded) and pool pressure
+		this.encodeTimer = Timer.builder("security.password.hash")
+				.tag("operation", "encode").register(meterRegistry);
+		this.matchesTimer = Timer.builder("security.password.hash")
+				.tag("operation", "matches").register(meterRegistry);
+		this.rejected = Counter.builder("security.password.rejected").register(meterRegistry);
+		Gauge.builder("security.password.queue.depth", executor, e -> e.getQueue().size())
+				.register(meterRegistry);
+		Gauge.builder("security.password.active", executor, ThreadPoolExecutor::getActiveCount)
+				.register(meterRegistry);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return submit(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return submit(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+	}
+
+	// Re-hash on login whenever the stored cost differs from the configured one (up or down)
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		if(encodedPassword == null) {
+			return false;
+		}
+		Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+		return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+	}
+
+	// Called by Spring on context close
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	private <T> T submit(Callable<T> task) {
+		Future<T> future;
+		try {
+			future = executor.submit(task);
+		} catch(RejectedExecutionException e) {
+			rejected.increment();
+			throw new ServiceUnavailableException(
+					"Server is busy, please retry shortly", retryAfterSeconds);
+		}
+
+		try {
+			return future.get();
+		} catch(InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new ServiceUnavailableException("Password hashing interrupted", retryAfterSeconds);
+		} catch(ExecutionException e) {
+			if(e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private static class HashingThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "bcrypt-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -5,6 +5,7 @@ package com.ecommerce.project.security;
 import org.springframework.beans.factory.annotation.Autowired;
 //import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -13,12 +14,34 @@ import com.ecommerce.project.model.User;
 import com.ecommerce.project.repository.UserRepository;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 	@Autowired
 	private UserRepository userRepo;
 	
+	@Autowired
+	private PrincipalCache principalCache;
+	
 	@Override
 	public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException{
+		// Served from the principal cache, DB only on a miss
+		return principalCache.get(email, this::loadFromDatabase);
+	}
+	
+	// Called after a successful login when the stored hash uses an outdated cost factor
+	@Override
+	public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+		User user = userRepo.findByEmail(userDetails.getUsername())
+			.orElseThrow(() -> new UsernameNotFoundException(
+				"User not found with email: " + userDetails.getUsername()
+			));
+		user.setPassword(newPassword);
+		User savedUser = userRepo.save(user);
+		
+		principalCache.evict(savedUser.getEmail());
+		return new CustomUserDetails(savedUser);
+	}
+	
+	private CustomUserDetails loadFromDatabase(String email) {
 		// Find user by email from DB
         User user = userRepo.findByEmail(email)
             .orElseThrow(() -> new UsernameNotFoundException(
@@ -0,0 +1,80 @@
+package com.ecommerce.project.security;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+// Single-node refresh token store (jwt.refresh.store=memory)
+@Component
+@ConditionalOnProperty(name = "jwt.refresh.store", havingValue = "memory")
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+	private final SecureRandom random = new SecureRandom();
+	private final Cache<String, String> tokens;
+	// Digests per email; entries leave with their token (used, revoked, expired or evicted)
+	private final Map<String, Set<String>> digestsByEmail = new ConcurrentHashMap<>();
+	
+	public InMemoryRefreshTokenStore(
+			@Value("${jwt.refresh.expiration}") long refreshExpiration,
+			@Value("${jwt.refresh.max-tokens:100000}") long maxTokens) {
+		this.tokens = Caffeine.newBuilder()
+				.maximumSize(maxTokens)
+				.expireAfterWrite(Duration.ofMillis(refreshExpiration))
+				.removalListener((String digest, String email, RemovalCause cause) -> {
+					if(digest != null && email != null) {
+						unindex(email, digest);
+					}
+				})
+				.build();
+	}
+	
+	@Override
+	public String issue(String email) {
+		String token = RefreshTokenStore.newToken(random);
+		String digest = TokenDigest.sha256(token);
+		// Stored while the user's entry is locked, so a concurrent revokeAll sees it
+		digestsByEmail.compute(email, (key, digests) -> {
+			Set<String> indexed = digests != null ? digests : ConcurrentHashMap.newKeySet();
+			indexed.add(digest);
+			tokens.put(digest, email);
+			return indexed;
+		});
+		return token;
+	}
+	
+	@Override
+	public Optional<String> consume(String token) {
+		// Atomic remove - a token can only be used once
+		return Optional.ofNullable(tokens.asMap().remove(TokenDigest.sha256(token)));
+	}
+	
+	@Override
+	public void revoke(String token) {
+		tokens.invalidate(TokenDigest.sha256(token));
+	}
+	
+	@Override
+	public void revokeAll(String email) {
+		Set<String> digests = digestsByEmail.remove(email);
+		if(digests != null) {
+			tokens.invalidateAll(digests);
+		}
+	}
+	
+	private void unindex(String email, String digest) {
+		digestsByEmail.computeIfPresent(email, (key, digests) -> {
+			digests.remove(digest);
+			return digests.isEmpty() ? null : digests;
+		});
+	}
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.project.security;
+
+import java.io.IOException;
+
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.security.web.authentication.Http403ForbiddenEntryPoint;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Writes the token error found by the (deferred) JWT check once a protected endpoint needs it.
+// Requests without a token keep the default 403.
+@Component
+public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
+	private final AuthenticationEntryPoint defaultEntryPoint = new Http403ForbiddenEntryPoint();
+	
+	@Override
+	public void commence(HttpServletRequest request, HttpServletResponse response,
+			AuthenticationException authException) throws IOException, ServletException {
+		
+		if(!(request.getAttribute(JwtAuthenticationFilter.AUTH_ERROR_ATTRIBUTE)
+				instanceof JwtAuthenticationFilter.AuthError error)) {
+			defaultEntryPoint.commence(request, response, authException);
+			return;
+		}
+		
+		response.setStatus(error.status());
+		response.setContentType("application/json");
+		response.getWriter().write("{\"error\":\"" + error.message() + "\"}");
+	}
+}
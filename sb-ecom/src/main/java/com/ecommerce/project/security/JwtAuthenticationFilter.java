@@ -4,14 +4,17 @@ import java.io.IOException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import org.springframework.util.function.SingletonSupplier;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -28,6 +31,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 	@Autowired
 	private CustomUserDetailsService customUserServ;
 	
+	@Autowired
+	private RevokedUserRegistry revokedUsers;
+	
+	// Request attribute holding why the token was rejected, read by JwtAuthenticationEntryPoint
+	static final String AUTH_ERROR_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".AUTH_ERROR";
+	
+	private final SecurityContextHolderStrategy contextHolderStrategy = SecurityContextHolder.getContextHolderStrategy();
+	
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
 	        throws ServletException, IOException {
@@ -36,52 +47,67 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 	    String token = getJwtFromRequest(request);
 
 	    if (StringUtils.hasText(token)) {
-	        try {
-	            // Validate token first (will throw if expired/invalid)
-	            jwtTokenProvider.validateTokenOrThrow(token);
-
-	            // Extract email
-	            String email = jwtTokenProvider.getEmailFromToken(token);
+	    	// Resolve the principal only when something asks for it (authorization rule,
+	    	// @AuthenticationPrincipal, ...). permitAll endpoints never do, so they skip the work.
+	    	contextHolderStrategy.setDeferredContext(
+	    			SingletonSupplier.of(() -> resolveContext(token, request)));
+	    }
 
-	            // Load user
-	            CustomUserDetails userDetails = (CustomUserDetails) customUserServ.loadUserByUsername(email);
+	    filterChain.doFilter(request, response);
+	}
+	
+	// Verify the token and build the security context.
+	// On failure the context stays empty and the reason is kept for the entry point.
+	private SecurityContext resolveContext(String token, HttpServletRequest request) {
+		SecurityContext context = contextHolderStrategy.createEmptyContext();
+        try {
+            // Validate token and extract email in one parse (will throw if expired/invalid)
+            Claims claims = jwtTokenProvider.getVerifiedClaims(token);
+            String email = claims.getSubject();
 
-	            // Create authentication object
-	            UsernamePasswordAuthenticationToken authentication =
-	                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-	            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-	            
-	            // Set authentication in Spring Security context
-	            SecurityContextHolder.getContext().setAuthentication(authentication);
+            // Self-contained token: principal comes from the claims, no user lookup
+            CustomUserDetails userDetails = jwtTokenProvider.getUserDetailsFromClaims(claims);
+            
+            if(userDetails != null) {
+            	// Deactivated since the token was issued
+            	if(revokedUsers.isRevoked(userDetails.getId())) {
+            		throw new UsernameNotFoundException("User account is inactive");
+            	}
+            } else {
+            	// Load user
+            	userDetails = (CustomUserDetails) customUserServ.loadUserByUsername(email);
+            }
+            
+            // Deactivated users are rejected (cached principals expire within the cache TTL)
+            if(!userDetails.isActive()) {
+            	throw new UsernameNotFoundException("User account is inactive");
+            }
 
-	        } catch (ExpiredJwtException ex) {
-	        	// Token expired
-	            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-	            response.setContentType("application/json");
-	            response.getWriter().write("{\"error\":\"Token has expired. Please login again.\"}");
-	            return;
-	        } catch (MalformedJwtException | UnsupportedJwtException ex) {
-	        	// Malformed token
-	        	response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-	            response.setContentType("application/json");
-	            response.getWriter().write("{\"error\":\"Invalid token.\"}");
-	            return;
-	        } catch (UsernameNotFoundException ex) {
-	        	// User not found or deactivated 
-	            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-	            response.setContentType("application/json");
-	            response.getWriter().write("{\"error\":\"" + ex.getMessage() + "\"}");
-	            return;
-	        } catch (Exception ex) {
-	        	// Other authentication errors
-	            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-	            response.setContentType("application/json");
-	            response.getWriter().write("{\"error\":\"Access denied.\"}");
-	            return;
-	        }
-	    }
+            // Create authentication object
+            UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            
+            context.setAuthentication(authentication);
 
-	    filterChain.doFilter(request, response);
+        } catch (ExpiredJwtException ex) {
+        	// Token expired
+        	rejectWith(request, HttpServletResponse.SC_UNAUTHORIZED, "Token has expired. Please login again.");
+        } catch (MalformedJwtException | UnsupportedJwtException ex) {
+        	// Malformed token
+        	rejectWith(request, HttpServletResponse.SC_UNAUTHORIZED, "Invalid token.");
+        } catch (UsernameNotFoundException ex) {
+        	// User not found or deactivated 
+        	rejectWith(request, HttpServletResponse.SC_UNAUTHORIZED, ex.getMessage());
+        } catch (Exception ex) {
+        	// Other authentication errors
+        	rejectWith(request, HttpServletResponse.SC_FORBIDDEN, "Access denied.");
+        }
+        return context;
+	}
+	
+	private static void rejectWith(HttpServletRequest request, int status, String message) {
+		request.setAttribute(AUTH_ERROR_ATTRIBUTE, new AuthError(status, message));
 	}
 
 	private String getJwtFromRequest(HttpServletRequest req) {
@@ -94,4 +120,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 		return null;
 	}
 	
+	record AuthError(int status, String message) {
+	}
 }
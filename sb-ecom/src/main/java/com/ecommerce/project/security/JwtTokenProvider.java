@@ -3,58 +3,122 @@ package com.ecommerce.project.security;
 import java.util.Date;
 import javax.crypto.SecretKey;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import com.ecommerce.project.model.User;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
-import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 
 @Component
 public class JwtTokenProvider {
+	// Claims carried by self-contained access tokens
+	public static final String CLAIM_UID = "uid";
+	public static final String CLAIM_USER_ID = "userId";
+	public static final String CLAIM_ROLE = "role";
+	public static final String CLAIM_ACTIVE = "active";
+	
 	@Value("${jwt.secret}")
 	private String jwtSecret;
 	
 	@Value("${jwt.expiration}")
 	private long jwtExpiration;
 	
+	// Sign userId, role and active flag into the token so requests need no user lookup
+	@Value("${jwt.self-contained:true}")
+	private boolean selfContained;
+	
+	@Autowired
+	private VerifiedTokenCache verifiedTokenCache;
+	
+	// Built once at startup instead of on every parse
+	private SecretKey signingKey;
+	private JwtParser jwtParser;
+	
+	@PostConstruct
+	public void init() {
+		signingKey = getSigningKey();
+		jwtParser = Jwts.parser()
+				.verifyWith(signingKey)
+				.build();
+	}
+	
 	// Generate JWT token
 	public String generateToken(Authentication authentication) {
 		String email = authentication.getName();
 		Date currentDate = new Date();
 		Date expireDate = new Date(currentDate.getTime() + jwtExpiration);
 	
-		// Build and return JWT
-		return Jwts.builder()
+		JwtBuilder builder = Jwts.builder()
 	            .subject(email)
 	            .issuedAt(currentDate)
-	            .expiration(expireDate)
-	            .signWith(getSigningKey())
+	            .expiration(expireDate);
+		
+		if(selfContained && authentication.getPrincipal() instanceof CustomUserDetails userDetails) {
+			User user = userDetails.getUser();
+			builder.claim(CLAIM_UID, user.getId())
+				.claim(CLAIM_USER_ID, user.getUserId())
+				.claim(CLAIM_ROLE, user.getRole().name())
+				.claim(CLAIM_ACTIVE, user.getActive());
+		}
+	
+		// Build and return JWT
+		return builder
+	            .signWith(signingKey)
 	            .compact();
 	}
 	
+	// Rebuild the principal from a self-contained token, null if the token only carries the email
+	public CustomUserDetails getUserDetailsFromClaims(Claims claims) {
+		if(!selfContained || claims.get(CLAIM_UID) == null) {
+			return null;
+		}
+		
+		User user = User.builder()
+				.id(claims.get(CLAIM_UID, Long.class))
+				.userId(claims.get(CLAIM_USER_ID, String.class))
+				.email(claims.getSubject())
+				.role(User.Role.valueOf(claims.get(CLAIM_ROLE, String.class)))
+				.active(claims.get(CLAIM_ACTIVE, Boolean.class))
+				.build();
+		return new CustomUserDetails(user);
+	}
+	
+	// Access token lifetime in milliseconds
+	public long getExpirationMillis() {
+		return jwtExpiration;
+	}
+	
+	// Verify token and return its claims.
+	// Repeat tokens are served from the verified claims cache until they expire.
+	public Claims getVerifiedClaims(String token) throws ExpiredJwtException, MalformedJwtException {
+		return verifiedTokenCache.get(token, this::parseClaims);
+	}
+	
+	// Verify signature and expiry in a single parse
+	public Claims parseClaims(String token) throws ExpiredJwtException, MalformedJwtException {
+		return jwtParser.parseSignedClaims(token).getPayload();
+	}
+	
 	// Get email from JWT token
 	public String getEmailFromToken(String token) throws ExpiredJwtException, MalformedJwtException {
-	    Claims claims = Jwts.parser()
-	            .verifyWith(getSigningKey())
-	            .build()
-	            .parseSignedClaims(token)
-	            .getPayload();
-	    return claims.getSubject();
+	    return parseClaims(token).getSubject();
 	}
 
 	
 	// Validate JWT token
 	public void validateTokenOrThrow(String token) throws ExpiredJwtException, MalformedJwtException {
-	    Jwts.parser()
-	        .verifyWith(getSigningKey())
-	        .build()
-	        .parseSignedClaims(token); // will throw ExpiredJwtException if expired
+	    parseClaims(token); // will throw ExpiredJwtException if expired
 	}
 	
 	// Get signing key from secret
@@ -0,0 +1,93 @@
+package com.ecommerce.project.security;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// In-process cache of authenticated principals keyed by email.
+// Entries are evicted explicitly on user changes (on every node via Redis pub/sub)
+// and expire after a short TTL, which bounds how long a deactivated user stays cached.
+@Component
+public class PrincipalCache implements MessageListener {
+	private static final Logger log = LoggerFactory.getLogger(PrincipalCache.class);
+
+	public static final String EVICT_CHANNEL = "springcart:principal-evict";
+
+	private final Cache<String, CustomUserDetails> cache;
+	private final StringRedisTemplate redisTemplate;
+
+	@Autowired
+	public PrincipalCache(
+			@Value("${security.principal-cache.ttl-seconds:60}") long ttlSeconds,
+			@Value("${security.principal-cache.max-size:10000}") long maxSize,
+			StringRedisTemplate redisTemplate,
+			RedisMessageListenerContainer listenerContainer,
+			MeterRegistry meterRegistry) {
+		this(ttlSeconds, maxSize, redisTemplate, listenerContainer, meterRegistry, Ticker.systemTicker());
+	}
+
+	// Tests pass a ticker they move forward themselves
+	PrincipalCache(long ttlSeconds, long maxSize, StringRedisTemplate redisTemplate,
+			RedisMessageListenerContainer listenerContainer, MeterRegistry meterRegistry, Ticker ticker) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+				.ticker(ticker)
+				.recordStats()
+				.build();
+		this.redisTemplate = redisTemplate;
+
+		// Hit ratio: cache.gets{cache=principals,result=hit} / all gets
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");
+		listenerContainer.addMessageListener(this, new ChannelTopic(EVICT_CHANNEL));
+	}
+
+	// Return cached principal or load it (loader exceptions propagate and are not cached)
+	public CustomUserDetails get(String email, Function<String, CustomUserDetails> loader) {
+		return cache.get(email, loader);
+	}
+
+	// Evict on this node and broadcast the eviction to the other nodes
+	public void evict(String... emails) {
+		for(String email: emails) {
+			if(email == null) {
+				continue;
+			}
+			cache.invalidate(email);
+			try {
+				redisTemplate.convertAndSend(EVICT_CHANNEL, email);
+			} catch(RuntimeException ex) {
+				// Other nodes fall back to the TTL
+				log.warn("Could not publish principal eviction for {}: {}", email, ex.getMessage());
+			}
+		}
+	}
+
+	// Eviction published by another node (or echoed back from this one)
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		cache.invalidate(new String(message.getBody(), StandardCharsets.UTF_8));
+	}
+
+	public double hitRate() {
+		return cache.stats().hitRate();
+	}
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.project.security;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+// Refresh tokens shared by all nodes (default, jwt.refresh.store=redis).
+// Each user's digests are also kept in a set, refresh-user:<email>, which expires with the newest token.
+// Issuing and revoking a user's tokens are scripts, so neither can interleave with the other.
+@Component
+@ConditionalOnProperty(name = "jwt.refresh.store", havingValue = "redis", matchIfMissing = true)
+public class RedisRefreshTokenStore implements RefreshTokenStore {
+	private static final String KEY_PREFIX = "refresh:";
+	private static final String USER_KEY_PREFIX = "refresh-user:";
+	
+	// KEYS: token, user set; ARGV: email, digest, ttl millis
+	private static final RedisScript<Long> ISSUE = new DefaultRedisScript<>("""
+			redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+			redis.call('SADD', KEYS[2], ARGV[2])
+			redis.call('PEXPIRE', KEYS[2], ARGV[3])
+			return 1
+			""", Long.class);
+	
+	// KEYS: user set; ARGV: token key prefix. Returns the number of tokens dropped
+	private static final RedisScript<Long> REVOKE_ALL = new DefaultRedisScript<>("""
+			local digests = redis.call('SMEMBERS', KEYS[1])
+			for _, digest in ipairs(digests) do
+				redis.call('DEL', ARGV[1] .. digest)
+			end
+			redis.call('DEL', KEYS[1])
+			return #digests
+			""", Long.class);
+	
+	private final SecureRandom random = new SecureRandom();
+	private final StringRedisTemplate redisTemplate;
+	private final Duration ttl;
+	
+	public RedisRefreshTokenStore(
+			StringRedisTemplate redisTemplate,
+			@Value("${jwt.refresh.expiration}") long refreshExpiration) {
+		this.redisTemplate = redisTemplate;
+		this.ttl = Duration.ofMillis(refreshExpiration);
+	}
+	
+	@Override
+	public String issue(String email) {
+		String token = RefreshTokenStore.newToken(random);
+		String digest = TokenDigest.sha256(token);
+		redisTemplate.execute(ISSUE, List.of(KEY_PREFIX + digest, userKey(email)),
+				email, digest, String.valueOf(ttl.toMillis()));
+		return token;
+	}
+	
+	@Override
+	public Optional<String> consume(String token) {
+		// GETDEL is atomic - a token can only be used once, even across nodes
+		String digest = TokenDigest.sha256(token);
+		String email = redisTemplate.opsForValue().getAndDelete(KEY_PREFIX + digest);
+		if(email != null) {
+			redisTemplate.opsForSet().remove(userKey(email), digest);
+		}
+		return Optional.ofNullable(email);
+	}
+	
+	@Override
+	public void revoke(String token) {
+		consume(token);
+	}
+	
+	@Override
+	public void revokeAll(String email) {
+		redisTemplate.execute(REVOKE_ALL, List.of(userKey(email)), KEY_PREFIX);
+	}
+	
+	private static String userKey(String email) {
+		return USER_KEY_PREFIX + email;
+	}
+}
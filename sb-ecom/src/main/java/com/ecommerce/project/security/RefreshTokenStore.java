@@ -0,0 +1,29 @@
+package com.ecommerce.project.security;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+
+// Opaque, single-use refresh tokens.
+// Only a SHA-256 digest of each token is stored (TokenDigest), mapped to the user's email,
+// with an index of each user's digests so all of a user's tokens can be revoked at once.
+public interface RefreshTokenStore {
+	// Store a new refresh token for the user and return it
+	String issue(String email);
+	
+	// Use up a refresh token, returning the email it was issued to
+	Optional<String> consume(String token);
+	
+	// Drop a refresh token (logout)
+	void revoke(String token);
+	
+	// Drop every refresh token issued to the user (password or email change, deactivation)
+	void revokeAll(String email);
+	
+	// 256 random bits, URL-safe
+	static String newToken(SecureRandom random) {
+		byte[] bytes = new byte[32];
+		random.nextBytes(bytes);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+}
@@ -0,0 +1,124 @@
+package com.ecommerce.project.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.project.repository.UserRepository;
+
+// Deactivated users, checked before a self-contained token is trusted.
+// An exact set of ids: it stays as small as the number of deactivated users and a lookup is
+// one hash probe, so a probabilistic filter in front of it would save nothing.
+// Loaded from the DB at startup, kept in sync across nodes over Redis pub/sub
+// and periodically re-read from the DB in case a message was missed.
+@Component
+public class RevokedUserRegistry implements MessageListener {
+	private static final Logger log = LoggerFactory.getLogger(RevokedUserRegistry.class);
+
+	public static final String CHANNEL = "springcart:revoked-users";
+	private static final String REVOKE = "R:";
+	private static final String RESTORE = "U:";
+
+	private final UserRepository userRepo;
+	private final StringRedisTemplate redisTemplate;
+
+	private final Set<Long> revokedIds = ConcurrentHashMap.newKeySet();
+
+	public RevokedUserRegistry(
+			UserRepository userRepo,
+			StringRedisTemplate redisTemplate,
+			RedisMessageListenerContainer listenerContainer) {
+		this.userRepo = userRepo;
+		this.redisTemplate = redisTemplate;
+
+		listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+	}
+
+	public boolean isRevoked(Long userId) {
+		return userId != null && revokedIds.contains(userId);
+	}
+
+	// User deactivated - revoke on every node
+	public void revoke(Long userId) {
+		revokeLocally(userId);
+		publish(REVOKE + userId);
+	}
+
+	// User re-activated - lift the revocation on every node
+	public void restore(Long userId) {
+		restoreLocally(userId);
+		publish(RESTORE + userId);
+	}
+
+	// Full reload from the DB on startup and on a fixed interval
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${security.revocation.resync-ms:300000}",
+			initialDelayString = "${security.revocation.resync-ms:300000}")
+	public synchronized void reload() {
+		// Read under the lock so a concurrent revoke is either in the result or applied after it
+		List<Long> inactiveIds = userRepo.findInactiveUserIds();
+		revokedIds.retainAll(new HashSet<>(inactiveIds));
+		revokedIds.addAll(inactiveIds);
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String body = new String(message.getBody(), StandardCharsets.UTF_8);
+		Long userId = parseUserId(body);
+		if(userId == null) {
+			// Skip it; the next DB resync covers whatever it meant
+			log.warn("Ignoring malformed revocation update: {}", body);
+		} else if(body.startsWith(REVOKE)) {
+			revokeLocally(userId);
+		} else {
+			restoreLocally(userId);
+		}
+	}
+
+	public int size() {
+		return revokedIds.size();
+	}
+
+	private synchronized void revokeLocally(Long userId) {
+		revokedIds.add(userId);
+	}
+
+	private synchronized void restoreLocally(Long userId) {
+		revokedIds.remove(userId);
+	}
+
+	// "R:<id>" or "U:<id>"; null for anything else
+	private static Long parseUserId(String body) {
+		if(!body.startsWith(REVOKE) && !body.startsWith(RESTORE)) {
+			return null;
+		}
+		try {
+			return Long.valueOf(body.substring(REVOKE.length()));
+		} catch(NumberFormatException ex) {
+			return null;
+		}
+	}
+
+	private void publish(String message) {
+		try {
+			redisTemplate.convertAndSend(CHANNEL, message);
+		} catch(RuntimeException ex) {
+			// Other nodes pick it up on the next DB resync
+			log.warn("Could not publish revocation update {}: {}", message, ex.getMessage());
+		}
+	}
+}
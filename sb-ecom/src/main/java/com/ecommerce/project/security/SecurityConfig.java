@@ -1,6 +1,7 @@
 package com.ecommerce.project.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -8,11 +9,16 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.savedrequest.NullRequestCache;
+
+import com.ecommerce.project.catalog.CatalogConditionalGetFilter;
+import com.ecommerce.project.ratelimit.RateLimitFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 @EnableWebSecurity
@@ -20,11 +26,27 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 	@Autowired
 	private JwtAuthenticationFilter jwtAuthFilter;
+	
+	@Autowired
+	private RateLimitFilter rateLimitFilter;
+	
+	@Autowired
+	private CatalogConditionalGetFilter conditionalGetFilter;
+	
+	@Autowired
+	private JwtAuthenticationEntryPoint jwtAuthEntryPoint;
 		
-	// BCrypt password encoder bean
+	// BCrypt password encoder bean, hashing on its own bounded pool
 	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	public PasswordEncoder passwordEncoder(
+			@Value("${security.password.bcrypt-strength:10}") int strength,
+			@Value("${security.password.threads:0}") int threads,
+			@Value("${security.password.queue-capacity:64}") int queueCapacity,
+			@Value("${security.password.retry-after-seconds:1}") long retryAfterSeconds,
+			MeterRegistry meterRegistry) {
+		// Default: half the cores, so catalog reads always keep some CPU
+		int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		return new BoundedPasswordEncoder(strength, poolSize, queueCapacity, retryAfterSeconds, meterRegistry);
 	}
 	
 	// Authentication Manager bean
@@ -47,15 +69,25 @@ public class SecurityConfig {
 					
 					// Admin endpoints
 					.requestMatchers("/api/admin/**").hasRole("ADMIN")
+					.requestMatchers("/actuator/**").hasRole("ADMIN")
 					
 					// All other endpoints require authentication
 					.anyRequest().authenticated()
 			)
-			// No sessions, need to use JWT
-			.sessionManagement(session -> session
-					.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) 
+			// Token errors are reported only when a protected endpoint needs the user
+			.exceptionHandling(ex -> ex.authenticationEntryPoint(jwtAuthEntryPoint))
+			// No sessions, need to use JWT. Stateless is set up piece by piece: the session
+			// management filter would read the security context on every request and defeat the lazy JWT check
+			.sessionManagement(session -> session.disable())
+			.securityContext(context -> context
+					.securityContextRepository(new RequestAttributeSecurityContextRepository()))
+			.requestCache(cache -> cache.requestCache(new NullRequestCache()))
 			// Add JWT filter
-			.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+			.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+			// Rate limit once the caller is known (per user, or per IP when anonymous)
+			.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
+			// Polls that are still current end here as 304s (after rate limiting, so they count)
+			.addFilterAfter(conditionalGetFilter, RateLimitFilter.class);
 		
 		// For H2 console 
 		http.headers(headers -> headers.frameOptions(frame -> frame.disable()));
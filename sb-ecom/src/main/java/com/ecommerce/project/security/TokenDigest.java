@@ -0,0 +1,24 @@
+package com.ecommerce.project.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+// SHA-256 of a token, URL-safe Base64: how tokens are keyed wherever they are kept,
+// so a leaked cache or store doesn't hand out usable tokens
+final class TokenDigest {
+	private TokenDigest() {
+	}
+
+	static String sha256(String token) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256")
+					.digest(token.getBytes(StandardCharsets.US_ASCII));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			// SHA-256 is required on every JVM
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.project.security;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Bounded cache of already verified JWT claims.
+// Keyed by a SHA-256 digest of the token, each entry lives until the token's exp claim.
+@Component
+public class VerifiedTokenCache {
+	// Fallback lifetime for tokens without an exp claim
+	private static final long NO_EXPIRY_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+	private final Cache<String, Claims> cache;
+
+	@Autowired
+	public VerifiedTokenCache(
+			@Value("${jwt.claims-cache.max-size:10000}") long maxSize,
+			MeterRegistry meterRegistry) {
+		this(maxSize, meterRegistry, Ticker.systemTicker());
+	}
+
+	// Tests pass a ticker they move forward themselves
+	VerifiedTokenCache(long maxSize, MeterRegistry meterRegistry, Ticker ticker) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfter(new ClaimsExpiry())
+				.ticker(ticker)
+				.recordStats()
+				.build();
+
+		// Exposes cache.gets{result=hit|miss} under /actuator/metrics
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtClaims");
+	}
+
+	// Return cached claims, or verify the token once and cache the result.
+	// Verification failures propagate and are never cached.
+	public Claims get(String token, Function<String, Claims> verifier) {
+		return cache.get(TokenDigest.sha256(token), key -> verifier.apply(token));
+	}
+
+	public long size() {
+		return cache.estimatedSize();
+	}
+
+	// Entries expire exactly when the token does
+	private static class ClaimsExpiry implements Expiry<String, Claims> {
+		@Override
+		public long expireAfterCreate(String key, Claims claims, long currentTime) {
+			Date expiration = claims.getExpiration();
+			if(expiration == null) {
+				return NO_EXPIRY_TTL_NANOS;
+			}
+			long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+			return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+
+		@Override
+		public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
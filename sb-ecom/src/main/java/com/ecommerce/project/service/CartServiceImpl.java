@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import com.ecommerce.project.dto.AddToCartRequestDTO;
@@ -24,8 +25,10 @@ import com.ecommerce.project.repository.UserRepository;
 
 import jakarta.transaction.Transactional;
 
+// Carts in the DB (default, cart.store=db); see RedisCartServiceImpl for cart.store=redis
 @Service
 @Transactional
+@ConditionalOnProperty(name = "cart.store", havingValue = "db", matchIfMissing = true)
 public class CartServiceImpl implements CartService {
 	@Autowired
 	private CartRepository cartRepo;
@@ -142,8 +145,8 @@ public class CartServiceImpl implements CartService {
 		User user = userRepo.findByUserId(userId)
 	            .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
-        // Get cart (or create empty one if doesn't exist)
-        Cart cart = cartRepo.findByUserId(user.getId())
+        // Get cart with its items and products (or create empty one if doesn't exist)
+        Cart cart = cartRepo.findWithItemsByUserId(user.getId())
             .orElseGet(() -> {
                 Cart newCart = new Cart();
                 newCart.setUser(user);
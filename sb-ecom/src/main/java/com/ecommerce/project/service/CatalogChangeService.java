@@ -0,0 +1,8 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.dto.CatalogChangesDTO;
+
+public interface CatalogChangeService {
+	CatalogChangesDTO getChanges(long since, int limit);
+	int compact();
+}
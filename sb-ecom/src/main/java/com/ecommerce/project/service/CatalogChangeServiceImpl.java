@@ -0,0 +1,231 @@
+package com.ecommerce.project.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.ecommerce.project.dto.CatalogChangesDTO;
+import com.ecommerce.project.dto.CategoryResponseDTO;
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.model.CatalogChange;
+import com.ecommerce.project.model.CatalogChange.ChangeType;
+import com.ecommerce.project.model.CatalogChange.EntityType;
+import com.ecommerce.project.repository.CatalogChangeRepository;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+
+import jakarta.transaction.Transactional;
+
+// Reads the catalog change log written by the product, category and order services
+@Service
+public class CatalogChangeServiceImpl implements CatalogChangeService {
+	private static final Logger log = LoggerFactory.getLogger(CatalogChangeServiceImpl.class);
+
+	private static final int COMPACT_BATCH = 1000;
+	private static final String LOCK_PREFIX = "catalog-changes-lock:";
+	private static final Duration COMPACT_LOCK_TIMEOUT = Duration.ofMinutes(30);
+	private static final Duration SEED_LOCK_TIMEOUT = Duration.ofMinutes(5);
+
+	private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>("""
+			if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end
+			return 0
+			""", Long.class);
+
+	@Autowired
+	private CatalogChangeRepository changeRepo;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepo;
+
+	@Autowired
+	private CategoryRepository catRepo;
+
+	@Autowired
+	private StringRedisTemplate redisTemplate;
+
+	// Entries younger than this are held back, so a page rarely stops at a gap that closes a moment later
+	@Value("${catalog.changes.settle-ms:2000}")
+	private long settleMillis;
+
+	// Versions are allocated on insert but become visible on commit, so a lower version can appear
+	// after a higher one was read. A missing version is waited for until a later entry is this old;
+	// after that its transaction is taken to have rolled back.
+	@Value("${catalog.changes.gap-timeout-ms:60000}")
+	private long gapTimeoutMillis;
+
+	// Superseded entries are kept this long so clients that synced recently still get a small delta
+	@Value("${catalog.changes.compact-after-hours:24}")
+	private long compactAfterHours;
+
+	// Entities changed after `since`, in their current state; several changes to one entity collapse into one
+	@Override
+	@Transactional
+	public CatalogChangesDTO getChanges(long since, int limit) {
+		List<CatalogChange> entries = changeRepo.findByVersionGreaterThanOrderByVersion(since, Limit.of(limit + 1));
+		int ready = readyPrefix(entries, since, Math.min(entries.size(), limit));
+		boolean hasMore = ready == limit && entries.size() > limit;
+		entries = entries.subList(0, ready);
+		
+		// Latest change per entity
+		Map<Long, ChangeType> products = new LinkedHashMap<>();
+		Map<Long, ChangeType> categories = new LinkedHashMap<>();
+		for(CatalogChange entry: entries) {
+			Map<Long, ChangeType> latest = entry.getEntityType() == EntityType.PRODUCT ? products : categories;
+			latest.remove(entry.getEntityId());
+			latest.put(entry.getEntityId(), entry.getChangeType());
+		}
+
+		// An entity deleted after its last logged change is missing here; its DELETED entry follows
+		List<ProductResponseDTO> changedProducts = productService.getProductsByIds(changed(products));
+		List<CategoryResponseDTO> changedCategories = catRepo.findAllById(changed(categories)).stream()
+				.map(category -> new CategoryResponseDTO(
+						category.getCategoryId(), category.getCategoryName(), category.getDescription()))
+				.collect(Collectors.toList());
+
+		long version = entries.isEmpty() ? since : entries.get(entries.size() - 1).getVersion();
+		return new CatalogChangesDTO(since, version, hasMore,
+				changedProducts, deleted(products), changedCategories, deleted(categories));
+	}
+
+	// Drop entries superseded by a later one for the same entity; the latest entry per entity is kept
+	// so a client syncing from version 0 still sees every live entity (and every deletion).
+	// The newest entry before the cutoff is kept too, so the gaps compaction leaves are known to be settled.
+	@Override
+	@Scheduled(fixedDelayString = "${catalog.changes.compact-interval-ms:3600000}",
+			initialDelayString = "${catalog.changes.compact-interval-ms:3600000}")
+	public int compact() {
+		String token = tryLock("compact", COMPACT_LOCK_TIMEOUT);
+		if(token == null) {
+			return 0;
+		}
+		try {
+			LocalDateTime cutoff = LocalDateTime.now().minusHours(compactAfterHours);
+			Long keep = changeRepo.findFirstByChangedAtLessThanOrderByVersionDesc(cutoff)
+					.map(CatalogChange::getVersion)
+					.orElse(null);
+			if(keep == null) {
+				return 0;
+			}
+			int removed = 0;
+			List<Long> versions;
+			do {
+				versions = changeRepo.findSupersededVersions(cutoff, keep, Limit.of(COMPACT_BATCH));
+				changeRepo.deleteAllByIdInBatch(versions);
+				removed += versions.size();
+			} while(versions.size() == COMPACT_BATCH);
+			if(removed > 0) {
+				log.info("Catalog change log compacted: {} superseded entries removed", removed);
+			}
+			return removed;
+		} finally {
+			unlock("compact", token);
+		}
+	}
+
+	// A catalog that predates the log (or was seeded directly) gets one CREATED entry per entity,
+	// so a full sync from version 0 is complete. Nodes starting together seed it once.
+	@EventListener(ApplicationReadyEvent.class)
+	public void seed() {
+		String token = tryLock("seed", SEED_LOCK_TIMEOUT);
+		if(token == null) {
+			return;
+		}
+		try {
+			if(changeRepo.count() > 0) {
+				return;
+			}
+			List<CatalogChange> entries = new ArrayList<>();
+			catRepo.findAll().forEach(category -> entries.add(
+					new CatalogChange(EntityType.CATEGORY, category.getCategoryId(), ChangeType.CREATED)));
+			productRepo.findAllIds().forEach(productId -> entries.add(
+					new CatalogChange(EntityType.PRODUCT, productId, ChangeType.CREATED)));
+			changeRepo.saveAll(entries);
+			log.info("Catalog change log seeded with {} entries", entries.size());
+		} finally {
+			unlock("seed", token);
+		}
+	}
+
+	private int readyPrefix(List<CatalogChange> entries, long since, int max) {
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime settled = now.minus(settleMillis, ChronoUnit.MILLIS);
+		Long floor = null;
+		long expected = since + 1;
+		for(int i = 0; i < max; i++) {
+			CatalogChange entry = entries.get(i);
+			if(entry.getChangedAt().isAfter(settled)) {
+				return i;
+			}
+			if(entry.getVersion() != expected) {
+				if(floor == null) {
+					floor = changeRepo.findFirstByChangedAtLessThanOrderByVersionDesc(
+							now.minus(gapTimeoutMillis, ChronoUnit.MILLIS))
+						.map(CatalogChange::getVersion)
+						.orElse(0L);
+				}
+				if(entry.getVersion() > floor) {
+					return i;
+				}
+			}
+			expected = entry.getVersion() + 1;
+		}
+		return max;
+	}
+
+	// Seeding and compaction run on one node at a time; without Redis every node runs them, as before
+	private String tryLock(String name, Duration timeout) {
+		String token = UUID.randomUUID().toString();
+		try {
+			Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK_PREFIX + name, token, timeout);
+			return Boolean.FALSE.equals(acquired) ? null : token;
+		} catch(RuntimeException ex) {
+			log.warn("Could not take catalog change log lock {}: {}", name, ex.getMessage());
+			return token;
+		}
+	}
+
+	private void unlock(String name, String token) {
+		try {
+			redisTemplate.execute(UNLOCK, List.of(LOCK_PREFIX + name), token);
+		} catch(RuntimeException ex) {
+			// Expires on its own
+			log.warn("Could not release catalog change log lock {}: {}", name, ex.getMessage());
+		}
+	}
+
+	private static List<Long> changed(Map<Long, ChangeType> latest) {
+		return latest.entrySet().stream()
+				.filter(entry -> entry.getValue() != ChangeType.DELETED)
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+	}
+
+	private static List<Long> deleted(Map<Long, ChangeType> latest) {
+		return latest.entrySet().stream()
+				.filter(entry -> entry.getValue() == ChangeType.DELETED)
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+	}
+}
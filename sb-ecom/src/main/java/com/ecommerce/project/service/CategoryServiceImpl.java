@@ -4,27 +4,44 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 //import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 //import org.springframework.web.server.ResponseStatusException;
 
 import com.ecommerce.project.dto.CategoryRequestDTO;
 import com.ecommerce.project.dto.CategoryResponseDTO;
+import com.ecommerce.project.event.CategoryChangeEvent;
 import com.ecommerce.project.exception.BadRequestException;
 import com.ecommerce.project.exception.ResourceNotFoundException;
+import com.ecommerce.project.model.CatalogChange;
+import com.ecommerce.project.model.CatalogChange.ChangeType;
+import com.ecommerce.project.model.CatalogChange.EntityType;
 import com.ecommerce.project.model.Category;
+import com.ecommerce.project.repository.CatalogChangeRepository;
 import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+
+import jakarta.transaction.Transactional;
 
 @Service
 public class CategoryServiceImpl implements CategoryService{
 	@Autowired
 	private CategoryRepository catRepo;
 	
+	@Autowired
+	private ProductRepository productRepo;
+	
+	@Autowired
+	private CatalogChangeRepository changeRepo;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
 	// Cache all categories
 	@Override
-	@Cacheable(value = "allCategories")
+	@Cacheable(value = "allCategories", sync = true)
 	public List<CategoryResponseDTO> getAllCategories(){
 		List<Category> categories = catRepo.findAll();
 		
@@ -34,9 +51,9 @@ public class CategoryServiceImpl implements CategoryService{
 				.collect(Collectors.toList());
 	}
 	
-	// Clear cache when category created
+	// Create category (CatalogCacheInvalidator drops the cached list)
 	@Override
-	@CacheEvict(value="allCategories", allEntries=true)
+	@Transactional
 	public CategoryResponseDTO createCategory(CategoryRequestDTO categoryRequestDTO) {
 		// Check if category name already exists
 		if(catRepo.findByCategoryName(categoryRequestDTO.getCategoryName()).isPresent()) {
@@ -50,27 +67,35 @@ public class CategoryServiceImpl implements CategoryService{
 		
 		// Save entity
 		Category savedCategory = catRepo.save(category);
+		changeRepo.save(new CatalogChange(EntityType.CATEGORY, savedCategory.getCategoryId(), ChangeType.CREATED));
+		eventPublisher.publishEvent(new CategoryChangeEvent(
+				CategoryChangeEvent.Type.CREATED, savedCategory.getCategoryId(), savedCategory.getCategoryName()));
 		
 		// Convert saved entity to DTO and return
 		return convertToResponseDTO(savedCategory);
 	}
 	
-	// Clean cache when category deleted
+	// Delete category and its products (caches updated by CatalogCacheInvalidator)
 	@Override
-	@CacheEvict(value="allCategories", allEntries=true)
+	@Transactional
 	public String deleteCategory(Long categoryId) {	
 //		Category category = catRepo.findById(categoryId)
 //				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found!"));  
 		
 		Category category = catRepo.findById(categoryId)
 				.orElseThrow(() -> new ResourceNotFoundException("Category with Id " + categoryId + " not found!"));
+		// Its products go with it; log them while their ids can still be read
+		List<Long> productIds = logProductChanges(categoryId, ChangeType.DELETED);
 		catRepo.delete(category);
+		changeRepo.save(new CatalogChange(EntityType.CATEGORY, categoryId, ChangeType.DELETED));
+		eventPublisher.publishEvent(new CategoryChangeEvent(
+				CategoryChangeEvent.Type.DELETED, categoryId, category.getCategoryName(), productIds));
 		return "Category with Id: " + categoryId + " deleted successfully!";
 	}
 
-	// Clear cache when category updated
+	// Rename category; cached products of it are evicted by CatalogCacheInvalidator
 	@Override
-	@CacheEvict(value="allCategories", allEntries=true)
+	@Transactional
 	public CategoryResponseDTO updateCategory(CategoryRequestDTO categoryRequestDTO, Long categoryId) {
 		// Find existing category
 	    Category existingCategory = catRepo.findById(categoryId)
@@ -82,11 +107,26 @@ public class CategoryServiceImpl implements CategoryService{
 	  
 	    // Save updated entity
 	    Category updatedCategory = catRepo.save(existingCategory);
+	    changeRepo.save(new CatalogChange(EntityType.CATEGORY, categoryId, ChangeType.UPDATED));
+	    // Products carry the category name in the feed
+	    logProductChanges(categoryId, ChangeType.UPDATED);
+	    eventPublisher.publishEvent(new CategoryChangeEvent(
+	    		CategoryChangeEvent.Type.UPDATED, categoryId, updatedCategory.getCategoryName()));
 	    
 	    // Convert to DTO and return
 	    return convertToResponseDTO(updatedCategory);
 	}
 	
+	// Returns the ids of the category's products
+	private List<Long> logProductChanges(Long categoryId, ChangeType changeType) {
+		List<Long> productIds = productRepo.findIdsByCategoryId(categoryId);
+		List<CatalogChange> changes = productIds.stream()
+				.map(productId -> new CatalogChange(EntityType.PRODUCT, productId, changeType))
+				.collect(Collectors.toList());
+		changeRepo.saveAll(changes);
+		return productIds;
+	}
+	
 	// Helper methods for conversion
 	private CategoryResponseDTO convertToResponseDTO(Category category) {
 		return new CategoryResponseDTO(
@@ -4,9 +4,11 @@ import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import com.ecommerce.project.dto.OrderResponseDTO;
 import com.ecommerce.project.dto.PlaceOrderRequestDTO;
+import com.ecommerce.project.dto.SliceResponseDTO;
 import com.ecommerce.project.dto.UpdateOrderStatusRequestDTO;
 
 public interface OrderService {
@@ -28,6 +30,10 @@ public interface OrderService {
 	// Get all orders with pagination (admin)
 	Page<OrderResponseDTO> getAllOrders(Pageable pageable);
 	
+	// Get all orders with cursor (keyset) paging (admin); the total is only counted when asked for
+	SliceResponseDTO<OrderResponseDTO> scrollOrders(String sortBy, Sort.Direction direction, int size,
+			String cursor, boolean withTotal);
+	
 	// Update order status (admin)
 	OrderResponseDTO updateOrderStatus(String orderId, UpdateOrderStatusRequestDTO statusRequest);
 }
@@ -1,28 +1,50 @@
 package com.ecommerce.project.service;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.ecommerce.project.cart.RedisCartStore;
 import com.ecommerce.project.dto.OrderItemDTO;
 import com.ecommerce.project.dto.OrderResponseDTO;
 import com.ecommerce.project.dto.PlaceOrderRequestDTO;
+import com.ecommerce.project.dto.SliceResponseDTO;
 import com.ecommerce.project.dto.UpdateOrderStatusRequestDTO;
+import com.ecommerce.project.event.ProductChangeEvent;
 import com.ecommerce.project.exception.BadRequestException;
 import com.ecommerce.project.exception.ResourceNotFoundException;
 import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.CatalogChange;
+import com.ecommerce.project.model.CatalogChange.ChangeType;
+import com.ecommerce.project.model.CatalogChange.EntityType;
 import com.ecommerce.project.model.CartItem;
 import com.ecommerce.project.model.Order;
 import com.ecommerce.project.model.OrderItem;
 import com.ecommerce.project.model.Product;
 import com.ecommerce.project.model.User;
+import com.ecommerce.project.pagination.KeysetPagination;
 import com.ecommerce.project.repository.CartRepository;
+import com.ecommerce.project.repository.CatalogChangeRepository;
+import com.ecommerce.project.repository.OrderItemRepository;
+import com.ecommerce.project.repository.OrderItemSummary;
 import com.ecommerce.project.repository.OrderRepository;
+import com.ecommerce.project.repository.OrderSpecifications;
+import com.ecommerce.project.repository.OrderSummary;
 import com.ecommerce.project.repository.ProductRepository;
 import com.ecommerce.project.repository.UserRepository;
 
@@ -31,10 +53,18 @@ import jakarta.transaction.Transactional;
 @Service
 @Transactional
 public class OrderServiceImpl implements OrderService {
+	// Admin listing sort keys, each backed by an index on orders (see Order)
+	private static final KeysetPagination<Order, OrderSummary> ORDER_KEYSET =
+		new KeysetPagination<Order, OrderSummary>("id", OrderSummary::id)
+			.key("createdAt", LocalDateTime.class, OrderSummary::createdAt)
+			.key("totalAmount", BigDecimal.class, OrderSummary::totalAmount);
 	
 	@Autowired
 	private OrderRepository orderRepo;
 	
+	@Autowired
+	private OrderItemRepository orderItemRepo;
+	
 	@Autowired
 	private CartRepository cartRepo;
 	
@@ -47,6 +77,16 @@ public class OrderServiceImpl implements OrderService {
 	@Autowired
 	private PaymentService paymentService;
 	
+	@Autowired
+	private CatalogChangeRepository changeRepo;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
+	// Only with cart.store=redis
+	@Autowired(required = false)
+	private RedisCartStore redisCarts;
+	
 	// Get authenticated user
 //	private User getAuthenticatedUser() {
 //		Object principal = SecurityContextHolder.getContext()
@@ -70,6 +110,10 @@ public class OrderServiceImpl implements OrderService {
 		User user = userRepo.findByUserId(userId)
 	         .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 		
+		if(redisCarts != null) {
+			return placeOrderFromRedisCart(user, placeOrderReqdto);
+		}
+		
 		// FInd user's cart
 		Cart cart = cartRepo.findByUserId(user.getId())
 				.orElseThrow(() -> new ResourceNotFoundException(
@@ -81,8 +125,60 @@ public class OrderServiceImpl implements OrderService {
 			throw new BadRequestException("Cannot place order. Cart is empty");
 		}
 		
+		Order savedOrder = createOrder(user, placeOrderReqdto, cart.getCartItems());
+		
+		// Clear cart
+		cart.getCartItems().clear();
+		cart.setTotalAmount(java.math.BigDecimal.ZERO);
+		cartRepo.save(cart);
+		
+		return convertToResponseDTO(savedOrder);
+	}
+	
+	// cart.store=redis: the cart is locked against changes while the order is placed, so the order
+	// holds exactly the lines read here; they leave the cart once the order commits
+	private OrderResponseDTO placeOrderFromRedisCart(User user, PlaceOrderRequestDTO placeOrderReqdto) {
+		RedisCartStore.Checkout checkout = redisCarts.beginCheckout(user.getUserId());
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				if(status == STATUS_COMMITTED) {
+					redisCarts.completeCheckout(checkout);
+				} else {
+					redisCarts.abortCheckout(checkout);
+				}
+			}
+		});
+		
+		if(checkout.lines().isEmpty()) {
+			throw new BadRequestException("Cannot place order. Cart is empty");
+		}
+		
+		Map<Long, Product> products = productRepo.findAllById(checkout.lines().stream()
+				.map(RedisCartStore.CartLine::productId)
+				.toList()).stream()
+			.collect(Collectors.toMap(Product::getProductId, Function.identity()));
+		
+		List<CartItem> cartItems = new ArrayList<>();
+		for(RedisCartStore.CartLine line: checkout.lines()) {
+			Product product = products.get(line.productId());
+			if(product == null) {
+				throw new BadRequestException("Product " + line.productName() + " is no longer available");
+			}
+			CartItem cartItem = new CartItem();
+			cartItem.setProduct(product);
+			cartItem.setQuantity(line.quantity());
+			cartItem.setPrice(line.price());
+			cartItems.add(cartItem);
+		}
+		
+		return convertToResponseDTO(createOrder(user, placeOrderReqdto, cartItems));
+	}
+	
+	// Checks stock, turns the cart's items into an order and deducts the stock
+	private Order createOrder(User user, PlaceOrderRequestDTO placeOrderReqdto, List<CartItem> cartItems) {
 		// Validate stock for all items before creating order
-		for(CartItem cartItem: cart.getCartItems()) {
+		for(CartItem cartItem: cartItems) {
 			Product product = cartItem.getProduct();
 			if(product.getStockQuantity() < cartItem.getQuantity()) {
 				throw new BadRequestException(
@@ -101,7 +197,7 @@ public class OrderServiceImpl implements OrderService {
 		// Convert cart items to order items
 		List<OrderItem> orderItems = new ArrayList<>();
 		
-		for(CartItem cartItem: cart.getCartItems()) {
+		for(CartItem cartItem: cartItems) {
 			OrderItem orderItem = new OrderItem();
 			orderItem.setOrder(order);
 			orderItem.setProduct(cartItem.getProduct());
@@ -114,6 +210,7 @@ public class OrderServiceImpl implements OrderService {
 			Product product = cartItem.getProduct();
 			product.setStockQuantity(product.getStockQuantity() - cartItem.getQuantity());
 			productRepo.save(product);
+			publishStockChange(product);
 		}
 		
 		// Set order items to order
@@ -123,14 +220,7 @@ public class OrderServiceImpl implements OrderService {
 		order.calculateTotalAmount();
 		
 		// Save order(cascade saves order items too)
-		Order savedOrder = orderRepo.save(order);
-		
-		// Clear cart
-		cart.getCartItems().clear();
-		cart.setTotalAmount(java.math.BigDecimal.ZERO);
-		cartRepo.save(cart);
-		
-		return convertToResponseDTO(savedOrder);
+		return orderRepo.save(order);
 	}
 	
 	// Get order by orderId
@@ -163,11 +253,7 @@ public class OrderServiceImpl implements OrderService {
 		User user = userRepo.findByUserId(userId)
 	            .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 		        
-		List<Order> orders = orderRepo.findByUserId(user.getId());
-		
-		return orders.stream()
-			.map(this::convertToResponseDTO)
-			.collect(Collectors.toList());
+		return convertSummariesToDTOs(orderRepo.findSummaries(OrderSpecifications.placedBy(user.getId()), Sort.by("id")));
 	}
 	
 	// Cancel order by owner/ admin
@@ -200,39 +286,50 @@ public class OrderServiceImpl implements OrderService {
 			 throw new BadRequestException("Order is already cancelled");
 		}
 		
+		// Refund if payment was done; before the stock is restored, so the catalog change log entries
+		// are written right before the commit rather than ahead of the remote call
+		if(order.getPaymentIntentId() != null) {
+			paymentService.refundPayment(order.getPaymentIntentId());
+		}
+		
 		// Restore stock for all items
 		for(OrderItem orderItem: order.getOrderItems()) {
 			Product product = orderItem.getProduct();
 			product.setStockQuantity(product.getStockQuantity() + orderItem.getQuantity());
 			productRepo.save(product);
+			publishStockChange(product);
 		}
 		
 		// Update order status
 		order.setStatus(Order.OrderStatus.CANCELLED);
 		Order cancelledOrder = orderRepo.save(order);
 		
-		// Refund if payment was done
-		if(order.getPaymentIntentId() != null) {
-			paymentService.refundPayment(order.getPaymentIntentId());
-		}
-		
 		return convertToResponseDTO(cancelledOrder);
 	}
 	
 	// Get all orders (admin)
 	@Override
 	public List<OrderResponseDTO> getAllOrders(){
-		List<Order> orders = orderRepo.findAll();
-		return orders.stream()
-			.map(this::convertToResponseDTO)
-			.collect(Collectors.toList());
+		return convertSummariesToDTOs(orderRepo.findSummaries(Specification.unrestricted(), Sort.by("id")));
 	}
 	
 	// Get all orders with pagination (admin)
 	@Override
 	public Page<OrderResponseDTO> getAllOrders(Pageable pageable){
-		Page<Order> orderPage = orderRepo.findAll(pageable);
-		return orderPage.map(this::convertToResponseDTO);
+		Page<OrderSummary> orderPage = orderRepo.findSummaries(Specification.unrestricted(), pageable);
+		return new PageImpl<>(convertSummariesToDTOs(orderPage.getContent()), pageable, orderPage.getTotalElements());
+	}
+	
+	// Get all orders with cursor (keyset) paging (admin)
+	@Override
+	public SliceResponseDTO<OrderResponseDTO> scrollOrders(String sortBy, Sort.Direction direction, int size,
+			String cursor, boolean withTotal){
+		Sort sort = ORDER_KEYSET.sort(sortBy, direction);
+		Specification<Order> after = ORDER_KEYSET.after(cursor, sortBy, direction);
+		
+		List<OrderSummary> rows = orderRepo.findSummaries(after, sort, size + 1);
+		Long total = withTotal ? orderRepo.count() : null;
+		return ORDER_KEYSET.slice(rows, size, sortBy, direction, this::convertSummariesToDTOs, total);
 	}
 	
 	// Update order status
@@ -270,6 +367,14 @@ public class OrderServiceImpl implements OrderService {
 	}
 	
 	// Helped methods
+	// In-memory catalog views pick up the new stock after commit
+	// Stock is part of the product in the change feed, so it is logged as an update
+	private void publishStockChange(Product product) {
+		changeRepo.save(new CatalogChange(EntityType.PRODUCT, product.getProductId(), ChangeType.UPDATED));
+		eventPublisher.publishEvent(ProductChangeEvent.stockChanged(
+				product.getProductId(), product.getCategory().getCategoryId(), product.getStockQuantity()));
+	}
+	
 	private OrderResponseDTO convertToResponseDTO(Order order) {
         // Convert order items to DTOs
 		List<OrderItemDTO> itemDTOs = order.getOrderItems().stream()
@@ -291,6 +396,42 @@ public class OrderServiceImpl implements OrderService {
 		);
 	}
 	
+	// List views: the orders' items for the whole page in one query instead of per order and item
+	private List<OrderResponseDTO> convertSummariesToDTOs(List<OrderSummary> orders) {
+		if(orders.isEmpty()) {
+			return List.of();
+		}
+		Map<Long, List<OrderItemDTO>> itemsByOrder = orderItemRepo
+			.findSummariesByOrderIdIn(orders.stream().map(OrderSummary::id).toList()).stream()
+			.collect(Collectors.groupingBy(OrderItemSummary::orderId, Collectors.mapping(item -> new OrderItemDTO(
+				item.orderItemId(),
+				item.productId(),
+				item.productName(),
+				item.quantity(),
+				item.price(),
+				item.subtotal()
+			), Collectors.toList())));
+		
+		return orders.stream()
+			.map(order -> {
+				List<OrderItemDTO> items = itemsByOrder.getOrDefault(order.id(), List.of());
+				return new OrderResponseDTO(
+					order.orderId(),
+					order.userId(),
+					order.userEmail(),
+					order.userFirstName() + " " + order.userLastName(),
+					items,
+					order.totalAmount(),
+					items.size(),
+					order.status().toString(),
+					order.shippingAddress(),
+					order.createdAt(),
+					order.updatedAt()
+				);
+			})
+			.collect(Collectors.toList());
+	}
+	
 	private OrderItemDTO convertOrderItemToDTO(OrderItem orderItem) {
         return new OrderItemDTO(
                 orderItem.getOrderItemId(),
@@ -0,0 +1,8 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.dto.ProductResponseDTO;
+
+public interface ProductDetailsService {
+	// Product details without the stock (stockQuantity is null)
+	ProductResponseDTO getDetails(Long productId);
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.project.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import com.ecommerce.project.catalog.ProductIdFilter;
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.exception.ResourceNotFoundException;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.ProductRepository;
+
+@Service
+public class ProductDetailsServiceImpl implements ProductDetailsService {
+	@Autowired
+	private ProductRepository productRepo;
+	
+	@Autowired
+	private ProductIdFilter productIdFilter;
+	
+	// Cache single product without its stock, which changes with every order and is cached apart
+	// (productStock); ids that can't exist skip the cache (condition) and the DB
+	@Override
+	@Cacheable(value="products", key="#productId", condition="@productIdFilter.mayExist(#productId)", sync = true)
+	public ProductResponseDTO getDetails(Long productId) {
+		if(!productIdFilter.mayExist(productId)) {
+			throw new ResourceNotFoundException("Product with Id " + productId + " not found");
+		}
+		Product product = productRepo.findById(productId)
+			.orElseThrow(() -> {
+				productIdFilter.markMissing(productId);
+				return new ResourceNotFoundException("Product with Id " + productId + " not found");
+			});
+		return new ProductResponseDTO(
+			product.getProductId(),
+			product.getProductName(),
+			product.getDescription(),
+			product.getPrice(),
+			null,
+			product.getImageUrl(),
+			product.getActive(),
+			product.getCategory().getCategoryId(),
+			product.getCategory().getCategoryName(),
+			product.getCreatedAt(),
+			product.getUpdatedAt()
+		);
+	}
+}
@@ -1,12 +1,19 @@
 package com.ecommerce.project.service;
 
+import java.io.OutputStream;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import com.ecommerce.project.catalog.CatalogFilter;
+import com.ecommerce.project.dto.ProductFacetsDTO;
 import com.ecommerce.project.dto.ProductRequestDTO;
 import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.dto.ProductSuggestionDTO;
+import com.ecommerce.project.dto.SliceResponseDTO;
 
 public interface ProductService {
 	// Create product
@@ -27,12 +34,34 @@ public interface ProductService {
 	// Get products by category
 	List<ProductResponseDTO> getProductsByCategory(Long categoryId);
 	
-	// Search products by name
+	// Get several products by id (not cached; used by the change feed)
+	List<ProductResponseDTO> getProductsByIds(Collection<Long> productIds);
+	
+	// Search products by name, description and category, best matches first
 	List<ProductResponseDTO> searchProducts(String keyword);
 	
-	// Get all products with pagination
-	Page<ProductResponseDTO> getAllProducts(Pageable pageable);
+	// Search products by name, description and category, ranked by relevance
+	Page<ProductResponseDTO> searchProducts(String keyword, Pageable pageable);
+	
+	// Product name suggestions for a typed prefix
+	List<ProductSuggestionDTO> autocomplete(String prefix, int limit);
+	
+	// Category counts, in-stock counts and price histogram for a category and/or search keyword
+	ProductFacetsDTO getProductFacets(Long categoryId, String keyword);
+	
+	// Combined category / price / active / stock / keyword filter with index-backed sorting
+	Page<ProductResponseDTO> filterProducts(Long categoryId, String keyword, CatalogFilter filter, Pageable pageable);
+	
+	// Same filters with cursor (keyset) paging; the total is only counted when asked for
+	SliceResponseDTO<ProductResponseDTO> scrollProducts(Long categoryId, String keyword, CatalogFilter filter,
+			String sortBy, Sort.Direction direction, int size, String cursor, boolean withTotal);
+	
+	// Every product matching the filters as newline-delimited JSON, streamed from the DB in productId order
+	void exportProducts(Long categoryId, String keyword, CatalogFilter filter, OutputStream out);
+	
+	// Get all products with filters and pagination
+	Page<ProductResponseDTO> getAllProducts(CatalogFilter filter, Pageable pageable);
 	
-	// Get products by category with pagination
-	Page<ProductResponseDTO> getProductsByCategory(Long categoryId, Pageable pageable);
+	// Get products by category with filters and pagination
+	Page<ProductResponseDTO> getProductsByCategory(Long categoryId, CatalogFilter filter, Pageable pageable);
 }
@@ -1,34 +1,113 @@
 package com.ecommerce.project.service;
 
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import com.ecommerce.project.catalog.CatalogFacets;
+import com.ecommerce.project.catalog.CatalogFilter;
+import com.ecommerce.project.catalog.CatalogPage;
+import com.ecommerce.project.catalog.ColumnarCatalog;
+import com.ecommerce.project.dto.CategoryFacetDTO;
+import com.ecommerce.project.dto.PriceBucketDTO;
+import com.ecommerce.project.dto.ProductFacetsDTO;
 import com.ecommerce.project.dto.ProductRequestDTO;
 import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.dto.ProductSuggestionDTO;
+import com.ecommerce.project.dto.SliceResponseDTO;
+import com.ecommerce.project.event.ProductChangeEvent;
+import com.ecommerce.project.exception.BadRequestException;
 import com.ecommerce.project.exception.ResourceNotFoundException;
+import com.ecommerce.project.model.CatalogChange;
+import com.ecommerce.project.model.CatalogChange.ChangeType;
+import com.ecommerce.project.model.CatalogChange.EntityType;
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.model.Product;
+import com.ecommerce.project.pagination.KeysetPagination;
+import com.ecommerce.project.repository.CatalogChangeRepository;
 import com.ecommerce.project.repository.CategoryRepository;
 import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.repository.ProductSummary;
+import com.ecommerce.project.repository.ProductSpecifications;
+import com.ecommerce.project.search.ProductAutocomplete;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.ecommerce.project.search.SearchHits;
+
+import jakarta.transaction.Transactional;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.json.JsonMapper;
 
 @Service
+@Transactional
 public class ProductServiceImpl implements ProductService {
+	// Sort keys the composite indexes on products can serve (see Product); also the keyset positions
+	private static final KeysetPagination<Product, ProductSummary> PRODUCT_KEYSET =
+		new KeysetPagination<Product, ProductSummary>("productId", ProductSummary::productId)
+			.key("price", BigDecimal.class, ProductSummary::price)
+			.key("createdAt", LocalDateTime.class, ProductSummary::createdAt);
+	
 	@Autowired
 	private ProductRepository productRepo;
 	
 	@Autowired
 	private CategoryRepository categoryRepo;
 	
-	// Clean cache when new product is created
+	@Autowired
+	private CatalogChangeRepository changeRepo;
+	
+	@Autowired
+	private ProductSearchIndex searchIndex;
+	
+	@Autowired
+	private ProductAutocomplete productAutocomplete;
+	
+	@Autowired
+	private ColumnarCatalog catalog;
+	
+	@Autowired
+	private ProductDetailsService detailsService;
+	
+	@Autowired
+	private ProductStockService stockService;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
+	@Autowired
+	private JsonMapper jsonMapper;
+	
+	// Rows per JDBC round trip when streaming an export
+	@Value("${catalog.export.fetch-size:500}")
+	private int exportFetchSize;
+	
+	// A keyword filter keeps only this many of the most relevant matches (one IN list)
+	@Value("${catalog.filter.max-keyword-matches:1000}")
+	private int maxKeywordMatches;
+	
+	// Create product; caches are updated after commit by CatalogCacheInvalidator
 	@Override
-	@CacheEvict(value= {"products", "productsByCategory", "allProducts"}, allEntries = true)
 	public ProductResponseDTO createProduct(ProductRequestDTO productRequestDTO) {
 		// Find category by Id
 		Category category = categoryRepo.findById(productRequestDTO.getCategoryId())
@@ -41,35 +120,44 @@ public class ProductServiceImpl implements ProductService {
 		
 		// Save Product
 		Product savedProduct = productRepo.save(product);
+		changeRepo.save(new CatalogChange(EntityType.PRODUCT, savedProduct.getProductId(), ChangeType.CREATED));
 		
 		// Convert Entity to Response DTO
-		return convertToResponseDTO(savedProduct);
+		ProductResponseDTO response = convertToResponseDTO(savedProduct);
+		eventPublisher.publishEvent(ProductChangeEvent.created(response));
+		return response;
 	}
 	
 	// Cache all products
 	@Override
-	@Cacheable(value = "allProducts")
+	@Cacheable(value = "allProducts", sync = true)
 	public List<ProductResponseDTO> getAllProducts(){
-		List<Product> products = productRepo.findAll();
-		return products.stream()
-			.map(this::convertToResponseDTO)
-			.collect(Collectors.toList());
+		return convertSummariesToDTOs(productRepo.findSummaries(Specification.unrestricted(), Sort.by("productId")));
 	}
 	
-	// Cache single product
+	// Cached details with the separately cached current stock, so every caller sees live stock
 	@Override
-	@Cacheable(value="products", key="#productId")
 	public ProductResponseDTO getProductById(Long productId) {
-		Product product = productRepo.findById(productId)
-			.orElseThrow(() -> new ResourceNotFoundException(
-				"Product with Id " + productId + " not found"
-			));
-		return convertToResponseDTO(product);
+		ProductResponseDTO details = detailsService.getDetails(productId);
+		Integer stockQuantity = stockService.getStock(productId).getStockQuantity();
+		// Copy, since the cached instance may be shared with other requests
+		return new ProductResponseDTO(
+			details.getProductId(),
+			details.getProductName(),
+			details.getDescription(),
+			details.getPrice(),
+			stockQuantity,
+			details.getImageUrl(),
+			details.getActive(),
+			details.getCategoryId(),
+			details.getCategoryName(),
+			details.getCreatedAt(),
+			details.getUpdatedAt()
+		);
 	}
 	
-	// Clear cache when product is updated
+	// Update product; after commit only its own cache entries are refreshed
 	@Override
-	@CacheEvict(value= {"products", "productsByCategory", "allProducts"}, allEntries=true)
 	public ProductResponseDTO updateProduct(Long productId, ProductRequestDTO productRequestDTO) {
 		// Find existing product
 		Product existingProduct = productRepo.findById(productId)
@@ -83,6 +171,8 @@ public class ProductServiceImpl implements ProductService {
 				"Category with Id " + productRequestDTO.getCategoryId() + " not found"
 			));
 		
+		Long previousCategoryId = existingProduct.getCategory().getCategoryId();
+		
 		// Update fields
 		existingProduct.setProductName(productRequestDTO.getProductName());
 		existingProduct.setDescription(productRequestDTO.getDescription());
@@ -94,13 +184,15 @@ public class ProductServiceImpl implements ProductService {
 		
 		// Save updated product
 		Product updatedProduct = productRepo.save(existingProduct);
+		changeRepo.save(new CatalogChange(EntityType.PRODUCT, productId, ChangeType.UPDATED));
 		
-		return convertToResponseDTO(updatedProduct);
+		ProductResponseDTO response = convertToResponseDTO(updatedProduct);
+		eventPublisher.publishEvent(ProductChangeEvent.updated(response, previousCategoryId));
+		return response;
 	}
 	
-	// Clear cache when product is deleted
+	// Delete product
 	@Override
-	@CacheEvict(value= {"allProducts, products, productsByCategory"}, allEntries = true)
 	public String deleteProduct(Long productId) {
 		Product product = productRepo.findById(productId)
 			.orElseThrow(() -> new ResourceNotFoundException(
@@ -108,12 +200,25 @@ public class ProductServiceImpl implements ProductService {
 			));
 		
 		productRepo.delete(product);
+		changeRepo.save(new CatalogChange(EntityType.PRODUCT, productId, ChangeType.DELETED));
+		eventPublisher.publishEvent(ProductChangeEvent.deleted(productId, product.getCategory().getCategoryId()));
 		return "Product with Id " + productId + " deleted successfully";
 	}
 	
+	// Current state of the given products in one query (ids that no longer exist are skipped)
+	@Override
+	public List<ProductResponseDTO> getProductsByIds(Collection<Long> productIds){
+		if(productIds.isEmpty()) {
+			return List.of();
+		}
+		return productRepo.findAllWithCategoryByIdIn(productIds).stream()
+				.map(this::convertToResponseDTO)
+				.collect(Collectors.toList());
+	}
+	
 	// Cache products by category
 	@Override
-	@Cacheable(value = "productsByCategory", key = "#categoryId")
+	@Cacheable(value = "productsByCategory", key = "#categoryId", sync = true)
 	public List<ProductResponseDTO> getProductsByCategory(Long categoryId){
 		// Verify category exists
 		categoryRepo.findById(categoryId)
@@ -121,41 +226,205 @@ public class ProductServiceImpl implements ProductService {
 				"Category with Id " + categoryId + " not found"
 		));
 		
-		List<Product> products = productRepo.findByCategoryCategoryId(categoryId);
+		return convertSummariesToDTOs(productRepo.findSummaries(
+			ProductSpecifications.inCategory(categoryId), Sort.by("productId")));
+	}
+	
+	// Unpaged, as before the index: the best matches, bounded like the keyword filter
+	@Override
+	public List<ProductResponseDTO> searchProducts(String keyword){
+		return loadInOrder(searchIndex.search(keyword, 0, maxKeywordMatches).productIds());
+	}
+	
+	// Served from the in-memory index; only the requested page is loaded from the DB
+	@Override
+	public Page<ProductResponseDTO> searchProducts(String keyword, Pageable pageable){
+		SearchHits hits = searchIndex.search(keyword, (int) pageable.getOffset(), pageable.getPageSize());
 		
-		return products.stream()
-			.map(this::convertToResponseDTO)
+		// Keep the relevance order
+		return new PageImpl<>(loadInOrder(hits.productIds()), pageable, hits.totalHits());
+	}
+	
+	// Answered from the in-memory trie, no DB access
+	@Override
+	public List<ProductSuggestionDTO> autocomplete(String prefix, int limit){
+		return productAutocomplete.suggest(prefix, limit).stream()
+			.map(suggestion -> new ProductSuggestionDTO(suggestion.productId(), suggestion.name()))
 			.collect(Collectors.toList());
 	}
 	
+	// Category-only facets are read from maintained counters; keyword facets are counted over the matches
 	@Override
-	public List<ProductResponseDTO> searchProducts(String keyword){
-		List<Product> products = productRepo.findByProductNameContainingIgnoreCase(keyword);
+	public ProductFacetsDTO getProductFacets(Long categoryId, String keyword){
+		CatalogFacets facets = (keyword == null || keyword.isBlank())
+			? catalog.facets(categoryId)
+			: catalog.facets(categoryId, searchIndex.matchingProductIds(keyword));
 		
-		return products.stream()
-			.map(this::convertToResponseDTO)
+		List<CategoryFacetDTO> categories = facets.categories().stream()
+			.map(count -> new CategoryFacetDTO(count.categoryId(), count.categoryName(), count.products(), count.inStock()))
 			.collect(Collectors.toList());
+		
+		List<BigDecimal> bounds = catalog.priceBucketBounds();
+		List<PriceBucketDTO> priceBuckets = new ArrayList<>(bounds.size());
+		for(int i = 0; i < bounds.size(); i++) {
+			BigDecimal upper = i + 1 < bounds.size() ? bounds.get(i + 1) : null;
+			priceBuckets.add(new PriceBucketDTO(bounds.get(i), upper, facets.priceBuckets()[i]));
+		}
+		
+		return new ProductFacetsDTO(
+			categories.stream().mapToLong(CategoryFacetDTO::getProductCount).sum(),
+			categories.stream().mapToLong(CategoryFacetDTO::getInStockCount).sum(),
+			categories,
+			priceBuckets
+		);
 	}
 	
+	// The storefront's first pages are cached (see ProductPageKeys); filtered or deep pages are not
 	@Override
-	public Page<ProductResponseDTO> getAllProducts(Pageable pageable){
-		Page<Product> productPage = productRepo.findAll(pageable);
-		return productPage.map(this::convertToResponseDTO);
+	@Cacheable(value = "productPages", key = "@productPageKeys.key(null, #pageable)",
+			condition = "@productPageKeys.cacheable(#filter, #pageable)", sync = true)
+	public Page<ProductResponseDTO> getAllProducts(CatalogFilter filter, Pageable pageable){
+		if(!catalog.canSort(pageable.getSort())) {
+			return loadDbPage(null, filter, pageable);
+		}
+		return loadCatalogPage(catalog.query(null, filter, pageable.getSort(),
+				pageable.getOffset(), pageable.getPageSize()), pageable);
 	}
 	
+	// Cached pages are tagged with the category, so writes there drop only these
 	@Override
-	public Page<ProductResponseDTO> getProductsByCategory(Long categoryId, Pageable pageable){
+	@Cacheable(value = "productPages", key = "@productPageKeys.key(#categoryId, #pageable)",
+			condition = "@productPageKeys.cacheable(#filter, #pageable)", sync = true)
+	public Page<ProductResponseDTO> getProductsByCategory(Long categoryId, CatalogFilter filter, Pageable pageable){
 		// Verify category exists
 		categoryRepo.findById(categoryId)
 			.orElseThrow(() -> new ResourceNotFoundException(
 					"Category with Id " + categoryId + " not found"
 			));
 		
-		Page<Product> productPage = productRepo.findByCategoryCategoryId(categoryId, pageable);
-		return productPage.map(this::convertToResponseDTO);
+		if(!catalog.canSort(pageable.getSort())) {
+			return loadDbPage(categoryId, filter, pageable);
+		}
+		return loadCatalogPage(catalog.query(categoryId, filter, pageable.getSort(),
+				pageable.getOffset(), pageable.getPageSize()), pageable);
+	}
+	
+	// Filters combine freely; sorting is limited to index-backed keys
+	@Override
+	public Page<ProductResponseDTO> filterProducts(Long categoryId, String keyword, CatalogFilter filter, Pageable pageable){
+		Sort.Order order = pageable.getSort().isSorted()
+			? pageable.getSort().iterator().next()
+			: Sort.Order.asc("productId");
+		if(pageable.getSort().stream().count() > 1) {
+			throw new BadRequestException("Sorting by more than one field is not supported");
+		}
+		Sort sort = PRODUCT_KEYSET.sort(order.getProperty(), order.getDirection());
+		
+		Optional<Specification<Product>> spec = filterSpecification(categoryId, keyword, filter);
+		if(spec.isEmpty()) {
+			return Page.empty(pageable);
+		}
+		
+		Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+		return productRepo.findSummaries(spec.get(), sortedPageable).map(this::convertSummaryToDTO);
+	}
+	
+	// Same filters paged by cursor: seeks past the last row instead of OFFSET, no COUNT unless asked
+	@Override
+	public SliceResponseDTO<ProductResponseDTO> scrollProducts(Long categoryId, String keyword, CatalogFilter filter,
+			String sortBy, Sort.Direction direction, int size, String cursor, boolean withTotal){
+		Sort sort = PRODUCT_KEYSET.sort(sortBy, direction);
+		Specification<Product> after = PRODUCT_KEYSET.after(cursor, sortBy, direction);
+		
+		Optional<Specification<Product>> spec = filterSpecification(categoryId, keyword, filter);
+		if(spec.isEmpty()) {
+			return PRODUCT_KEYSET.slice(List.of(), size, sortBy, direction, this::convertSummariesToDTOs, withTotal ? 0L : null);
+		}
+		
+		List<ProductSummary> rows = productRepo.findSummaries(Specification.allOf(spec.get(), after), sort, size + 1);
+		Long total = withTotal ? productRepo.count(spec.get()) : null;
+		return PRODUCT_KEYSET.slice(rows, size, sortBy, direction, this::convertSummariesToDTOs, total);
+	}
+	
+	// One JSON object per line, written as rows come off the cursor: memory stays flat however large
+	// the catalog is, unlike the cached allProducts list. The response stream is left open.
+	@Override
+	public void exportProducts(Long categoryId, String keyword, CatalogFilter filter, OutputStream out){
+		Optional<Specification<Product>> spec = filterSpecification(categoryId, keyword, filter);
+		if(spec.isEmpty()) {
+			return;
+		}
+		
+		JsonGenerator generator = jsonMapper.writer()
+			.withRootValueSeparator("\n")
+			.without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+			.createGenerator(out);
+		try(Stream<ProductSummary> rows = productRepo.streamSummaries(spec.get(), Sort.by("productId"), exportFetchSize);
+			generator) {
+			boolean any = false;
+			for(ProductSummary row: (Iterable<ProductSummary>) rows::iterator) {
+				generator.writePOJO(convertSummaryToDTO(row));
+				any = true;
+			}
+			// The separator only goes between values; terminate the last line too
+			if(any) {
+				generator.writeRaw('\n');
+			}
+		}
+	}
+	
+	// Filters combined into one query; empty when the keyword matches no product at all.
+	// A keyword narrows to its top maxKeywordMatches hits by relevance, so the IN list stays bounded.
+	private Optional<Specification<Product>> filterSpecification(Long categoryId, String keyword, CatalogFilter filter) {
+		List<Long> keywordMatches = null;
+		if(keyword != null && !keyword.isBlank()) {
+			keywordMatches = searchIndex.search(keyword, 0, maxKeywordMatches).productIds();
+			if(keywordMatches.isEmpty()) {
+				return Optional.empty();
+			}
+		}
+		
+		return Optional.of(Specification.allOf(
+			ProductSpecifications.inCategory(categoryId),
+			ProductSpecifications.isActive(filter.active()),
+			ProductSpecifications.priceBetween(filter.minPrice(), filter.maxPrice()),
+			ProductSpecifications.inStock(filter.inStock()),
+			ProductSpecifications.idIn(keywordMatches)
+		));
 	}
 	
 	// Helper methods
+	// Page ids come from the in-memory catalog; only that page is loaded
+	private Page<ProductResponseDTO> loadCatalogPage(CatalogPage page, Pageable pageable) {
+		// Keep the catalog's sort order
+		return new PageImpl<>(loadInOrder(page.productIds()), pageable, page.totalElements());
+	}
+	
+	// List rows for the given ids in one query, in the order given (ids deleted meanwhile are skipped)
+	private List<ProductResponseDTO> loadInOrder(List<Long> productIds) {
+		if(productIds.isEmpty()) {
+			return List.of();
+		}
+		Map<Long, ProductSummary> productsById = productRepo
+			.findSummaries(ProductSpecifications.idIn(productIds), Sort.unsorted()).stream()
+			.collect(Collectors.toMap(ProductSummary::productId, Function.identity()));
+		
+		return productIds.stream()
+			.map(productsById::get)
+			.filter(Objects::nonNull)
+			.map(this::convertSummaryToDTO)
+			.collect(Collectors.toList());
+	}
+	
+	// Sorts without a catalog column (e.g. updatedAt) are paged by the DB, unfiltered only
+	private Page<ProductResponseDTO> loadDbPage(Long categoryId, CatalogFilter filter, Pageable pageable) {
+		if(!filter.isEmpty()) {
+			throw new BadRequestException("Cannot filter products when sorting by " + pageable.getSort());
+		}
+		return productRepo.findSummaries(ProductSpecifications.inCategory(categoryId), pageable)
+			.map(this::convertSummaryToDTO);
+	}
+	
 	// Convert Request DTO to Entity
 	private Product convertToEntity(ProductRequestDTO dto, Category category) {
 		Product product = new Product();
@@ -170,6 +439,29 @@ public class ProductServiceImpl implements ProductService {
 		return product;
 	}
 	
+	private List<ProductResponseDTO> convertSummariesToDTOs(List<ProductSummary> products) {
+		return products.stream()
+			.map(this::convertSummaryToDTO)
+			.collect(Collectors.toList());
+	}
+	
+	// List views leave out the description (read it from the single-product endpoint)
+	private ProductResponseDTO convertSummaryToDTO(ProductSummary product) {
+		return new ProductResponseDTO(
+			product.productId(),
+			product.productName(),
+			null,
+			product.price(),
+			product.stockQuantity(),
+			product.imageUrl(),
+			product.active(),
+			product.categoryId(),
+			product.categoryName(),
+			product.createdAt(),
+			product.updatedAt()
+		);
+	}
+	
 	// Convert Entity to Response DTO
 	private ProductResponseDTO convertToResponseDTO(Product product) {
 		return new ProductResponseDTO(
@@ -0,0 +1,8 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.dto.ProductStockDTO;
+
+public interface ProductStockService {
+	// Current stock of a product
+	ProductStockDTO getStock(Long productId);
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.project.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import com.ecommerce.project.dto.ProductStockDTO;
+import com.ecommerce.project.exception.ResourceNotFoundException;
+import com.ecommerce.project.repository.ProductRepository;
+
+@Service
+public class ProductStockServiceImpl implements ProductStockService {
+	@Autowired
+	private ProductRepository productRepo;
+	
+	// Cache stock per product; CatalogCacheInvalidator overwrites the entry when orders change it
+	@Override
+	@Cacheable(value = "productStock", key = "#productId", sync = true)
+	public ProductStockDTO getStock(Long productId) {
+		Integer stockQuantity = productRepo.findStockQuantityById(productId)
+			.orElseThrow(() -> new ResourceNotFoundException(
+				"Product with Id " + productId + " not found"
+			));
+		return new ProductStockDTO(productId, stockQuantity);
+	}
+}
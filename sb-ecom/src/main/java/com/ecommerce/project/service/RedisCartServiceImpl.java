@@ -0,0 +1,115 @@
+package com.ecommerce.project.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.ecommerce.project.cart.RedisCartStore;
+import com.ecommerce.project.cart.RedisCartStore.CartLine;
+import com.ecommerce.project.cart.RedisCartStore.StoredCart;
+import com.ecommerce.project.dto.AddToCartRequestDTO;
+import com.ecommerce.project.dto.CartItemDTO;
+import com.ecommerce.project.dto.CartResponseDTO;
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.dto.UpdateCartItemRequestDTO;
+import com.ecommerce.project.exception.BadRequestException;
+
+// Carts in Redis (cart.store=redis): a change is one script run against the user's cart hash, with the
+// product read from the product and stock caches. The user needs no lookup, the JWT filter already
+// rejected unknown and deactivated accounts. The cart id is that of the user's DB row; a line is
+// identified by its product id (cartItemId), since lines get their rows only when flushed.
+@Service
+@ConditionalOnProperty(name = "cart.store", havingValue = "redis")
+public class RedisCartServiceImpl implements CartService {
+	@Autowired
+	private RedisCartStore store;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductStockService stockService;
+
+	// Add product to cart
+	@Override
+	public CartResponseDTO addToCart(String userId, AddToCartRequestDTO addReqDto) {
+		Integer quantity = addReqDto.getQuantity();
+		if(quantity == null || quantity <= 0) {
+			throw new BadRequestException("Quantity must be greater than 0");
+		}
+
+		ProductResponseDTO product = productService.getProductById(addReqDto.getProductId());
+		if(!product.getActive()) {
+			throw new BadRequestException("Product is not available");
+		}
+
+		// getProductById carries the current stock
+		int stockQuantity = product.getStockQuantity();
+		if(stockQuantity < quantity) {
+			throw new BadRequestException("Insufficient stock. Only " + stockQuantity + " units available");
+		}
+
+		// The script checks the merged quantity of a line already in the cart against the same stock
+		return convertToResponseDTO(userId, store.add(userId, product.getProductId(), quantity,
+				product.getPrice(), product.getProductName(), stockQuantity));
+	}
+
+	// Get user's cart
+	@Override
+	public CartResponseDTO getCart(String userId) {
+		return convertToResponseDTO(userId, store.getCart(userId));
+	}
+
+	// Update cart item quantity
+	@Override
+	public CartResponseDTO updateCartItem(String userId, Long cartItemId, UpdateCartItemRequestDTO updateRequest) {
+		if(updateRequest.getQuantity() <= 0) {
+			throw new BadRequestException("Quantity must be greater than 0");
+		}
+
+		int stockQuantity = stockService.getStock(cartItemId).getStockQuantity();
+		if(stockQuantity < updateRequest.getQuantity()) {
+			throw new BadRequestException("Insufficient stock. Only " + stockQuantity + " units available");
+		}
+
+		return convertToResponseDTO(userId, store.setQuantity(userId, cartItemId, updateRequest.getQuantity()));
+	}
+
+	// Remove item from cart
+	@Override
+	public CartResponseDTO removeCartItem(String userId, Long cartItemId) {
+		return convertToResponseDTO(userId, store.remove(userId, cartItemId));
+	}
+
+	// Clear entire cart
+	@Override
+	public String clearCart(String userId) {
+		store.clear(userId);
+		return "Cart cleared successfully";
+	}
+
+	// Helper methods
+	private CartResponseDTO convertToResponseDTO(String userId, StoredCart cart) {
+		List<CartLine> lines = cart.lines();
+		List<CartItemDTO> itemDTOs = lines.stream()
+			.map(line -> new CartItemDTO(
+				line.productId(),
+				line.productId(),
+				line.productName(),
+				line.quantity(),
+				line.price(),
+				line.getSubtotal()
+			))
+			.collect(Collectors.toList());
+
+		BigDecimal totalAmount = lines.stream()
+			.map(CartLine::getSubtotal)
+			.reduce(BigDecimal.ZERO, BigDecimal::add);
+
+		return new CartResponseDTO(cart.cartId(), userId, itemDTOs, totalAmount, itemDTOs.size());
+	}
+}
@@ -13,6 +13,9 @@ import com.ecommerce.project.exception.BadRequestException;
 import com.ecommerce.project.exception.ResourceNotFoundException;
 import com.ecommerce.project.model.User;
 import com.ecommerce.project.repository.UserRepository;
+import com.ecommerce.project.security.PrincipalCache;
+import com.ecommerce.project.security.RefreshTokenStore;
+import com.ecommerce.project.security.RevokedUserRegistry;
 
 @Service
 public class UserServiceImpl implements UserService{
@@ -22,6 +25,15 @@ public class UserServiceImpl implements UserService{
 	@Autowired
 	private PasswordEncoder passwordEncoder;
 	
+	@Autowired
+	private PrincipalCache principalCache;
+	
+	@Autowired
+	private RevokedUserRegistry revokedUsers;
+	
+	@Autowired
+	private RefreshTokenStore refreshTokenStore;
+	
 	// Register new user
 	@Override
 	public UserResponseDTO registerUser(UserRequestDTO userReqDTO) {
@@ -83,6 +95,8 @@ public class UserServiceImpl implements UserService{
 			}
 		}
 		
+		String previousEmail = user.getEmail();
+		
 		// Update fields
 		user.setEmail(userReqDTO.getEmail());
 		user.setFirstName(userReqDTO.getFirstName());
@@ -91,7 +105,8 @@ public class UserServiceImpl implements UserService{
 		user.setAddress(userReqDTO.getAddress());
 		
 		// Only update password if provided
-		if(userReqDTO.getPassword() != null && !userReqDTO.getPassword().isEmpty()) {
+		boolean passwordChanged = userReqDTO.getPassword() != null && !userReqDTO.getPassword().isEmpty();
+		if(passwordChanged) {
 //			user.setPassword(userReqDTO.getPassword()); // Plain text
 			user.setPassword( passwordEncoder.encode(userReqDTO.getPassword()) ); // Encrypted
 		}
@@ -99,6 +114,13 @@ public class UserServiceImpl implements UserService{
 		// Save updated password
 		User updatedUser = userRepo.save(user);
 		
+		// Drop cached principal under both old and new email
+		principalCache.evict(previousEmail, updatedUser.getEmail());
+		// Outstanding refresh tokens stop working (e.g. one leaked before a password reset)
+		if(passwordChanged || !previousEmail.equals(updatedUser.getEmail())) {
+			refreshTokenStore.revokeAll(previousEmail);
+		}
+		
 		return convertToResponseDTO(updatedUser);
 	}
 	
@@ -113,6 +135,10 @@ public class UserServiceImpl implements UserService{
 		// Soft delete - set active to false
 		user.setActive(false);
 		userRepo.save(user);
+		principalCache.evict(user.getEmail());
+		// Outstanding self-contained and refresh tokens stop working
+		revokedUsers.revoke(user.getId());
+		refreshTokenStore.revokeAll(user.getEmail());
 		
 		return "User with Id " + userId + " has been deactivated";
 	}
@@ -128,6 +154,13 @@ public class UserServiceImpl implements UserService{
 		// Toggle active status
 		user.setActive(!user.getActive());
 		User updatedUser = userRepo.save(user);
+		principalCache.evict(user.getEmail());
+		if(updatedUser.getActive()) {
+			revokedUsers.restore(user.getId());
+		} else {
+			revokedUsers.revoke(user.getId());
+			refreshTokenStore.revokeAll(user.getEmail());
+		}
 		
 		return convertToResponseDTO(updatedUser);
 	}
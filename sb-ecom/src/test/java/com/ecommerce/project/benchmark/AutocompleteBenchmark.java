@@ -0,0 +1,104 @@
+package com.ecommerce.project.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ecommerce.project.search.SuggestionTrie;
+
+// Suggestion lookup latency over 1M generated product names,
+// compared with scanning every name for the prefix.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class AutocompleteBenchmark {
+	private static final String[] BRANDS = {"Apple", "Samsung", "Sony", "Dell", "Lenovo", "Asus", "Acer",
+			"Canon", "Nikon", "Bose", "Logitech", "Philips", "Xiaomi", "Garmin", "Anker", "Razer"};
+	private static final String[] ITEMS = {"Laptop", "Phone", "Tablet", "Monitor", "Camera", "Headphones",
+			"Speaker", "Keyboard", "Mouse", "Watch", "Charger", "Router", "Printer", "Drone", "Lens"};
+	private static final String[] EDITIONS = {"Pro", "Max", "Ultra", "Mini", "Plus", "Lite", "Air", "Neo"};
+
+	@Param("1000000")
+	private int products;
+
+	private SuggestionTrie trie;
+	private String[] names;
+	private String[] prefixes;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		trie = new SuggestionTrie(10);
+		names = new String[products];
+		for(int i = 0; i < products; i++) {
+			names[i] = BRANDS[random.nextInt(BRANDS.length)] + " "
+					+ ITEMS[random.nextInt(ITEMS.length)] + " "
+					+ EDITIONS[random.nextInt(EDITIONS.length)] + " " + (random.nextInt(9000) + 1000);
+			trie.put(i, names[i], random.nextInt(500));
+		}
+
+		// Mix of one-letter, partial-word and multi-word prefixes
+		List<String> typed = new ArrayList<>();
+		for(int i = 0; i < 1024; i++) {
+			String name = names[random.nextInt(products)].toLowerCase(Locale.ROOT);
+			typed.add(name.substring(0, 1 + random.nextInt(Math.min(name.length(), 16))));
+		}
+		prefixes = typed.toArray(new String[0]);
+	}
+
+	@Benchmark
+	public List<SuggestionTrie.Suggestion> trieLookup() {
+		return trie.lookup(nextPrefix(), 10);
+	}
+
+	// What a LIKE 'prefix%' query has to do without an index; ranking needs every match
+	@Benchmark
+	public int linearScan() {
+		String prefix = nextPrefix();
+		int matches = 0;
+		for(String name: names) {
+			if(name.regionMatches(true, 0, prefix, 0, prefix.length())) {
+				matches++;
+			}
+		}
+		return matches;
+	}
+
+	// Stock change on one product: its keys are removed and re-inserted
+	@Benchmark
+	public void updateWeight() {
+		int id = next++ % products;
+		trie.updateWeight(id, next & 511);
+	}
+
+	private String nextPrefix() {
+		return prefixes[next++ & (prefixes.length - 1)];
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(AutocompleteBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
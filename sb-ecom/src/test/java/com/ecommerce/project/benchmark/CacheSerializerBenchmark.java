@@ -0,0 +1,76 @@
+package com.ecommerce.project.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.ecommerce.project.config.RedisConfig;
+import com.ecommerce.project.dto.ProductResponseDTO;
+
+// Encode / decode latency of the cache value codecs for a single product and product lists
+// (allProducts / productsByCategory). Entry sizes are printed once per trial.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheSerializerBenchmark {
+	@Param({"jdk", "compact", "compact-deflate"})
+	private String codec;
+
+	@Param({"1", "50", "1000"})
+	private int products;
+
+	private RedisSerializer<Object> serializer;
+	private Object value;
+	private byte[] encoded;
+
+	@Setup
+	public void setUp() {
+		serializer = RedisConfig.valueSerializer(codec, 1024);
+
+		Random random = new Random(42);
+		LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+		List<ProductResponseDTO> list = new ArrayList<>(products);
+		for(long id = 1; id <= products; id++) {
+			list.add(new ProductResponseDTO(id, "Product " + id, products == 1 ? "Single product description" : null,
+					BigDecimal.valueOf(random.nextInt(200000), 2), random.nextInt(500), null, true,
+					(long) random.nextInt(20) + 1, "Category " + (id % 20), start.plusSeconds(id).plusNanos(123456000),
+					start.plusSeconds(id * 2).plusNanos(654321000)));
+		}
+		value = products == 1 ? list.get(0) : list;
+
+		encoded = serializer.serialize(value);
+		if(!value.equals(serializer.deserialize(encoded))) {
+			throw new IllegalStateException(codec + " does not round-trip");
+		}
+		System.out.printf("%n%s, %d products: %d bytes%n", codec, products, encoded.length);
+	}
+
+	@Benchmark
+	public byte[] encode() {
+		return serializer.serialize(value);
+	}
+
+	@Benchmark
+	public Object decode() {
+		return serializer.deserialize(encoded);
+	}
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.project.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Sort;
+
+import com.ecommerce.project.catalog.CatalogFacets;
+import com.ecommerce.project.catalog.CatalogFilter;
+import com.ecommerce.project.catalog.CatalogPage;
+import com.ecommerce.project.catalog.ColumnarCatalog;
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.event.ProductChangeEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Filter + sort + page latency of the columnar catalog for typical list requests, and facet reads.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogQueryBenchmark {
+	private static final int CATEGORIES = 20;
+
+	@Param({"10000", "100000"})
+	private int products;
+
+	private ColumnarCatalog catalog;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		catalog = new ColumnarCatalog(null, "0,25,50,100,250,500,1000", new SimpleMeterRegistry());
+		LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+		for(long id = 1; id <= products; id++) {
+			ProductResponseDTO product = new ProductResponseDTO(id, "Product " + id, null,
+					BigDecimal.valueOf(random.nextInt(200000), 2), random.nextInt(10) == 0 ? 0 : random.nextInt(500),
+					null, true, (long) random.nextInt(CATEGORIES) + 1, null, start.plusSeconds(id), null);
+			catalog.onProductChange(ProductChangeEvent.created(product));
+		}
+	}
+
+	// First page, default sort
+	@Benchmark
+	public CatalogPage allProductsFirstPage() {
+		return catalog.query(null, CatalogFilter.none(), Sort.unsorted(), 0, 10);
+	}
+
+	// Category + price range + in stock, cheapest first
+	@Benchmark
+	public CatalogPage categoryPriceInStock() {
+		CatalogFilter filter = new CatalogFilter(new BigDecimal("100"), new BigDecimal("900"), true, null);
+		return catalog.query(7L, filter, Sort.by("price").ascending(), 20, 10);
+	}
+
+	// Newest first across the whole catalog, deep page
+	@Benchmark
+	public CatalogPage newestDeepPage() {
+		return catalog.query(null, CatalogFilter.none(), Sort.by("createdAt").descending(), 500, 20);
+	}
+
+	// Maintained facet counters for the whole catalog
+	@Benchmark
+	public CatalogFacets allProductFacets() {
+		return catalog.facets(null);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(CatalogQueryBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
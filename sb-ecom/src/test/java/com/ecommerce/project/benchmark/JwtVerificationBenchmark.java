@@ -0,0 +1,86 @@
+package com.ecommerce.project.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ecommerce.project.security.JwtTokenProvider;
+import com.ecommerce.project.security.VerifiedTokenCache;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Compares the old filter path (validate + extract, key rebuilt per parse)
+// with the single-parse and cached verification paths.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+	private static final String SECRET =
+			"c3VwZXJzZWNyZXRrZXlzdXBlcnNlY3JldGtleXN1cGVyc2VjcmV0a2V5MTIzNDU2Nzg=";
+
+	private JwtTokenProvider provider;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		provider = new JwtTokenProvider();
+		ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+		ReflectionTestUtils.setField(provider, "jwtExpiration", 3600000L);
+		ReflectionTestUtils.setField(provider, "verifiedTokenCache",
+				new VerifiedTokenCache(10000, new SimpleMeterRegistry()));
+		provider.init();
+
+		token = provider.generateToken(
+				new UsernamePasswordAuthenticationToken("john@example.com", null));
+	}
+
+	// Previous filter behaviour: two full parses, key decoded each time
+	@Benchmark
+	public String legacyValidateThenExtract() {
+		Jwts.parser().verifyWith(legacyKey()).build().parseSignedClaims(token);
+		return Jwts.parser().verifyWith(legacyKey()).build()
+				.parseSignedClaims(token).getPayload().getSubject();
+	}
+
+	@Benchmark
+	public String singleParse() {
+		return provider.parseClaims(token).getSubject();
+	}
+
+	@Benchmark
+	public String cachedVerification() {
+		return provider.getVerifiedClaims(token).getSubject();
+	}
+
+	private static SecretKey legacyKey() {
+		return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(JwtVerificationBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,134 @@
+package com.ecommerce.project.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.ecommerce.project.dto.CategoryResponseDTO;
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.dto.ProductStockDTO;
+
+// Round trips through each codec alone, so a failure points at the codec rather than the envelope
+public class CacheCodecTest {
+	private static final String LONG_TEXT = "Grüße, 漢字 und 😀 ".repeat(5_000);
+	
+	@Test
+	public void everyProductField_ShouldSurvive() throws Exception {
+		ProductResponseDTO product = filled(ProductResponseDTO.class);
+		
+		assertEquals(product, roundTrip(new ProductCacheCodec(), product));
+	}
+	
+	@Test
+	public void productWithNulls_ShouldSurvive() {
+		assertEquals(new ProductResponseDTO(), roundTrip(new ProductCacheCodec(), new ProductResponseDTO()));
+	}
+	
+	@Test
+	public void productEdgeValues_ShouldSurvive() {
+		ProductResponseDTO product = new ProductResponseDTO(Long.MAX_VALUE, "", LONG_TEXT,
+				new BigDecimal("-123456789012345678901234567890.12"), Integer.MIN_VALUE, "", false, -1L, LONG_TEXT,
+				LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_999), LocalDateTime.of(2100, 1, 1, 0, 0, 0, 1));
+		
+		ProductResponseDTO read = roundTrip(new ProductCacheCodec(), product);
+		
+		assertEquals(product, read);
+		assertEquals(2, read.getPrice().scale());
+	}
+	
+	@Test
+	public void everyCategoryField_ShouldSurvive() throws Exception {
+		CategoryResponseDTO category = filled(CategoryResponseDTO.class);
+		
+		assertEquals(category, roundTrip(new CategoryCacheCodec(), category));
+		assertEquals(new CategoryResponseDTO(), roundTrip(new CategoryCacheCodec(), new CategoryResponseDTO()));
+		CategoryResponseDTO longText = new CategoryResponseDTO(-5, "", LONG_TEXT);
+		assertEquals(longText, roundTrip(new CategoryCacheCodec(), longText));
+	}
+	
+	@Test
+	public void everyStockField_ShouldSurvive() throws Exception {
+		ProductStockDTO stock = filled(ProductStockDTO.class);
+		
+		assertEquals(stock, roundTrip(new ProductStockCacheCodec(), stock));
+		assertEquals(new ProductStockDTO(), roundTrip(new ProductStockCacheCodec(), new ProductStockDTO()));
+	}
+	
+	@Test
+	public void pageOfProducts_ShouldSurvive() throws Exception {
+		PageImpl<ProductResponseDTO> page = new PageImpl<>(
+				List.of(filled(ProductResponseDTO.class), new ProductResponseDTO()),
+				PageRequest.of(2, 2, Sort.by(Sort.Order.desc("price"), Sort.Order.asc("productId"))), 9);
+		
+		PageImpl<ProductResponseDTO> read = roundTrip(new PageCacheCodec(), page);
+		
+		assertEquals(page.getContent(), read.getContent());
+		assertEquals(page.getPageable(), read.getPageable());
+		assertEquals(9, read.getTotalElements());
+	}
+	
+	@Test
+	public void fieldCountMismatch_ShouldFailLoudly() {
+		IllegalStateException ex = assertThrows(IllegalStateException.class,
+				() -> CacheCodec.requireFieldCount(ProductResponseDTO.class, 10));
+		
+		assertTrue(ex.getMessage().contains("ProductResponseDTO has 11 fields"));
+	}
+	
+	private static <T> T roundTrip(CacheCodec<T> codec, T value) {
+		CompactOutput out = new CompactOutput(16);
+		codec.write(value, out);
+		byte[] bytes = out.toByteArray();
+		CompactInput in = new CompactInput(bytes, 0, bytes.length);
+		T read = codec.read(in);
+		assertEquals(bytes.length, in.position(), "codec left bytes unread");
+		return read;
+	}
+	
+	// Every instance field set to a distinct non-default value, so a field the codec skips shows up
+	private static <T> T filled(Class<T> type) throws Exception {
+		T value = type.getDeclaredConstructor().newInstance();
+		int n = 1;
+		for(Field field: type.getDeclaredFields()) {
+			if(Modifier.isStatic(field.getModifiers())) {
+				continue;
+			}
+			field.setAccessible(true);
+			field.set(value, sample(field.getType(), n++));
+		}
+		return value;
+	}
+	
+	private static Object sample(Class<?> type, int n) {
+		if(type == Long.class || type == long.class) {
+			return 1_000L * n;
+		}
+		if(type == Integer.class || type == int.class) {
+			return 10 * n;
+		}
+		if(type == String.class) {
+			return "value " + n;
+		}
+		if(type == BigDecimal.class) {
+			return new BigDecimal(n + ".99");
+		}
+		if(type == Boolean.class || type == boolean.class) {
+			return true;
+		}
+		if(type == LocalDateTime.class) {
+			return LocalDateTime.of(2024, 1, n, 12, 30, 15, 123_456_000);
+		}
+		throw new IllegalArgumentException("No sample value for " + type + ": add one for the new field");
+	}
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.project.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.dto.ProductStockDTO;
+
+public class CacheWeigherTest {
+	@Test
+	public void product_ShouldWeighItsStrings() {
+		assertEquals(64 + 6 + 8, CacheWeigher.weigh(product()));
+	}
+	
+	@Test
+	public void stampedPage_ShouldWeighItsContent() {
+		StampedValue page = new StampedValue(new PageImpl<>(List.of(product(), product())), System.currentTimeMillis(), 1);
+		
+		assertEquals(24 + 32 + 2 * (64 + 14), CacheWeigher.weigh(page));
+	}
+	
+	@Test
+	public void fixedSizeAndUnknownValues_ShouldHaveFixedWeights() {
+		assertEquals(16, CacheWeigher.weigh(new ProductStockDTO(1L, 5)));
+		assertEquals(256, CacheWeigher.weigh(new Object()));
+		assertEquals(0, CacheWeigher.weigh(null));
+	}
+	
+	private static ProductResponseDTO product() {
+		ProductResponseDTO product = new ProductResponseDTO();
+		product.setProductName("Laptop");
+		product.setDescription("A laptop");
+		return product;
+	}
+}
@@ -0,0 +1,165 @@
+package com.ecommerce.project.cache;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.dto.ProductStockDTO;
+import com.ecommerce.project.event.CategoryChangeEvent;
+import com.ecommerce.project.event.ProductChangeEvent;
+import com.ecommerce.project.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class CatalogCacheInvalidatorTest {
+	@Mock
+	private CacheManager cacheManager;
+	
+	@Mock
+	private ProductRepository productRepo;
+	
+	@Mock
+	private Cache products;
+	
+	@Mock
+	private Cache productStock;
+	
+	@Mock
+	private Cache productsByCategory;
+	
+	@Mock
+	private Cache allProducts;
+	
+	@Mock
+	private Cache allCategories;
+	
+	@Mock
+	private TaggableCache productPages;
+	
+	private CatalogCacheInvalidator invalidator;
+	private ProductResponseDTO product;
+	
+	@BeforeEach
+	public void setUp() {
+		when(cacheManager.getCache("products")).thenReturn(products);
+		when(cacheManager.getCache("productStock")).thenReturn(productStock);
+		when(cacheManager.getCache("productsByCategory")).thenReturn(productsByCategory);
+		when(cacheManager.getCache("allProducts")).thenReturn(allProducts);
+		when(cacheManager.getCache("allCategories")).thenReturn(allCategories);
+		when(cacheManager.getCache("productPages")).thenReturn(productPages);
+		invalidator = new CatalogCacheInvalidator(cacheManager, productRepo);
+		
+		product = new ProductResponseDTO(7L, "Trail Shoe", "Light trail runner", new BigDecimal("89.99"), 12,
+				null, true, 2L, "Fashion", null, null);
+	}
+	
+	@Test
+	public void productUpdate_ShouldEvictTheProductAndOnlyItsCategory() {
+		invalidator.onProductChange(ProductChangeEvent.updated(product, 2L));
+		
+		verify(products).evict(7L);
+		verify(productStock).evict(7L);
+		verify(products, never()).put(any(), any());
+		verify(productStock, never()).put(any(), any());
+		verify(productsByCategory).evict(2L);
+		verify(allProducts).evict(SimpleKey.EMPTY);
+		verify(products, never()).clear();
+		verify(productsByCategory, never()).clear();
+		verify(productPages).evictTag("category:2");
+		verify(productPages).evictTag("all");
+		verify(productPages, never()).clear();
+	}
+	
+	@Test
+	public void productMove_ShouldEvictOldAndNewCategory() {
+		invalidator.onProductChange(ProductChangeEvent.updated(product, 1L));
+		
+		verify(products).evict(7L);
+		verify(productsByCategory).evict(2L);
+		verify(productsByCategory).evict(1L);
+		verify(productPages).evictTag("category:2");
+		verify(productPages).evictTag("category:1");
+	}
+	
+	@Test
+	public void productDelete_ShouldEvictProductAndItsCategory() {
+		invalidator.onProductChange(ProductChangeEvent.deleted(7L, 2L));
+		
+		verify(products).evict(7L);
+		verify(productStock).evict(7L);
+		verify(productsByCategory).evict(2L);
+		verify(allProducts).evict(SimpleKey.EMPTY);
+	}
+	
+	@Test
+	public void stockChange_ShouldOnlyRewriteTheStockEntry() {
+		invalidator.onProductChange(ProductChangeEvent.stockChanged(7L, 2L, 3));
+		
+		verify(productStock).put(7L, new ProductStockDTO(7L, 3));
+		verifyNoInteractions(products, productsByCategory, allProducts, productPages);
+	}
+	
+	@Test
+	public void remoteEvents_ShouldBeIgnored() {
+		invalidator.onProductChange(ProductChangeEvent.updated(product, 1L).asRemote());
+		invalidator.onCategoryChange(new CategoryChangeEvent(CategoryChangeEvent.Type.UPDATED, 2L, "Apparel").asRemote());
+		
+		verifyNoInteractions(products, productStock, productsByCategory, allProducts, allCategories, productPages);
+	}
+	
+	@Test
+	public void categoryRename_ShouldEvictItsProducts() {
+		when(productRepo.findIdsByCategoryId(2L)).thenReturn(List.of(7L, 8L));
+		
+		invalidator.onCategoryChange(new CategoryChangeEvent(CategoryChangeEvent.Type.UPDATED, 2L, "Apparel"));
+		
+		verify(allCategories).evict(SimpleKey.EMPTY);
+		verify(products).evict(7L);
+		verify(products).evict(8L);
+		verify(productsByCategory).evict(2L);
+		verify(allProducts).evict(SimpleKey.EMPTY);
+		verify(productPages).evictTag("category:2");
+		verify(productPages).evictTag("all");
+	}
+	
+	@Test
+	public void categoryDelete_ShouldEvictOnlyItsProducts() {
+		invalidator.onCategoryChange(new CategoryChangeEvent(CategoryChangeEvent.Type.DELETED, 2L, "Fashion",
+				List.of(7L, 8L)));
+		
+		verify(products).evict(7L);
+		verify(products).evict(8L);
+		verify(productStock).evict(7L);
+		verify(productStock).evict(8L);
+		verify(products, never()).clear();
+		verify(productStock, never()).clear();
+		verify(productsByCategory).evict(2L);
+		verify(productPages).evictTag("category:2");
+	}
+	
+	@Test
+	public void categoryCreate_ShouldOnlyEvictCategoryList() {
+		invalidator.onCategoryChange(new CategoryChangeEvent(CategoryChangeEvent.Type.CREATED, 9L, "Garden"));
+		
+		verify(allCategories).evict(SimpleKey.EMPTY);
+		verify(products, never()).evict(any());
+		verifyNoInteractions(productsByCategory, allProducts, productPages);
+	}
+}
@@ -0,0 +1,129 @@
+package com.ecommerce.project.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.ecommerce.project.config.RedisConfig;
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.dto.ProductStockDTO;
+
+public class CompactCacheSerializerTest {
+	private final CompactCacheSerializer serializer = RedisConfig.compactSerializer(-1);
+	
+	@Test
+	public void pageOfProducts_ShouldUseThePageCodec() {
+		PageImpl<ProductResponseDTO> page = new PageImpl<>(List.of(product()),
+				PageRequest.of(1, 10, Sort.by("price").descending()), 11);
+		
+		byte[] bytes = serializer.serialize(page);
+		PageImpl<?> read = assertInstanceOf(PageImpl.class, serializer.deserialize(bytes));
+		
+		// MAGIC, flags, then VALUE and the page codec's type id
+		assertEquals(1, bytes[2]);
+		assertEquals(3, bytes[3]);
+		assertEquals(page.getPageable(), read.getPageable());
+		assertEquals(11, read.getTotalElements());
+		assertEquals(page.getContent(), read.getContent());
+	}
+	
+	@Test
+	public void pageOfAnythingElse_ShouldFallBackInsteadOfFailing() {
+		PageImpl<String> page = new PageImpl<>(List.of("a", "b"), PageRequest.of(0, 2), 5);
+		
+		byte[] bytes = serializer.serialize(page);
+		PageImpl<?> read = assertInstanceOf(PageImpl.class, serializer.deserialize(bytes));
+		
+		// JDK body
+		assertEquals(0, bytes[2]);
+		assertEquals(List.of("a", "b"), read.getContent());
+		assertEquals(5, read.getTotalElements());
+	}
+	
+	@Test
+	public void emptyPage_ShouldRoundTrip() {
+		PageImpl<ProductResponseDTO> page = new PageImpl<>(List.of(), PageRequest.of(3, 20), 0);
+		
+		PageImpl<?> read = assertInstanceOf(PageImpl.class, serializer.deserialize(serializer.serialize(page)));
+		
+		assertTrue(read.getContent().isEmpty());
+		assertEquals(3, read.getNumber());
+	}
+	
+	@Test
+	public void largeList_ShouldBeDeflatedAndRoundTrip() {
+		CompactCacheSerializer deflating = RedisConfig.compactSerializer(512);
+		List<ProductResponseDTO> products = Collections.nCopies(50, product());
+		
+		byte[] plain = serializer.serialize(products);
+		byte[] deflated = deflating.serialize(products);
+		
+		assertEquals(0, plain[1]);
+		assertEquals(1, deflated[1]);
+		assertTrue(deflated.length < plain.length / 4, deflated.length + " vs " + plain.length);
+		assertEquals(products, deflating.deserialize(deflated));
+		// Either serializer reads both forms
+		assertEquals(products, serializer.deserialize(deflated));
+		assertEquals(products, deflating.deserialize(plain));
+	}
+	
+	@Test
+	public void smallValue_ShouldStayPlain() {
+		byte[] bytes = RedisConfig.compactSerializer(512).serialize(product());
+		
+		assertEquals(0, bytes[1]);
+		assertEquals(product(), serializer.deserialize(bytes));
+	}
+	
+	@Test
+	public void stampedValue_ShouldKeepItsStamp() {
+		StampedValue stamped = new StampedValue(new ProductStockDTO(7L, 3), 1_700_000_000_000L, 42);
+		
+		assertEquals(stamped, serializer.deserialize(serializer.serialize(stamped)));
+	}
+	
+	@Test
+	public void emptyListAndUnregisteredTypes_ShouldRoundTrip() {
+		assertEquals(List.of(), serializer.deserialize(serializer.serialize(List.of())));
+		assertEquals(List.of("a", "b"), serializer.deserialize(serializer.serialize(List.of("a", "b"))));
+		assertEquals(Map.of("k", 1), serializer.deserialize(serializer.serialize(Map.of("k", 1))));
+	}
+	
+	@Test
+	public void entryOfAnotherLayoutOrSerializer_ShouldReadAsMiss() {
+		byte[] bytes = serializer.serialize(product());
+		// MAGIC, flags, VALUE, type id, then the codec version
+		bytes[4] = 99;
+		
+		assertNull(serializer.deserialize(bytes));
+		assertNull(serializer.deserialize(new JdkSerializationRedisSerializer().serialize(product())));
+	}
+	
+	@Test
+	public void truncatedEntry_ShouldFailLoudly() {
+		byte[] bytes = serializer.serialize(product());
+		
+		assertThrows(SerializationException.class,
+				() -> serializer.deserialize(Arrays.copyOf(bytes, bytes.length - 5)));
+	}
+	
+	private static ProductResponseDTO product() {
+		return new ProductResponseDTO(7L, "Trail Shoe", "Light trail runner", new BigDecimal("89.99"), 12,
+				null, true, 2L, "Fashion", null, null);
+	}
+}
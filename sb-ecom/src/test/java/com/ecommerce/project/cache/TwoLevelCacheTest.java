@@ -0,0 +1,275 @@
+package com.ecommerce.project.cache;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+// Redis is replaced by an in-memory L2 and a mocked lock; the load lock is free unless a test takes it
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class TwoLevelCacheTest {
+	@Mock
+	private RedisCacheManager redisCacheManager;
+	
+	@Mock
+	private StringRedisTemplate redisTemplate;
+	
+	@Mock
+	private ValueOperations<String, String> valueOps;
+	
+	@Mock
+	private SetOperations<String, String> setOps;
+	
+	@Mock
+	private RedisMessageListenerContainer listenerContainer;
+	
+	private final ConcurrentMapCache l2 = new ConcurrentMapCache("products");
+	private TwoLevelCacheManager manager;
+	
+	@BeforeEach
+	public void setUp() {
+		when(redisCacheManager.getCache("products")).thenReturn(l2);
+		when(redisTemplate.opsForValue()).thenReturn(valueOps);
+		when(redisTemplate.opsForSet()).thenReturn(setOps);
+		when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		manager.destroy();
+	}
+	
+	@Test
+	public void concurrentMisses_ShouldLoadOnce() throws Exception {
+		Cache cache = cache();
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		
+		ExecutorService callers = Executors.newFixedThreadPool(8);
+		List<Future<String>> results = new ArrayList<>();
+		for(int i = 0; i < 8; i++) {
+			results.add(callers.submit(() -> cache.get(1L, () -> {
+				loads.incrementAndGet();
+				release.await();
+				return "product-1";
+			})));
+		}
+		Thread.sleep(100);
+		release.countDown();
+		for(Future<String> result: results) {
+			assertEquals("product-1", result.get(5, TimeUnit.SECONDS));
+		}
+		callers.shutdown();
+		
+		assertEquals(1, loads.get());
+		assertInstanceOf(StampedValue.class, l2.get(1L).get());
+	}
+	
+	@Test
+	public void lockHeldByAnotherNode_ShouldWaitForItsValue() {
+		when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+		when(redisTemplate.hasKey(anyString())).thenReturn(true);
+		Cache cache = cache();
+		new Thread(() -> {
+			sleep(120);
+			l2.put(2L, new StampedValue("from-other-node", System.currentTimeMillis() + 60_000, 5));
+		}).start();
+		
+		assertEquals("from-other-node", cache.get(2L, () -> "loaded-here"));
+	}
+	
+	@Test
+	public void lockReleasedWithoutValue_ShouldStopWaitingAndLoad() {
+		// The other node's load failed: it unlocks after 100ms without writing anything
+		when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+		long released = System.currentTimeMillis() + 100;
+		when(redisTemplate.hasKey("cache-lock:products::6")).thenAnswer(call -> System.currentTimeMillis() < released);
+		Cache cache = cache();
+		
+		long start = System.currentTimeMillis();
+		assertEquals("loaded-here", cache.get(6L, () -> "loaded-here"));
+		long waited = System.currentTimeMillis() - start;
+		
+		assertTrue(waited >= 100, "waited " + waited + "ms");
+		assertTrue(waited < 1_000, "waited " + waited + "ms, lock timeout is 2s");
+	}
+	
+	@Test
+	public void concurrentMisses_ShouldAllFail_WhenTheSharedLoadFails() throws Exception {
+		Cache cache = cache();
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		
+		ExecutorService callers = Executors.newFixedThreadPool(4);
+		List<Future<String>> results = new ArrayList<>();
+		for(int i = 0; i < 4; i++) {
+			results.add(callers.submit(() -> cache.get(7L, () -> {
+				loads.incrementAndGet();
+				release.await();
+				throw new IllegalStateException("not found");
+			})));
+		}
+		Thread.sleep(100);
+		release.countDown();
+		for(Future<String> result: results) {
+			ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+			assertInstanceOf(Cache.ValueRetrievalException.class, ex.getCause());
+		}
+		callers.shutdown();
+		
+		assertEquals(1, loads.get());
+		assertEquals(null, l2.get(7L));
+		verify(redisTemplate).execute(any(), eq(List.of("cache-lock:products::7")), anyString());
+	}
+	
+	@Test
+	public void expiredStamp_ShouldBeAMiss() {
+		Cache cache = cache();
+		l2.put(3L, new StampedValue("stale", System.currentTimeMillis() - 1, 5));
+		
+		assertEquals(null, cache.get(3L));
+		assertEquals("fresh", cache.get(3L, () -> "fresh"));
+	}
+	
+	@Test
+	public void entryNearExpiry_ShouldBeRefreshedInTheBackground() throws Exception {
+		// A value that took ~12 days to compute and expires in 1s is due for a refresh unless the
+		// random draw is above 1 - 1e-6
+		Cache cache = cache();
+		l2.put(4L, new StampedValue("old", System.currentTimeMillis() + 1_000, 1_000_000_000));
+		CountDownLatch refreshed = new CountDownLatch(1);
+		
+		assertEquals("old", cache.get(4L, () -> {
+			refreshed.countDown();
+			return "new";
+		}));
+		assertEquals(true, refreshed.await(5, TimeUnit.SECONDS));
+		for(int i = 0; i < 50 && !"new".equals(cache.get(4L).get()); i++) {
+			sleep(20);
+		}
+		assertEquals("new", cache.get(4L).get());
+	}
+	
+	@Test
+	public void loaderFailure_ShouldSurfaceAsValueRetrievalException() {
+		Cache cache = cache();
+		
+		assertThrows(Cache.ValueRetrievalException.class, () -> cache.get(5L, () -> {
+			throw new IllegalStateException("db down");
+		}));
+		assertEquals(null, l2.get(5L));
+	}
+	
+	@Test
+	public void evictTag_ShouldDropOnlyTheTaggedEntries() {
+		TaggableCache cache = (TaggableCache) cache();
+		ProductPageKey page = new ProductPageKey(3L, 0, 10, "price:asc");
+		cache.get(page, () -> "category 3, page 0");
+		cache.get(9L, () -> "product 9");
+		verify(setOps).add("cache-tag:products::category:3", "category:3|0|10|price:asc");
+		
+		when(setOps.members("cache-tag:products::category:3")).thenReturn(Set.of(page.toString()));
+		cache.evictTag("category:3");
+		
+		assertEquals(null, cache.get(page));
+		assertEquals("product 9", cache.get(9L).get());
+		verify(setOps).remove("cache-tag:products::category:3", page.toString());
+	}
+	
+	@Test
+	public void missLoad_ShouldNotBroadcast_WritesAndEvictionsShould() {
+		Cache cache = cache();
+		cache.get(6L, () -> "loaded");
+		verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+		
+		cache.put(6L, "written");
+		cache.evict(6L);
+		verify(redisTemplate, times(2)).convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), anyString());
+	}
+	
+	@Test
+	public void invalidationFromAnotherNode_ShouldDropTheL1Entry() {
+		Cache cache = cache();
+		cache.get(7L, () -> "v1");
+		l2.put(7L, new StampedValue("v2", System.currentTimeMillis() + 60_000, 5));
+		assertEquals("v1", cache.get(7L).get());
+		
+		manager.onMessage(message("{\"node\":\"other\",\"cache\":\"products\",\"key\":\"7\"}"), null);
+		
+		assertEquals("v2", cache.get(7L).get());
+	}
+	
+	@Test
+	public void malformedInvalidation_ShouldBeIgnored() {
+		Cache cache = cache();
+		cache.get(8L, () -> "kept");
+		
+		assertDoesNotThrow(() -> manager.onMessage(message("not json"), null));
+		assertDoesNotThrow(() -> manager.onMessage(message("{\"node\":\"other\"}"), null));
+		assertEquals("kept", cache.get(8L).get());
+	}
+	
+	private static Message message(String body) {
+		return new DefaultMessage(TwoLevelCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+				body.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private Cache cache() {
+		manager = new TwoLevelCacheManager(redisCacheManager,
+				new TwoLevelCacheManager.Settings(1024 * 1024, Duration.ofMinutes(1), Duration.ofSeconds(2), 1.0),
+				name -> new CachePolicy(Duration.ofMinutes(10), 0.1),
+				value -> 64, redisTemplate, JsonMapper.builder().build(), listenerContainer, new SimpleMeterRegistry());
+		return manager.getCache("products");
+	}
+	
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
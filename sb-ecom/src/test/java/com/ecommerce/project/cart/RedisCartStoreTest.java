@@ -0,0 +1,265 @@
+package com.ecommerce.project.cart;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.project.dto.AddToCartRequestDTO;
+import com.ecommerce.project.dto.CartResponseDTO;
+import com.ecommerce.project.dto.OrderResponseDTO;
+import com.ecommerce.project.dto.PlaceOrderRequestDTO;
+import com.ecommerce.project.dto.UpdateCartItemRequestDTO;
+import com.ecommerce.project.exception.BadRequestException;
+import com.ecommerce.project.model.CartItem;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.repository.CartRepository;
+import com.ecommerce.project.repository.UserRepository;
+import com.ecommerce.project.service.CartService;
+import com.ecommerce.project.service.OrderService;
+
+// Runs the cart scripts against Redis and the flush against H2; a database of its own keeps its
+// orders out of the other tests. The scheduled flush is pushed out so each test flushes explicitly.
+@SpringBootTest(properties = {
+		"cart.store=redis",
+		"cart.redis.flush-interval-ms=3600000",
+		"spring.datasource.url=jdbc:h2:mem:redis-cart",
+		"rate-limit.enabled=false"
+})
+class RedisCartStoreTest {
+	// The store's clock, moved forward by hand to time out a flush
+	@TestConfiguration
+	static class ManualClockConfig {
+		@Bean
+		ManualClock manualClock() {
+			return new ManualClock();
+		}
+	}
+
+	static class ManualClock extends Clock {
+		private final AtomicLong offsetMillis = new AtomicLong();
+
+		void advance(Duration duration) {
+			offsetMillis.addAndGet(duration.toMillis());
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.now().plusMillis(offsetMillis.get());
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	@Autowired
+	private ManualClock clock;
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private RedisCartStore store;
+
+	@Autowired
+	private CartWriteBehindFlusher flusher;
+
+	@Autowired
+	private CartRepository cartRepo;
+
+	@Autowired
+	private UserRepository userRepo;
+
+	@Autowired
+	private StringRedisTemplate redisTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private String userId;
+
+	@BeforeEach
+	void setUp() {
+		User user = userRepo.findByEmail("redis-cart@example.com").orElseGet(() -> {
+			User saved = userRepo.save(User.builder()
+					.email("redis-cart@example.com")
+					.password("unused")
+					.firstName("Redis")
+					.lastName("Cart")
+					.role(User.Role.CUSTOMER)
+					.active(true)
+					.build());
+			saved.setUserId(String.format("R%04d", saved.getId()));
+			return userRepo.save(saved);
+		});
+		userId = user.getUserId();
+		redisTemplate.delete(List.of("cart-checkout:" + userId, "cart-flushing"));
+		cartService.clearCart(userId);
+		flusher.flush();
+	}
+
+	@Test
+	void changes_ShouldReachTheDbOnFlush() {
+		cartService.addToCart(userId, addToCart(5L, 1));
+		CartResponseDTO cart = cartService.addToCart(userId, addToCart(5L, 2));
+		cartService.addToCart(userId, addToCart(6L, 1));
+		assertEquals(3, cart.getItems().get(0).getQuantity());
+
+		flusher.flush();
+		assertEquals(List.of(3, 1), dbQuantities());
+
+		cartService.removeCartItem(userId, 6L);
+		CartResponseDTO updated = cartService.updateCartItem(userId, 5L, updateQuantity(4));
+		assertEquals(cart.getItems().get(0).getPrice(), updated.getItems().get(0).getPrice());
+		assertEquals(cart.getItems().get(0).getProductName(), updated.getItems().get(0).getProductName());
+		flusher.flush();
+		assertEquals(List.of(4), dbQuantities());
+	}
+
+	@Test
+	void missingCart_ShouldBeReadThroughFromTheDb() {
+		cartService.addToCart(userId, addToCart(5L, 2));
+		flusher.flush();
+		redisTemplate.delete("cart:" + userId);
+
+		CartResponseDTO cart = cartService.getCart(userId);
+
+		assertEquals(1, cart.getItemCount());
+		assertEquals(5L, cart.getItems().get(0).getProductId());
+		assertEquals(2, cart.getItems().get(0).getQuantity());
+	}
+
+	@Test
+	void cartId_ShouldBeThatOfTheDbRowFromTheFirstRequest() {
+		redisTemplate.delete("cart:" + userId);
+		cartRepo.findByUserUserId(userId).ifPresent(cartRepo::delete);
+
+		Long cartId = cartService.getCart(userId).getCartId();
+
+		assertEquals(cartRepo.findByUserUserId(userId).orElseThrow().getCartId(), cartId);
+		assertEquals(cartId, cartService.addToCart(userId, addToCart(5L, 1)).getCartId());
+		cartService.clearCart(userId);
+		assertEquals(cartId, cartService.getCart(userId).getCartId());
+		flusher.flush();
+		redisTemplate.delete("cart:" + userId);
+		assertEquals(cartId, cartService.getCart(userId).getCartId());
+	}
+
+	@Test
+	void checkout_ShouldLockTheCartUntilDone() {
+		cartService.addToCart(userId, addToCart(5L, 1));
+		RedisCartStore.Checkout checkout = store.beginCheckout(userId);
+
+		assertThrows(BadRequestException.class, () -> cartService.addToCart(userId, addToCart(6L, 1)));
+		store.abortCheckout(checkout);
+
+		assertEquals(2, cartService.addToCart(userId, addToCart(6L, 1)).getItemCount());
+	}
+
+	@Test
+	void flushAbandonedByItsNode_ShouldBeQueuedAgain() {
+		cartService.addToCart(userId, addToCart(5L, 2));
+		// Another node takes the user and dies before writing
+		assertEquals(List.of(userId), store.takeDirty(100));
+		
+		assertEquals(0, flusher.flush());
+		assertEquals(List.of(), dbQuantities());
+		
+		clock.advance(Duration.ofMinutes(2));
+		assertEquals(1, flusher.flush());
+		assertEquals(List.of(2), dbQuantities());
+	}
+	
+	@Test
+	void userInFlight_ShouldNotBeTakenByAnotherFlush() {
+		cartService.addToCart(userId, addToCart(5L, 1));
+		assertEquals(List.of(userId), store.takeDirty(100));
+		cartService.addToCart(userId, addToCart(5L, 1));
+		
+		assertEquals(List.of(), store.takeDirty(100));
+		
+		store.finishFlush(List.of(userId), false);
+		assertEquals(List.of(userId), store.takeDirty(100));
+		store.finishFlush(List.of(userId), true);
+		assertEquals(1, flusher.flush());
+		assertEquals(List.of(2), dbQuantities());
+	}
+	
+	@Test
+	void completeCheckout_ShouldKeepItemsAddedAfterTheLockExpired() {
+		cartService.addToCart(userId, addToCart(5L, 1));
+		RedisCartStore.Checkout checkout = store.beginCheckout(userId);
+		redisTemplate.delete("cart-checkout:" + userId);
+		cartService.addToCart(userId, addToCart(5L, 2));
+		cartService.addToCart(userId, addToCart(6L, 1));
+		
+		store.completeCheckout(checkout);
+		
+		List<RedisCartStore.CartLine> lines = store.getCart(userId).lines();
+		assertEquals(List.of(5L, 6L), lines.stream().map(RedisCartStore.CartLine::productId).toList());
+		assertEquals(List.of(2, 1), lines.stream().map(RedisCartStore.CartLine::quantity).toList());
+	}
+	
+	@Test
+	void placeOrder_ShouldEmptyTheCartAfterCommit() {
+		cartService.addToCart(userId, addToCart(5L, 1));
+		cartService.addToCart(userId, addToCart(6L, 1));
+		PlaceOrderRequestDTO request = new PlaceOrderRequestDTO();
+		request.setShippingAddress("1 Redis Cart Street");
+
+		OrderResponseDTO order = orderService.placeOrder(userId, request);
+
+		assertEquals(2, order.getItemCount());
+		assertTrue(cartService.getCart(userId).getItems().isEmpty());
+		flusher.flush();
+		assertEquals(List.of(), dbQuantities());
+	}
+
+	private List<Integer> dbQuantities() {
+		return transactionTemplate.execute(status -> cartRepo.findWithItemsByUserUserId(userId)
+				.map(cart -> cart.getCartItems().stream()
+						.sorted((a, b) -> a.getProduct().getProductId().compareTo(b.getProduct().getProductId()))
+						.map(CartItem::getQuantity)
+						.toList())
+				.orElse(List.of()));
+	}
+
+	private static UpdateCartItemRequestDTO updateQuantity(int quantity) {
+		UpdateCartItemRequestDTO request = new UpdateCartItemRequestDTO();
+		request.setQuantity(quantity);
+		return request;
+	}
+
+	private static AddToCartRequestDTO addToCart(Long productId, int quantity) {
+		AddToCartRequestDTO request = new AddToCartRequestDTO();
+		request.setProductId(productId);
+		request.setQuantity(quantity);
+		return request;
+	}
+}
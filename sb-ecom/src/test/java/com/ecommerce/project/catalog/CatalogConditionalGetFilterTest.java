@@ -0,0 +1,133 @@
+package com.ecommerce.project.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class CatalogConditionalGetFilterTest {
+	private static final long VERSION = 1_790_000_000_000L;
+	
+	@Mock
+	private CatalogVersions versions;
+	
+	@Mock
+	private FilterChain chain;
+	
+	private CatalogConditionalGetFilter filter;
+	private MockHttpServletResponse response;
+	
+	@BeforeEach
+	public void setUp() {
+		filter = new CatalogConditionalGetFilter(versions, new SimpleMeterRegistry());
+		response = new MockHttpServletResponse();
+		when(versions.catalog()).thenReturn(VERSION);
+		when(versions.product(7L)).thenReturn(VERSION - 5);
+	}
+	
+	@Test
+	public void matchingEtag_ShouldAnswer304WithoutCallingTheController() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/products/7");
+		request.addHeader("If-None-Match", "\"p7-" + (VERSION - 5) + "\"");
+		
+		filter.doFilter(request, response, chain);
+		
+		assertEquals(304, response.getStatus());
+		verifyNoInteractions(chain);
+	}
+	
+	@Test
+	public void staleEtag_ShouldPassThroughWithCurrentValidators() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/products/page");
+		request.addHeader("If-None-Match", "\"c" + (VERSION - 1) + "\"");
+		
+		filter.doFilter(request, response, chain);
+		
+		assertEquals(200, response.getStatus());
+		assertEquals("\"c" + VERSION + "\"", response.getHeader("ETag"));
+		assertNull(response.getHeader("Last-Modified"));
+		assertEquals("no-cache", response.getHeader("Cache-Control"));
+		verify(chain).doFilter(eq(request), any());
+	}
+	
+	@Test
+	public void ifModifiedSinceAlone_ShouldNotAnswer304() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/products/7");
+		request.addHeader("If-Modified-Since", VERSION + 60_000);
+		
+		filter.doFilter(request, response, chain);
+		
+		assertEquals(200, response.getStatus());
+		verify(chain).doFilter(eq(request), any());
+	}
+	
+	@Test
+	public void errorResponse_ShouldNotCarryAnEtag() throws Exception {
+		when(versions.product(9L)).thenReturn(VERSION);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/products/9");
+		doAnswer(invocation -> {
+			HttpServletResponse notFound = invocation.getArgument(1);
+			notFound.setStatus(404);
+			notFound.getWriter().write("{}");
+			return null;
+		}).when(chain).doFilter(eq(request), any());
+		
+		filter.doFilter(request, response, chain);
+		
+		assertEquals(404, response.getStatus());
+		assertNull(response.getHeader("ETag"));
+	}
+	
+	@Test
+	public void idBeyondALong_ShouldBeLeftToTheController() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/products/99999999999999999999");
+		
+		filter.doFilter(request, response, chain);
+		
+		assertNull(response.getHeader("ETag"));
+		verify(chain).doFilter(request, response);
+	}
+	
+	@Test
+	public void deletedProduct_ShouldNotBeAnsweredFromVersions() throws Exception {
+		when(versions.product(8L)).thenReturn(null);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/products/8");
+		request.addHeader("If-None-Match", "\"p8-" + VERSION + "\"");
+		
+		filter.doFilter(request, response, chain);
+		
+		assertNull(response.getHeader("ETag"));
+		verify(chain).doFilter(request, response);
+	}
+	
+	@Test
+	public void writes_ShouldNotBeFiltered() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/public/categories/2");
+		request.addHeader("If-None-Match", "\"c" + VERSION + "\"");
+		
+		filter.doFilter(request, response, chain);
+		
+		assertNull(response.getHeader("ETag"));
+		verify(chain).doFilter(request, response);
+	}
+}
@@ -0,0 +1,335 @@
+package com.ecommerce.project.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.event.ProductChangeEvent;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Every query is checked against filtering and sorting the same products with streams
+@ExtendWith(MockitoExtension.class)
+public class ColumnarCatalogTest {
+	private static final List<Sort> SORTS = List.of(
+			Sort.unsorted(),
+			Sort.by("productName"),
+			Sort.by(Sort.Direction.DESC, "productName"),
+			Sort.by("price"),
+			Sort.by(Sort.Direction.DESC, "price"),
+			Sort.by("stockQuantity"),
+			Sort.by(Sort.Direction.DESC, "createdAt"));
+
+	private static final List<CatalogFilter> FILTERS = List.of(
+			CatalogFilter.none(),
+			new CatalogFilter(new BigDecimal("10.005"), new BigDecimal("40"), null, null),
+			new CatalogFilter(null, null, true, null),
+			new CatalogFilter(null, null, false, true),
+			new CatalogFilter(new BigDecimal("25"), null, true, true));
+
+	@Mock
+	private ProductRepository productRepo;
+
+	private final Random random = new Random(42);
+	private final Map<Long, ProductResponseDTO> products = new LinkedHashMap<>();
+	private ColumnarCatalog catalog;
+
+	@BeforeEach
+	public void setUp() {
+		// Few distinct prices, stock levels, names and dates, so every sort has ties
+		for(long id = 1; id <= 300; id++) {
+			products.put(id, randomProduct(id));
+		}
+		when(productRepo.findAllWithCategory()).thenReturn(products.values().stream().map(ColumnarCatalogTest::entity).toList());
+		catalog = new ColumnarCatalog(productRepo, "0,25,50", new SimpleMeterRegistry());
+		catalog.rebuild();
+	}
+
+	@Test
+	public void query_ShouldMatchABruteForceSort() {
+		for(Sort sort: SORTS) {
+			for(CatalogFilter filter: FILTERS) {
+				for(Long categoryId: Arrays.asList(null, 2L)) {
+					assertPages(categoryId, filter, sort);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void query_ShouldMatchABruteForceSort_AfterChangeEvents() {
+		for(long id = 301; id <= 340; id++) {
+			ProductResponseDTO product = randomProduct(id);
+			products.put(id, product);
+			catalog.onProductChange(ProductChangeEvent.created(product));
+		}
+		for(long id = 1; id <= 60; id++) {
+			ProductResponseDTO moved = randomProduct(id);
+			Long previousCategory = products.put(id, moved).getCategoryId();
+			catalog.onProductChange(ProductChangeEvent.updated(moved, previousCategory));
+		}
+		for(long id = 61; id <= 100; id++) {
+			int stock = random.nextInt(3);
+			products.get(id).setStockQuantity(stock);
+			catalog.onProductChange(ProductChangeEvent.stockChanged(id, products.get(id).getCategoryId(), stock));
+		}
+		// Deleting from the middle moves the last row into the gap
+		for(long id = 101; id <= 340; id += 7) {
+			catalog.onProductChange(ProductChangeEvent.deleted(id, products.remove(id).getCategoryId()));
+		}
+
+		assertEquals(products.size(), catalog.size());
+		for(Sort sort: SORTS) {
+			assertPages(null, CatalogFilter.none(), sort);
+			assertPages(1L, new CatalogFilter(null, null, true, true), sort);
+		}
+	}
+
+	// Changes whose events never arrived, e.g. relayed while this node was disconnected from Redis
+	@Test
+	public void rebuild_ShouldCatchUpOnMissedChanges() {
+		for(long id = 301; id <= 320; id++) {
+			products.put(id, randomProduct(id));
+		}
+		for(long id = 1; id <= 30; id++) {
+			products.put(id, randomProduct(id));
+		}
+		for(long id = 31; id <= 60; id++) {
+			products.remove(id);
+		}
+		when(productRepo.findAllWithCategory()).thenReturn(products.values().stream().map(ColumnarCatalogTest::entity).toList());
+
+		catalog.rebuild();
+
+		assertEquals(products.size(), catalog.size());
+		for(Sort sort: SORTS) {
+			assertPages(null, CatalogFilter.none(), sort);
+			assertPages(2L, new CatalogFilter(null, null, true, true), sort);
+		}
+		assertFacets();
+	}
+
+	@Test
+	public void facets_ShouldCountActiveProducts_ThroughCreateUpdateDeleteAndStockChanges() {
+		assertFacets();
+
+		ProductResponseDTO created = randomProduct(301);
+		created.setActive(true);
+		products.put(301L, created);
+		catalog.onProductChange(ProductChangeEvent.created(created));
+		assertFacets();
+
+		// Moves to another category and price bucket
+		ProductResponseDTO moved = copy(created);
+		moved.setCategoryId(created.getCategoryId() % 3 + 1);
+		moved.setCategoryName("Category " + moved.getCategoryId());
+		moved.setPrice(created.getPrice().compareTo(new BigDecimal("25")) < 0 ? new BigDecimal("50.00") : new BigDecimal("5.00"));
+		products.put(301L, moved);
+		catalog.onProductChange(ProductChangeEvent.updated(moved, created.getCategoryId()));
+		assertFacets();
+
+		// Sold out, restocked
+		for(int stock: new int[] {0, 7}) {
+			moved.setStockQuantity(stock);
+			catalog.onProductChange(ProductChangeEvent.stockChanged(301L, moved.getCategoryId(), stock));
+			assertFacets();
+		}
+
+		// Deactivated, changed while inactive, then reactivated
+		ProductResponseDTO inactive = copy(moved);
+		inactive.setActive(false);
+		products.put(301L, inactive);
+		catalog.onProductChange(ProductChangeEvent.updated(inactive, moved.getCategoryId()));
+		assertFacets();
+		inactive.setStockQuantity(0);
+		catalog.onProductChange(ProductChangeEvent.stockChanged(301L, inactive.getCategoryId(), 0));
+		assertFacets();
+		ProductResponseDTO reactivated = copy(inactive);
+		reactivated.setActive(true);
+		products.put(301L, reactivated);
+		catalog.onProductChange(ProductChangeEvent.updated(reactivated, inactive.getCategoryId()));
+		assertFacets();
+
+		catalog.onProductChange(ProductChangeEvent.deleted(301L, products.remove(301L).getCategoryId()));
+		catalog.onProductChange(ProductChangeEvent.deleted(1L, products.remove(1L).getCategoryId()));
+		assertFacets();
+	}
+
+	@Test
+	public void facetsOfAProductSet_ShouldSkipInactiveProducts() {
+		List<Long> ids = List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+
+		CatalogFacets facets = catalog.facets(null, ids);
+
+		long active = ids.stream().filter(id -> products.get(id).getActive()).count();
+		assertEquals(active, facets.categories().stream().mapToLong(CatalogFacets.CategoryCount::products).sum());
+		assertEquals(active, Arrays.stream(facets.priceBuckets()).sum());
+	}
+
+	@Test
+	public void offsetPastTheLastMatch_ShouldReturnAnEmptyPageWithTheTotal() {
+		CatalogPage page = catalog.query(null, CatalogFilter.none(), Sort.by("price"), 300, 10);
+
+		assertEquals(List.of(), page.productIds());
+		assertEquals(300, page.totalElements());
+	}
+
+	@Test
+	public void selectTop_ShouldOrderTheFirstNOfRowsWithTies() {
+		int[] keys = random.ints(1000, 0, 20).toArray();
+		ColumnarCatalog.RowOrder order = (a, b) -> keys[a] != keys[b] ? Integer.compare(keys[a], keys[b]) : Integer.compare(a, b);
+		List<Integer> expected = IntStream.range(0, keys.length).boxed().sorted(order::compare).toList();
+
+		// Heap select for shallow pages, quickselect for deep ones and when all rows are wanted
+		for(int n: new int[] {1, 10, 128, 129, 500, 999, 1000, 1200}) {
+			int[] rows = IntStream.range(0, keys.length).toArray();
+			shuffle(rows);
+
+			ColumnarCatalog.selectTop(rows, rows.length, n, order);
+
+			int size = Math.min(n, rows.length);
+			assertEquals(expected.subList(0, size), Arrays.stream(rows, 0, size).boxed().toList(), "n=" + n);
+		}
+	}
+
+	@Test
+	public void selectTop_ShouldHandleSortedAndReversedInput() {
+		ColumnarCatalog.RowOrder order = Integer::compare;
+		int[] ascending = IntStream.range(0, 5000).toArray();
+		int[] descending = IntStream.range(0, 5000).map(i -> 4999 - i).toArray();
+
+		ColumnarCatalog.selectTop(ascending, 5000, 2000, order);
+		ColumnarCatalog.selectTop(descending, 5000, 2000, order);
+
+		assertEquals(IntStream.range(0, 2000).boxed().toList(), Arrays.stream(ascending, 0, 2000).boxed().toList());
+		assertEquals(IntStream.range(0, 2000).boxed().toList(), Arrays.stream(descending, 0, 2000).boxed().toList());
+	}
+
+	// Shallow, deep, partial last and full pages
+	private void assertPages(Long categoryId, CatalogFilter filter, Sort sort) {
+		List<Long> expected = bruteForce(categoryId, filter, sort);
+		for(int[] page: new int[][] {{0, 10}, {0, 129}, {40, 20}, {150, 200}, {expected.size() - 3, 10}, {0, 1000}}) {
+			int offset = Math.max(0, page[0]);
+			CatalogPage result = catalog.query(categoryId, filter, sort, offset, page[1]);
+
+			String context = sort + " " + filter + " category=" + categoryId + " offset=" + offset;
+			assertEquals(expected.size(), result.totalElements(), context);
+			assertEquals(expected.subList(Math.min(offset, expected.size()), Math.min(offset + page[1], expected.size())),
+					result.productIds(), context);
+		}
+	}
+
+	// Categories with their product and in-stock counts, and the price histogram, counted from the products
+	private void assertFacets() {
+		List<ProductResponseDTO> active = products.values().stream().filter(ProductResponseDTO::getActive).toList();
+		List<String> expectedCategories = active.stream()
+				.collect(Collectors.groupingBy(ProductResponseDTO::getCategoryId, TreeMap::new, Collectors.toList()))
+				.entrySet().stream()
+				.map(e -> e.getKey() + ":" + e.getValue().size() + ":"
+						+ e.getValue().stream().filter(p -> p.getStockQuantity() > 0).count())
+				.toList();
+		long[] expectedBuckets = new long[3];
+		for(ProductResponseDTO product: active) {
+			int price = product.getPrice().intValue();
+			expectedBuckets[price >= 50 ? 2 : price >= 25 ? 1 : 0]++;
+		}
+
+		CatalogFacets facets = catalog.facets(null);
+
+		assertEquals(expectedCategories, facets.categories().stream()
+				.map(c -> c.categoryId() + ":" + c.products() + ":" + c.inStock())
+				.toList());
+		assertEquals(Arrays.toString(expectedBuckets), Arrays.toString(facets.priceBuckets()));
+	}
+
+	private List<Long> bruteForce(Long categoryId, CatalogFilter filter, Sort sort) {
+		Sort.Order order = sort.isUnsorted() ? Sort.Order.asc("productId") : sort.toList().get(0);
+		Comparator<ProductResponseDTO> byKey = switch(order.getProperty()) {
+			case "productName" -> Comparator.comparing(ProductResponseDTO::getProductName, String.CASE_INSENSITIVE_ORDER);
+			case "price" -> Comparator.comparing(ProductResponseDTO::getPrice);
+			case "stockQuantity" -> Comparator.comparing(ProductResponseDTO::getStockQuantity);
+			case "createdAt" -> Comparator.comparing(ProductResponseDTO::getCreatedAt);
+			default -> Comparator.comparing(ProductResponseDTO::getProductId);
+		};
+		if(order.isDescending()) {
+			byKey = byKey.reversed();
+		}
+		return products.values().stream()
+				.filter(p -> categoryId == null || p.getCategoryId().equals(categoryId))
+				.filter(p -> filter.minPrice() == null || p.getPrice().compareTo(filter.minPrice()) >= 0)
+				.filter(p -> filter.maxPrice() == null || p.getPrice().compareTo(filter.maxPrice()) <= 0)
+				.filter(p -> filter.inStock() == null || (p.getStockQuantity() > 0) == filter.inStock())
+				.filter(p -> filter.active() == null || p.getActive().equals(filter.active()))
+				.sorted(byKey.thenComparing(ProductResponseDTO::getProductId))
+				.map(ProductResponseDTO::getProductId)
+				.toList();
+	}
+
+	private ProductResponseDTO randomProduct(long id) {
+		long categoryId = 1 + random.nextInt(3);
+		return new ProductResponseDTO(
+				id,
+				(random.nextBoolean() ? "item " : "Item ") + (char) ('a' + random.nextInt(5)),
+				"description",
+				new BigDecimal(5 * random.nextInt(12) + ".00"),
+				random.nextInt(4),
+				null,
+				random.nextInt(5) != 0,
+				categoryId,
+				"Category " + categoryId,
+				LocalDateTime.of(2026, 1, 1, 0, 0).plusNanos(1000L * random.nextInt(50)),
+				null);
+	}
+
+	private static ProductResponseDTO copy(ProductResponseDTO p) {
+		return new ProductResponseDTO(p.getProductId(), p.getProductName(), p.getDescription(), p.getPrice(),
+				p.getStockQuantity(), p.getImageUrl(), p.getActive(), p.getCategoryId(), p.getCategoryName(),
+				p.getCreatedAt(), p.getUpdatedAt());
+	}
+
+	private void shuffle(int[] rows) {
+		for(int i = rows.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int tmp = rows[i];
+			rows[i] = rows[j];
+			rows[j] = tmp;
+		}
+	}
+
+	private static Product entity(ProductResponseDTO dto) {
+		Category category = new Category();
+		category.setCategoryId(dto.getCategoryId());
+		category.setCategoryName(dto.getCategoryName());
+		Product product = new Product();
+		product.setProductId(dto.getProductId());
+		product.setProductName(dto.getProductName());
+		product.setPrice(dto.getPrice());
+		product.setStockQuantity(dto.getStockQuantity());
+		product.setActive(dto.getActive());
+		product.setCategory(category);
+		product.setCreatedAt(dto.getCreatedAt());
+		return product;
+	}
+}
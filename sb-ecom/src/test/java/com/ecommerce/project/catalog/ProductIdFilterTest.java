@@ -0,0 +1,115 @@
+package com.ecommerce.project.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.event.CategoryChangeEvent;
+import com.ecommerce.project.event.ProductChangeEvent;
+import com.ecommerce.project.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductIdFilterTest {
+	@Mock
+	private ProductRepository productRepo;
+
+	private ProductIdFilter filter;
+
+	@BeforeEach
+	public void setUp() {
+		filter = new ProductIdFilter(productRepo, 30, 1000);
+	}
+
+	@Test
+	public void beforeLoad_ShouldLetEveryValidIdThrough() {
+		assertTrue(filter.mayExist(12345L));
+		assertFalse(filter.mayExist(0L));
+		assertFalse(filter.mayExist(-1L));
+	}
+
+	@Test
+	public void gapsBelowTheHighestId_ShouldBeRejected() {
+		when(productRepo.findAllIds()).thenReturn(List.of(1L, 2L, 5L));
+		filter.reload();
+
+		assertTrue(filter.mayExist(2L));
+		assertFalse(filter.mayExist(3L));
+		assertEquals(3, filter.size());
+	}
+
+	@Test
+	public void idsAboveTheHighest_ShouldPassUntilTheDbMissesThem() {
+		when(productRepo.findAllIds()).thenReturn(List.of(1L, 2L));
+		filter.reload();
+
+		assertTrue(filter.mayExist(3L));
+		filter.markMissing(3L);
+		assertFalse(filter.mayExist(3L));
+	}
+
+	@Test
+	public void createdProduct_ShouldClearItsNegativeEntry() {
+		when(productRepo.findAllIds()).thenReturn(List.of(1L));
+		filter.reload();
+		filter.markMissing(2L);
+
+		filter.onProductChange(ProductChangeEvent.created(product(2L)));
+
+		assertTrue(filter.mayExist(2L));
+		assertEquals(2, filter.size());
+	}
+
+	@Test
+	public void idBelowAnEventCreatedId_ShouldPass_WhenItsOwnEventWasLost() {
+		when(productRepo.findAllIds()).thenReturn(List.of(1L, 2L));
+		filter.reload();
+
+		// The event for 3 never arrived on this node
+		filter.onProductChange(ProductChangeEvent.created(product(4L)));
+
+		assertTrue(filter.mayExist(3L));
+		assertTrue(filter.mayExist(4L));
+		filter.markMissing(3L);
+		assertFalse(filter.mayExist(3L));
+	}
+
+	@Test
+	public void deletedProduct_ShouldBeRejected() {
+		when(productRepo.findAllIds()).thenReturn(List.of(1L, 2L));
+		filter.reload();
+
+		filter.onProductChange(ProductChangeEvent.deleted(1L, 9L));
+
+		assertFalse(filter.mayExist(1L));
+		assertTrue(filter.mayExist(2L));
+	}
+
+	@Test
+	public void deletedCategory_ShouldReloadTheIds() {
+		when(productRepo.findAllIds()).thenReturn(List.of(1L, 2L, 3L), List.of(3L));
+		filter.reload();
+
+		filter.onCategoryChange(new CategoryChangeEvent(CategoryChangeEvent.Type.DELETED, 9L, "Gone"));
+
+		assertFalse(filter.mayExist(1L));
+		assertFalse(filter.mayExist(2L));
+		assertTrue(filter.mayExist(3L));
+	}
+
+	private static ProductResponseDTO product(Long productId) {
+		ProductResponseDTO product = new ProductResponseDTO();
+		product.setProductId(productId);
+		product.setStockQuantity(1);
+		return product;
+	}
+}
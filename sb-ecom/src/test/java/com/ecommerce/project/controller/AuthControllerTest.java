@@ -0,0 +1,216 @@
+package com.ecommerce.project.controller;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.ecommerce.project.dto.LoginResponseDTO;
+import com.ecommerce.project.dto.UserRequestDTO;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.repository.UserRepository;
+import com.ecommerce.project.security.RefreshTokenStore;
+import com.ecommerce.project.service.UserService;
+
+import tools.jackson.databind.json.JsonMapper;
+
+// Refresh token rotation against the default (Redis) store, and logins through the password pool
+// (one hashing thread, one queued hash)
+@SpringBootTest(properties = {
+		"rate-limit.enabled=false",
+		"security.password.threads=1",
+		"security.password.queue-capacity=1",
+		"security.password.retry-after-seconds=2"
+})
+@AutoConfigureMockMvc
+class AuthControllerTest {
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private RefreshTokenStore refreshTokenStore;
+
+	@Autowired
+	private UserRepository userRepo;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+	@BeforeEach
+	void setUp() {
+		activeUser("refresh@example.com");
+	}
+
+	@Test
+	void refresh_ShouldRotateTheRefreshToken() throws Exception {
+		String first = refreshTokenStore.issue("refresh@example.com");
+
+		LoginResponseDTO rotated = response(refresh(first).andExpect(status().isOk()));
+
+		assertNotEquals(first, rotated.getRefreshToken());
+		mockMvc.perform(get("/api/cart").header("Authorization", "Bearer " + rotated.getToken()))
+				.andExpect(status().isOk());
+		refresh(rotated.getRefreshToken()).andExpect(status().isOk());
+	}
+
+	@Test
+	void refresh_ShouldFail_WhenTheTokenWasAlreadyRotated() throws Exception {
+		String token = refreshTokenStore.issue("refresh@example.com");
+		refresh(token).andExpect(status().isOk());
+
+		refresh(token)
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("Invalid or expired refresh token"));
+	}
+
+	@Test
+	void refresh_ShouldFail_AfterLogout() throws Exception {
+		String token = refreshTokenStore.issue("refresh@example.com");
+		mockMvc.perform(post("/api/auth/logout").contentType(MediaType.APPLICATION_JSON).content(body(token)))
+				.andExpect(status().isOk());
+
+		refresh(token).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void refresh_ShouldFail_ForADeactivatedUser() throws Exception {
+		User user = activeUser("refresh-deactivated@example.com");
+		String token = refreshTokenStore.issue(user.getEmail());
+
+		userService.deleteUser(user.getUserId());
+
+		refresh(token)
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("Invalid or expired refresh token"));
+	}
+
+	@Test
+	void refresh_ShouldBeRejected_ForAnInactiveUser() throws Exception {
+		// Deactivated outside the service, so the token is still in the store
+		User user = activeUser("refresh-inactive@example.com");
+		String token = refreshTokenStore.issue(user.getEmail());
+		user.setActive(false);
+		userRepo.save(user);
+
+		refresh(token)
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("User account is inactive"));
+	}
+
+	@Test
+	void refresh_ShouldFail_AfterAPasswordChange() throws Exception {
+		User user = activeUser("refresh-password@example.com");
+		String first = refreshTokenStore.issue(user.getEmail());
+		String second = refreshTokenStore.issue(user.getEmail());
+
+		userService.updateUser(user.getUserId(),
+				new UserRequestDTO(user.getEmail(), "newpass", "Refresh", "Token", null, null));
+
+		refresh(first)
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("Invalid or expired refresh token"));
+		refresh(second).andExpect(status().isBadRequest());
+		refresh(refreshTokenStore.issue(user.getEmail())).andExpect(status().isOk());
+	}
+
+	@Test
+	void login_ShouldRehashAPasswordOfAnotherCost() throws Exception {
+		User user = activeUser("rehash@example.com");
+		user.setPassword(new BCryptPasswordEncoder(4).encode("Secret123"));
+		userRepo.save(user);
+
+		login("rehash@example.com", "Secret123").andExpect(status().isOk());
+
+		String stored = userRepo.findByEmail("rehash@example.com").orElseThrow().getPassword();
+		assertTrue(stored.startsWith("$2a$10$"), stored);
+		login("rehash@example.com", "Secret123").andExpect(status().isOk());
+	}
+
+	@Test
+	void login_ShouldGet503WithRetryAfter_WhenThePasswordPoolIsFull() throws Exception {
+		activeUser("busy@example.com");
+		CountDownLatch release = new CountDownLatch(1);
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(passwordEncoder, "executor");
+		try {
+			// The idle worker takes the first task from the queue; the second fills the queue once it has
+			executor.execute(() -> await(release));
+			while(executor.getActiveCount() == 0) {
+				Thread.onSpinWait();
+			}
+			executor.execute(() -> await(release));
+			login("busy@example.com", "Secret123")
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().string("Retry-After", "2"));
+		} finally {
+			release.countDown();
+		}
+	}
+
+	private ResultActions login(String email, String password) throws Exception {
+		return mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private ResultActions refresh(String refreshToken) throws Exception {
+		return mockMvc.perform(post("/api/auth/refresh").contentType(MediaType.APPLICATION_JSON).content(body(refreshToken)));
+	}
+
+	private LoginResponseDTO response(ResultActions result) throws Exception {
+		return jsonMapper.readValue(result.andReturn().getResponse().getContentAsString(), LoginResponseDTO.class);
+	}
+
+	private static String body(String refreshToken) {
+		return "{\"refreshToken\":\"" + refreshToken + "\"}";
+	}
+
+	private User activeUser(String email) {
+		User user = userRepo.findByEmail(email).orElseGet(() -> {
+			User saved = userRepo.save(User.builder()
+					.email(email)
+					.password("unused")
+					.firstName("Refresh")
+					.lastName("Token")
+					.role(User.Role.CUSTOMER)
+					.active(true)
+					.build());
+			saved.setUserId(String.format("F%04d", saved.getId()));
+			return userRepo.save(saved);
+		});
+		if(!user.getActive()) {
+			user.setActive(true);
+			user = userRepo.save(user);
+		}
+		return user;
+	}
+}
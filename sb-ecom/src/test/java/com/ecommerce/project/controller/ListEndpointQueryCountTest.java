@@ -0,0 +1,172 @@
+package com.ecommerce.project.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.ecommerce.project.dto.AddToCartRequestDTO;
+import com.ecommerce.project.dto.PlaceOrderRequestDTO;
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.repository.OrderRepository;
+import com.ecommerce.project.repository.UserRepository;
+import com.ecommerce.project.security.CustomUserDetails;
+import com.ecommerce.project.service.CartService;
+import com.ecommerce.project.service.OrderService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Counts the SQL statements each list endpoint runs against the seeded catalog (50 products in
+// 5 categories) plus orders from several customers. The counts must not grow with the number of
+// rows returned, i.e. no lazy association is loaded per row.
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"rate-limit.enabled=false"
+})
+@AutoConfigureMockMvc
+class ListEndpointQueryCountTest {
+	private static final int CUSTOMERS = 3;
+	private static final int ORDERS_PER_CUSTOMER = 2;
+	// Cached list endpoints would answer without SQL; Redis keeps entries between runs
+	private static final List<String> CACHES = List.of(
+			"allProducts", "productsByCategory", "allCategories", "productPages");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private UserRepository userRepo;
+
+	@Autowired
+	private OrderRepository orderRepo;
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired
+	private OrderService orderService;
+
+	private Statistics statistics;
+	private User admin;
+	private User customer;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		CACHES.forEach(name -> cacheManager.getCache(name).clear());
+
+		admin = userRepo.findAll().stream()
+				.filter(u -> u.getRole() == User.Role.ADMIN)
+				.findFirst()
+				.orElseThrow();
+		if(orderRepo.count() == 0) {
+			placeOrders();
+		}
+		customer = userRepo.findByEmail("query-count-0@example.com").orElseThrow();
+	}
+
+	@Test
+	void productLists() throws Exception {
+		assertQueries(1, get("/api/public/products"));
+		assertQueries(2, get("/api/public/categories/1/products"));
+		assertQueries(1, get("/api/public/products/search").param("keyword", "apple").param("size", "20"));
+		assertQueries(1, get("/api/public/products/page").param("size", "20"));
+		assertQueries(2, get("/api/public/categories/1/products/page"));
+		assertQueries(2, get("/api/public/products/filter").param("size", "20").param("sortBy", "price"));
+		assertQueries(1, get("/api/public/products/scroll").param("size", "20"));
+	}
+
+	// Streamed from one query; the long async timeout applies to this endpoint only
+	@Test
+	void productExport() throws Exception {
+		statistics.clear();
+		MvcResult started = mockMvc.perform(get("/api/public/products/export"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		assertEquals(600_000L, started.getRequest().getAsyncContext().getTimeout());
+
+		String body = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertEquals(50, body.lines().count());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void orderLists() throws Exception {
+		assertQueries(2, get("/api/admin/orders").with(user(new CustomUserDetails(admin))));
+		assertQueries(3, get("/api/admin/orders/page").param("size", "5").with(user(new CustomUserDetails(admin))));
+		assertQueries(2, get("/api/admin/orders/scroll").param("size", "5").with(user(new CustomUserDetails(admin))));
+		assertQueries(3, get("/api/orders").with(user(new CustomUserDetails(customer))));
+	}
+
+	@Test
+	void otherLists() throws Exception {
+		assertQueries(1, get("/api/public/categories"));
+		assertQueries(1, get("/api/admin/users").with(user(new CustomUserDetails(admin))));
+		assertQueries(2, get("/api/cart").with(user(new CustomUserDetails(customer))));
+	}
+
+	private void assertQueries(long expected, MockHttpServletRequestBuilder request) throws Exception {
+		statistics.clear();
+		mockMvc.perform(request).andExpect(status().isOk());
+		assertEquals(expected, statistics.getPrepareStatementCount(), () -> request.buildRequest(null).getRequestURI()
+				+ " ran " + statistics.getPrepareStatementCount() + " statements");
+	}
+
+	// Several customers with multi-item orders, and one item left in the first customer's cart
+	private void placeOrders() {
+		for(int c = 0; c < CUSTOMERS; c++) {
+			User saved = userRepo.save(User.builder()
+					.email("query-count-" + c + "@example.com")
+					.password("unused")
+					.firstName("Query")
+					.lastName("Count" + c)
+					.role(User.Role.CUSTOMER)
+					.active(true)
+					.build());
+			saved.setUserId(String.format("Q%04d", saved.getId()));
+			userRepo.save(saved);
+
+			for(int o = 0; o < ORDERS_PER_CUSTOMER; o++) {
+				cartService.addToCart(saved.getUserId(), addToCart(1L + c + o));
+				cartService.addToCart(saved.getUserId(), addToCart(10L + c + o));
+				PlaceOrderRequestDTO order = new PlaceOrderRequestDTO();
+				order.setShippingAddress("1 Query Count Street");
+				orderService.placeOrder(saved.getUserId(), order);
+			}
+		}
+		User first = userRepo.findByEmail("query-count-0@example.com").orElseThrow();
+		cartService.addToCart(first.getUserId(), addToCart(20L));
+		cartService.addToCart(first.getUserId(), addToCart(21L));
+	}
+
+	private static AddToCartRequestDTO addToCart(Long productId) {
+		AddToCartRequestDTO request = new AddToCartRequestDTO();
+		request.setProductId(productId);
+		request.setQuantity(1);
+		return request;
+	}
+}
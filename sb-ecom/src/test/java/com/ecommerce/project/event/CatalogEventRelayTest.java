@@ -0,0 +1,76 @@
+package com.ecommerce.project.event;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogEventRelayTest {
+	@Mock
+	private StringRedisTemplate redisTemplate;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private RedisMessageListenerContainer listenerContainer;
+
+	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+	private CatalogEventRelay relay;
+
+	@BeforeEach
+	public void setUp() {
+		relay = new CatalogEventRelay(redisTemplate, eventPublisher, jsonMapper, listenerContainer);
+	}
+
+	@Test
+	public void changeFromAnotherNode_ShouldBePublishedAsRemote() {
+		CatalogEventRelay otherNode = new CatalogEventRelay(redisTemplate, eventPublisher, jsonMapper, listenerContainer);
+		otherNode.onProductChange(ProductChangeEvent.deleted(7L, 2L));
+		ArgumentCaptor<String> sent = ArgumentCaptor.forClass(String.class);
+		verify(redisTemplate).convertAndSend(eq(CatalogEventRelay.CHANNEL), sent.capture());
+
+		relay.onMessage(message(sent.getValue()), null);
+		otherNode.onMessage(message(sent.getValue()), null);
+
+		// Once, on this node only
+		ArgumentCaptor<ProductChangeEvent> published = ArgumentCaptor.forClass(ProductChangeEvent.class);
+		verify(eventPublisher).publishEvent(published.capture());
+		assertEquals(7L, published.getValue().productId());
+		assertTrue(published.getValue().remote());
+	}
+
+	@Test
+	public void malformedOrForeignMessage_ShouldBeIgnored() {
+		assertDoesNotThrow(() -> relay.onMessage(message("not json"), null));
+		assertDoesNotThrow(() -> relay.onMessage(message("null"), null));
+		assertDoesNotThrow(() -> relay.onMessage(message("{\"node\":\"other\"}"), null));
+
+		verify(eventPublisher, never()).publishEvent(any(Object.class));
+	}
+
+	private static Message message(String body) {
+		return new DefaultMessage(CatalogEventRelay.CHANNEL.getBytes(StandardCharsets.UTF_8),
+				body.getBytes(StandardCharsets.UTF_8));
+	}
+}
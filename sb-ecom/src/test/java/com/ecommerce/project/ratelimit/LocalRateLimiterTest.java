@@ -0,0 +1,54 @@
+package com.ecommerce.project.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class LocalRateLimiterTest {
+	private final LocalRateLimiter limiter = new LocalRateLimiter(1000);
+
+	@Test
+	public void burst_ShouldAllowCapacityRequestsThenWaitAboutOneInterval() {
+		RateLimitPolicy policy = new RateLimitPolicy(5, 1);
+
+		for(int i = 0; i < 5; i++) {
+			assertEquals(0, limiter.tryAcquire("client", policy), "request " + i);
+		}
+		long wait = limiter.tryAcquire("client", policy);
+
+		assertTrue(wait > TimeUnit.MILLISECONDS.toNanos(900) && wait <= TimeUnit.SECONDS.toNanos(1), "wait " + wait);
+	}
+
+	@Test
+	public void bucket_ShouldRefillAtTheConfiguredRate() throws InterruptedException {
+		// One token every 50ms
+		RateLimitPolicy policy = new RateLimitPolicy(2, 20);
+		limiter.tryAcquire("client", policy);
+		limiter.tryAcquire("client", policy);
+		assertTrue(limiter.tryAcquire("client", policy) > 0);
+
+		Thread.sleep(60);
+
+		assertEquals(0, limiter.tryAcquire("client", policy));
+		assertTrue(limiter.tryAcquire("client", policy) > 0);
+	}
+
+	@Test
+	public void clients_ShouldHaveSeparateBuckets() {
+		RateLimitPolicy policy = new RateLimitPolicy(1, 1);
+
+		assertEquals(0, limiter.tryAcquire("a", policy));
+		assertTrue(limiter.tryAcquire("a", policy) > 0);
+		assertEquals(0, limiter.tryAcquire("b", policy));
+	}
+
+	@Test
+	public void policy_ShouldRejectNonPositiveSettings() {
+		assertThrows(IllegalArgumentException.class, () -> new RateLimitPolicy(0, 1));
+		assertThrows(IllegalArgumentException.class, () -> new RateLimitPolicy(1, 0));
+	}
+}
@@ -0,0 +1,159 @@
+package com.ecommerce.project.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.security.CustomUserDetails;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class RateLimitFilterTest {
+	@Mock
+	private RateLimiter rateLimiter;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private RateLimitFilter filter;
+
+	@BeforeEach
+	public void setUp() {
+		MockEnvironment env = new MockEnvironment()
+				.withProperty("rate-limit.cart.capacity", "7")
+				.withProperty("rate-limit.cart.refill-per-second", "2");
+		filter = new RateLimitFilter(rateLimiter, env, meterRegistry, true);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	public void paths_ShouldMapToTheirGroups() {
+		assertEquals(RateLimitGroup.PUBLIC, RateLimitGroup.resolve("/api/public/products"));
+		assertEquals(RateLimitGroup.AUTH, RateLimitGroup.resolve("/api/auth/login"));
+		assertEquals(RateLimitGroup.CART, RateLimitGroup.resolve("/api/cart"));
+		assertEquals(RateLimitGroup.CART, RateLimitGroup.resolve("/api/cart/items/1"));
+		assertEquals(RateLimitGroup.ORDERS, RateLimitGroup.resolve("/api/orders"));
+		assertEquals(RateLimitGroup.ORDERS, RateLimitGroup.resolve("/api/payments/intent"));
+		assertEquals(RateLimitGroup.ADMIN, RateLimitGroup.resolve("/api/admin/users"));
+		assertEquals(RateLimitGroup.ADMIN, RateLimitGroup.resolve("/actuator/metrics"));
+		assertNull(RateLimitGroup.resolve("/api/webhooks/stripe"));
+	}
+
+	@Test
+	public void groupSettings_ShouldComeFromProperties() throws Exception {
+		ArgumentCaptor<RateLimitPolicy> policy = ArgumentCaptor.forClass(RateLimitPolicy.class);
+		when(rateLimiter.tryAcquire(anyString(), policy.capture())).thenReturn(0L);
+
+		run(request("/api/cart"));
+		run(request("/api/orders"));
+
+		assertEquals(7, policy.getAllValues().get(0).getCapacity());
+		assertEquals(2.0, policy.getAllValues().get(0).getRefillPerSecond());
+		assertEquals(RateLimitGroup.ORDERS.defaultCapacity(), policy.getAllValues().get(1).getCapacity());
+	}
+
+	@Test
+	public void authenticatedRequests_ShouldBeLimitedPerUser_PublicOnesPerIp() throws Exception {
+		SecurityContextHolder.getContext().setAuthentication(authentication(42L));
+		when(rateLimiter.tryAcquire(anyString(), any())).thenReturn(0L);
+
+		run(request("/api/cart"));
+		run(request("/api/public/products"));
+		run(request("/api/auth/refresh"));
+
+		verify(rateLimiter).tryAcquire(eq("cart:u42"), any());
+		verify(rateLimiter).tryAcquire(eq("public:10.0.0.1"), any());
+		verify(rateLimiter).tryAcquire(eq("auth:10.0.0.1"), any());
+	}
+
+	@Test
+	public void anonymousRequests_ShouldBeLimitedPerIp() throws Exception {
+		when(rateLimiter.tryAcquire(anyString(), any())).thenReturn(0L);
+
+		run(request("/api/orders"));
+
+		verify(rateLimiter).tryAcquire(eq("orders:10.0.0.1"), any());
+	}
+
+	@Test
+	public void rejectedRequest_ShouldGetThePrecomputed429() throws Exception {
+		when(rateLimiter.tryAcquire(anyString(), any())).thenReturn(TimeUnit.MILLISECONDS.toNanos(1_200));
+
+		MockFilterChain chain = new MockFilterChain();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request("/api/public/products"), response, chain);
+
+		assertNull(chain.getRequest());
+		assertEquals(429, response.getStatus());
+		// Rounded up to whole seconds
+		assertEquals("2", response.getHeader("Retry-After"));
+		assertEquals("application/json", response.getContentType());
+		byte[] body = "{\"error\":\"Too many requests. Please slow down.\",\"status\":429}".getBytes(StandardCharsets.UTF_8);
+		assertEquals(body.length, response.getContentLength());
+		assertArrayEquals(body, response.getContentAsByteArray());
+		assertEquals(1.0, meterRegistry.get("ratelimit.rejected").tag("group", "public").counter().count());
+	}
+
+	@Test
+	public void unlimitedPaths_AndADisabledFilter_ShouldPassThrough() throws Exception {
+		MockHttpServletRequest webhook = request("/api/webhooks/stripe");
+		assertSame(webhook, run(webhook).getRequest());
+
+		RateLimitFilter disabled = new RateLimitFilter(rateLimiter, new MockEnvironment(), meterRegistry, false);
+		MockFilterChain chain = new MockFilterChain();
+		disabled.doFilter(request("/api/public/products"), new MockHttpServletResponse(), chain);
+
+		assertEquals("/api/public/products", ((MockHttpServletRequest) chain.getRequest()).getRequestURI());
+		verify(rateLimiter, never()).tryAcquire(anyString(), any());
+	}
+
+	private MockFilterChain run(MockHttpServletRequest request) throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request, new MockHttpServletResponse(), chain);
+		return chain;
+	}
+
+	private static MockHttpServletRequest request(String path) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		request.setRemoteAddr("10.0.0.1");
+		return request;
+	}
+
+	private static UsernamePasswordAuthenticationToken authentication(Long id) {
+		CustomUserDetails user = new CustomUserDetails(User.builder()
+				.id(id)
+				.email("limited@example.com")
+				.role(User.Role.CUSTOMER)
+				.active(true)
+				.build());
+		return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+	}
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.project.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+// Runs the GCRA script against the local Redis the other tests use
+public class RedisRateLimiterTest {
+	private LettuceConnectionFactory connectionFactory;
+	private RedisRateLimiter limiter;
+	private String client;
+
+	@BeforeEach
+	public void setUp() {
+		connectionFactory = new LettuceConnectionFactory("localhost", 6379);
+		connectionFactory.afterPropertiesSet();
+		connectionFactory.start();
+		limiter = new RedisRateLimiter(new StringRedisTemplate(connectionFactory), 1000);
+		client = "test:" + UUID.randomUUID();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		connectionFactory.destroy();
+	}
+
+	@Test
+	public void burst_ShouldAllowCapacityRequestsThenWaitAboutOneInterval() {
+		RateLimitPolicy policy = new RateLimitPolicy(3, 1);
+
+		for(int i = 0; i < 3; i++) {
+			assertEquals(0, limiter.tryAcquire(client, policy), "request " + i);
+		}
+		long wait = limiter.tryAcquire(client, policy);
+
+		assertTrue(wait > TimeUnit.MILLISECONDS.toNanos(900) && wait <= TimeUnit.SECONDS.toNanos(1), "wait " + wait);
+	}
+
+	@Test
+	public void bucket_ShouldRefillAtTheConfiguredRate() throws InterruptedException {
+		RateLimitPolicy policy = new RateLimitPolicy(1, 20);
+		assertEquals(0, limiter.tryAcquire(client, policy));
+		assertTrue(limiter.tryAcquire(client, policy) > 0);
+
+		Thread.sleep(60);
+
+		assertEquals(0, limiter.tryAcquire(client, policy));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void unreachableRedis_ShouldFallBackToLocalBuckets() {
+		StringRedisTemplate down = mock(StringRedisTemplate.class);
+		when(down.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+				.thenThrow(new RedisConnectionFailureException("down"));
+		RedisRateLimiter limiter = new RedisRateLimiter(down, 1000);
+		RateLimitPolicy policy = new RateLimitPolicy(2, 1);
+
+		assertEquals(0, limiter.tryAcquire(client, policy));
+		assertEquals(0, limiter.tryAcquire(client, policy));
+		assertTrue(limiter.tryAcquire(client, policy) > 0);
+	}
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.project.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.ecommerce.project.event.ProductChangeEvent;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductAutocompleteTest {
+	@Mock
+	private ProductRepository productRepo;
+
+	private ProductAutocomplete autocomplete;
+
+	@BeforeEach
+	public void setUp() {
+		autocomplete = new ProductAutocomplete(productRepo, 5, new SimpleMeterRegistry());
+		when(productRepo.findAll()).thenReturn(List.of(
+				product(1L, "Phone Case", 5, true),
+				product(2L, "Phone Charger", 10, true),
+				product(3L, "Phone Stand", 1, false)));
+		autocomplete.rebuild();
+	}
+
+	@Test
+	public void rebuild_ShouldSkipInactiveProductsAndRankByStock() {
+		assertEquals(2, autocomplete.size());
+		assertEquals(List.of(2L, 1L), ids("phone"));
+	}
+
+	// Changes whose events never arrived, e.g. relayed while this node was disconnected from Redis
+	@Test
+	public void rebuild_ShouldReplaceTheTrieWithTheDbState() {
+		when(productRepo.findAll()).thenReturn(List.of(
+				product(1L, "Phone Case", 0, true),
+				product(3L, "Phone Stand", 1, true),
+				product(4L, "Phone Grip", 7, true)));
+
+		autocomplete.rebuild();
+
+		assertEquals(List.of(4L, 3L, 1L), ids("phone"));
+		assertEquals(List.of(), ids("charger"));
+
+		// Events keep applying to the rebuilt trie
+		autocomplete.onProductChange(ProductChangeEvent.stockChanged(1L, 1L, 20));
+		assertEquals(List.of(1L, 4L, 3L), ids("phone"));
+	}
+
+	private List<Long> ids(String prefix) {
+		return autocomplete.suggest(prefix, 10).stream().map(SuggestionTrie.Suggestion::productId).toList();
+	}
+
+	private static Product product(Long id, String name, int stock, boolean active) {
+		Product product = new Product();
+		product.setProductId(id);
+		product.setProductName(name);
+		product.setStockQuantity(stock);
+		product.setActive(active);
+		return product;
+	}
+}
@@ -0,0 +1,199 @@
+package com.ecommerce.project.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.event.CategoryChangeEvent;
+import com.ecommerce.project.event.ProductChangeEvent;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSearchIndexTest {
+	@Mock
+	private ProductRepository productRepo;
+
+	private ProductSearchIndex index;
+
+	@BeforeEach
+	public void setUp() {
+		index = new ProductSearchIndex(productRepo, new SimpleMeterRegistry());
+	}
+
+	@Test
+	public void rebuild_ShouldIndexNameDescriptionAndCategory() {
+		when(productRepo.findAllWithCategory()).thenReturn(List.of(
+				product(1L, "MacBook Pro", "Apple laptop", "Laptops"),
+				product(2L, "Desk Lamp", "LED lamp", "Home")));
+
+		index.rebuild();
+
+		assertEquals(2, index.size());
+		assertEquals(List.of(1L), index.search("macbook", 0, 10).productIds());
+		assertEquals(List.of(1L), index.search("apple", 0, 10).productIds());
+		assertEquals(List.of(2L), index.search("home", 0, 10).productIds());
+		assertEquals(List.of(1L), index.search("LAPTOPS", 0, 10).productIds());
+	}
+
+	// Changes whose events never arrived, e.g. relayed while this node was disconnected from Redis
+	@Test
+	public void rebuild_ShouldReplaceTheIndexWithTheDbState() {
+		index.index(1L, "MacBook Pro", "Apple laptop", "Laptops");
+		index.index(2L, "Desk Lamp", "LED lamp", "Home");
+		when(productRepo.findAllWithCategory()).thenReturn(List.of(
+				product(1L, "MacBook Air", "Apple laptop", "Laptops"),
+				product(3L, "Floor Lamp", "LED lamp", "Home")));
+
+		index.rebuild();
+
+		assertEquals(2, index.size());
+		assertEquals(List.of(), index.search("pro", 0, 10).productIds());
+		assertEquals(List.of(1L), index.search("air", 0, 10).productIds());
+		assertEquals(List.of(3L), index.search("lamp", 0, 10).productIds());
+		assertEquals(List.of(3L), index.matchingProductIds("desk floor"));
+
+		// Events keep applying to the rebuilt index
+		index.onProductChange(ProductChangeEvent.deleted(3L, 2L));
+		assertEquals(List.of(), index.search("lamp", 0, 10).productIds());
+	}
+
+	@Test
+	public void search_ShouldRankNameOverCategoryOverDescription() {
+		index.index(1L, "Lamp", "A phone stand", "Home");
+		index.index(2L, "Stand", "Lamp", "Phones");
+		index.index(3L, "Phone", "Lamp", "Accessories");
+
+		assertEquals(List.of(3L, 2L, 1L), index.search("phone", 0, 10).productIds());
+	}
+
+	@Test
+	public void search_ShouldRankShorterDocumentsAndRarerTermsHigher() {
+		index.index(1L, "Cable", "Short", "Misc");
+		index.index(2L, "Cable", "A much longer description of this particular braided cable product", "Misc");
+		index.index(3L, "Charger", "Fast usb", "Misc");
+		index.index(4L, "Charger", "Slow plug", "Misc");
+		index.index(5L, "Charger", "Travel plug", "Misc");
+
+		// Same term frequency: the shorter document first
+		assertEquals(List.of(1L, 2L), index.search("cable", 0, 10).productIds());
+		// "usb" appears once, "charger" three times: a match on both ranks first, the rare term outweighs the common one
+		assertEquals(3L, index.search("charger usb", 0, 10).productIds().get(0));
+		assertEquals(List.of(2L, 3L, 4L, 5L), index.search("braided charger", 0, 10).productIds());
+	}
+
+	@Test
+	public void search_ShouldPageRankedHitsAndCountAllMatches() {
+		for(long id = 1; id <= 25; id++) {
+			index.index(id, "Mouse " + id, null, "Accessories");
+		}
+
+		SearchHits page = index.search("mouse", 20, 10);
+
+		assertEquals(25, page.totalHits());
+		assertEquals(5, page.productIds().size());
+		assertEquals(List.of(), index.search("mouse", 30, 10).productIds());
+		// Equal scores keep doc id order
+		assertEquals(List.of(1L, 2L, 3L), index.search("mouse", 0, 3).productIds());
+	}
+
+	@Test
+	public void search_ShouldReturnNothingForUnknownOrStopWordQueries() {
+		index.index(1L, "Keyboard", null, "Accessories");
+
+		assertEquals(0, index.search("trampoline", 0, 10).totalHits());
+		assertEquals(0, index.search("the", 0, 10).totalHits());
+		assertEquals(List.of(), index.matchingProductIds(""));
+	}
+
+	@Test
+	public void update_ShouldReplaceTheIndexedText() {
+		index.onProductChange(ProductChangeEvent.created(dto(1L, "Red Kettle", "Electric", "Kitchen")));
+
+		index.onProductChange(ProductChangeEvent.updated(dto(1L, "Blue Kettle", "Electric", "Kitchen"), 1L));
+
+		assertEquals(List.of(), index.search("red", 0, 10).productIds());
+		assertEquals(List.of(1L), index.search("blue", 0, 10).productIds());
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	public void delete_ShouldRemoveItsPostingsOnly() {
+		index.index(1L, "Coffee Grinder", null, "Kitchen");
+		index.index(2L, "Coffee Mug", null, "Kitchen");
+		index.index(3L, "Tea Mug", null, "Kitchen");
+
+		index.onProductChange(ProductChangeEvent.deleted(2L, 1L));
+
+		assertEquals(List.of(1L), index.search("coffee", 0, 10).productIds());
+		assertEquals(List.of(3L), index.search("mug", 0, 10).productIds());
+		assertEquals(List.of(1L, 3L), index.matchingProductIds("kitchen").stream().sorted().toList());
+		assertEquals(2, index.size());
+	}
+
+	@Test
+	public void reusedDocId_ShouldNotKeepTheDeletedProductsTerms() {
+		index.index(1L, "Garden Hose", null, "Garden");
+		index.remove(1L);
+
+		index.index(2L, "Desk Chair", null, "Office");
+
+		assertEquals(List.of(), index.search("hose garden", 0, 10).productIds());
+		assertEquals(List.of(2L), index.search("chair", 0, 10).productIds());
+	}
+
+	@Test
+	public void categoryRename_ShouldReindexItsProducts() {
+		index.index(1L, "Tent", null, "Camping");
+		when(productRepo.findByCategoryCategoryId(7L)).thenReturn(List.of(product(1L, "Tent", null, "Camping")));
+
+		index.onCategoryChange(new CategoryChangeEvent(CategoryChangeEvent.Type.UPDATED, 7L, "Outdoor"));
+
+		assertEquals(List.of(), index.search("camping", 0, 10).productIds());
+		assertEquals(List.of(1L), index.search("outdoor", 0, 10).productIds());
+	}
+
+	@Test
+	public void scores_ShouldNotLeakIntoTheNextSearch() {
+		index.index(1L, "Monitor Arm", null, "Office");
+		index.index(2L, "Monitor", null, "Office");
+		List<Long> first = index.search("monitor", 0, 10).productIds();
+
+		for(int i = 0; i < 10; i++) {
+			assertEquals(first, index.search("monitor", 0, 10).productIds());
+		}
+		assertTrue(index.search("arm", 0, 10).productIds().contains(1L));
+	}
+
+	private static ProductResponseDTO dto(Long id, String name, String description, String categoryName) {
+		ProductResponseDTO product = new ProductResponseDTO();
+		product.setProductId(id);
+		product.setProductName(name);
+		product.setDescription(description);
+		product.setCategoryName(categoryName);
+		return product;
+	}
+
+	private static Product product(Long id, String name, String description, String categoryName) {
+		Category category = new Category();
+		category.setCategoryName(categoryName);
+		Product product = new Product();
+		product.setProductId(id);
+		product.setProductName(name);
+		product.setDescription(description);
+		product.setCategory(category);
+		return product;
+	}
+}
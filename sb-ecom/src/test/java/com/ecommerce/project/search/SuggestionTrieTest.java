@@ -0,0 +1,168 @@
+package com.ecommerce.project.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class SuggestionTrieTest {
+	private final SuggestionTrie trie = new SuggestionTrie(3);
+
+	@Test
+	public void lookup_ShouldMatchAnyWordStart() {
+		trie.put(1L, "MacBook Air M2", 5);
+
+		assertEquals(List.of(1L), ids("mac"));
+		assertEquals(List.of(1L), ids("air m"));
+		assertEquals(List.of(1L), ids("  M2 "));
+		assertEquals(List.of(), ids("book"));
+	}
+
+	@Test
+	public void lookup_ShouldReturnNothingForAnEmptyOrUnknownPrefix() {
+		trie.put(1L, "Desk Lamp", 5);
+
+		assertEquals(List.of(), ids(""));
+		assertEquals(List.of(), ids(null));
+		assertEquals(List.of(), ids("?!"));
+		assertEquals(List.of(), ids("desx"));
+		assertEquals(List.of(), ids("desk lamps"));
+	}
+
+	@Test
+	public void insert_ShouldSplitEdgesAtTheCommonPrefix() {
+		trie.put(1L, "macbook", 1);
+		trie.put(2L, "machine", 2);
+		trie.put(3L, "mac", 3);
+
+		// "mac" / "book", "hine"
+		assertEquals(3, trie.nodeCount());
+		assertEquals(List.of(3L, 2L, 1L), ids("ma"));
+		assertEquals(List.of(3L, 2L, 1L), ids("mac"));
+		assertEquals(List.of(2L), ids("mach"));
+		assertEquals(List.of(1L), ids("macb"));
+	}
+
+	@Test
+	public void delete_ShouldMergeNodesLeftWithOneChild() {
+		trie.put(1L, "macbook", 1);
+		trie.put(2L, "machine", 2);
+
+		trie.remove(2L);
+
+		assertEquals(1, trie.nodeCount());
+		assertEquals(List.of(1L), ids("m"));
+		assertEquals(List.of(1L), ids("macb"));
+		assertEquals(List.of(), ids("mach"));
+
+		trie.remove(1L);
+		assertEquals(0, trie.nodeCount());
+		assertEquals(0, trie.size());
+	}
+
+	@Test
+	public void delete_ShouldMergeWhenAShorterKeyGoes() {
+		trie.put(1L, "tea", 1);
+		trie.put(2L, "teapot", 2);
+		trie.put(3L, "teacup", 3);
+
+		trie.remove(2L);
+		trie.remove(1L);
+
+		// Same shape as a trie built with teacup alone
+		assertEquals(1, trie.nodeCount());
+		assertEquals(List.of(3L), ids("tea"));
+		assertEquals(List.of(3L), ids("teac"));
+	}
+
+	@Test
+	public void topK_ShouldFollowWeightChanges() {
+		trie.put(1L, "Phone Case", 5);
+		trie.put(2L, "Phone Charger", 10);
+		trie.put(3L, "Phone Stand", 1);
+		trie.put(4L, "Phone Grip", 0);
+
+		assertEquals(List.of(2L, 1L, 3L), ids("phone"));
+
+		// Sold out, restocked past the others
+		trie.updateWeight(2L, 0);
+		trie.updateWeight(4L, 20);
+
+		assertEquals(List.of(4L, 1L, 3L), ids("phone"));
+		assertEquals(List.of(4L), ids("phone g"));
+		assertEquals(List.of(2L), ids("charger"));
+	}
+
+	@Test
+	public void topK_ShouldRefillFromBelowWhenAnEntryIsRemoved() {
+		trie.put(1L, "Cable A", 4);
+		trie.put(2L, "Cable B", 3);
+		trie.put(3L, "Cable C", 2);
+		trie.put(4L, "Cable D", 1);
+
+		trie.remove(1L);
+
+		assertEquals(List.of(2L, 3L, 4L), ids("cab"));
+	}
+
+	@Test
+	public void equalWeights_ShouldRankByProductId() {
+		trie.put(9L, "Mouse", 1);
+		trie.put(3L, "Mouse Pad", 1);
+		trie.put(5L, "Mouse Bungee", 1);
+
+		assertEquals(List.of(3L, 5L, 9L), ids("mouse"));
+	}
+
+	@Test
+	public void randomChanges_ShouldMatchABruteForceLookup() {
+		Random random = new Random(7);
+		String[] words = {"mac", "macbook", "air", "pro", "max", "mini", "case", "cable", "car", "cart"};
+		Map<Long, String> names = new HashMap<>();
+		Map<Long, Integer> weights = new HashMap<>();
+
+		for(int step = 0; step < 2000; step++) {
+			long id = 1 + random.nextInt(60);
+			switch(random.nextInt(4)) {
+				case 0, 1 -> {
+					String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+					int weight = random.nextInt(5);
+					trie.put(id, name, weight);
+					names.put(id, name);
+					weights.put(id, weight);
+				}
+				case 2 -> {
+					trie.remove(id);
+					names.remove(id);
+					weights.remove(id);
+				}
+				default -> {
+					int weight = random.nextInt(5);
+					trie.updateWeight(id, weight);
+					weights.computeIfPresent(id, (key, old) -> weight);
+				}
+			}
+			String prefix = words[random.nextInt(words.length)].substring(0, 1 + random.nextInt(2));
+			assertEquals(bruteForce(names, weights, prefix), ids(prefix), "step " + step + " prefix " + prefix);
+		}
+		assertEquals(names.size(), trie.size());
+	}
+
+	private List<Long> ids(String prefix) {
+		return trie.lookup(prefix, 10).stream().map(SuggestionTrie.Suggestion::productId).toList();
+	}
+
+	private static List<Long> bruteForce(Map<Long, String> names, Map<Long, Integer> weights, String prefix) {
+		return names.entrySet().stream()
+				.filter(e -> (" " + e.getValue()).contains(" " + prefix))
+				.map(Map.Entry::getKey)
+				.sorted(Comparator.comparing((Long id) -> -weights.get(id)).thenComparing(id -> id))
+				.limit(3)
+				.toList();
+	}
+}
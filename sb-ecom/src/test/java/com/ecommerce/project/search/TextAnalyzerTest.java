@@ -0,0 +1,38 @@
+package com.ecommerce.project.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TextAnalyzerTest {
+	@Test
+	public void analyze_ShouldLowerCaseSplitAndDropStopWords() {
+		assertEquals(List.of("iphone", "15", "pro", "case"), TextAnalyzer.analyze("The iPhone 15-Pro, with a CASE!"));
+	}
+
+	@Test
+	public void analyze_ShouldStemPluralsAndPossessives() {
+		assertEquals(List.of("laptop", "laptop", "laptop", "laptop"), TextAnalyzer.analyze("laptop laptops laptop's laptops'"));
+	}
+
+	@Test
+	public void analyze_ShouldReturnNothingForNullBlankOrOnlyStopWords() {
+		assertEquals(List.of(), TextAnalyzer.analyze(null));
+		assertEquals(List.of(), TextAnalyzer.analyze("  -- '' "));
+		assertEquals(List.of(), TextAnalyzer.analyze("the and of"));
+	}
+
+	@Test
+	public void stem_ShouldMapWordFormsToOneTerm() {
+		assertEquals("battery", TextAnalyzer.stem("batteries"));
+		assertEquals("box", TextAnalyzer.stem("boxes"));
+		assertEquals("glass", TextAnalyzer.stem("glasses"));
+		assertEquals("run", TextAnalyzer.stem("running"));
+		assertEquals(TextAnalyzer.stem("charging"), TextAnalyzer.stem("charged"));
+		assertEquals("wireless", TextAnalyzer.stem("wireless"));
+		assertEquals("bus", TextAnalyzer.stem("bus"));
+		assertEquals("4k", TextAnalyzer.stem("4k"));
+	}
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.project.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ecommerce.project.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BoundedPasswordEncoderTest {
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private BoundedPasswordEncoder encoder;
+
+	@BeforeEach
+	public void setUp() {
+		encoder = new BoundedPasswordEncoder(4, 1, 1, 3, meterRegistry);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		encoder.shutdown();
+	}
+
+	@Test
+	public void encodeAndMatches_ShouldRunOnThePool() {
+		String hash = encoder.encode("secret");
+
+		assertTrue(encoder.matches("secret", hash));
+		assertFalse(encoder.matches("other", hash));
+		assertEquals(3, meterRegistry.get("security.password.hash").timers().stream().mapToLong(t -> t.count()).sum());
+	}
+
+	@Test
+	public void fullQueue_ShouldFailFastWithRetryAfter() throws InterruptedException {
+		// One hash running, one queued
+		CountDownLatch release = new CountDownLatch(1);
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(encoder, "executor");
+		try {
+			executor.execute(() -> await(release));
+			executor.execute(() -> await(release));
+
+			ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class,
+					() -> encoder.matches("secret", "$2a$04$invalid"));
+
+			assertEquals(3, ex.getRetryAfterSeconds());
+			assertEquals(1.0, meterRegistry.get("security.password.rejected").counter().count());
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	public void upgradeEncoding_ShouldFlagHashesOfAnotherCost() {
+		assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("secret")));
+		assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+		assertFalse(encoder.upgradeEncoding("{noop}secret"));
+		assertFalse(encoder.upgradeEncoding(null));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
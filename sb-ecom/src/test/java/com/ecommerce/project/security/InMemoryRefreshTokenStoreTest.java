@@ -0,0 +1,35 @@
+package com.ecommerce.project.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+public class InMemoryRefreshTokenStoreTest {
+	private final InMemoryRefreshTokenStore store = new InMemoryRefreshTokenStore(60_000, 100);
+
+	@Test
+	public void revokeAll_ShouldDropEveryTokenOfTheUserOnly() {
+		String first = store.issue("john@example.com");
+		String second = store.issue("john@example.com");
+		String other = store.issue("jane@example.com");
+
+		store.revokeAll("john@example.com");
+
+		assertTrue(store.consume(first).isEmpty());
+		assertTrue(store.consume(second).isEmpty());
+		assertEquals(Optional.of("jane@example.com"), store.consume(other));
+	}
+
+	@Test
+	public void revokeAll_ShouldNotAffectTokensIssuedAfterwards() {
+		store.issue("john@example.com");
+		store.revokeAll("john@example.com");
+
+		String token = store.issue("john@example.com");
+
+		assertEquals(Optional.of("john@example.com"), store.consume(token));
+	}
+}
@@ -0,0 +1,162 @@
+package com.ecommerce.project.security;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.MockMvcBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.ecommerce.project.model.User;
+import com.ecommerce.project.repository.UserRepository;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+// Requests with real tokens through the security filter chain
+@SpringBootTest(properties = "rate-limit.enabled=false")
+@AutoConfigureMockMvc
+class JwtAuthenticationFilterTest {
+	// MockMvc builds its own dispatcher servlet, which ignores spring.mvc.publish-request-handled-events
+	@TestConfiguration
+	static class NoRequestHandledEvents {
+		@Bean
+		MockMvcBuilderCustomizer noRequestHandledEvents() {
+			return builder -> builder.addDispatcherServletCustomizer(servlet -> servlet.setPublishEvents(false));
+		}
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoSpyBean
+	private JwtTokenProvider jwtTokenProvider;
+
+	@MockitoSpyBean
+	private CustomUserDetailsService customUserServ;
+
+	@Autowired
+	private RevokedUserRegistry revokedUsers;
+
+	@Autowired
+	private UserRepository userRepo;
+
+	@Value("${jwt.secret}")
+	private String jwtSecret;
+
+	// The deferred context is never resolved on permitAll endpoints
+	@Test
+	void publicEndpoint_ShouldSkipVerificationAndUserLookup() throws Exception {
+		User user = user("jwt-filter-public@example.com");
+		clearInvocations(jwtTokenProvider, customUserServ);
+
+		mockMvc.perform(get("/api/public/products").header("Authorization", "Bearer " + emailOnlyToken(user)))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/public/products").header("Authorization", "Bearer not-a-token"))
+				.andExpect(status().isOk());
+
+		verify(jwtTokenProvider, never()).getVerifiedClaims(anyString());
+		verify(customUserServ, never()).loadUserByUsername(anyString());
+	}
+
+	// A token without the principal claims still loads the user where it is needed
+	@Test
+	void protectedEndpoint_ShouldVerifyAndLoadTheUser() throws Exception {
+		User user = user("jwt-filter-protected@example.com");
+		clearInvocations(jwtTokenProvider, customUserServ);
+
+		mockMvc.perform(get("/api/cart").header("Authorization", "Bearer " + emailOnlyToken(user)))
+				.andExpect(status().isOk());
+
+		verify(jwtTokenProvider).getVerifiedClaims(anyString());
+		verify(customUserServ).loadUserByUsername(user.getEmail());
+	}
+
+	@Test
+	void protectedEndpoint_ShouldRejectAMalformedToken() throws Exception {
+		mockMvc.perform(get("/api/cart").header("Authorization", "Bearer not-a-token"))
+				.andExpect(status().isUnauthorized())
+				.andExpect(content().json("{\"error\":\"Invalid token.\"}"));
+	}
+
+	@Test
+	void protectedEndpoint_ShouldRejectAnExpiredToken() throws Exception {
+		User user = user("jwt-filter-expired@example.com");
+		String expired = Jwts.builder()
+				.subject(user.getEmail())
+				.issuedAt(new Date(System.currentTimeMillis() - 120_000))
+				.expiration(new Date(System.currentTimeMillis() - 60_000))
+				.signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret)))
+				.compact();
+
+		mockMvc.perform(get("/api/cart").header("Authorization", "Bearer " + expired))
+				.andExpect(status().isUnauthorized())
+				.andExpect(content().json("{\"error\":\"Token has expired. Please login again.\"}"));
+		verify(customUserServ, never()).loadUserByUsername(user.getEmail());
+	}
+
+	// No token: the default entry point
+	@Test
+	void protectedEndpoint_ShouldGet403WithoutAToken() throws Exception {
+		mockMvc.perform(get("/api/cart"))
+				.andExpect(status().isForbidden());
+	}
+
+	// Deactivated after the token was issued: the token is still signed and unexpired
+	@Test
+	void revokedUser_ShouldBeRejectedWithAValidToken() throws Exception {
+		User user = user("jwt-filter-revoked@example.com");
+		String token = token(user);
+		mockMvc.perform(get("/api/cart").header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk());
+
+		revokedUsers.revoke(user.getId());
+
+		mockMvc.perform(get("/api/cart").header("Authorization", "Bearer " + token))
+				.andExpect(status().isUnauthorized())
+				.andExpect(content().json("{\"error\":\"User account is inactive\"}"));
+	}
+
+	private String token(User user) {
+		CustomUserDetails principal = new CustomUserDetails(user);
+		return jwtTokenProvider.generateToken(
+				new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+	}
+
+	private String emailOnlyToken(User user) {
+		return jwtTokenProvider.generateToken(
+				new UsernamePasswordAuthenticationToken(user.getEmail(), null, List.of()));
+	}
+
+	private User user(String email) {
+		return userRepo.findByEmail(email).orElseGet(() -> {
+			User saved = userRepo.save(User.builder()
+					.email(email)
+					.password("unused")
+					.firstName("Jwt")
+					.lastName("Filter")
+					.role(User.Role.CUSTOMER)
+					.active(true)
+					.build());
+			saved.setUserId(String.format("J%04d", saved.getId()));
+			return userRepo.save(saved);
+		});
+	}
+}
@@ -0,0 +1,109 @@
+package com.ecommerce.project.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.ecommerce.project.model.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// The loader reads a map standing in for the users table
+@ExtendWith(MockitoExtension.class)
+public class PrincipalCacheTest {
+	private static final String EMAIL = "principal@example.com";
+
+	@Mock
+	private StringRedisTemplate redisTemplate;
+
+	@Mock
+	private RedisMessageListenerContainer listenerContainer;
+
+	private final Map<String, Boolean> activeByEmail = new ConcurrentHashMap<>();
+	private final AtomicInteger loads = new AtomicInteger();
+	// Time as seen by the cache
+	private final AtomicLong nanos = new AtomicLong();
+	private PrincipalCache cache;
+
+	@BeforeEach
+	public void setUp() {
+		cache = new PrincipalCache(1, 100, redisTemplate, listenerContainer, new SimpleMeterRegistry(), nanos::get);
+		activeByEmail.put(EMAIL, true);
+	}
+
+	// Deactivated on a node whose eviction message never arrived: the TTL still ends it
+	@Test
+	public void deactivatedUser_ShouldBeLockedOutWithinTheTtl() {
+		assertTrue(load().isActive());
+		activeByEmail.put(EMAIL, false);
+
+		assertTrue(load().isActive());
+		nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_100));
+
+		assertFalse(load().isActive());
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void evict_ShouldDropTheEntryAndTellTheOtherNodes() {
+		load();
+		activeByEmail.put(EMAIL, false);
+
+		cache.evict(EMAIL, null);
+
+		assertFalse(load().isActive());
+		verify(redisTemplate).convertAndSend(PrincipalCache.EVICT_CHANNEL, EMAIL);
+	}
+
+	@Test
+	public void evictionFromAnotherNode_ShouldDropTheEntry() {
+		load();
+		activeByEmail.put(EMAIL, false);
+
+		cache.onMessage(new DefaultMessage(PrincipalCache.EVICT_CHANNEL.getBytes(StandardCharsets.UTF_8),
+				EMAIL.getBytes(StandardCharsets.UTF_8)), null);
+
+		assertFalse(load().isActive());
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void unknownUser_ShouldNotBeCached() {
+		assertThrows(UsernameNotFoundException.class, () -> cache.get("nobody@example.com", this::loadFromMap));
+		activeByEmail.put("nobody@example.com", true);
+
+		assertTrue(cache.get("nobody@example.com", this::loadFromMap).isActive());
+	}
+
+	private CustomUserDetails load() {
+		return cache.get(EMAIL, this::loadFromMap);
+	}
+
+	private CustomUserDetails loadFromMap(String email) {
+		loads.incrementAndGet();
+		Boolean active = activeByEmail.get(email);
+		if(active == null) {
+			throw new UsernameNotFoundException("User not found with email: " + email);
+		}
+		return new CustomUserDetails(User.builder().email(email).role(User.Role.CUSTOMER).active(active).build());
+	}
+}
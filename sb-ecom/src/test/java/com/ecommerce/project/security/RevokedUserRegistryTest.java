@@ -0,0 +1,114 @@
+package com.ecommerce.project.security;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.ecommerce.project.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class RevokedUserRegistryTest {
+	@Mock
+	private UserRepository userRepo;
+
+	@Mock
+	private StringRedisTemplate redisTemplate;
+
+	@Mock
+	private RedisMessageListenerContainer listenerContainer;
+
+	private RevokedUserRegistry registry;
+
+	@BeforeEach
+	public void setUp() {
+		registry = new RevokedUserRegistry(userRepo, redisTemplate, listenerContainer);
+	}
+
+	@Test
+	public void revokeAndRestore_ShouldApplyLocallyAndPublish() {
+		registry.revoke(7L);
+
+		assertTrue(registry.isRevoked(7L));
+		assertFalse(registry.isRevoked(8L));
+		verify(redisTemplate).convertAndSend(RevokedUserRegistry.CHANNEL, "R:7");
+
+		registry.restore(7L);
+
+		assertFalse(registry.isRevoked(7L));
+		verify(redisTemplate).convertAndSend(RevokedUserRegistry.CHANNEL, "U:7");
+	}
+
+	@Test
+	public void revoke_ShouldApplyLocally_WhenRedisIsDown() {
+		doThrow(new RedisConnectionFailureException("down")).when(redisTemplate).convertAndSend(eq(RevokedUserRegistry.CHANNEL), anyString());
+
+		registry.revoke(7L);
+
+		assertTrue(registry.isRevoked(7L));
+	}
+
+	@Test
+	public void reload_ShouldReplaceTheSetWithTheDbsInactiveUsers() {
+		registry.revoke(1L);
+		registry.revoke(2L);
+		when(userRepo.findInactiveUserIds()).thenReturn(List.of(2L, 3L));
+
+		registry.reload();
+
+		// 1 was re-activated while a message was lost, 3 deactivated
+		assertFalse(registry.isRevoked(1L));
+		assertTrue(registry.isRevoked(2L));
+		assertTrue(registry.isRevoked(3L));
+		assertEquals(2, registry.size());
+	}
+
+	@Test
+	public void messagesFromOtherNodes_ShouldBeApplied() {
+		registry.onMessage(message("R:42"), null);
+		assertTrue(registry.isRevoked(42L));
+
+		registry.onMessage(message("U:42"), null);
+		assertFalse(registry.isRevoked(42L));
+	}
+
+	@Test
+	public void malformedMessages_ShouldBeIgnored() {
+		registry.revoke(5L);
+
+		for(String body: List.of("", "R:", "R:abc", "X:5", "U:5x", "U")) {
+			assertDoesNotThrow(() -> registry.onMessage(message(body), null), body);
+		}
+		assertTrue(registry.isRevoked(5L));
+		assertEquals(1, registry.size());
+	}
+
+	@Test
+	public void nullUserId_ShouldNotBeRevoked() {
+		assertFalse(registry.isRevoked(null));
+	}
+
+	private static Message message(String body) {
+		return new DefaultMessage(RevokedUserRegistry.CHANNEL.getBytes(StandardCharsets.UTF_8),
+				body.getBytes(StandardCharsets.UTF_8));
+	}
+}
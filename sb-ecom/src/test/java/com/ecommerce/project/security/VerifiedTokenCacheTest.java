@@ -0,0 +1,111 @@
+package com.ecommerce.project.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ecommerce.project.model.User;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class VerifiedTokenCacheTest {
+	private static final String SECRET = "c3VwZXJzZWNyZXRrZXlzdXBlcnNlY3JldGtleXN1cGVyc2VjcmV0a2V5MTIzNDU2Nzg=";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	// Time as seen by the cache
+	private final AtomicLong nanos = new AtomicLong();
+	private VerifiedTokenCache cache;
+	private JwtTokenProvider tokenProvider;
+
+	@BeforeEach
+	public void setUp() {
+		cache = new VerifiedTokenCache(100, meterRegistry, nanos::get);
+		tokenProvider = new JwtTokenProvider();
+		ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+		ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", 60_000L);
+		ReflectionTestUtils.setField(tokenProvider, "selfContained", true);
+		ReflectionTestUtils.setField(tokenProvider, "verifiedTokenCache", cache);
+		tokenProvider.init();
+	}
+
+	@Test
+	public void entry_ShouldLiveUntilTheTokensExpOnly() {
+		Claims claims = Jwts.claims().subject("a@example.com").expiration(new Date(System.currentTimeMillis() + 1_000)).build();
+		AtomicInteger verifications = new AtomicInteger();
+
+		cache.get("token", token -> {
+			verifications.incrementAndGet();
+			return claims;
+		});
+		cache.get("token", token -> {
+			verifications.incrementAndGet();
+			return claims;
+		});
+		assertEquals(1, verifications.get());
+
+		nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_100));
+		cache.get("token", token -> {
+			verifications.incrementAndGet();
+			return claims;
+		});
+		assertEquals(2, verifications.get());
+	}
+
+	@Test
+	public void tamperedToken_ShouldFailVerificationAndNeverBeCached() {
+		String token = tokenProvider.generateToken(authentication());
+		tokenProvider.getVerifiedClaims(token);
+
+		// Same header and payload with another signature, and a payload edited under the original one
+		int signatureStart = token.lastIndexOf('.') + 1;
+		String otherSignature = token.substring(0, signatureStart) + flip(token.charAt(signatureStart)) + token.substring(signatureStart + 1);
+		int payloadStart = token.indexOf('.') + 1;
+		String otherPayload = token.substring(0, payloadStart) + flip(token.charAt(payloadStart)) + token.substring(payloadStart + 1);
+
+		assertThrows(JwtException.class, () -> tokenProvider.getVerifiedClaims(otherSignature));
+		assertThrows(JwtException.class, () -> tokenProvider.getVerifiedClaims(otherPayload));
+		assertThrows(JwtException.class, () -> tokenProvider.getVerifiedClaims(otherSignature));
+		assertEquals(1, cache.size());
+		assertEquals("tampered@example.com", tokenProvider.getVerifiedClaims(token).getSubject());
+	}
+
+	@Test
+	public void hitsAndMisses_ShouldBeCounted() {
+		String token = tokenProvider.generateToken(authentication());
+
+		tokenProvider.getVerifiedClaims(token);
+		tokenProvider.getVerifiedClaims(token);
+		tokenProvider.getVerifiedClaims(token);
+
+		assertEquals(2.0, meterRegistry.get("cache.gets").tags("cache", "jwtClaims", "result", "hit").functionCounter().count());
+		assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "jwtClaims", "result", "miss").functionCounter().count());
+	}
+
+	private static Authentication authentication() {
+		CustomUserDetails principal = new CustomUserDetails(User.builder()
+				.id(1L)
+				.userId("U0001")
+				.email("tampered@example.com")
+				.role(User.Role.CUSTOMER)
+				.active(true)
+				.build());
+		return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+	}
+
+	private static char flip(char c) {
+		return c == 'A' ? 'B' : 'A';
+	}
+}
@@ -243,7 +243,7 @@ public class CartServiceImplTest {
     	cart.getCartItems().add(cartItem);
     	
     	when(userRepo.findByUserId("U0001")).thenReturn(Optional.of(user));
-    	when(cartRepo.findByUserId(1L)).thenReturn(Optional.of(cart));
+    	when(cartRepo.findWithItemsByUserId(1L)).thenReturn(Optional.of(cart));
     	
     	CartResponseDTO result = cartServ.getCart("U0001");
     	
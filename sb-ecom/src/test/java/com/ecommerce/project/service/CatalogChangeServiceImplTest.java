@@ -0,0 +1,184 @@
+package com.ecommerce.project.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ecommerce.project.dto.CatalogChangesDTO;
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.model.CatalogChange;
+import com.ecommerce.project.model.CatalogChange.ChangeType;
+import com.ecommerce.project.model.CatalogChange.EntityType;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.repository.CatalogChangeRepository;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogChangeServiceImplTest {
+	@Mock
+	private CatalogChangeRepository changeRepo;
+
+	@Mock
+	private ProductService productService;
+
+	@Mock
+	private ProductRepository productRepo;
+
+	@Mock
+	private CategoryRepository catRepo;
+
+	@Mock
+	private StringRedisTemplate redisTemplate;
+
+	@Mock
+	private ValueOperations<String, String> valueOps;
+
+	@InjectMocks
+	private CatalogChangeServiceImpl changeServ;
+
+	@Test
+	public void testGetChanges_CollapsesToLatestChangePerEntity() {
+		when(changeRepo.findByVersionGreaterThanOrderByVersion(5L, Limit.of(11)))
+			.thenReturn(List.of(
+				entry(6, EntityType.PRODUCT, 1L, ChangeType.CREATED),
+				entry(7, EntityType.PRODUCT, 2L, ChangeType.UPDATED),
+				entry(8, EntityType.CATEGORY, 3L, ChangeType.UPDATED),
+				entry(9, EntityType.PRODUCT, 1L, ChangeType.UPDATED),
+				entry(10, EntityType.PRODUCT, 2L, ChangeType.DELETED)));
+		ProductResponseDTO product = new ProductResponseDTO();
+		product.setProductId(1L);
+		when(productService.getProductsByIds(List.of(1L))).thenReturn(List.of(product));
+		when(catRepo.findAllById(List.of(3L))).thenReturn(List.of(new Category(3L, "Books", "Paper", null)));
+
+		CatalogChangesDTO changes = changeServ.getChanges(5, 10);
+
+		assertEquals(5, changes.getSince());
+		assertEquals(10, changes.getVersion());
+		assertFalse(changes.isHasMore());
+		assertEquals(List.of(product), changes.getProducts());
+		assertEquals(List.of(2L), changes.getDeletedProductIds());
+		assertEquals("Books", changes.getCategories().get(0).getCategoryName());
+		assertTrue(changes.getDeletedCategoryIds().isEmpty());
+	}
+
+	@Test
+	public void testGetChanges_StopsAtLimit() {
+		when(changeRepo.findByVersionGreaterThanOrderByVersion(0L, Limit.of(3)))
+			.thenReturn(List.of(
+				entry(1, EntityType.CATEGORY, 1L, ChangeType.DELETED),
+				entry(2, EntityType.CATEGORY, 2L, ChangeType.DELETED),
+				entry(3, EntityType.CATEGORY, 3L, ChangeType.DELETED)));
+
+		CatalogChangesDTO changes = changeServ.getChanges(0, 2);
+
+		assertTrue(changes.isHasMore());
+		assertEquals(2, changes.getVersion());
+		assertEquals(List.of(1L, 2L), changes.getDeletedCategoryIds());
+	}
+
+	@Test
+	public void testGetChanges_NothingNewKeepsVersion() {
+		when(changeRepo.findByVersionGreaterThanOrderByVersion(eq(42L), any()))
+			.thenReturn(List.of());
+
+		CatalogChangesDTO changes = changeServ.getChanges(42, 100);
+
+		assertEquals(42, changes.getVersion());
+		assertTrue(changes.getProducts().isEmpty());
+		verify(productService).getProductsByIds(List.of());
+	}
+
+	@Test
+	public void testGetChanges_StopsAtAGapUntilItSettles() {
+		CatalogChange afterGap = entry(3, EntityType.PRODUCT, 3L, ChangeType.UPDATED);
+		when(changeRepo.findByVersionGreaterThanOrderByVersion(0L, Limit.of(11))).thenReturn(List.of(
+				entry(1, EntityType.PRODUCT, 1L, ChangeType.UPDATED),
+				afterGap));
+		// Version 2 may still commit: nothing from 3 on was written before the gap timeout
+		when(changeRepo.findFirstByChangedAtLessThanOrderByVersionDesc(any())).thenReturn(Optional.empty());
+
+		CatalogChangesDTO changes = changeServ.getChanges(0, 10);
+
+		assertEquals(1, changes.getVersion());
+		assertFalse(changes.isHasMore());
+		verify(productService).getProductsByIds(List.of(1L));
+	}
+
+	@Test
+	public void testGetChanges_SkipsAGapBelowAnOldEntry() {
+		when(changeRepo.findByVersionGreaterThanOrderByVersion(0L, Limit.of(11))).thenReturn(List.of(
+				entry(1, EntityType.PRODUCT, 1L, ChangeType.UPDATED),
+				entry(3, EntityType.PRODUCT, 3L, ChangeType.UPDATED)));
+		when(changeRepo.findFirstByChangedAtLessThanOrderByVersionDesc(any()))
+			.thenReturn(Optional.of(entry(3, EntityType.PRODUCT, 3L, ChangeType.UPDATED)));
+
+		assertEquals(3, changeServ.getChanges(0, 10).getVersion());
+	}
+
+	@Test
+	public void testGetChanges_HoldsBackUnsettledEntries() {
+		ReflectionTestUtils.setField(changeServ, "settleMillis", 2000L);
+		CatalogChange fresh = entry(2, EntityType.PRODUCT, 2L, ChangeType.UPDATED);
+		fresh.setChangedAt(LocalDateTime.now());
+		when(changeRepo.findByVersionGreaterThanOrderByVersion(0L, Limit.of(11))).thenReturn(List.of(
+				entry(1, EntityType.PRODUCT, 1L, ChangeType.UPDATED),
+				fresh));
+
+		CatalogChangesDTO changes = changeServ.getChanges(0, 10);
+
+		assertEquals(1, changes.getVersion());
+		assertFalse(changes.isHasMore());
+	}
+
+	@Test
+	public void testSeed_SkippedWhileAnotherNodeHoldsTheLock() {
+		when(redisTemplate.opsForValue()).thenReturn(valueOps);
+		when(valueOps.setIfAbsent(eq("catalog-changes-lock:seed"), any(), any(Duration.class))).thenReturn(false);
+
+		changeServ.seed();
+
+		verify(changeRepo, never()).count();
+		verify(changeRepo, never()).saveAll(any());
+	}
+
+	@Test
+	public void testCompact_KeepsTheNewestEntryBeforeTheCutoff() {
+		when(redisTemplate.opsForValue()).thenReturn(valueOps);
+		when(valueOps.setIfAbsent(eq("catalog-changes-lock:compact"), any(), any(Duration.class))).thenReturn(true);
+		when(changeRepo.findFirstByChangedAtLessThanOrderByVersionDesc(any()))
+			.thenReturn(Optional.of(entry(40, EntityType.PRODUCT, 1L, ChangeType.UPDATED)));
+		when(changeRepo.findSupersededVersions(any(), eq(40L), any())).thenReturn(List.of(3L, 7L));
+
+		assertEquals(2, changeServ.compact());
+		verify(changeRepo).deleteAllByIdInBatch(List.of(3L, 7L));
+	}
+
+	// Written well before the settle window
+	private static CatalogChange entry(long version, EntityType type, Long entityId, ChangeType changeType) {
+		CatalogChange change = new CatalogChange(type, entityId, changeType);
+		change.setVersion(version);
+		change.setChangedAt(LocalDateTime.now().minusMinutes(5));
+		return change;
+	}
+}
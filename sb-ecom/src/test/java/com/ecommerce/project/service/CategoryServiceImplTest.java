@@ -17,22 +17,39 @@ import java.util.Arrays;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.ecommerce.project.dto.CategoryRequestDTO;
 import com.ecommerce.project.dto.CategoryResponseDTO;
+import com.ecommerce.project.event.CategoryChangeEvent;
 import com.ecommerce.project.exception.BadRequestException;
 import com.ecommerce.project.exception.ResourceNotFoundException;
+import com.ecommerce.project.model.CatalogChange;
+import com.ecommerce.project.model.CatalogChange.ChangeType;
+import com.ecommerce.project.model.CatalogChange.EntityType;
 import com.ecommerce.project.model.Category;
+import com.ecommerce.project.repository.CatalogChangeRepository;
 import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
 
 @ExtendWith(MockitoExtension.class)
 public class CategoryServiceImplTest {
 	@Mock
 	private CategoryRepository catRepo;
 	
+	@Mock
+	private ProductRepository productRepo;
+	
+	@Mock
+	private CatalogChangeRepository changeRepo;
+	
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+	
 	@InjectMocks
 	private CategoryServiceImpl catServ;
 	
@@ -122,6 +139,31 @@ public class CategoryServiceImplTest {
 		verify(catRepo, times(1)).delete(category1);
 	}
 	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testDeleteCategory_LogsItsProductsAsDeleted() {
+		when(catRepo.findById(1L)).thenReturn(Optional.of(category1));
+		when(productRepo.findIdsByCategoryId(1L)).thenReturn(List.of(10L, 11L));
+		
+		catServ.deleteCategory(1L);
+		
+		ArgumentCaptor<List<CatalogChange>> products = ArgumentCaptor.forClass(List.class);
+		verify(changeRepo).saveAll(products.capture());
+		assertEquals(List.of(10L, 11L), products.getValue().stream().map(CatalogChange::getEntityId).toList());
+		assertTrue(products.getValue().stream().allMatch(change ->
+				change.getEntityType() == EntityType.PRODUCT && change.getChangeType() == ChangeType.DELETED));
+		
+		ArgumentCaptor<CatalogChange> category = ArgumentCaptor.forClass(CatalogChange.class);
+		verify(changeRepo).save(category.capture());
+		assertEquals(EntityType.CATEGORY, category.getValue().getEntityType());
+		assertEquals(ChangeType.DELETED, category.getValue().getChangeType());
+		
+		// Cached products are evicted by id after the commit, when the ids can't be read any more
+		ArgumentCaptor<CategoryChangeEvent> event = ArgumentCaptor.forClass(CategoryChangeEvent.class);
+		verify(eventPublisher).publishEvent(event.capture());
+		assertEquals(List.of(10L, 11L), event.getValue().productIds());
+	}
+	
 	@Test
 	public void testDeleteCategory_WhenNotFound() {
 		when(catRepo.findById(99L)).thenReturn(Optional.empty());
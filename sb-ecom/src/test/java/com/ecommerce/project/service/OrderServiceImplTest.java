@@ -5,6 +5,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -16,10 +17,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import com.ecommerce.project.dto.OrderResponseDTO;
 import com.ecommerce.project.dto.PlaceOrderRequestDTO;
+import com.ecommerce.project.dto.SliceResponseDTO;
 import com.ecommerce.project.dto.UpdateOrderStatusRequestDTO;
+import com.ecommerce.project.event.ProductChangeEvent;
 import com.ecommerce.project.exception.BadRequestException;
 import com.ecommerce.project.exception.ResourceNotFoundException;
 import com.ecommerce.project.model.Cart;
@@ -30,7 +36,11 @@ import com.ecommerce.project.model.OrderItem;
 import com.ecommerce.project.model.Product;
 import com.ecommerce.project.model.User;
 import com.ecommerce.project.repository.CartRepository;
+import com.ecommerce.project.repository.CatalogChangeRepository;
+import com.ecommerce.project.repository.OrderItemRepository;
+import com.ecommerce.project.repository.OrderItemSummary;
 import com.ecommerce.project.repository.OrderRepository;
+import com.ecommerce.project.repository.OrderSummary;
 import com.ecommerce.project.repository.ProductRepository;
 import com.ecommerce.project.repository.UserRepository;
 
@@ -40,6 +50,9 @@ public class OrderServiceImplTest {
     @Mock
     private OrderRepository orderRepo;
     
+    @Mock
+    private OrderItemRepository orderItemRepo;
+    
     @Mock
     private CartRepository cartRepo;
     
@@ -49,6 +62,12 @@ public class OrderServiceImplTest {
     @Mock
     private UserRepository userRepo;
     
+    @Mock
+    private CatalogChangeRepository changeRepo;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
     @InjectMocks
     private OrderServiceImpl orderService;
     
@@ -147,6 +166,20 @@ public class OrderServiceImplTest {
         verify(cartRepo, times(1)).save(any(Cart.class));  // Cart cleared
     }
     
+    @Test
+    public void placeOrder_ShouldPublishStockChange() {
+        when(userRepo.findByUserId("U0001")).thenReturn(Optional.of(user));
+        when(cartRepo.findByUserId(1L)).thenReturn(Optional.of(cart));
+        when(orderRepo.save(any(Order.class))).thenReturn(order);
+        
+        int stockBefore = product.getStockQuantity();
+        int quantity = cartItem.getQuantity();
+        orderService.placeOrder("U0001", placeOrderRequest);
+        
+        verify(eventPublisher, times(1)).publishEvent(ProductChangeEvent.stockChanged(
+                product.getProductId(), 1L, stockBefore - quantity));
+    }
+    
     @Test
     public void placeOrder_ShouldFail_WhenUserNotFound() {
         when(userRepo.findByUserId("U9999")).thenReturn(Optional.empty());
@@ -235,27 +268,84 @@ public class OrderServiceImplTest {
     @Test
     public void getOrdersByUser_ShouldReturnOrders() {
         when(userRepo.findByUserId("U0001")).thenReturn(Optional.of(user));
-        when(orderRepo.findByUserId(1L)).thenReturn(Arrays.asList(order));
+        when(orderRepo.findSummaries(any(Specification.class), eq(Sort.by("id")))).thenReturn(Arrays.asList(summaryOf(order)));
+        when(orderItemRepo.findSummariesByOrderIdIn(List.of(1L))).thenReturn(Arrays.asList(
+                new OrderItemSummary(1L, 11L, 1L, "MacBook Pro", 2, new BigDecimal("2499.99"))));
         
         List<OrderResponseDTO> result = orderService.getOrdersByUser("U0001");
         
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("ORD-test-uuid", result.get(0).getOrderId());
+        assertEquals("John Doe", result.get(0).getUserName());
+        assertEquals(1, result.get(0).getItems().size());
+        assertEquals(new BigDecimal("4999.98"), result.get(0).getItems().get(0).getSubtotal());
         
-        verify(orderRepo, times(1)).findByUserId(1L);
+        // Items for all listed orders come from one query
+        verify(orderItemRepo, times(1)).findSummariesByOrderIdIn(List.of(1L));
+        verify(orderRepo, never()).findByUserId(1L);
     }
     
     @Test
     public void getAllOrders_ShouldReturnAllOrders() {
-        when(orderRepo.findAll()).thenReturn(Arrays.asList(order));
+        when(orderRepo.findSummaries(any(Specification.class), eq(Sort.by("id")))).thenReturn(Arrays.asList(summaryOf(order)));
         
         List<OrderResponseDTO> result = orderService.getAllOrders();
         
         assertNotNull(result);
         assertEquals(1, result.size());
         
-        verify(orderRepo, times(1)).findAll();
+        verify(orderRepo, times(1)).findSummaries(any(Specification.class), eq(Sort.by("id")));
+        verify(orderRepo, never()).findAll();
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void scrollOrders_ShouldReturnCursorWithoutCounting() {
+        order.setCreatedAt(LocalDateTime.of(2026, 1, 2, 10, 0));
+        Order older = new Order();
+        older.setId(2L);
+        older.setOrderId("ORD-older");
+        older.setUser(user);
+        older.setTotalAmount(new BigDecimal("10.00"));
+        older.setStatus(Order.OrderStatus.PENDING);
+        older.setCreatedAt(LocalDateTime.of(2026, 1, 1, 10, 0));
+        
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+        when(orderRepo.findSummaries(any(Specification.class), eq(sort), eq(2)))
+                .thenReturn(Arrays.asList(summaryOf(order), summaryOf(older)));
+        
+        SliceResponseDTO<OrderResponseDTO> first = orderService.scrollOrders("createdAt", Sort.Direction.DESC, 1, null, false);
+        
+        assertEquals(1, first.getContent().size());
+        assertEquals("ORD-test-uuid", first.getContent().get(0).getOrderId());
+        assertTrue(first.isHasNext());
+        assertNotNull(first.getNextCursor());
+        assertNull(first.getTotalElements());
+        verify(orderRepo, never()).count();
+        
+        // The cursor is accepted for the same sort
+        when(orderRepo.findSummaries(any(Specification.class), eq(sort), eq(2))).thenReturn(Arrays.asList(summaryOf(older)));
+        SliceResponseDTO<OrderResponseDTO> second = orderService.scrollOrders("createdAt", Sort.Direction.DESC, 1,
+                first.getNextCursor(), false);
+        
+        assertEquals("ORD-older", second.getContent().get(0).getOrderId());
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void scrollOrders_ShouldRejectCursorFromOtherSort() {
+        order.setCreatedAt(LocalDateTime.of(2026, 1, 2, 10, 0));
+        when(orderRepo.findSummaries(any(Specification.class), any(Sort.class), eq(2)))
+                .thenReturn(Arrays.asList(summaryOf(order), summaryOf(order)));
+        String cursor = orderService.scrollOrders("totalAmount", Sort.Direction.ASC, 1, null, false).getNextCursor();
+        
+        assertThrows(BadRequestException.class,
+                () -> orderService.scrollOrders("createdAt", Sort.Direction.ASC, 10, cursor, false));
+        assertThrows(BadRequestException.class,
+                () -> orderService.scrollOrders("status", Sort.Direction.ASC, 10, null, false));
     }
     
     @Test
@@ -379,4 +469,11 @@ public class OrderServiceImplTest {
         
         assertTrue(exception.getMessage().contains("already cancelled"));
     }
-}
\ No newline at end of file
+    
+    private static OrderSummary summaryOf(Order order) {
+        return new OrderSummary(order.getId(), order.getOrderId(), order.getUser().getUserId(),
+                order.getUser().getEmail(), order.getUser().getFirstName(), order.getUser().getLastName(),
+                order.getTotalAmount(), order.getStatus(), order.getShippingAddress(),
+                order.getCreatedAt(), order.getUpdatedAt());
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.project.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.ecommerce.project.catalog.ProductIdFilter;
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.exception.ResourceNotFoundException;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductDetailsServiceImplTest {
+	@Mock
+	private ProductRepository productRepo;
+	
+	@Mock
+	private ProductIdFilter productIdFilter;
+	
+	@InjectMocks
+	private ProductDetailsServiceImpl detailsServ;
+	
+	@Test
+	public void getDetails_ShouldLeaveOutTheStock() {
+		Category category = new Category();
+		category.setCategoryId(1L);
+		category.setCategoryName("Electronics");
+		Product product = new Product();
+		product.setProductId(1001L);
+		product.setProductName("MacBook Pro");
+		product.setPrice(new BigDecimal("2499.99"));
+		product.setStockQuantity(50);
+		product.setActive(true);
+		product.setCategory(category);
+		when(productIdFilter.mayExist(1001L)).thenReturn(true);
+		when(productRepo.findById(1001L)).thenReturn(Optional.of(product));
+		
+		ProductResponseDTO res = detailsServ.getDetails(1001L);
+		
+		assertEquals(1001L, res.getProductId());
+		assertEquals("MacBook Pro", res.getProductName());
+		assertEquals("Electronics", res.getCategoryName());
+		assertNull(res.getStockQuantity());
+	}
+	
+	@Test
+	public void getDetails_ShouldFail_WhenNotFound() {
+		when(productIdFilter.mayExist(99L)).thenReturn(true);
+		when(productRepo.findById(99L)).thenReturn(Optional.empty());
+		
+		assertThrows(ResourceNotFoundException.class, () -> detailsServ.getDetails(99L));
+		
+		verify(productIdFilter).markMissing(99L);
+	}
+	
+	@Test
+	public void getDetails_ShouldFailWithoutQuery_WhenIdCannotExist() {
+		when(productIdFilter.mayExist(98L)).thenReturn(false);
+		
+		assertThrows(ResourceNotFoundException.class, () -> detailsServ.getDetails(98L));
+		
+		verify(productRepo, never()).findById(any());
+	}
+}
@@ -2,9 +2,13 @@ package com.ecommerce.project.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -14,27 +18,56 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.ecommerce.project.catalog.CatalogFacets;
+import com.ecommerce.project.catalog.CatalogFilter;
+import com.ecommerce.project.catalog.CatalogPage;
+import com.ecommerce.project.catalog.ColumnarCatalog;
+import com.ecommerce.project.dto.ProductFacetsDTO;
 import com.ecommerce.project.dto.ProductRequestDTO;
 import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.dto.ProductStockDTO;
+import com.ecommerce.project.dto.ProductSuggestionDTO;
+import com.ecommerce.project.dto.SliceResponseDTO;
+import com.ecommerce.project.event.ProductChangeEvent;
+import com.ecommerce.project.exception.BadRequestException;
 import com.ecommerce.project.exception.ResourceNotFoundException;
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.CatalogChangeRepository;
 import com.ecommerce.project.repository.CategoryRepository;
 import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.repository.ProductSummary;
+import com.ecommerce.project.search.ProductAutocomplete;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.ecommerce.project.search.SearchHits;
+import com.ecommerce.project.search.SuggestionTrie;
+
+import tools.jackson.databind.json.JsonMapper;
 
 @ExtendWith(MockitoExtension.class)
 public class ProductServiceImplTest {
@@ -44,16 +77,44 @@ public class ProductServiceImplTest {
 	@Mock
 	private CategoryRepository catRepo;
 	
+	@Mock
+	private CatalogChangeRepository changeRepo;
+	
+	@Mock
+	private ProductSearchIndex searchIndex;
+	
+	@Mock
+	private ProductAutocomplete productAutocomplete;
+	
+	@Mock
+	private ColumnarCatalog catalog;
+	
+	@Mock
+	private ProductDetailsService detailsService;
+	
+	@Mock
+	private ProductStockService stockService;
+	
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+	
+	@Spy
+	private JsonMapper jsonMapper = JsonMapper.builder().build();
+	
 	@InjectMocks
 	private ProductServiceImpl proServ;
 	
 	private Product pro1;
 	private Product pro2;
+	private ProductSummary sum1;
+	private ProductSummary sum2;
 	private Category category;
 	private ProductRequestDTO proReqDTO;
 	
 	@BeforeEach
 	public void setUp() {
+		ReflectionTestUtils.setField(proServ, "maxKeywordMatches", 1000);
+		
 		// Create test category
 		category = new Category();
 		category.setCategoryId(1L);
@@ -79,6 +140,10 @@ public class ProductServiceImplTest {
 		pro2.setActive(true);
 		pro2.setCategory(category);
 		
+		// List rows (no description) for the same products
+		sum1 = summaryOf(pro1);
+		sum2 = summaryOf(pro2);
+		
 		// Create Request DTO
 		proReqDTO = new ProductRequestDTO();
 		proReqDTO.setProductName("iPad Pro");
@@ -91,7 +156,7 @@ public class ProductServiceImplTest {
 	
 	@Test
 	public void getAllProducts_ShouldReturnList() {
-		when(proRepo.findAll()).thenReturn(Arrays.asList(pro1, pro2));
+		when(proRepo.findSummaries(any(Specification.class), eq(Sort.by("productId")))).thenReturn(Arrays.asList(sum1, sum2));
 		
 		List<ProductResponseDTO> result = proServ.getAllProducts();
 		
@@ -99,34 +164,41 @@ public class ProductServiceImplTest {
 		assertEquals(2, result.size());
 		assertEquals("MacBook Pro", result.get(0).getProductName());
 		assertEquals("iPhone 15", result.get(1).getProductName());
+		assertEquals("Electronics", result.get(0).getCategoryName());
+		assertNull(result.get(0).getDescription());
 		
-		verify(proRepo, times(1)).findAll();
+		verify(proRepo, times(1)).findSummaries(any(Specification.class), eq(Sort.by("productId")));
+		verify(proRepo, never()).findAll();
 	}
 	
 	@Test
-	public void getProductById_ShouldReturnProduct() {
-		when(proRepo.findById(1001L)).thenReturn(Optional.of(pro1));
+	public void getProductById_ShouldOverlayTheCurrentStock() {
+		ProductResponseDTO details = new ProductResponseDTO(1001L, "MacBook Pro", "16-inch laptop",
+				new BigDecimal("2499.99"), null, null, true, 1L, "Electronics", null, null);
+		when(detailsService.getDetails(1001L)).thenReturn(details);
+		when(stockService.getStock(1001L)).thenReturn(new ProductStockDTO(1001L, 7));
 		
 		ProductResponseDTO res = proServ.getProductById(1001L);
 		
-		assertNotNull(res);
 		assertEquals(1001L, res.getProductId());
 		assertEquals("MacBook Pro", res.getProductName());
 		assertEquals(new BigDecimal("2499.99"), res.getPrice());
-		
-		verify(proRepo, times(1)).findById(1001L);
+		assertEquals(7, res.getStockQuantity());
+		// The cached instance is left as it was
+		assertNull(details.getStockQuantity());
+		verify(proRepo, never()).findById(any());
 	}
 	
 	@Test
 	public void getProductById_ShouldFail_WhenNotFound() {
-		when(proRepo.findById(99L)).thenReturn(Optional.empty());
+		when(detailsService.getDetails(99L)).thenThrow(new ResourceNotFoundException("Product with Id 99 not found"));
 		
 		assertThrows(
 				ResourceNotFoundException.class,
 				() -> proServ.getProductById(99L)
 		);
 		
-		verify(proRepo, times(1)).findById(99L);
+		verify(stockService, never()).getStock(any());
 	}
 	
 	@Test
@@ -232,22 +304,79 @@ public class ProductServiceImplTest {
 	
 	@Test
 	public void searchProducts_ShouldReturnMatchingProducts() {
-		when(proRepo.findByProductNameContainingIgnoreCase("mac"))
-			.thenReturn(Arrays.asList(pro1));
+		Pageable pageable = PageRequest.of(0, 10);
+		when(searchIndex.search("mac", 0, 10))
+			.thenReturn(new SearchHits(List.of(1001L), 1));
+		when(proRepo.findSummaries(any(Specification.class), eq(Sort.unsorted()))).thenReturn(Arrays.asList(sum1));
 		
-		List<ProductResponseDTO> result = proServ.searchProducts("mac");
+		Page<ProductResponseDTO> result = proServ.searchProducts("mac", pageable);
 		
 		assertNotNull(result);
-		assertEquals(1, result.size());
-		assertEquals("MacBook Pro", result.get(0).getProductName());
+		assertEquals(1, result.getTotalElements());
+		assertEquals("MacBook Pro", result.getContent().get(0).getProductName());
+		
+		verify(searchIndex, times(1)).search("mac", 0, 10);
+		verify(proRepo, never()).findByProductNameContainingIgnoreCase("mac");
+	}
+	
+	@Test
+	public void searchProducts_ShouldKeepRelevanceOrder() {
+		Pageable pageable = PageRequest.of(0, 10);
+		when(searchIndex.search("apple", 0, 10))
+			.thenReturn(new SearchHits(List.of(1002L, 1001L), 2));
+		when(proRepo.findSummaries(any(Specification.class), eq(Sort.unsorted()))).thenReturn(Arrays.asList(sum1, sum2));
+		
+		Page<ProductResponseDTO> result = proServ.searchProducts("apple", pageable);
+		
+		assertEquals(2, result.getContent().size());
+		assertEquals(1002L, result.getContent().get(0).getProductId());
+		assertEquals(1001L, result.getContent().get(1).getProductId());
+	}
+	
+	@Test
+	public void searchProductsUnpaged_ShouldReturnTheBoundedBestMatchesInOrder() {
+		when(searchIndex.search("apple", 0, 1000))
+			.thenReturn(new SearchHits(List.of(1002L, 1001L), 2));
+		when(proRepo.findSummaries(any(Specification.class), eq(Sort.unsorted()))).thenReturn(Arrays.asList(sum1, sum2));
+		
+		List<ProductResponseDTO> result = proServ.searchProducts("apple");
+		
+		assertEquals(List.of(1002L, 1001L), result.stream().map(ProductResponseDTO::getProductId).toList());
+	}
+	
+	@Test
+	public void autocomplete_ShouldReturnSuggestionsWithoutDbAccess() {
+		when(productAutocomplete.suggest("mac", 5)).thenReturn(List.of(
+			new SuggestionTrie.Suggestion(1001L, "MacBook Pro"),
+			new SuggestionTrie.Suggestion(1002L, "MacBook Air")));
+		
+		List<ProductSuggestionDTO> res = proServ.autocomplete("mac", 5);
+		
+		assertEquals(2, res.size());
+		assertEquals(1001L, res.get(0).getProductId());
+		assertEquals("MacBook Air", res.get(1).getProductName());
+		verify(proRepo, never()).findAll();
+	}
+	
+	@Test
+	public void createProduct_ShouldPublishChangeEvent() {
+		Product savedProduct = new Product();
+		savedProduct.setProductId(1003L);
+		savedProduct.setProductName("iPad Pro");
+		savedProduct.setCategory(category);
+		
+		when(catRepo.findById(1L)).thenReturn(Optional.of(category));
+		when(proRepo.save(any(Product.class))).thenReturn(savedProduct);
+		
+		proServ.createProduct(proReqDTO);
 		
-		verify(proRepo, times(1)).findByProductNameContainingIgnoreCase("mac");
+		verify(eventPublisher, times(1)).publishEvent(any(ProductChangeEvent.class));
 	}
 	
 	@Test
 	public void getProductsByCategory_ShouldReturnProducts() {
 		when(catRepo.findById(1L)).thenReturn(Optional.of(category));
-		when(proRepo.findByCategoryCategoryId(1L)).thenReturn(Arrays.asList(pro1, pro2));
+		when(proRepo.findSummaries(any(Specification.class), eq(Sort.by("productId")))).thenReturn(Arrays.asList(sum1, sum2));
 		
 		List<ProductResponseDTO> res = proServ.getProductsByCategory(1L);
 		
@@ -255,43 +384,240 @@ public class ProductServiceImplTest {
 		assertEquals(2, res.size());
 		
 		verify(catRepo, times(1)).findById(1L);
-		verify(proRepo, times(1)).findByCategoryCategoryId(1L);
+		verify(proRepo, times(1)).findSummaries(any(Specification.class), eq(Sort.by("productId")));
+	}
+	
+	@Test
+	public void getProductFacets_ShouldReadMaintainedCountsForCategory() {
+		when(catalog.facets(1L)).thenReturn(new CatalogFacets(
+			List.of(new CatalogFacets.CategoryCount(1L, "Electronics", 5, 3)), new long[] {0, 2, 3}));
+		when(catalog.priceBucketBounds()).thenReturn(List.of(
+			BigDecimal.ZERO, new BigDecimal("100.00"), new BigDecimal("1000.00")));
+		
+		ProductFacetsDTO facets = proServ.getProductFacets(1L, null);
+		
+		assertEquals(5, facets.getTotalProducts());
+		assertEquals(3, facets.getInStockProducts());
+		assertEquals("Electronics", facets.getCategories().get(0).getCategoryName());
+		assertEquals(3, facets.getPriceBuckets().size());
+		assertEquals(new BigDecimal("100.00"), facets.getPriceBuckets().get(0).getMaxPrice());
+		assertEquals(3, facets.getPriceBuckets().get(2).getProductCount());
+		assertEquals(null, facets.getPriceBuckets().get(2).getMaxPrice());
+		verify(searchIndex, never()).matchingProductIds(any());
+	}
+	
+	@Test
+	public void getProductFacets_ShouldCountSearchMatches() {
+		when(searchIndex.matchingProductIds("apple")).thenReturn(List.of(1001L, 1002L));
+		when(catalog.facets(null, List.of(1001L, 1002L))).thenReturn(new CatalogFacets(
+			List.of(new CatalogFacets.CategoryCount(1L, "Electronics", 2, 2)), new long[] {0, 2}));
+		when(catalog.priceBucketBounds()).thenReturn(List.of(BigDecimal.ZERO, new BigDecimal("500.00")));
+		
+		ProductFacetsDTO facets = proServ.getProductFacets(null, "apple");
+		
+		assertEquals(2, facets.getTotalProducts());
+		assertEquals(2, facets.getPriceBuckets().get(1).getProductCount());
+		verify(catalog, never()).facets(any());
 	}
 	
 	@Test
 	public void getAllProductsWithPagination_ShouldReturnPage() {
 		Pageable pageable = PageRequest.of(0,  10);
-		List<Product> prodList = Arrays.asList(pro1, pro2);
-		Page<Product> productPage = new PageImpl<>(prodList, pageable, 2);
-		
-		when(proRepo.findAll(pageable)).thenReturn(productPage);
+		when(catalog.canSort(pageable.getSort())).thenReturn(true);
+		when(catalog.query(null, CatalogFilter.none(), pageable.getSort(), 0L, 10))
+			.thenReturn(new CatalogPage(List.of(1001L, 1002L), 2));
+		when(proRepo.findSummaries(any(Specification.class), eq(Sort.unsorted()))).thenReturn(Arrays.asList(sum1, sum2));
 		
-		Page<ProductResponseDTO> result = proServ.getAllProducts(pageable);
+		Page<ProductResponseDTO> result = proServ.getAllProducts(CatalogFilter.none(), pageable);
 		
 		assertNotNull(result);
 		assertEquals(2, result.getTotalElements());
 		assertEquals(2, result.getContent().size());
 		assertEquals("MacBook Pro", result.getContent().get(0).getProductName());
 		
-		verify(proRepo, times(1)).findAll(pageable);
+		verify(proRepo, never()).findAll(pageable);
+	}
+	
+	@Test
+	public void getAllProductsWithPagination_ShouldKeepCatalogOrder() {
+		Pageable pageable = PageRequest.of(0, 10, Sort.by("price").ascending());
+		CatalogFilter filter = new CatalogFilter(new BigDecimal("100"), null, true, null);
+		when(catalog.canSort(pageable.getSort())).thenReturn(true);
+		when(catalog.query(null, filter, pageable.getSort(), 0L, 10))
+			.thenReturn(new CatalogPage(List.of(1002L, 1001L), 2));
+		when(proRepo.findSummaries(any(Specification.class), eq(Sort.unsorted()))).thenReturn(Arrays.asList(sum1, sum2));
+		
+		Page<ProductResponseDTO> result = proServ.getAllProducts(filter, pageable);
+		
+		assertEquals(1002L, result.getContent().get(0).getProductId());
+		assertEquals(1001L, result.getContent().get(1).getProductId());
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void getAllProductsWithPagination_ShouldPageInDb_WhenSortHasNoColumn() {
+		Pageable pageable = PageRequest.of(0, 10, Sort.by("updatedAt"));
+		when(catalog.canSort(pageable.getSort())).thenReturn(false);
+		when(proRepo.findSummaries(any(Specification.class), eq(pageable)))
+			.thenReturn(new PageImpl<>(Arrays.asList(sum1, sum2), pageable, 2));
+		
+		Page<ProductResponseDTO> result = proServ.getAllProducts(CatalogFilter.none(), pageable);
+		
+		assertEquals(2, result.getTotalElements());
+		assertEquals(1001L, result.getContent().get(0).getProductId());
+		verify(catalog, never()).query(any(), any(), any(), anyLong(), anyInt());
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void getAllProductsWithPagination_ShouldRejectFilter_WhenSortHasNoColumn() {
+		Pageable pageable = PageRequest.of(0, 10, Sort.by("updatedAt"));
+		when(catalog.canSort(pageable.getSort())).thenReturn(false);
+		
+		assertThrows(BadRequestException.class, () -> proServ.getAllProducts(
+			new CatalogFilter(null, null, true, null), pageable));
+		verify(proRepo, never()).findSummaries(any(Specification.class), any(Pageable.class));
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void filterProducts_ShouldQueryWithSpecificationAndIdTiebreak() {
+		Pageable pageable = PageRequest.of(0, 10, Sort.by("price").descending());
+		Pageable expected = PageRequest.of(0, 10, Sort.by(Sort.Order.desc("price"), Sort.Order.desc("productId")));
+		when(proRepo.findSummaries(any(Specification.class), eq(expected)))
+			.thenReturn(new PageImpl<>(Arrays.asList(sum1, sum2), expected, 2));
+		
+		Page<ProductResponseDTO> result = proServ.filterProducts(1L, null,
+			new CatalogFilter(new BigDecimal("10"), null, true, true), pageable);
+		
+		assertEquals(2, result.getTotalElements());
+		verify(searchIndex, never()).matchingProductIds(any());
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void scrollProducts_ShouldFetchOneExtraRowAndCountOnlyWhenAsked() {
+		Sort sort = Sort.by(Sort.Direction.ASC, "price").and(Sort.by(Sort.Direction.ASC, "productId"));
+		when(proRepo.findSummaries(any(Specification.class), eq(sort), eq(2))).thenReturn(Arrays.asList(sum1, sum2));
+		when(proRepo.count(any(Specification.class))).thenReturn(7L);
+		
+		SliceResponseDTO<ProductResponseDTO> result = proServ.scrollProducts(1L, null, CatalogFilter.none(),
+			"price", Sort.Direction.ASC, 1, null, true);
+		
+		assertEquals(1, result.getContent().size());
+		assertTrue(result.isHasNext());
+		assertNotNull(result.getNextCursor());
+		assertEquals(7L, result.getTotalElements());
+		verify(proRepo, never()).findSummaries(any(Specification.class), any(Pageable.class));
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void exportProducts_ShouldWriteOneLinePerRowAndCloseTheCursor() {
+		AtomicBoolean closed = new AtomicBoolean();
+		when(proRepo.streamSummaries(any(Specification.class), eq(Sort.by("productId")), anyInt()))
+			.thenReturn(Stream.of(sum1, sum2).onClose(() -> closed.set(true)));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		
+		proServ.exportProducts(null, null, CatalogFilter.none(), out);
+		
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+		assertEquals(3, lines.length);
+		assertTrue(lines[0].startsWith("{\"productId\":1001,\"productName\":\"MacBook Pro\""));
+		assertTrue(lines[1].startsWith("{\"productId\":1002,"));
+		assertEquals("", lines[2]);
+		assertTrue(closed.get());
+		verify(proRepo, never()).findSummaries(any(Specification.class), any(Sort.class));
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void exportProducts_ShouldWriteRowsWhileTheCursorIsRead() {
+		// 10,000 rows pulled one by one; the first bytes must reach the client long before the last row is read
+		AtomicInteger pulled = new AtomicInteger();
+		AtomicInteger pulledAtFirstWrite = new AtomicInteger(-1);
+		when(proRepo.streamSummaries(any(Specification.class), eq(Sort.by("productId")), anyInt()))
+			.thenReturn(Stream.generate(() -> sum1).limit(10_000).peek(row -> pulled.incrementAndGet()));
+		OutputStream out = new OutputStream() {
+			@Override
+			public void write(int b) {
+				pulledAtFirstWrite.compareAndSet(-1, pulled.get());
+			}
+			
+			@Override
+			public void write(byte[] b, int off, int len) {
+				pulledAtFirstWrite.compareAndSet(-1, pulled.get());
+			}
+		};
+		
+		proServ.exportProducts(null, null, CatalogFilter.none(), out);
+		
+		assertEquals(10_000, pulled.get());
+		assertTrue(pulledAtFirstWrite.get() > 0 && pulledAtFirstWrite.get() < 1_000,
+			"first write after " + pulledAtFirstWrite.get() + " rows");
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void filterProducts_ShouldRejectUnindexedSort() {
+		Pageable pageable = PageRequest.of(0, 10, Sort.by("productName"));
+		
+		assertThrows(BadRequestException.class,
+			() -> proServ.filterProducts(null, null, CatalogFilter.none(), pageable));
+		verify(proRepo, never()).findSummaries(any(Specification.class), any(Pageable.class));
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void filterProducts_ShouldReturnEmptyWhenKeywordMatchesNothing() {
+		Pageable pageable = PageRequest.of(0, 10, Sort.by("productId"));
+		when(searchIndex.search("nothing", 0, 1000)).thenReturn(new SearchHits(List.of(), 0));
+		
+		Page<ProductResponseDTO> result = proServ.filterProducts(null, "nothing", CatalogFilter.none(), pageable);
+		
+		assertEquals(0, result.getTotalElements());
+		verify(proRepo, never()).findSummaries(any(Specification.class), any(Pageable.class));
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void filterProducts_ShouldBoundKeywordMatchesToTheMostRelevant() {
+		ReflectionTestUtils.setField(proServ, "maxKeywordMatches", 2);
+		Pageable pageable = PageRequest.of(0, 10, Sort.by("productId"));
+		when(searchIndex.search("apple", 0, 2)).thenReturn(new SearchHits(List.of(1002L, 1001L), 5000));
+		when(proRepo.findSummaries(any(Specification.class), any(Pageable.class)))
+			.thenReturn(new PageImpl<>(Arrays.asList(sum1, sum2), pageable, 2));
+		
+		Page<ProductResponseDTO> result = proServ.filterProducts(null, "apple", CatalogFilter.none(), pageable);
+		
+		assertEquals(2, result.getTotalElements());
+		verify(searchIndex, never()).matchingProductIds(any());
 	}
 	
 	@Test
 	public void getProductsByCategoryWithPagination_ShouldReturnPage() {
 		Pageable pageable = PageRequest.of(0, 10);
-		List<Product> prodList = Arrays.asList(pro1, pro2);
-		Page<Product> prodPage = new PageImpl<>(prodList, pageable, 2);
 				
 		when(catRepo.findById(1L)).thenReturn(Optional.of(category));
-		when(proRepo.findByCategoryCategoryId(1L, pageable)).thenReturn(prodPage);
+		when(catalog.canSort(pageable.getSort())).thenReturn(true);
+		when(catalog.query(1L, CatalogFilter.none(), pageable.getSort(), 0L, 10))
+			.thenReturn(new CatalogPage(List.of(1001L, 1002L), 2));
+		when(proRepo.findSummaries(any(Specification.class), eq(Sort.unsorted()))).thenReturn(Arrays.asList(sum1, sum2));
 		
-		Page<ProductResponseDTO> res = proServ.getProductsByCategory(1L, pageable);
+		Page<ProductResponseDTO> res = proServ.getProductsByCategory(1L, CatalogFilter.none(), pageable);
 		
 		assertNotNull(res);
 		assertEquals(2, res.getTotalElements());
 		assertEquals(2, res.getContent().size());
 		
 		verify(catRepo, times(1)).findById(1L);
-		verify(proRepo, times(1)).findByCategoryCategoryId(1L, pageable);
+		verify(proRepo, never()).findByCategoryCategoryId(1L, pageable);
+	}
+	
+	private static ProductSummary summaryOf(Product product) {
+		return new ProductSummary(product.getProductId(), product.getProductName(), product.getPrice(),
+			product.getStockQuantity(), product.getImageUrl(), product.getActive(),
+			product.getCategory().getCategoryId(), product.getCategory().getCategoryName(),
+			product.getCreatedAt(), product.getUpdatedAt());
 	}
 }
@@ -0,0 +1,40 @@
+package com.ecommerce.project.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.ecommerce.project.dto.ProductStockDTO;
+import com.ecommerce.project.exception.ResourceNotFoundException;
+import com.ecommerce.project.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductStockServiceImplTest {
+	@Mock
+	private ProductRepository productRepo;
+	
+	@InjectMocks
+	private ProductStockServiceImpl stockServ;
+	
+	@Test
+	public void getStock_ShouldReadOnlyTheStockColumn() {
+		when(productRepo.findStockQuantityById(7L)).thenReturn(Optional.of(4));
+		
+		assertEquals(new ProductStockDTO(7L, 4), stockServ.getStock(7L));
+	}
+	
+	@Test
+	public void getStock_ShouldFail_WhenProductNotFound() {
+		when(productRepo.findStockQuantityById(99L)).thenReturn(Optional.empty());
+		
+		assertThrows(ResourceNotFoundException.class, () -> stockServ.getStock(99L));
+	}
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.project.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.ecommerce.project.cart.RedisCartStore;
+import com.ecommerce.project.cart.RedisCartStore.CartLine;
+import com.ecommerce.project.cart.RedisCartStore.StoredCart;
+import com.ecommerce.project.dto.AddToCartRequestDTO;
+import com.ecommerce.project.dto.CartResponseDTO;
+import com.ecommerce.project.dto.ProductResponseDTO;
+import com.ecommerce.project.dto.ProductStockDTO;
+import com.ecommerce.project.dto.UpdateCartItemRequestDTO;
+import com.ecommerce.project.exception.BadRequestException;
+
+@ExtendWith(MockitoExtension.class)
+public class RedisCartServiceImplTest {
+	@Mock
+	private RedisCartStore store;
+
+	@Mock
+	private ProductService productService;
+
+	@Mock
+	private ProductStockService stockService;
+
+	@InjectMocks
+	private RedisCartServiceImpl cartServ;
+
+	@Test
+	public void addToCart_ShouldWriteTheLineFromCachedProductAndStock() {
+		when(productService.getProductById(1L)).thenReturn(product(true, 10));
+		when(store.add("U0001", 1L, 2, new BigDecimal("999.99"), "Laptop", 10)).thenReturn(new StoredCart(7L, List.of(
+				new CartLine(1L, 2, new BigDecimal("999.99"), "Laptop"),
+				new CartLine(4L, 1, new BigDecimal("10.00"), "Mouse"))));
+
+		CartResponseDTO cart = cartServ.addToCart("U0001", addRequest(1L, 2));
+
+		assertEquals(7L, cart.getCartId());
+		assertEquals("U0001", cart.getUserId());
+		assertEquals(2, cart.getItemCount());
+		assertEquals(new BigDecimal("2009.98"), cart.getTotalAmount());
+		assertEquals(1L, cart.getItems().get(0).getCartItemId());
+	}
+
+	@Test
+	public void addToCart_ShouldFail_WhenProductInactive() {
+		when(productService.getProductById(1L)).thenReturn(product(false, 10));
+
+		assertThrows(BadRequestException.class, () -> cartServ.addToCart("U0001", addRequest(1L, 1)));
+		verify(store, never()).add(anyString(), anyLong(), anyInt(), any(), anyString(), anyInt());
+	}
+
+	@Test
+	public void addToCart_ShouldFail_WhenStockTooLow() {
+		when(productService.getProductById(1L)).thenReturn(product(true, 1));
+
+		BadRequestException ex = assertThrows(BadRequestException.class,
+				() -> cartServ.addToCart("U0001", addRequest(1L, 2)));
+		assertEquals("Insufficient stock. Only 1 units available", ex.getMessage());
+	}
+
+	@Test
+	public void updateCartItem_ShouldCheckStockBeforeWriting() {
+		when(stockService.getStock(1L)).thenReturn(new ProductStockDTO(1L, 3));
+		UpdateCartItemRequestDTO request = new UpdateCartItemRequestDTO();
+		request.setQuantity(5);
+
+		assertThrows(BadRequestException.class, () -> cartServ.updateCartItem("U0001", 1L, request));
+		verify(store, never()).setQuantity(anyString(), anyLong(), anyInt());
+	}
+
+	@Test
+	public void clearCart_ShouldClearTheHash() {
+		assertEquals("Cart cleared successfully", cartServ.clearCart("U0001"));
+		verify(store).clear("U0001");
+	}
+
+	private static ProductResponseDTO product(boolean active, int stockQuantity) {
+		ProductResponseDTO product = new ProductResponseDTO();
+		product.setProductId(1L);
+		product.setProductName("Laptop");
+		product.setPrice(new BigDecimal("999.99"));
+		product.setActive(active);
+		product.setStockQuantity(stockQuantity);
+		return product;
+	}
+
+	private static AddToCartRequestDTO addRequest(Long productId, int quantity) {
+		AddToCartRequestDTO request = new AddToCartRequestDTO();
+		request.setProductId(productId);
+		request.setQuantity(quantity);
+		return request;
+	}
+}
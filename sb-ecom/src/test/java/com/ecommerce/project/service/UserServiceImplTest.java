@@ -29,6 +29,9 @@ import com.ecommerce.project.exception.BadRequestException;
 import com.ecommerce.project.exception.ResourceNotFoundException;
 import com.ecommerce.project.model.User;
 import com.ecommerce.project.repository.UserRepository;
+import com.ecommerce.project.security.PrincipalCache;
+import com.ecommerce.project.security.RefreshTokenStore;
+import com.ecommerce.project.security.RevokedUserRegistry;
 
 @ExtendWith(MockitoExtension.class)
 public class UserServiceImplTest {
@@ -38,6 +41,15 @@ public class UserServiceImplTest {
 	@Mock
 	private PasswordEncoder passwordEncoder;
 	
+	@Mock
+	private PrincipalCache principalCache;
+	
+	@Mock
+	private RevokedUserRegistry revokedUsers;
+	
+	@Mock
+	private RefreshTokenStore refreshTokenStore;
+	
 	@InjectMocks
 	private UserServiceImpl userServ;
 	
@@ -188,6 +200,8 @@ public class UserServiceImplTest {
         verify(userRepo, times(1)).existsByEmail("john.updated@example.com");
         verify(passwordEncoder, times(1)).encode("newpass");
         verify(userRepo, times(1)).save(any(User.class));
+        verify(principalCache, times(1)).evict("john@example.com", "john.updated@example.com");
+        verify(refreshTokenStore, times(1)).revokeAll("john@example.com");
 	}
 	
 	@Test
@@ -206,6 +220,8 @@ public class UserServiceImplTest {
         
             verify(userRepo, times(1)).existsByEmail("peter@example.com");
             verify(userRepo, never()).save(any(User.class));
+            verify(principalCache, never()).evict(any());
+            verify(refreshTokenStore, never()).revokeAll(any());
 	}
 	
 	@Test
@@ -220,6 +236,9 @@ public class UserServiceImplTest {
 		
 		verify(userRepo, times(1)).findByUserId("U0001");
 		verify(userRepo, times(1)).save(any(User.class));
+		verify(principalCache, times(1)).evict("john@example.com");
+		verify(revokedUsers, times(1)).revoke(1L);
+		verify(refreshTokenStore, times(1)).revokeAll("john@example.com");
 	}
 	
 	@Test
@@ -236,5 +255,9 @@ public class UserServiceImplTest {
 		
 		verify(userRepo, times(1)).findByUserId("U0001");
 		verify(userRepo, times(1)).save(any(User.class));
+		verify(principalCache, times(1)).evict("john@example.com");
+		verify(revokedUsers, times(1)).revoke(1L);
+		verify(revokedUsers, never()).restore(any());
+		verify(refreshTokenStore, times(1)).revokeAll("john@example.com");
 	}
 }